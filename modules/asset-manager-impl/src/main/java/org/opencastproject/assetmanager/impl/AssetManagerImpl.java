@@ -117,6 +117,7 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -145,6 +146,10 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -167,6 +172,17 @@ public class AssetManagerImpl extends AbstractIndexProducer implements AssetMana
 
   private static final int PAGE_SIZE = 1000;
 
+  /** Configuration key for the number of threads computing index documents during an index rebuild */
+  private static final String INDEX_REBUILD_THREADS_KEY = "index.rebuild.threads";
+
+  /** Configuration key for the maximum size of a bulk request in bytes during an index rebuild */
+  private static final String INDEX_REBUILD_BULK_SIZE_KEY = "index.rebuild.bulk.size";
+
+  private static final long DEFAULT_INDEX_REBUILD_BULK_SIZE = 10 * 1024 * 1024;
+
+  /** The checkpoint file of the index rebuild, relative to the storage directory */
+  private static final String INDEX_REBUILD_CHECKPOINT = "assetmanager/index-rebuild.checkpoint";
+
   enum AdminRole {
     GLOBAL, ORGANIZATION, NONE
   }
@@ -196,6 +212,12 @@ public class AssetManagerImpl extends AbstractIndexProducer implements AssetMana
   private ElasticsearchIndex index;
   private Map<String, List<EventCatalogUIAdapter>> extendedEventCatalogUIAdapters = new HashMap<>();
 
+  // Settings for the index rebuild
+  private int indexRebuildThreads = Runtime.getRuntime().availableProcessors();
+  private long indexRebuildBulkSize = DEFAULT_INDEX_REBUILD_BULK_SIZE;
+  private int indexRebuildPageSize = PAGE_SIZE;
+  private IndexRebuildCheckpoint indexRebuildCheckpoint = new IndexRebuildCheckpoint(null);
+
   // Settings for role filter
   private boolean includeAPIRoles;
   private boolean includeCARoles;
@@ -226,6 +248,17 @@ public class AssetManagerImpl extends AbstractIndexProducer implements AssetMana
     episodeIdRole = BooleanUtils.toBoolean(Objects.toString(
         cc.getBundleContext().getProperty(CONFIG_EPISODE_ID_ROLE), "false"));
     logger.debug("Usage of episode ID roles is set to {}", episodeIdRole);
+
+    indexRebuildThreads = NumberUtils.toInt(Objects.toString(cc.getProperties().get(INDEX_REBUILD_THREADS_KEY), null),
+        Runtime.getRuntime().availableProcessors());
+    indexRebuildThreads = Math.max(1, indexRebuildThreads);
+    indexRebuildBulkSize = NumberUtils.toLong(Objects.toString(cc.getProperties().get(INDEX_REBUILD_BULK_SIZE_KEY),
+        null), DEFAULT_INDEX_REBUILD_BULK_SIZE);
+    final String storageDir = cc.getBundleContext().getProperty("org.opencastproject.storage.dir");
+    indexRebuildCheckpoint = new IndexRebuildCheckpoint(
+        storageDir == null ? null : new File(storageDir, INDEX_REBUILD_CHECKPOINT));
+    logger.debug("Rebuilding the index with {} threads and bulk requests of up to {} bytes", indexRebuildThreads,
+        indexRebuildBulkSize);
   }
 
   /**
@@ -948,28 +981,70 @@ public class AssetManagerImpl extends AbstractIndexProducer implements AssetMana
 
   @Override
   public void repopulate(DataType dataType) throws IndexRebuildException {
+    repopulate(dataType, false);
+  }
+
+  @Override
+  public void resumeRepopulate(DataType dataType) throws IndexRebuildException {
+    repopulate(dataType, true);
+  }
+
+  /**
+   * Re-add the latest snapshot of every event to the index. Snapshots are paged through by media package identifier,
+   * the existing index documents of a page are fetched with a single request and the updated documents are computed in
+   * parallel and written in size-bounded bulk requests. The progress is recorded after every page, so an interrupted
+   * rebuild can be resumed.
+   *
+   * @param dataType
+   *          the data to re-index
+   * @param resume
+   *          whether to continue after the last page written by an interrupted rebuild
+   */
+  private void repopulate(DataType dataType, boolean resume) throws IndexRebuildException {
+    if (dataType != DataType.ALL && dataType != DataType.ACL) {
+      throw new IndexRebuildException(dataType + " is not a supported data type. "
+          + "Accepted values are " + Arrays.toString(getSupportedDataTypes()) + ".");
+    }
     final Organization originalOrg = securityService.getOrganization();
     final User originalUser = (originalOrg != null ? securityService.getUser() : null);
+    final ExecutorService executor = Executors.newFixedThreadPool(indexRebuildThreads);
     try {
       final Organization defaultOrg = new DefaultOrganization();
       final User defaultSystemUser = SecurityUtil.createSystemUser(systemUserName, defaultOrg);
       securityService.setOrganization(defaultOrg);
       securityService.setUser(defaultSystemUser);
 
-      int offset = 0;
       int total = (int) countEvents(null);
-      final AQueryBuilder q = createQuery();
-      RichAResult r;
       int current = 0;
+      String lastMediaPackageId = null;
+      if (resume) {
+        Optional<IndexRebuildCheckpoint.Progress> progress = indexRebuildCheckpoint.read(dataType);
+        if (progress.isPresent()) {
+          lastMediaPackageId = progress.get().getMediaPackageId();
+          current = progress.get().getIndexed();
+          logger.info("Resuming index rebuild after event {} ({} events already done)", lastMediaPackageId, current);
+        }
+      } else {
+        indexRebuildCheckpoint.clear();
+      }
       logIndexRebuildBegin(logger, total, "snapshot(s)");
-      var updatedEventRange = new ArrayList<Event>();
+
+      final AQueryBuilder q = createQuery();
+      List<Snapshot> snapshots;
       do {
-        r = enrich(q.select(q.snapshot()).where(q.version().isLatest()).orderBy(q.mediapackageId().desc())
-            .page(offset, PAGE_SIZE).run());
-        offset += PAGE_SIZE;
-        int n = 20;
+        // Keyset pagination, which does not get slower with every page like an offset does
+        Predicate where = q.version().isLatest();
+        if (lastMediaPackageId != null) {
+          where = where.and(q.mediapackageId().lt(lastMediaPackageId));
+        }
+        snapshots = enrich(q.select(q.snapshot()).where(where).orderBy(q.mediapackageId().desc())
+            .page(0, indexRebuildPageSize).run()).getSnapshots();
+        if (snapshots.isEmpty()) {
+          break;
+        }
 
-        final Map<String, List<Snapshot>> byOrg = r.getSnapshots().stream()
+        final List<Event> updatedEvents = new ArrayList<>();
+        final Map<String, List<Snapshot>> byOrg = snapshots.stream()
             .collect(Collectors.groupingBy(Snapshot::getOrganizationId));
         for (String orgId : byOrg.keySet()) {
           final Organization snapshotOrg;
@@ -978,36 +1053,8 @@ public class AssetManagerImpl extends AbstractIndexProducer implements AssetMana
             User snapshotSystemUser = SecurityUtil.createSystemUser(systemUserName, snapshotOrg);
             securityService.setOrganization(snapshotOrg);
             securityService.setUser(snapshotSystemUser);
-            for (Snapshot snapshot : byOrg.get(orgId)) {
-              try {
-                current++;
-
-                var updatedEventData = index.getEvent(snapshot.getMediaPackage().getIdentifier().toString(), orgId,
-                    snapshotSystemUser);
-                if (dataType == DataType.ALL) {
-                  // Reindex everything (default)
-                  updatedEventData = getEventUpdateFunction(snapshot, orgId, snapshotSystemUser)
-                      .apply(updatedEventData);
-                } else if (dataType == DataType.ACL) {
-                  // Only reindex ACLs
-                  updatedEventData = getEventUpdateFunctionOnlyAcl(snapshot, orgId, snapshotSystemUser)
-                      .apply(updatedEventData);
-                } else {
-                  throw new IndexRebuildException(dataType + " is not a supported data type. "
-                      + "Accepted values are " + Arrays.toString(getSupportedDataTypes()) + ".");
-                }
-                updatedEventRange.add(updatedEventData.get());
-
-                if (updatedEventRange.size() >= n || current >= total) {
-                  index.bulkEventUpdate(updatedEventRange);
-                  logIndexRebuildProgress(logger, total, current, n);
-                  updatedEventRange.clear();
-                }
-              } catch (Throwable t) {
-                logSkippingElement(logger, "event", snapshot.getMediaPackage().getIdentifier().toString(),
-                    snapshotOrg, t);
-              }
-            }
+            updatedEvents.addAll(getUpdatedEvents(executor, byOrg.get(orgId), dataType, snapshotOrg,
+                snapshotSystemUser));
           } catch (Throwable t) {
             logIndexRebuildError(logger, t, originalOrg);
             throw new IndexRebuildException(getService(), originalOrg, t);
@@ -1016,13 +1063,78 @@ public class AssetManagerImpl extends AbstractIndexProducer implements AssetMana
             securityService.setUser(defaultSystemUser);
           }
         }
-      } while (offset < total);
+
+        try {
+          index.bulkEventUpdate(updatedEvents, indexRebuildBulkSize);
+        } catch (SearchIndexException e) {
+          logIndexRebuildError(logger, e, originalOrg);
+          throw new IndexRebuildException(getService(), originalOrg, e);
+        }
+        current += snapshots.size();
+        lastMediaPackageId = snapshots.get(snapshots.size() - 1).getMediaPackage().getIdentifier().toString();
+        indexRebuildCheckpoint.write(dataType, new IndexRebuildCheckpoint.Progress(lastMediaPackageId, current));
+        logIndexRebuildProgress(logger, total, Math.min(current, total), snapshots.size());
+      } while (snapshots.size() == indexRebuildPageSize);
+      indexRebuildCheckpoint.clear();
     } finally {
+      executor.shutdownNow();
       securityService.setOrganization(originalOrg);
       securityService.setUser(originalUser);
     }
   }
 
+  /**
+   * Compute the updated index documents of the given snapshots of one organization in parallel. Snapshots which cannot
+   * be re-indexed are logged and skipped.
+   *
+   * @return the updated events
+   */
+  private List<Event> getUpdatedEvents(ExecutorService executor, List<Snapshot> snapshots, DataType dataType,
+          Organization org, User user) throws SearchIndexException, InterruptedException {
+    final String orgId = org.getId();
+    final List<String> ids = snapshots.stream()
+        .map(snapshot -> snapshot.getMediaPackage().getIdentifier().toString())
+        .collect(Collectors.toList());
+    final Map<String, Event> existingEvents = index.getEvents(ids, orgId, user);
+
+    final List<Future<Event>> futures = new ArrayList<>(snapshots.size());
+    for (Snapshot snapshot : snapshots) {
+      final Optional<Event> existingEvent = Optional.ofNullable(
+          existingEvents.get(snapshot.getMediaPackage().getIdentifier().toString()));
+      futures.add(executor.submit(() -> {
+        final Event[] updatedEvent = new Event[1];
+        SecurityUtil.runAs(securityService, org, user, () -> {
+          final Function<Optional<Event>, Optional<Event>> updateFunction = dataType == DataType.ACL
+              // Only reindex ACLs
+              ? getEventUpdateFunctionOnlyAcl(snapshot, orgId, user)
+              // Reindex everything (default)
+              : getEventUpdateFunction(snapshot, orgId, user);
+          updatedEvent[0] = updateFunction.apply(existingEvent).get();
+        });
+        return updatedEvent[0];
+      }));
+    }
+
+    final List<Event> updatedEvents = new ArrayList<>(snapshots.size());
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        updatedEvents.add(futures.get(i).get());
+      } catch (ExecutionException e) {
+        logSkippingElement(logger, "event", ids.get(i), org, e.getCause());
+      }
+    }
+    return updatedEvents;
+  }
+
+  /**
+   * Used for testing
+   */
+  void setIndexRebuild(String systemUserName, int pageSize, IndexRebuildCheckpoint checkpoint) {
+    this.systemUserName = systemUserName;
+    this.indexRebuildPageSize = pageSize;
+    this.indexRebuildCheckpoint = checkpoint;
+  }
+
   /**
    * Used for testing
    */
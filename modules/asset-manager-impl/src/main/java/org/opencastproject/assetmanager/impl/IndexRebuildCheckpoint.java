@@ -0,0 +1,146 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.assetmanager.impl;
+
+import org.opencastproject.elasticsearch.index.rebuild.IndexRebuildService.DataType;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Remembers how far the asset manager got rebuilding the index, so an interrupted rebuild can continue after the last
+ * media package written to the index instead of starting over.
+ */
+class IndexRebuildCheckpoint {
+
+  private static final Logger logger = LoggerFactory.getLogger(IndexRebuildCheckpoint.class);
+
+  private static final String DATA_TYPE = "dataType";
+  private static final String MEDIA_PACKAGE_ID = "mediaPackageId";
+  private static final String INDEXED = "indexed";
+
+  /** The progress of an index rebuild */
+  static final class Progress {
+    private final String mediaPackageId;
+    private final int indexed;
+
+    Progress(String mediaPackageId, int indexed) {
+      this.mediaPackageId = mediaPackageId;
+      this.indexed = indexed;
+    }
+
+    /** The identifier of the last media package written to the index */
+    String getMediaPackageId() {
+      return mediaPackageId;
+    }
+
+    /** The number of media packages processed so far */
+    int getIndexed() {
+      return indexed;
+    }
+  }
+
+  /** The checkpoint file, <code>null</code> to not keep track of the progress */
+  private final File file;
+
+  /**
+   * Creates a checkpoint stored in the given file.
+   *
+   * @param file
+   *          the checkpoint file or <code>null</code> to not keep track of the progress
+   */
+  IndexRebuildCheckpoint(File file) {
+    this.file = file;
+  }
+
+  /**
+   * Reads the progress of an interrupted rebuild.
+   *
+   * @param dataType
+   *          the data type being rebuilt
+   * @return the progress or nothing if there is no checkpoint for the data type
+   */
+  Optional<Progress> read(DataType dataType) {
+    if (file == null || !file.isFile()) {
+      return Optional.empty();
+    }
+    Properties properties = new Properties();
+    try (InputStream in = Files.newInputStream(file.toPath())) {
+      properties.load(in);
+      if (!dataType.name().equals(properties.getProperty(DATA_TYPE))
+          || properties.getProperty(MEDIA_PACKAGE_ID) == null) {
+        return Optional.empty();
+      }
+      return Optional.of(new Progress(properties.getProperty(MEDIA_PACKAGE_ID),
+          Integer.parseInt(properties.getProperty(INDEXED, "0"))));
+    } catch (IOException | NumberFormatException e) {
+      logger.warn("Unable to read index rebuild checkpoint {}, starting from the beginning", file, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Stores the progress of the rebuild. The file is replaced atomically, so a crash never leaves a partial checkpoint.
+   *
+   * @param dataType
+   *          the data type being rebuilt
+   * @param progress
+   *          the progress
+   */
+  void write(DataType dataType, Progress progress) {
+    if (file == null) {
+      return;
+    }
+    Properties properties = new Properties();
+    properties.setProperty(DATA_TYPE, dataType.name());
+    properties.setProperty(MEDIA_PACKAGE_ID, progress.getMediaPackageId());
+    properties.setProperty(INDEXED, Integer.toString(progress.getIndexed()));
+    File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+    try {
+      FileUtils.forceMkdirParent(file);
+      try (OutputStream out = Files.newOutputStream(tmp.toPath())) {
+        properties.store(out, "Asset manager index rebuild checkpoint");
+      }
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      logger.warn("Unable to write index rebuild checkpoint {}", file, e);
+    }
+  }
+
+  /** Removes the checkpoint, e.g. because the rebuild finished. */
+  void clear() {
+    if (file != null) {
+      FileUtils.deleteQuietly(file);
+    }
+  }
+
+}
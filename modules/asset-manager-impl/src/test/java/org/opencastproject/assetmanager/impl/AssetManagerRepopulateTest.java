@@ -0,0 +1,150 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.assetmanager.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.opencastproject.elasticsearch.index.ElasticsearchIndex;
+import org.opencastproject.elasticsearch.index.rebuild.IndexRebuildService.DataType;
+import org.opencastproject.security.api.DefaultOrganization;
+import org.opencastproject.security.api.OrganizationDirectoryService;
+import org.opencastproject.security.api.User;
+
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tests the index rebuild of the asset manager.
+ */
+public class AssetManagerRepopulateTest extends AssetManagerTestBase {
+
+  private static final int PAGE_SIZE = 2;
+
+  /** The media packages of the pages whose events were fetched from the index, in order */
+  private final List<List<String>> pages = new ArrayList<>();
+
+  private IndexRebuildCheckpoint checkpoint;
+
+  @Before
+  public void setUpIndexRebuild() throws Exception {
+    final ElasticsearchIndex index = EasyMock.createNiceMock(ElasticsearchIndex.class);
+    EasyMock.expect(index.addOrUpdateEvent(EasyMock.anyString(), EasyMock.anyObject(Function.class),
+            EasyMock.anyString(), EasyMock.anyObject(User.class))).andReturn(Optional.empty()).anyTimes();
+    EasyMock.expect(index.getEvents(EasyMock.anyObject(Collection.class), EasyMock.anyString(),
+            EasyMock.anyObject(User.class))).andAnswer(() -> {
+              @SuppressWarnings("unchecked")
+              final Collection<String> ids = (Collection<String>) EasyMock.getCurrentArguments()[0];
+              pages.add(new ArrayList<>(ids));
+              return Collections.emptyMap();
+            }).anyTimes();
+    EasyMock.replay(index);
+
+    final OrganizationDirectoryService orgDir = EasyMock.createNiceMock(OrganizationDirectoryService.class);
+    EasyMock.expect(orgDir.getOrganization(EasyMock.anyString())).andReturn(new DefaultOrganization()).anyTimes();
+    EasyMock.replay(orgDir);
+
+    checkpoint = new IndexRebuildCheckpoint(new File(tempFolder.getRoot(), "index-rebuild.checkpoint"));
+    am.setIndex(index);
+    am.setOrgDir(orgDir);
+    am.setIndexRebuild("system", PAGE_SIZE, checkpoint);
+  }
+
+  @Test
+  public void testRepopulateCrossesPageBoundaries() throws Exception {
+    final List<String> mpIds = createMediaPackages(5);
+
+    am.repopulate(DataType.ALL);
+
+    assertEquals(Arrays.asList(2, 2, 1), pages.stream().map(List::size).collect(Collectors.toList()));
+    // Every media package is indexed once, in keyset order, even with several versions each
+    assertEquals(mpIds, indexed());
+    assertFalse(checkpoint.read(DataType.ALL).isPresent());
+  }
+
+  @Test
+  public void testRepopulateWithFullLastPage() throws Exception {
+    final List<String> mpIds = createMediaPackages(4);
+
+    am.repopulate(DataType.ALL);
+
+    assertEquals(mpIds, indexed());
+  }
+
+  @Test
+  public void testResumeSkipsIndexedMediaPackages() throws Exception {
+    final List<String> mpIds = createMediaPackages(5);
+    checkpoint.write(DataType.ALL, new IndexRebuildCheckpoint.Progress(mpIds.get(1), 2));
+
+    am.resumeRepopulate(DataType.ALL);
+
+    assertEquals(mpIds.subList(2, 5), indexed());
+    assertFalse(checkpoint.read(DataType.ALL).isPresent());
+  }
+
+  @Test
+  public void testResumeOtherDataTypeStartsOver() throws Exception {
+    final List<String> mpIds = createMediaPackages(3);
+    checkpoint.write(DataType.ACL, new IndexRebuildCheckpoint.Progress(mpIds.get(1), 2));
+
+    am.resumeRepopulate(DataType.ALL);
+
+    assertEquals(mpIds, indexed());
+  }
+
+  @Test
+  public void testRepopulateIgnoresCheckpoint() throws Exception {
+    final List<String> mpIds = createMediaPackages(3);
+    checkpoint.write(DataType.ALL, new IndexRebuildCheckpoint.Progress(mpIds.get(1), 2));
+
+    am.repopulate(DataType.ALL);
+
+    assertEquals(mpIds, indexed());
+  }
+
+  /**
+   * Creates media packages with several versions each.
+   *
+   * @return the media package identifiers in the order of the index rebuild
+   */
+  private List<String> createMediaPackages(int amount) {
+    return Arrays.stream(createAndAddMediaPackagesSimple(amount, 1, 3))
+        .sorted(Comparator.reverseOrder())
+        .collect(Collectors.toList());
+  }
+
+  private List<String> indexed() {
+    return pages.stream().flatMap(List::stream).collect(Collectors.toList());
+  }
+
+}
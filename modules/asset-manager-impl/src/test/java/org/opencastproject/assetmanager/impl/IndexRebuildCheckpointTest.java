@@ -0,0 +1,70 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.assetmanager.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.opencastproject.elasticsearch.index.rebuild.IndexRebuildService.DataType;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Optional;
+
+public class IndexRebuildCheckpointTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testReadWrittenProgress() throws Exception {
+    final File file = new File(tempFolder.getRoot(), "assetmanager/index-rebuild.checkpoint");
+    final IndexRebuildCheckpoint checkpoint = new IndexRebuildCheckpoint(file);
+    assertFalse(checkpoint.read(DataType.ALL).isPresent());
+
+    checkpoint.write(DataType.ALL, new IndexRebuildCheckpoint.Progress("mp-1000", 1000));
+    final Optional<IndexRebuildCheckpoint.Progress> progress = checkpoint.read(DataType.ALL);
+    assertTrue(progress.isPresent());
+    assertEquals("mp-1000", progress.get().getMediaPackageId());
+    assertEquals(1000, progress.get().getIndexed());
+
+    // A rebuild of other data cannot continue where this one stopped
+    assertFalse(checkpoint.read(DataType.ACL).isPresent());
+
+    checkpoint.clear();
+    assertFalse(file.exists());
+    assertFalse(checkpoint.read(DataType.ALL).isPresent());
+  }
+
+  @Test
+  public void testWithoutFile() throws Exception {
+    final IndexRebuildCheckpoint checkpoint = new IndexRebuildCheckpoint(null);
+    checkpoint.write(DataType.ALL, new IndexRebuildCheckpoint.Progress("mp-1000", 1000));
+    assertFalse(checkpoint.read(DataType.ALL).isPresent());
+    checkpoint.clear();
+  }
+
+}
@@ -54,16 +54,16 @@ import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
 import com.amazonaws.services.s3.model.GetObjectTaggingRequest;
 import com.amazonaws.services.s3.model.GetObjectTaggingResult;
-import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.ObjectTagging;
+import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.RestoreObjectRequest;
 import com.amazonaws.services.s3.model.SetBucketVersioningConfigurationRequest;
-import com.amazonaws.services.s3.model.SetObjectTaggingRequest;
 import com.amazonaws.services.s3.model.StorageClass;
 import com.amazonaws.services.s3.model.Tag;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
 import com.amazonaws.services.s3.transfer.Upload;
+import com.amazonaws.services.s3.transfer.model.UploadResult;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -83,6 +83,7 @@ import java.util.Date;
 import java.util.Dictionary;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executors;
 
 @Component(
     property = {
@@ -114,6 +115,8 @@ public class AwsS3AssetStore extends AwsAbstractArchive implements RemoteAssetSt
   public static final String AWS_S3_CONNECTION_TIMEOUT = "org.opencastproject.assetmanager.aws.s3.connection.timeout";
   public static final String AWS_S3_MAX_RETRIES = "org.opencastproject.assetmanager.aws.s3.max.retries";
   public static final String AWS_GLACIER_RESTORE_DAYS = "org.opencastproject.assetmanager.aws.s3.glacier.restore.days";
+  public static final String AWS_S3_UPLOAD_CONCURRENCY = "org.opencastproject.assetmanager.aws.s3.upload.concurrency";
+  public static final String AWS_S3_UPLOAD_PART_SIZE = "org.opencastproject.assetmanager.aws.s3.upload.part.size";
 
   public static final Integer AWS_S3_GLACIER_RESTORE_DAYS_DEFAULT = 2;
 
@@ -121,6 +124,8 @@ public class AwsS3AssetStore extends AwsAbstractArchive implements RemoteAssetSt
   public static final int DEFAULT_MAX_CONNECTIONS = 50;
   public static final int DEFAULT_CONNECTION_TIMEOUT = 10000;
   public static final int DEFAULT_MAX_RETRIES = 100;
+  public static final int DEFAULT_UPLOAD_CONCURRENCY = 10;
+  public static final int DEFAULT_UPLOAD_PART_SIZE = 8; // MiB
 
   public static final long DOWNLOAD_URL_EXPIRATION_MS = 30 * 60 * 1000; // 30 min
 
@@ -241,7 +246,18 @@ public class AwsS3AssetStore extends AwsAbstractArchive implements RemoteAssetSt
               .withCredentials(provider)
               .build();
 
-      s3TransferManager = TransferManagerBuilder.standard().withS3Client(s3).build();
+      // Files larger than one part are uploaded in parts, which are sent in parallel by the transfer manager's threads
+      int uploadConcurrency = OsgiUtil.getOptCfgAsInt(cc.getProperties(), AWS_S3_UPLOAD_CONCURRENCY)
+              .getOrElse(DEFAULT_UPLOAD_CONCURRENCY);
+      long uploadPartSize = OsgiUtil.getOptCfgAsInt(cc.getProperties(), AWS_S3_UPLOAD_PART_SIZE)
+              .getOrElse(DEFAULT_UPLOAD_PART_SIZE) * 1024L * 1024L;
+      logger.debug("Upload concurrency: {}, part size: {} bytes", uploadConcurrency, uploadPartSize);
+      s3TransferManager = TransferManagerBuilder.standard()
+              .withS3Client(s3)
+              .withExecutorFactory(() -> Executors.newFixedThreadPool(uploadConcurrency))
+              .withMinimumUploadPartSize(uploadPartSize)
+              .withMultipartUploadThreshold(uploadPartSize)
+              .build();
 
       logger.info("AwsS3ArchiveAssetStore activated!");
     }
@@ -296,17 +312,10 @@ public class AwsS3AssetStore extends AwsAbstractArchive implements RemoteAssetSt
     logger.info("Uploading {} to archive bucket {}...", objectName, bucketName);
 
     try {
-      Upload upload = s3TransferManager.upload(bucketName, objectName, origin);
-      long start = System.currentTimeMillis();
-      // Block and wait for the upload to finish
-      upload.waitForCompletion();
-      logger.info("Upload of {} to archive bucket {} completed in {} seconds",
-              new Object[] { objectName, bucketName, (System.currentTimeMillis() - start) / 1000 });
-      ObjectMetadata objMetadata = s3.getObjectMetadata(bucketName, objectName);
-      logger.trace("Got object metadata for: {}, version is {}", objectName, objMetadata.getVersionId());
-
-      // Tag objects that are suitable for Glacier storage class
-      // NOTE: Use of S3TransferManager means that tagging has to be done as a separate request
+      PutObjectRequest request = new PutObjectRequest(bucketName, objectName, origin);
+
+      // Tag objects that are suitable for Glacier storage class. The tags are sent along with the upload, so that
+      // neither a separate tagging request nor a window without tags exists.
       if (mimeType.isPresent()) {
         switch (mimeType.get().getType()) {
           case "audio":
@@ -315,15 +324,24 @@ public class AwsS3AssetStore extends AwsAbstractArchive implements RemoteAssetSt
             logger.debug("Tagging S3 object {} as Freezable", objectName);
             List<Tag> tags = new ArrayList<>();
             tags.add(freezable);
-            s3.setObjectTagging(new SetObjectTaggingRequest(bucketName, objectName, new ObjectTagging(tags)));
+            request.setTagging(new ObjectTagging(tags));
             break;
           default:
             break;
         }
       }
 
+      Upload upload = s3TransferManager.upload(request);
+      long start = System.currentTimeMillis();
+      // Block and wait for the upload to finish
+      UploadResult result = upload.waitForUploadResult();
+      long duration = Math.max(1, System.currentTimeMillis() - start);
+      logger.info("Upload of {} to archive bucket {} completed in {} seconds ({} KiB/s)", objectName, bucketName,
+              duration / 1000, origin.length() * 1000 / 1024 / duration);
+      logger.trace("Uploaded {}, version is {}", objectName, result.getVersionId());
+
       // If bucket versioning is disabled the versionId is null, so return a -1 to indicate no version
-      String versionId = objMetadata.getVersionId();
+      String versionId = result.getVersionId();
       if (null == versionId) {
         return new AwsUploadOperationResult(objectName, "-1");
       }
@@ -43,14 +43,15 @@ import com.amazonaws.services.s3.model.GetObjectTaggingRequest;
 import com.amazonaws.services.s3.model.GetObjectTaggingResult;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.RestoreObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.SetBucketVersioningConfigurationRequest;
-import com.amazonaws.services.s3.model.SetObjectTaggingRequest;
 import com.amazonaws.services.s3.model.StorageClass;
 import com.amazonaws.services.s3.model.Tag;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.Upload;
+import com.amazonaws.services.s3.transfer.model.UploadResult;
 import com.mchange.v2.c3p0.ComboPooledDataSource;
 
 import org.easymock.Capture;
@@ -249,12 +250,21 @@ public class AwsS3AssetStoreTest {
   }
 
   private void setupUpload(String keyId, ObjectMetadata metadata) throws Exception {
+    setupUpload(keyId, metadata, Capture.newInstance());
+  }
+
+  private void setupUpload(String keyId, ObjectMetadata metadata, Capture<PutObjectRequest> request)
+          throws Exception {
+    UploadResult result = new UploadResult();
+    result.setBucketName(BUCKET_NAME);
+    result.setKey(keyId);
+    result.setVersionId(AWS_VERSION_1);
+
     Upload upload = EasyMock.createStrictMock(Upload.class);
-    upload.waitForCompletion();
-    EasyMock.expectLastCall().once();
+    EasyMock.expect(upload.waitForUploadResult()).andReturn(result).once();
     EasyMock.replay(upload);
 
-    EasyMock.expect(s3Transfer.upload(BUCKET_NAME, keyId, sampleFile)).andReturn(upload).once();
+    EasyMock.expect(s3Transfer.upload(EasyMock.capture(request))).andReturn(upload).once();
     EasyMock.expect(s3Client.getObjectMetadata(BUCKET_NAME, keyId)).andReturn(metadata).anyTimes();
   }
 
@@ -281,8 +291,7 @@ public class AwsS3AssetStoreTest {
 
   @Test
   public void testTagging() throws Exception {
-    Capture<SetObjectTaggingRequest> tags = Capture.newInstance();
-    EasyMock.expect(s3Client.setObjectTagging(EasyMock.capture(tags))).andReturn(null).anyTimes();
+    Capture<PutObjectRequest> request = Capture.newInstance();
     //Fake mimetypes to trigger, or not trigger tagging
     String[] mimetypes = { "audio", "image", "video" };
     StoragePath path;
@@ -295,31 +304,32 @@ public class AwsS3AssetStoreTest {
       objectKey = KEY_VERSION_1 + mimetype + ".xml";
       source = Source.mk(uri, null, type);
       //We need to do this every time we upload something.
-      setupUpload(objectKey);
+      setupUpload(objectKey, objMetadata, request);
       EasyMock.replay(s3Client, s3Transfer);
       store.put(path, source);
+      EasyMock.verify(s3Transfer);
       EasyMock.resetToNice(s3Client, s3Transfer);
-      EasyMock.expect(s3Client.setObjectTagging(EasyMock.capture(tags))).andReturn(null).anyTimes();
 
-      //Check with AWS that the tags are applied correctly
-      Assert.assertTrue(tags.hasCaptured());
-      SetObjectTaggingRequest req = tags.getValue();
+      //Check that the tags are sent along with the upload
+      Assert.assertTrue(request.hasCaptured());
+      PutObjectRequest req = request.getValue();
       Assert.assertEquals(BUCKET_NAME, req.getBucketName());
       Assert.assertEquals(objectKey, req.getKey());
+      Assert.assertEquals(sampleFile, req.getFile());
       Assert.assertEquals("Freezable", req.getTagging().getTagSet().get(0).getKey());
       Assert.assertEquals("true", req.getTagging().getTagSet().get(0).getValue());
 
-      tags.reset();
+      request.reset();
     }
     path = new StoragePath(ORG_ID, MP_ID, new VersionImpl(1L), "fake");
     type = Optional.of(MimeType.mimeType("non-freezable", "fake"));
     objectKey = KEY_VERSION_1 + "fake.xml";
     source = Source.mk(uri, null, type);
-    setupUpload(objectKey);
+    setupUpload(objectKey, objMetadata, request);
     EasyMock.replay(s3Client, s3Transfer);
     store.put(path, source);
-    //Check with AWS that the tags are not applied since this isn't in the allowlist
-    Assert.assertFalse(tags.hasCaptured());
+    //Check that no tags are sent since this isn't in the allowlist
+    Assert.assertNull(request.getValue().getTagging());
   }
 
   @Test
@@ -408,13 +418,7 @@ public class AwsS3AssetStoreTest {
 
   @Test
   public void testCopy() throws Exception {
-    Upload upload = EasyMock.createStrictMock(Upload.class);
-    upload.waitForCompletion();
-    EasyMock.expectLastCall().once();
-    EasyMock.replay(upload);
-
-    EasyMock.expect(s3Transfer.upload(BUCKET_NAME, OBJECT_KEY_1, sampleFile)).andReturn(upload);
-    EasyMock.expect(s3Client.getObjectMetadata(BUCKET_NAME, OBJECT_KEY_1)).andReturn(objMetadata);
+    setupUpload(OBJECT_KEY_1);
     EasyMock.replay(s3Client, s3Transfer);
 
     // Store first asset
@@ -458,13 +462,7 @@ public class AwsS3AssetStoreTest {
 
   @Test
   public void testGet() throws Exception {
-    Upload upload = EasyMock.createStrictMock(Upload.class);
-    upload.waitForCompletion();
-    EasyMock.expectLastCall().once();
-    EasyMock.replay(upload);
-
-    EasyMock.expect(s3Transfer.upload(BUCKET_NAME, OBJECT_KEY_1, sampleFile)).andReturn(upload);
-    EasyMock.expect(s3Client.getObjectMetadata(BUCKET_NAME, OBJECT_KEY_1)).andReturn(objMetadata).anyTimes();
+    setupUpload(OBJECT_KEY_1);
     EasyMock.expect(s3Client.generatePresignedUrl(EasyMock.anyObject(GeneratePresignedUrlRequest.class)))
             .andReturn(uri.toURL());
     EasyMock.replay(s3Object, s3Client, s3Transfer);
@@ -489,19 +487,10 @@ public class AwsS3AssetStoreTest {
 
   @Test
   public void testDeleteWithVersion() throws Exception {
-    Upload upload = EasyMock.createStrictMock(Upload.class);
-    upload.waitForCompletion();
-    EasyMock.expectLastCall().times(2);
-    EasyMock.replay(upload);
-
-    EasyMock.expect(s3Client.getObjectMetadata(BUCKET_NAME, OBJECT_KEY_1)).andReturn(objMetadata);
-    EasyMock.expect(s3Client.getObjectMetadata(BUCKET_NAME, OBJECT_KEY_2)).andReturn(objMetadata);
     s3Client.deleteObject(BUCKET_NAME, OBJECT_KEY_1);
     EasyMock.expectLastCall().once();
-    EasyMock.expect(s3Transfer.upload(BUCKET_NAME, OBJECT_KEY_1, sampleFile)).andReturn(upload)
-            .once();
-    EasyMock.expect(s3Transfer.upload(BUCKET_NAME, OBJECT_KEY_2, sampleFile))
-            .andReturn(upload).once();
+    setupUpload(OBJECT_KEY_1);
+    setupUpload(OBJECT_KEY_2);
     EasyMock.replay(s3Object, s3Client, s3Transfer);
 
     StoragePath path = new StoragePath(ORG_ID, MP_ID, new VersionImpl(1L), ASSET_ID);
@@ -536,22 +525,13 @@ public class AwsS3AssetStoreTest {
 
   @Test
   public void testDeleteNoneVersion() throws Exception {
-    Upload upload = EasyMock.createStrictMock(Upload.class);
-    upload.waitForCompletion();
-    EasyMock.expectLastCall().times(2);
-    EasyMock.replay(upload);
-
-    EasyMock.expect(s3Client.getObjectMetadata(BUCKET_NAME, OBJECT_KEY_1)).andReturn(objMetadata);
-    EasyMock.expect(s3Client.getObjectMetadata(BUCKET_NAME, OBJECT_KEY_2)).andReturn(objMetadata);
     s3Client.deleteObject(BUCKET_NAME, OBJECT_KEY_1);
     EasyMock.expectLastCall().once();
     s3Client.deleteObject(BUCKET_NAME, OBJECT_KEY_2);
     EasyMock.expectLastCall().once();
 
-    EasyMock.expect(s3Transfer.upload(BUCKET_NAME, OBJECT_KEY_1, sampleFile)).andReturn(upload)
-            .once();
-    EasyMock.expect(s3Transfer.upload(BUCKET_NAME, OBJECT_KEY_2, sampleFile))
-            .andReturn(upload).once();
+    setupUpload(OBJECT_KEY_1);
+    setupUpload(OBJECT_KEY_2);
     EasyMock.replay(s3Object, s3Client, s3Transfer);
 
     StoragePath path = new StoragePath(ORG_ID, MP_ID, new VersionImpl(1L), ASSET_ID);
@@ -584,16 +564,10 @@ public class AwsS3AssetStoreTest {
 
   // @Test
   public void testDeleteNonExistentVersion() throws Exception {
-    Upload upload = EasyMock.createStrictMock(Upload.class);
-    upload.waitForCompletion();
-    EasyMock.expectLastCall().once();
-    EasyMock.replay(upload);
-
     s3Client.deleteObject(BUCKET_NAME, KEY_VERSION_1 + sampleFile.getName());
     EasyMock.expectLastCall().times(2);
 
-    EasyMock.expect(s3Transfer.upload(BUCKET_NAME, OBJECT_KEY_1, sampleFile)).andReturn(upload)
-            .once();
+    setupUpload(OBJECT_KEY_1);
     EasyMock.replay(s3Client, s3Transfer);
 
     StoragePath path = new StoragePath(ORG_ID, MP_ID, new VersionImpl(1L), ASSET_ID);
@@ -616,16 +590,8 @@ public class AwsS3AssetStoreTest {
 
   @Test
   public void testDeleteLinkedAsset() throws Exception {
-    Upload upload = EasyMock.createStrictMock(Upload.class);
-    upload.waitForCompletion();
-    EasyMock.expectLastCall().once();
-    EasyMock.replay(upload);
 
-    EasyMock.expect(s3Client.getObjectMetadata(BUCKET_NAME, OBJECT_KEY_1)).andReturn(objMetadata);
-    EasyMock.expect(s3Client.getObjectMetadata(BUCKET_NAME, OBJECT_KEY_2)).andReturn(objMetadata);
-
-    EasyMock.expect(s3Transfer.upload(BUCKET_NAME, OBJECT_KEY_1, sampleFile)).andReturn(upload)
-            .once();
+    setupUpload(OBJECT_KEY_1);
     EasyMock.replay(s3Object, s3Client, s3Transfer);
 
     // Store first asset
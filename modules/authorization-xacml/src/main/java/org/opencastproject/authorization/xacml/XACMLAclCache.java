@@ -0,0 +1,128 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.authorization.xacml;
+
+import org.opencastproject.security.api.AccessControlList;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of parsed XACML policies. Policies are cached by the URI of their attachment and a version of its
+ * content, like the attachment checksum, so a modified policy is never served from the cache.
+ *
+ * The cached access control lists are shared and must not be modified.
+ */
+class XACMLAclCache implements XACMLAclCacheMXBean {
+
+  /** Separates the URI from the version in the cache keys. URIs cannot contain line breaks. */
+  private static final String SEPARATOR = "\n";
+
+  private final Cache<String, AccessControlList> cache;
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Creates a cache holding at most the given number of policies.
+   *
+   * @param size
+   *          the maximum number of cached policies, zero to disable caching
+   */
+  XACMLAclCache(long size) {
+    cache = CacheBuilder.newBuilder().maximumSize(size).build();
+  }
+
+  /**
+   * Returns a cached policy.
+   *
+   * @param uri
+   *          the URI of the XACML attachment
+   * @param version
+   *          the version of the attachment content
+   * @return the cached access control list or <code>null</code> if the policy is not cached
+   */
+  AccessControlList get(URI uri, String version) {
+    AccessControlList acl = cache.getIfPresent(uri + SEPARATOR + version);
+    if (acl == null) {
+      misses.incrementAndGet();
+    } else {
+      hits.incrementAndGet();
+    }
+    return acl;
+  }
+
+  /**
+   * Adds a parsed policy to the cache.
+   *
+   * @param uri
+   *          the URI of the XACML attachment
+   * @param version
+   *          the version of the attachment content
+   * @param acl
+   *          the parsed access control list
+   */
+  void put(URI uri, String version, AccessControlList acl) {
+    cache.put(uri + SEPARATOR + version, acl);
+  }
+
+  /**
+   * Removes all versions of a policy from the cache.
+   *
+   * @param uri
+   *          the URI of the XACML attachment
+   */
+  void invalidate(URI uri) {
+    final String prefix = uri + SEPARATOR;
+    cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+  }
+
+  @Override
+  public long getCacheHits() {
+    return hits.get();
+  }
+
+  @Override
+  public long getCacheMisses() {
+    return misses.get();
+  }
+
+  @Override
+  public float getCacheHitRatio() {
+    final long hitCount = hits.get();
+    final long requests = hitCount + misses.get();
+    if (requests == 0) {
+      return 0;
+    }
+    return (float) hitCount / requests;
+  }
+
+  @Override
+  public long getCacheSize() {
+    return cache.size();
+  }
+
+}
@@ -39,9 +39,12 @@ import org.opencastproject.security.api.AuthorizationService;
 import org.opencastproject.security.api.Role;
 import org.opencastproject.security.api.SecurityService;
 import org.opencastproject.security.api.User;
+import org.opencastproject.util.Checksum;
+import org.opencastproject.util.ChecksumType;
 import org.opencastproject.util.MimeTypes;
 import org.opencastproject.util.NotFoundException;
 import org.opencastproject.util.data.Tuple;
+import org.opencastproject.util.jmx.JmxUtil;
 import org.opencastproject.workspace.api.Workspace;
 
 import org.apache.commons.io.IOUtils;
@@ -50,6 +53,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
@@ -57,14 +61,18 @@ import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
+import javax.management.ObjectInstance;
 import javax.xml.bind.JAXBException;
 
 /**
@@ -95,11 +103,24 @@ public class XACMLAuthorizationService implements AuthorizationService {
 
   private static final String CONFIG_MERGE_MODE = "merge.mode";
   private static final String CONFIG_EPISODE_ID_ROLE = "org.opencastproject.episode.id.role.access";
+  private static final String CONFIG_ACL_CACHE_SIZE = "acl.cache.size";
+
+  /** The default maximum number of parsed XACML policies to cache */
+  private static final long DEFAULT_ACL_CACHE_SIZE = 1000;
+
+  /** The JMX type of the cache statistics */
+  private static final String JMX_ACL_CACHE_TYPE = "XACMLAclCache";
 
   /** Definition of how merging of series and episode ACLs work */
   private static MergeMode mergeMode = MergeMode.OVERRIDE;
   private static boolean episodeIdRole = false;
 
+  /** The cache of parsed XACML policies */
+  private XACMLAclCache aclCache = new XACMLAclCache(DEFAULT_ACL_CACHE_SIZE);
+
+  /** The registered cache statistics */
+  private ObjectInstance aclCacheMXBean = null;
+
   enum MergeMode {
     OVERRIDE, ROLES, ACTIONS
   }
@@ -114,6 +135,7 @@ public class XACMLAuthorizationService implements AuthorizationService {
       logger.debug("Merge mode set to {}", mergeMode);
       episodeIdRole = false;
       logger.debug("Using episode ID roles is deactivated");
+      setAclCacheSize(DEFAULT_ACL_CACHE_SIZE);
       return;
     }
     final String mode = StringUtils.defaultIfBlank((String) properties.get(CONFIG_MERGE_MODE),
@@ -129,6 +151,34 @@ public class XACMLAuthorizationService implements AuthorizationService {
     episodeIdRole = BooleanUtils.toBoolean(Objects.toString(
         cc.getBundleContext().getProperty(CONFIG_EPISODE_ID_ROLE), "false"));
     logger.debug("Usage of episode ID roles is set to {}", episodeIdRole);
+
+    long cacheSize = DEFAULT_ACL_CACHE_SIZE;
+    final String cacheSizeOption = StringUtils.trimToNull(
+        Objects.toString(properties.get(CONFIG_ACL_CACHE_SIZE), null));
+    if (cacheSizeOption != null) {
+      try {
+        cacheSize = Math.max(0, Long.parseLong(cacheSizeOption));
+      } catch (NumberFormatException e) {
+        logger.warn("Invalid value set for ACL cache size, defaulting to {}", DEFAULT_ACL_CACHE_SIZE);
+      }
+    }
+    setAclCacheSize(cacheSize);
+  }
+
+  @Deactivate
+  public void deactivate() {
+    if (aclCacheMXBean != null) {
+      JmxUtil.unregisterMXBean(aclCacheMXBean);
+      aclCacheMXBean = null;
+    }
+  }
+
+  /** Replace the cache of parsed XACML policies with one of the given size and register its statistics. */
+  private void setAclCacheSize(long cacheSize) {
+    deactivate();
+    aclCache = new XACMLAclCache(cacheSize);
+    aclCacheMXBean = JmxUtil.registerMXBean(aclCache, JMX_ACL_CACHE_TYPE);
+    logger.debug("ACL cache size set to {}", cacheSize);
   }
 
   @Reference(
@@ -155,6 +205,16 @@ public class XACMLAuthorizationService implements AuthorizationService {
 
   @Override
   public Tuple<AccessControlList, AclScope> getAcl(final MediaPackage mp, final AclScope scope) {
+    Tuple<AccessControlList, AclScope> acl = getSharedAcl(mp, scope);
+    // Parsed policies are cached, so hand out a copy the caller may modify
+    return tuple(new AccessControlList(acl.getA().getEntries()), acl.getB());
+  }
+
+  /**
+   * Get the ACL of a media package like {@link #getAcl(MediaPackage, AclScope)}, but possibly return a cached
+   * access control list which must not be modified.
+   */
+  private Tuple<AccessControlList, AclScope> getSharedAcl(final MediaPackage mp, final AclScope scope) {
     Optional<AccessControlList> episode = Optional.empty();
     Optional<AccessControlList> series = Optional.empty();
 
@@ -163,7 +223,7 @@ public class XACMLAuthorizationService implements AuthorizationService {
     if (AclScope.Episode.equals(scope) || AclScope.Merged.equals(scope)) {
       episode = getAclByFlavor(mp, XACML_POLICY_EPISODE);
     }
-    if (Arrays.asList(AclScope.Episode, AclScope.Series, AclScope.Merged).contains(scope)) {
+    if (AclScope.Episode.equals(scope) || AclScope.Series.equals(scope) || AclScope.Merged.equals(scope)) {
       series = getAclByFlavor(mp, XACML_POLICY_SERIES);
     }
 
@@ -172,10 +232,11 @@ public class XACMLAuthorizationService implements AuthorizationService {
       switch (mergeMode) {
         case ACTIONS:
           logger.debug("Merging ACLs based on individual actions");
-          return tuple(series.get().mergeActions(episode.get()), AclScope.Merged);
+          return tuple(new AccessControlList(series.get().getEntries()).mergeActions(episode.get()),
+              AclScope.Merged);
         case ROLES:
           logger.debug("Merging ACLs based on roles");
-          return tuple(series.get().merge(episode.get()), AclScope.Merged);
+          return tuple(new AccessControlList(series.get().getEntries()).merge(episode.get()), AclScope.Merged);
         default:
           logger.debug("Episode ACL overrides series ACL");
           return tuple(episode.get(), AclScope.Merged);
@@ -205,7 +266,7 @@ public class XACMLAuthorizationService implements AuthorizationService {
       } catch (URISyntaxException e) {
         logger.warn("URI {} syntax error, skip decoding", uri);
       }
-      acl = loadAcl(uri);
+      acl = loadAcl(uri, xacml.getChecksum());
     }
     return acl;
   }
@@ -230,11 +291,15 @@ public class XACMLAuthorizationService implements AuthorizationService {
     // add attachment
     final String elementId = toElementId(scope);
     URI uri;
-    try (InputStream in = IOUtils.toInputStream(xacmlContent, "UTF-8")) {
+    Checksum checksum;
+    try (InputStream in = IOUtils.toInputStream(xacmlContent, StandardCharsets.UTF_8)) {
       uri = workspace.put(mp.getIdentifier().toString(), elementId, XACML_FILENAME, in);
+      checksum = Checksum.create(ChecksumType.DEFAULT_TYPE,
+          IOUtils.toInputStream(xacmlContent, StandardCharsets.UTF_8));
     } catch (IOException e) {
       throw new MediaPackageException("Error storing xacml for media package " + mp.getIdentifier());
     }
+    aclCache.invalidate(uri);
 
     if (attachment == null) {
       attachment = (Attachment) MediaPackageElementBuilderFactory.newInstance().newElementBuilder()
@@ -243,8 +308,8 @@ public class XACMLAuthorizationService implements AuthorizationService {
     attachment.setURI(uri);
     attachment.setIdentifier(elementId);
     attachment.setMimeType(MimeTypes.XML);
-    // setting the URI to a new source so the checksum will most like be invalid
-    attachment.setChecksum(null);
+    // the checksum of the new policy identifies it in the ACL cache
+    attachment.setChecksum(checksum);
     mp.add(attachment);
 
     logger.debug("Saved XACML as {}", uri);
@@ -297,17 +362,49 @@ public class XACMLAuthorizationService implements AuthorizationService {
       } catch (Exception e) {
         logger.warn("Unable to delete XACML file:", e);
       }
+      aclCache.invalidate(a.getURI());
       mp.remove(a);
     }
     return Tuple.tuple(mp, attachment);
   }
 
-  /** Load an ACL from the given URI. */
-  private Optional<AccessControlList> loadAcl(final URI uri) {
-    logger.debug("Load Acl from {}", uri);
-    try (InputStream is = workspace.read(uri)) {
-      AccessControlList acl = XACMLUtils.parseXacml(is);
-      return Optional.of(acl);
+  /**
+   * Load an ACL from the given URI. Parsed ACLs are cached by URI and checksum or, if the attachment has no checksum,
+   * by URI and the last modification of its local copy. The returned ACL must not be modified.
+   */
+  private Optional<AccessControlList> loadAcl(final URI uri, final Checksum checksum) {
+    if (checksum != null) {
+      final String version = checksum.getType() + ":" + checksum.getValue();
+      AccessControlList acl = aclCache.get(uri, version);
+      if (acl != null) {
+        return Optional.of(acl);
+      }
+      logger.debug("Load Acl from {}", uri);
+      try (InputStream is = workspace.read(uri)) {
+        acl = XACMLUtils.parseXacml(is);
+        aclCache.put(uri, version, acl);
+        return Optional.of(acl);
+      } catch (NotFoundException e) {
+        logger.debug("URI {} not found", uri);
+      } catch (Exception e) {
+        logger.warn("Unable to load or parse Acl from URI {}", uri, e);
+      }
+      return Optional.empty();
+    }
+
+    try {
+      final File file = workspace.get(uri);
+      final String version = file.lastModified() + ":" + file.length();
+      AccessControlList acl = aclCache.get(uri, version);
+      if (acl != null) {
+        return Optional.of(acl);
+      }
+      logger.debug("Load Acl from {}", uri);
+      try (InputStream is = new FileInputStream(file)) {
+        acl = XACMLUtils.parseXacml(is);
+        aclCache.put(uri, version, acl);
+        return Optional.of(acl);
+      }
     } catch (NotFoundException e) {
       logger.debug("URI {} not found", uri);
     } catch (Exception e) {
@@ -317,42 +414,47 @@ public class XACMLAuthorizationService implements AuthorizationService {
   }
 
   public boolean hasPermission(final MediaPackage mp, final String action) {
-    AccessControlList acl = getActiveAcl(mp).getA();
+    // The ACL is only read, so the cached instance can be used without copying it
+    AccessControlList acl = getSharedAcl(mp, AclScope.Episode).getA();
 
     // Check special ROLE_EPISODE_<ID>_<ACTION> permissions
-    final User user = securityService.getUser();
-    var allowed = false;
     logger.debug("episodeIdRole set to: {}", episodeIdRole);
     if (episodeIdRole) {
+      final User user = securityService.getUser();
       var episodeRole = getEpisodeRoleId(mp.getIdentifier().toString(), action);
       logger.debug("Checking for role: {}", episodeRole);
-      allowed = user.getRoles().stream().map(Role::getName).anyMatch(r -> r.equals(episodeRole));
+      for (Role role : user.getRoles()) {
+        if (role.getName().equals(episodeRole)) {
+          return true;
+        }
+      }
     }
 
-    return allowed || hasPermission(acl, action);
+    return hasPermission(acl, action);
   }
 
   @Override
   public boolean hasPermission(AccessControlList acl, final String action) {
+    final List<AccessControlEntry> entries = acl.getEntries();
     final User user = securityService.getUser();
     var allowed = false;
 
-    // Check ACL
-    for (AccessControlEntry entry: acl.getEntries()) {
-      // ignore entries for other actions
-      if (!entry.getAction().equals(action)) {
-        continue;
-      }
-      for (Role role : user.getRoles()) {
-        if (entry.getRole().equals(role.getName())) {
-          // immediately abort on matching deny rules
-          // (never allow if a deny rule matches, even if another allow rule matches)
-          if (!entry.isAllow()) {
-            logger.debug("Access explicitly denied for role({}), action({})", role.getName(), action);
-            return false;
-          }
-          allowed = true;
+    // Check ACL, iterating over the entries by index to not allocate anything per entry
+    for (Role role : user.getRoles()) {
+      final String roleName = role.getName();
+      for (int i = 0; i < entries.size(); i++) {
+        final AccessControlEntry entry = entries.get(i);
+        // ignore entries for other actions or roles
+        if (!entry.getAction().equals(action) || !entry.getRole().equals(roleName)) {
+          continue;
+        }
+        // immediately abort on matching deny rules
+        // (never allow if a deny rule matches, even if another allow rule matches)
+        if (!entry.isAllow()) {
+          logger.debug("Access explicitly denied for role({}), action({})", roleName, action);
+          return false;
         }
+        allowed = true;
       }
     }
     logger.debug("XACML file allowed access");
@@ -201,4 +201,26 @@ public class XACMLSecurityTest {
     Assert.assertTrue(authzService.hasPermission(mediapackage, "read"));
     Assert.assertFalse(authzService.hasPermission(mediapackage, "comment"));
   }
+
+  @Test
+  public void testCachedAcl() throws Exception {
+    MediaPackage mediapackage = MediaPackageBuilderFactory.newInstance().newMediaPackageBuilder().createNew();
+    currentRoles.clear();
+    currentRoles.add(new JaxbRole("student", organization, ""));
+
+    AccessControlList acl = new AccessControlList(new AccessControlEntry("student", "read", true));
+    mediapackage = authzService.setAcl(mediapackage, AclScope.Episode, acl).getA();
+    Assert.assertTrue(authzService.hasPermission(mediapackage, "read"));
+    Assert.assertFalse(authzService.hasPermission(mediapackage, "write"));
+
+    // Modifying a returned ACL must not affect the cached policy
+    authzService.getActiveAcl(mediapackage).getA().getEntries().add(new AccessControlEntry("student", "write", true));
+    Assert.assertTrue(authzService.hasPermission(mediapackage, "read"));
+    Assert.assertFalse(authzService.hasPermission(mediapackage, "write"));
+
+    // Replacing the ACL must not serve the previous policy from the cache
+    acl = new AccessControlList(new AccessControlEntry("student", "read", false));
+    mediapackage = authzService.setAcl(mediapackage, AclScope.Episode, acl).getA();
+    Assert.assertFalse(authzService.hasPermission(mediapackage, "read"));
+  }
 }
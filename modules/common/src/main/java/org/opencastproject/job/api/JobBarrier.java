@@ -22,6 +22,7 @@
 package org.opencastproject.job.api;
 
 import org.opencastproject.job.api.Job.Status;
+import org.opencastproject.serviceregistry.api.JobCompletionNotifier;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.serviceregistry.api.ServiceRegistryException;
 import org.opencastproject.util.JobCanceledException;
@@ -45,6 +46,8 @@ import java.util.Map;
  * <li>{@link Job.Status#FAILED}</li>
  * <li>{@link Job.Status#DELETED}</li>
  * </ul>
+ * If the service registry is a {@link JobCompletionNotifier}, the barrier is woken up as soon as one of the jobs
+ * terminates, and only falls back to polling for jobs that are updated elsewhere.
  */
 public final class JobBarrier {
   /** The logging facility */
@@ -53,6 +56,9 @@ public final class JobBarrier {
   /** Default polling interval is 5 seconds */
   public static final long DEFAULT_POLLING_INTERVAL = 5000L;
 
+  /** The total time in milliseconds each thread has spent waiting for jobs */
+  private static final ThreadLocal<long[]> waitTime = ThreadLocal.withInitial(() -> new long[1]);
+
   /** The service registry used to do the polling */
   private final ServiceRegistry serviceRegistry;
 
@@ -179,6 +185,17 @@ public final class JobBarrier {
     }
   }
 
+  /**
+   * Returns the total time the current thread has spent waiting in {@link #waitForJobs(long)}. The value only ever
+   * grows, so callers interested in the time spent waiting during a certain task take the difference of the values
+   * before and after the task.
+   *
+   * @return the time in milliseconds
+   */
+  public static long getThreadWaitTime() {
+    return waitTime.get()[0];
+  }
+
   /**
    * Waits for a status change and returns the new status.
    *
@@ -204,6 +221,7 @@ public final class JobBarrier {
     if (jobs.size() == 0)
       return new Result(new HashMap<Job, Status>());
     this.suspendWaiterJob();
+    final long start = System.currentTimeMillis();
     synchronized (this) {
       JobStatusUpdater updater = new JobStatusUpdater(timeout);
       try {
@@ -213,6 +231,7 @@ public final class JobBarrier {
         logger.debug("Interrupted while waiting for job");
       }
     }
+    waitTime.get()[0] += System.currentTimeMillis() - start;
     if (pollingException != null) {
       if (pollingException instanceof JobCanceledException)
         throw (JobCanceledException) pollingException;
@@ -278,10 +297,11 @@ public final class JobBarrier {
       final Map<Job, Job.Status> finishedJobs = new HashMap<Job, Job.Status>();
       while (true) {
         final long time = System.currentTimeMillis();
-        // Wait a little..
+        // Wait a little, or until one of the jobs terminates if the service registry tells us about that
+        final Map<Long, Job> updatedJobs;
         try {
           final long timeToSleep = Math.min(pollingInterval, Math.abs(endTime - time));
-          Thread.sleep(timeToSleep);
+          updatedJobs = awaitJobs(finishedJobs, timeToSleep);
         } catch (InterruptedException e) {
           logger.debug("Job polling thread was interrupted");
           return;
@@ -292,7 +312,14 @@ public final class JobBarrier {
           if (!finishedJobs.containsKey(job)) {
             // Get the job status from the service registry
             try {
-              final Job processedJob = serviceRegistry.getJob(job.getId());
+              final Job processedJob;
+              if (updatedJobs == null) {
+                processedJob = serviceRegistry.getJob(job.getId());
+              } else if (updatedJobs.containsKey(job.getId())) {
+                processedJob = updatedJobs.get(job.getId());
+              } else {
+                throw new NotFoundException("Job " + job.getId() + " not found");
+              }
               final Job.Status jobStatus = processedJob.getStatus();
               switch (jobStatus) {
                 case CANCELLED:
@@ -352,6 +379,42 @@ public final class JobBarrier {
       }
     }
 
+    /**
+     * Waits for the given amount of time. If the service registry supports job completion notifications, the wait ends
+     * as soon as one of the jobs which are not finished yet terminates, and the current state of those jobs is returned.
+     *
+     * @param finishedJobs
+     *          the jobs which are already finished
+     * @param timeToSleep
+     *          the maximum time to wait in milliseconds
+     * @return the jobs which are not finished yet by identifier, or <code>null</code> if their status needs to be
+     *         polled from the service registry
+     * @throws InterruptedException
+     *           if the thread has been interrupted while waiting
+     */
+    private Map<Long, Job> awaitJobs(Map<Job, Job.Status> finishedJobs, long timeToSleep) throws InterruptedException {
+      if (serviceRegistry instanceof JobCompletionNotifier) {
+        final List<Long> pendingJobIds = new ArrayList<Long>();
+        for (final Job job : jobs) {
+          if (!finishedJobs.containsKey(job)) {
+            pendingJobIds.add(job.getId());
+          }
+        }
+        try {
+          final Map<Long, Job> updatedJobs = new HashMap<Long, Job>();
+          for (final Job job : ((JobCompletionNotifier) serviceRegistry).waitForJobs(pendingJobIds, timeToSleep)) {
+            updatedJobs.put(job.getId(), job);
+          }
+          return updatedJobs;
+        } catch (ServiceRegistryException e) {
+          logger.warn("Unable to wait for the completion of jobs {}, polling their status instead: {}", pendingJobIds,
+                  e.getMessage());
+        }
+      }
+      Thread.sleep(timeToSleep);
+      return null;
+    }
+
     /**
      * Notifies listeners about the status change.
      *
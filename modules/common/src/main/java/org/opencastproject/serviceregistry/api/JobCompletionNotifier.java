@@ -0,0 +1,73 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.serviceregistry.api;
+
+import org.opencastproject.job.api.Job;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Implemented by service registries which are able to tell when jobs terminate, so that parties waiting for jobs don't
+ * need to poll the job status.
+ * <p>
+ * Notifications only cover job updates passing through the local service registry. Implementations may ask other
+ * nodes of a cluster about jobs processed there, but waiting parties should still check the job status from time to
+ * time.
+ */
+public interface JobCompletionNotifier {
+
+  /**
+   * Registers a listener which is called whenever a job has reached a terminal state, see
+   * {@link Job.Status#isTerminated()}, or has been removed.
+   *
+   * @param listener
+   *          the listener
+   */
+  void addJobCompletionListener(Consumer<Job> listener);
+
+  /**
+   * Removes a listener registered with {@link #addJobCompletionListener(Consumer)}.
+   *
+   * @param listener
+   *          the listener
+   */
+  void removeJobCompletionListener(Consumer<Job> listener);
+
+  /**
+   * Waits until at least one of the given jobs has terminated, or until the timeout has passed, and returns the state of
+   * the jobs. The method returns immediately if one of the jobs has already terminated or does not exist.
+   *
+   * @param jobIds
+   *          the identifiers of the jobs to wait for
+   * @param timeout
+   *          the maximum time to wait in milliseconds
+   * @return the jobs, without the ones that do not exist
+   * @throws ServiceRegistryException
+   *           if reading the jobs fails
+   * @throws InterruptedException
+   *           if the waiting thread has been interrupted
+   */
+  List<Job> waitForJobs(Collection<Long> jobIds, long timeout) throws ServiceRegistryException, InterruptedException;
+
+}
@@ -22,9 +22,7 @@
 
 package org.opencastproject.util;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
@@ -188,7 +186,8 @@ public final class Checksum implements Serializable {
   }
 
   /**
-   * Creates a checksum of type <code>type</code> from the given file.
+   * Creates a checksum of type <code>type</code> from the given file. The file is only hashed if its checksum is not
+   * already known, see {@link ChecksumCache}.
    *
    * @param type
    *          the checksum type
@@ -199,7 +198,7 @@ public final class Checksum implements Serializable {
    *           if the file cannot be accessed
    */
   public static Checksum create(ChecksumType type, File file) throws IOException {
-    return create(type, new BufferedInputStream(new FileInputStream(file)));
+    return ChecksumCache.get(type, file);
   }
 
   /**
@@ -214,7 +213,7 @@ public final class Checksum implements Serializable {
       throw new IllegalStateException("This system does not support checksums of type " + type.getName());
     }
     try {
-      byte[] bytes = new byte[1024];
+      byte[] bytes = new byte[64 * 1024];
       int len = 0;
       while ((len = is.read(bytes)) >= 0) {
         checksum.update(bytes, 0, len);
@@ -0,0 +1,236 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the checksums of files which have already been hashed, so that large media files passed between the working
+ * file repository, the workspace and the services working on them are only read once for hashing.
+ * <p>
+ * Checksums are identified by the file (its inode where the file system supports it, so that hard links share their
+ * checksums), the file size and the last modification time. A modified file is hashed again. Files are hashed using a
+ * large buffer.
+ * <p>
+ * MD5 checksums are also read from the <code>.md5</code> files the working file repository stores next to its files,
+ * provided they have not been written before the file has last been modified.
+ */
+public final class ChecksumCache {
+
+  /** The logging facility */
+  private static final Logger logger = LoggerFactory.getLogger(ChecksumCache.class);
+
+  /** The extension of files containing the MD5 checksum of the file of the same name without the extension */
+  public static final String MD5_EXTENSION = ".md5";
+
+  /** The maximum number of checksums to keep */
+  private static final int MAX_ENTRIES = 10000;
+
+  /** The size of the buffer used for hashing files */
+  private static final int BUFFER_SIZE = 1024 * 1024;
+
+  /** The checksums, least recently used first */
+  private static final Map<Key, String> checksums = new LinkedHashMap<Key, String>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+      return size() > MAX_ENTRIES;
+    }
+  };
+
+  private ChecksumCache() {
+  }
+
+  /**
+   * Returns the checksum of a file, hashing the file only if its checksum is not yet known.
+   *
+   * @param type
+   *          the checksum type
+   * @param file
+   *          the file
+   * @return the checksum
+   * @throws IOException
+   *           if the file cannot be read
+   */
+  public static Checksum get(ChecksumType type, File file) throws IOException {
+    final Checksum known = getIfPresent(type, file);
+    if (known != null) {
+      return known;
+    }
+    final Path path = file.toPath();
+    final Key key = key(type, path);
+    final Checksum checksum = hash(type, path);
+    // Only remember the checksum if the file has not been modified while hashing it
+    if (key.equals(key(type, path))) {
+      synchronized (checksums) {
+        checksums.put(key, checksum.getValue());
+      }
+    }
+    return checksum;
+  }
+
+  /**
+   * Returns the checksum of a file if it is known without hashing the file.
+   *
+   * @param type
+   *          the checksum type
+   * @param file
+   *          the file
+   * @return the checksum or <code>null</code> if it is not known
+   * @throws IOException
+   *           if the file attributes cannot be read
+   */
+  public static Checksum getIfPresent(ChecksumType type, File file) throws IOException {
+    final Path path = file.toPath();
+    final Key key = key(type, path);
+    final String value;
+    synchronized (checksums) {
+      value = checksums.get(key);
+    }
+    if (value != null) {
+      return Checksum.create(type, value);
+    }
+    if (ChecksumType.DEFAULT_TYPE.equals(type)) {
+      final String md5 = readMd5File(path, key.lastModified);
+      if (md5 != null) {
+        synchronized (checksums) {
+          checksums.put(key, md5);
+        }
+        return Checksum.create(type, md5);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Remembers the checksum of a file which has been calculated elsewhere, e.g. while the file has been written.
+   *
+   * @param file
+   *          the file
+   * @param checksum
+   *          the checksum of the current file contents
+   * @throws IOException
+   *           if the file attributes cannot be read
+   */
+  public static void put(File file, Checksum checksum) throws IOException {
+    final Key key = key(checksum.getType(), file.toPath());
+    synchronized (checksums) {
+      checksums.put(key, checksum.getValue());
+    }
+  }
+
+  /**
+   * Hashes the given file without looking up or remembering its checksum.
+   */
+  static Checksum hash(ChecksumType type, Path path) throws IOException {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance(type.getName());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("This system does not support checksums of type " + type.getName());
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+      while (channel.read(buffer) >= 0) {
+        buffer.flip();
+        digest.update(buffer);
+        buffer.clear();
+      }
+    }
+    return Checksum.create(type, Checksum.convertToHex(digest.digest()));
+  }
+
+  /**
+   * Reads the MD5 checksum stored next to the given file, if the file containing it is at least as recent as the file.
+   */
+  private static String readMd5File(Path path, long lastModified) {
+    final Path md5File = path.resolveSibling(path.getFileName() + MD5_EXTENSION);
+    try {
+      if (Files.getLastModifiedTime(md5File).toMillis() < lastModified) {
+        return null;
+      }
+      final String md5 = new String(Files.readAllBytes(md5File), StandardCharsets.UTF_8).trim();
+      return md5.length() == 32 ? md5 : null;
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      logger.debug("Unable to read checksum from {}", md5File, e);
+      return null;
+    }
+  }
+
+  private static Key key(ChecksumType type, Path path) throws IOException {
+    final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    final Object file = attributes.fileKey() != null ? attributes.fileKey() : path.toAbsolutePath().normalize();
+    return new Key(type.getName(), file, attributes.size(), attributes.lastModifiedTime().toMillis());
+  }
+
+  /** Identifies the checksum of a certain version of a file */
+  private static final class Key {
+    private final String type;
+    private final Object file;
+    private final long size;
+    private final long lastModified;
+
+    Key(String type, Object file, long size, long lastModified) {
+      this.type = type;
+      this.file = file;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) o;
+      return size == other.size && lastModified == other.lastModified && type.equals(other.type)
+          && file.equals(other.file);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(type, file, size, lastModified);
+    }
+  }
+
+}
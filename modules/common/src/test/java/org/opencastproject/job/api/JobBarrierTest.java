@@ -21,11 +21,14 @@
 
 package org.opencastproject.job.api;
 
+import static org.easymock.EasyMock.createMock;
 import static org.easymock.EasyMock.createNiceMock;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.opencastproject.util.data.Collections.toArray;
 import static org.opencastproject.util.data.Monadics.mlist;
 
+import org.opencastproject.serviceregistry.api.JobCompletionNotifier;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.util.data.Function;
 import org.opencastproject.util.data.Function2;
@@ -35,7 +38,10 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class JobBarrierTest {
@@ -56,6 +62,45 @@ public class JobBarrierTest {
     }
   }
 
+  @Test
+  public void testWaitForJobsWithCompletionNotifications() throws Exception {
+    final Map<Long, TestJob> jobs = new HashMap<Long, TestJob>();
+    for (long i = 1; i <= 10; i++) {
+      jobs.put(i, alwaysFinish.apply(i));
+    }
+    // The registry reports terminated jobs right away, its status is never polled
+    final NotifyingServiceRegistry sr = createMock(NotifyingServiceRegistry.class);
+    EasyMock.expect(sr.waitForJobs(EasyMock.anyObject(), EasyMock.anyLong())).andAnswer(() -> {
+      final Collection<Long> jobIds = (Collection<Long>) EasyMock.getCurrentArguments()[0];
+      final long timeout = (Long) EasyMock.getCurrentArguments()[1];
+      final List<Job> result = new ArrayList<Job>();
+      final long end = System.currentTimeMillis() + timeout;
+      do {
+        result.clear();
+        for (final Long jobId : jobIds) {
+          result.add(jobs.get(jobId));
+        }
+        if (result.stream().anyMatch(job -> hasJobTerminated(job.getStatus()))) {
+          break;
+        }
+        Thread.sleep(10);
+      } while (System.currentTimeMillis() < end);
+      return result;
+    }).anyTimes();
+    EasyMock.replay(sr);
+
+    // A polling interval this long would make the test time out if the barrier was polling
+    final long start = System.currentTimeMillis();
+    final JobBarrier.Result result = new JobBarrier(null, sr, 60000L, toArray(Job.class, jobs.values())).waitForJobs();
+    assertTrue(System.currentTimeMillis() - start < 30000L);
+    assertTrue(result.isSuccess());
+    assertEquals(jobs.size(), result.getStatus().size());
+  }
+
+  /** A service registry that supports job completion notifications */
+  private interface NotifyingServiceRegistry extends ServiceRegistry, JobCompletionNotifier {
+  }
+
   private void runWaitForJobsTest(Function<Long, TestJob> jobCreator) throws Exception {
     // create a bunch of jobs
     final Map<Long, TestJob> jobs = new HashMap<Long, TestJob>();
@@ -0,0 +1,96 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Test class for {@link ChecksumCache}
+ */
+public class ChecksumCacheTest {
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  @Test
+  public void testHashing() throws Exception {
+    final File file = testFolder.newFile();
+    final byte[] content = new byte[3 * 1024 * 1024 + 17];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) (i * 31);
+    }
+    FileUtils.writeByteArrayToFile(file, content);
+
+    assertNull(ChecksumCache.getIfPresent(ChecksumType.DEFAULT_TYPE, file));
+    final Checksum checksum = Checksum.create(ChecksumType.DEFAULT_TYPE, file);
+    assertEquals(DigestUtils.md5Hex(content), checksum.getValue());
+    assertEquals(checksum, ChecksumCache.getIfPresent(ChecksumType.DEFAULT_TYPE, file));
+
+    // Hard links share their checksum
+    final File link = new File(testFolder.getRoot(), "link");
+    Files.createLink(link.toPath(), file.toPath());
+    assertEquals(checksum, ChecksumCache.getIfPresent(ChecksumType.DEFAULT_TYPE, link));
+
+    // Modified files are hashed again
+    FileUtils.writeStringToFile(file, "modified", StandardCharsets.UTF_8);
+    file.setLastModified(file.lastModified() + 2000);
+    assertNull(ChecksumCache.getIfPresent(ChecksumType.DEFAULT_TYPE, file));
+    assertEquals(DigestUtils.md5Hex("modified"), Checksum.create(ChecksumType.DEFAULT_TYPE, file).getValue());
+  }
+
+  @Test
+  public void testMd5File() throws Exception {
+    final File file = testFolder.newFile("video.mp4");
+    final File md5File = new File(testFolder.getRoot(), "video.mp4" + ChecksumCache.MD5_EXTENSION);
+    FileUtils.writeStringToFile(file, "video", StandardCharsets.UTF_8);
+    FileUtils.writeStringToFile(md5File, DigestUtils.md5Hex("video"), StandardCharsets.UTF_8);
+    md5File.setLastModified(file.lastModified());
+    assertEquals(DigestUtils.md5Hex("video"), ChecksumCache.getIfPresent(ChecksumType.DEFAULT_TYPE, file).getValue());
+
+    // An md5 file written before the file has been modified is ignored
+    FileUtils.writeStringToFile(file, "other video", StandardCharsets.UTF_8);
+    file.setLastModified(md5File.lastModified() + 2000);
+    assertNull(ChecksumCache.getIfPresent(ChecksumType.DEFAULT_TYPE, file));
+    assertEquals(DigestUtils.md5Hex("other video"), Checksum.create(ChecksumType.DEFAULT_TYPE, file).getValue());
+  }
+
+  @Test
+  public void testPut() throws Exception {
+    final File file = testFolder.newFile();
+    FileUtils.writeStringToFile(file, "content", StandardCharsets.UTF_8);
+    final Checksum checksum = Checksum.create(ChecksumType.DEFAULT_TYPE, DigestUtils.md5Hex("content"));
+    ChecksumCache.put(file, checksum);
+    assertEquals(checksum, ChecksumCache.getIfPresent(ChecksumType.DEFAULT_TYPE, file));
+  }
+
+}
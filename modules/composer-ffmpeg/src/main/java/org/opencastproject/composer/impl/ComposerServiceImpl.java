@@ -52,6 +52,7 @@ import org.opencastproject.mediapackage.MediaPackageException;
 import org.opencastproject.mediapackage.Track;
 import org.opencastproject.mediapackage.VideoStream;
 import org.opencastproject.mediapackage.identifier.IdImpl;
+import org.opencastproject.mediapackage.track.TrackImpl;
 import org.opencastproject.security.api.OrganizationDirectoryService;
 import org.opencastproject.security.api.SecurityService;
 import org.opencastproject.security.api.UserDirectoryService;
@@ -119,6 +120,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /** FFMPEG based implementation of the composer service api. */
@@ -205,6 +207,11 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
   private float processSmilJobLoadFactor = DEFAULT_PROCESS_SMIL_JOB_LOAD_FACTOR;
   private float multiEncodeJobLoadFactor = DEFAULT_MULTI_ENCODE_JOB_LOAD_FACTOR;
 
+  /** The job load of segmented encoding jobs, which only split the source and concatenate the encoded segments */
+  public static final float DEFAULT_SEGMENTED_ENCODE_JOB_LOAD = 0.2f;
+  public static final String JOB_LOAD_SEGMENTED_ENCODE = "job.load.segmentedencode";
+  private float segmentedEncodeJobLoad = DEFAULT_SEGMENTED_ENCODE_JOB_LOAD;
+
   // NOMINAL TRIM - remove this from the beginning of all mylti-encoded videos
   // This was added to deal with lipsync issue with ffmpeg4, using libfdk_aac appears to fix it
   public static final int DEFAULT_MULTI_ENCODE_TRIM_MILLISECONDS = 0;
@@ -221,7 +228,8 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
 
   /** List of available operations on jobs */
   enum Operation {
-    Encode, Image, ImageConversion, Mux, Trim, Composite, Concat, ImageToVideo, ParallelEncode, Demux, ProcessSmil, MultiEncode
+    Encode, Image, ImageConversion, Mux, Trim, Composite, Concat, ImageToVideo, ParallelEncode, Demux, ProcessSmil, MultiEncode,
+    SegmentedEncode
   }
 
   /** tracked encoder engines */
@@ -577,6 +585,256 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.composer.api.ComposerService#segmentedEncode(org.opencastproject.mediapackage.Track,
+   *      java.lang.String, long)
+   */
+  @Override
+  public Job segmentedEncode(Track sourceTrack, String profileId, long segmentDuration)
+          throws EncoderException, MediaPackageException {
+    if (segmentDuration <= 0) {
+      throw new IllegalArgumentException("The segment duration must be positive");
+    }
+    try {
+      logger.info("Starting segmented encode with profile {} and segments of {} ms", profileId, segmentDuration);
+      return serviceRegistry.createJob(JOB_TYPE, Operation.SegmentedEncode.toString(),
+              Arrays.asList(profileId, MediaPackageElementParser.getAsXml(sourceTrack), Long.toString(segmentDuration)),
+              segmentedEncodeJobLoad);
+    } catch (ServiceRegistryException e) {
+      throw new EncoderException("Unable to create a job", e);
+    }
+  }
+
+  /**
+   * Encodes a track like {@link #parallelEncode(Job, Track, String)}, but splits its video stream into segments first
+   * and encodes each segment in its own parallel encoding job. The audio streams are encoded in one piece by another
+   * parallel encoding job, so that encoder priming is only added once. The encoded video segments of each output are
+   * concatenated again and combined with the encoded audio of the same output.
+   *
+   * @param job
+   *          Job in which context the encoding is done
+   * @param sourceTrack
+   *          Source track
+   * @param profileId
+   *          the encoding profile
+   * @param segmentDuration
+   *          the targeted duration of the segments in milliseconds
+   * @return the encoded tracks
+   * @throws EncoderException
+   *           if encoding fails
+   */
+  private List<Track> segmentedEncode(Job job, Track sourceTrack, String profileId, long segmentDuration)
+          throws EncoderException, MediaPackageException {
+    final EncodingProfile profile = getProfile(job, profileId);
+    if (!sourceTrack.hasVideo()) {
+      logger.info("Track {} has no video, encoding it in one piece", sourceTrack.getIdentifier());
+      return parallelEncode(job, sourceTrack, profileId);
+    }
+    if (isAdaptive(profile)) {
+      logger.info("Adaptive streaming outputs of profile {} cannot be concatenated, encoding track {} in one piece",
+              profileId, sourceTrack.getIdentifier());
+      return parallelEncode(job, sourceTrack, profileId);
+    }
+    final File sourceFile = loadTrackIntoWorkspace(job, "source", sourceTrack, false);
+
+    // Cut the video at key frames and copy the audio without re-encoding them
+    final EncoderEngine splitEngine = getEncoderEngine();
+    final List<File> segmentFiles = new ArrayList<>();
+    File audioFile = null;
+    try {
+      segmentFiles.addAll(splitEngine.split(sourceFile, segmentDuration));
+      if (sourceTrack.hasAudio()) {
+        audioFile = splitEngine.extractAudio(sourceFile);
+      }
+    } catch (EncoderException e) {
+      cleanup(segmentFiles.toArray(new File[0]));
+      Map<String, String> params = new HashMap<>();
+      params.put("track", sourceTrack.getIdentifier());
+      params.put("profile", profile.getIdentifier());
+      params.put("segment-duration", Long.toString(segmentDuration));
+      incident().recordFailure(job, ENCODING_FAILED, e, params, detailsFor(e, splitEngine));
+      throw e;
+    } finally {
+      activeEncoder.remove(splitEngine);
+    }
+
+    if (segmentFiles.size() < 2) {
+      logger.info("Track {} is not longer than one segment, encoding it in one piece", sourceTrack.getIdentifier());
+      cleanup(segmentFiles.toArray(new File[0]));
+      cleanup(audioFile);
+      return parallelEncode(job, sourceTrack, profileId);
+    }
+
+    final List<URI> segmentURIs = new ArrayList<>();
+    final List<URI> encodedSegmentURIs = new ArrayList<>();
+    try {
+      URI audioURI = null;
+      try {
+        segmentURIs.addAll(putToCollection(job, segmentFiles, "source segment"));
+        if (audioFile != null) {
+          audioURI = putToCollection(job, audioFile, "source audio");
+          segmentURIs.add(audioURI);
+        }
+      } finally {
+        cleanup(segmentFiles.toArray(new File[0]));
+        cleanup(audioFile);
+      }
+
+      // Encode the segments and the audio in separate jobs, so they can be dispatched to all available workers
+      logger.info("Encoding track {} in {} segments using profile {}", sourceTrack.getIdentifier(),
+              segmentFiles.size(), profileId);
+      List<Job> jobs = new ArrayList<>(segmentURIs.size());
+      for (int i = 0; i < segmentURIs.size(); i++) {
+        jobs.add(parallelEncode(getPart(sourceTrack, segmentURIs.get(i), i < segmentFiles.size()), profileId));
+      }
+      final List<Job> segmentJobs = jobs.subList(0, segmentFiles.size());
+      final Job audioJob = audioURI == null ? null : jobs.get(jobs.size() - 1);
+
+      JobBarrier barrier = new JobBarrier(job, serviceRegistry, jobs.toArray(new Job[0]));
+      if (!barrier.waitForJobs().isSuccess()) {
+        for (Map.Entry<Job, Job.Status> result : barrier.getStatus().getStatus().entrySet()) {
+          if (result.getValue() != Job.Status.FINISHED) {
+            logger.error("Encoding of segment failed in job {}: {}", result.getKey(), result.getValue());
+          }
+        }
+        throw new EncoderException("Encoding of the segments of track " + sourceTrack.getIdentifier() + " failed");
+      }
+
+      List<List<Track>> encodedSegments = new ArrayList<>(segmentJobs.size());
+      for (Job segmentJob : segmentJobs) {
+        encodedSegments.add(getSegmentOutputs(segmentJob, encodedSegmentURIs));
+      }
+      final List<Track> encodedAudio = audioJob == null ? null : getSegmentOutputs(audioJob, encodedSegmentURIs);
+      final List<List<Track>> allOutputs = new ArrayList<>(encodedSegments);
+      if (encodedAudio != null) {
+        allOutputs.add(encodedAudio);
+      }
+      for (List<Track> outputs : allOutputs) {
+        if (outputs.size() != encodedSegments.get(0).size()) {
+          throw new EncoderException("The segments of track " + sourceTrack.getIdentifier()
+                  + " were encoded into different numbers of outputs");
+        }
+        for (Track output : outputs) {
+          if (AdaptivePlaylist.isPlaylist(output)) {
+            throw new EncoderException("Adaptive streaming outputs of profile " + profileId
+                    + " cannot be encoded in segments");
+          }
+        }
+      }
+
+      // Concatenate the encoded segments of each output of the encoding profile and add the encoded audio, without
+      // re-encoding them
+      List<URI> outputURIs = new ArrayList<>();
+      List<List<String>> outputTags = new ArrayList<>();
+      for (int i = 0; i < encodedSegments.get(0).size(); i++) {
+        List<File> files = new ArrayList<>(encodedSegments.size());
+        for (List<Track> outputs : encodedSegments) {
+          files.add(loadTrackIntoWorkspace(job, "encoded segment", outputs.get(i), false));
+        }
+        final String outputName = FilenameUtils.getBaseName(sourceFile.getName()) + "_" + UUID.randomUUID() + "."
+                + FilenameUtils.getExtension(files.get(0).getName());
+        final File video = new File(files.get(0).getAbsoluteFile().getParentFile(), encodedAudio == null
+                ? outputName : "video_" + outputName);
+        final File output = new File(files.get(0).getAbsoluteFile().getParentFile(), outputName);
+
+        final EncoderEngine concatEngine = getEncoderEngine();
+        try {
+          concatEngine.concat(files, video);
+          if (encodedAudio != null) {
+            files.add(loadTrackIntoWorkspace(job, "encoded audio", encodedAudio.get(i), false));
+            concatEngine.mux(video, files.get(files.size() - 1), output);
+          }
+        } catch (EncoderException e) {
+          cleanup(video, output);
+          Map<String, String> params = new HashMap<>();
+          params.put("tracks", StringUtils.join(files, ","));
+          params.put("profile", profile.getIdentifier());
+          params.put("properties", "EMPTY");
+          incident().recordFailure(job, CONCAT_FAILED, e, params, detailsFor(e, concatEngine));
+          throw e;
+        } finally {
+          activeEncoder.remove(concatEngine);
+          if (encodedAudio != null) {
+            cleanup(video);
+          }
+        }
+        outputURIs.add(putToCollection(job, output, "encoded file"));
+        outputTags.add(Arrays.asList(encodedSegments.get(0).get(i).getTags()));
+      }
+
+      // Have the encoded tracks inspected and return the result
+      List<Track> encodedTracks = inspect(job, outputURIs, outputTags);
+      for (Track encodedTrack : encodedTracks) {
+        encodedTrack.setIdentifier(IdImpl.fromUUID().toString());
+      }
+      return encodedTracks;
+    } finally {
+      cleanupWorkspace(segmentURIs.toArray(new URI[0]));
+      cleanupWorkspace(encodedSegmentURIs.toArray(new URI[0]));
+    }
+  }
+
+  /**
+   * Returns whether an encoding profile creates adaptive streaming playlists. Their outputs reference further files and
+   * cannot be concatenated.
+   *
+   * @param profile
+   *          the encoding profile
+   * @return true if the profile creates adaptive streaming outputs
+   */
+  private static boolean isAdaptive(EncodingProfile profile) {
+    return profile.getOutputType() == EncodingProfile.MediaType.Manifest
+            || profile.getExtension(EncoderEngine.ADAPTIVE_TYPE_SUFFIX) != null
+            || "m3u8".equalsIgnoreCase(FilenameUtils.getExtension(profile.getSuffix()));
+  }
+
+  /**
+   * Describes a part of the source track of a segmented encode. Video segments only contain the video streams and the
+   * extracted audio only contains the audio streams of the source, so the part must not claim to have any others.
+   *
+   * @param sourceTrack
+   *          the source track
+   * @param uri
+   *          the location of the part
+   * @param video
+   *          true for a video segment, false for the extracted audio
+   * @return the track of the part
+   */
+  private static Track getPart(Track sourceTrack, URI uri, boolean video) {
+    final TrackImpl part = (TrackImpl) sourceTrack.clone();
+    part.setIdentifier(IdImpl.fromUUID().toString());
+    part.setURI(uri);
+    part.setChecksum(null);
+    part.setSubtitle(new ArrayList<>());
+    if (video) {
+      part.setAudio(new ArrayList<>());
+      part.setDuration(null); // segments end at key frames, so their duration is unknown
+    } else {
+      part.setVideo(new ArrayList<>());
+    }
+    return part;
+  }
+
+  /**
+   * Returns the outputs of a finished parallel encoding job of a segmented encode.
+   *
+   * @param segmentJob
+   *          the parallel encoding job
+   * @param encodedSegmentURIs
+   *          the list to add the locations of the outputs to, so that these can be removed afterwards
+   * @return the encoded tracks
+   */
+  @SuppressWarnings("unchecked")
+  private List<Track> getSegmentOutputs(Job segmentJob, List<URI> encodedSegmentURIs) throws MediaPackageException {
+    List<Track> outputs = (List<Track>) MediaPackageElementParser.getArrayFromXml(segmentJob.getPayload());
+    for (Track output : outputs) {
+      encodedSegmentURIs.add(output.getURI());
+    }
+    return outputs;
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -1583,6 +1841,11 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
           outTracks = multiEncode(job, firstTrack, encodingProfiles2);
           serialized = StringUtils.trimToEmpty(MediaPackageElementParser.getArrayAsXml(outTracks));
           break;
+        case SegmentedEncode:
+          firstTrack = (Track) MediaPackageElementParser.getFromXml(arguments.get(1));
+          serialized = MediaPackageElementParser.getArrayAsXml(segmentedEncode(job, firstTrack, encodingProfile,
+                  Long.parseLong(arguments.get(2))));
+          break;
         default:
           throw new IllegalStateException("Don't know how to handle operation '" + operation + "'");
       }
@@ -2102,6 +2365,8 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
             DEFAULT_PROCESS_SMIL_JOB_LOAD_FACTOR, serviceRegistry);
     multiEncodeJobLoadFactor = LoadUtil.getConfiguredLoadValue(properties, JOB_LOAD_FACTOR_MULTI_ENCODE,
             DEFAULT_MULTI_ENCODE_JOB_LOAD_FACTOR, serviceRegistry);
+    segmentedEncodeJobLoad = LoadUtil.getConfiguredLoadValue(properties, JOB_LOAD_SEGMENTED_ENCODE,
+            DEFAULT_SEGMENTED_ENCODE_JOB_LOAD, serviceRegistry);
     // This should throw exceptions if the property is misconfigured
     String multiEncodeFadeStr = StringUtils.trimToNull((String) properties.get(MULTI_ENCODE_FADE_MILLISECONDS));
     multiEncodeTrim = DEFAULT_MULTI_ENCODE_FADE_MILLISECONDS;
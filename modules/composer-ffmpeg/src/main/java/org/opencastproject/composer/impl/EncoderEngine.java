@@ -38,7 +38,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintWriter;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.ArrayList;
@@ -320,6 +322,132 @@ public class EncoderEngine implements AutoCloseable {
     }
   }
 
+  /**
+   * Splits the video stream of a media file into segments without re-encoding it. The segments are cut at the first
+   * video key frame after each multiple of the segment duration, so each segment can be encoded independently. Audio
+   * is left out, since audio packets don't line up with the key frames and encoding each piece separately would add
+   * encoder priming at every boundary. Use {@link #extractAudio(File)} to encode it in one piece instead.
+   *
+   * @param source
+   *          the media file to split
+   * @param segmentDuration
+   *          the targeted duration of the segments in milliseconds
+   * @return the segments in presentation order
+   * @throws EncoderException
+   *           if splitting fails
+   */
+  List<File> split(File source, long segmentDuration) throws EncoderException {
+    final String prefix = FilenameUtils.getBaseName(source.getName()) + "_" + UUID.randomUUID() + "_";
+    final String extension = FilenameUtils.getExtension(source.getName());
+    final File template = new File(source.getAbsoluteFile().getParentFile(), prefix + "%05d." + extension);
+    final DecimalFormatSymbols ffmpegFormat = new DecimalFormatSymbols();
+    ffmpegFormat.setDecimalSeparator('.');
+    final List<String> command = Arrays.asList(
+        "-nostdin", "-i", source.getAbsolutePath(),
+        "-map", "0:v", "-c", "copy",
+        "-f", "segment", "-segment_time", new DecimalFormat("0.000", ffmpegFormat).format(segmentDuration / 1000.0),
+        "-reset_timestamps", "1",
+        template.getAbsolutePath());
+
+    EncoderException failure = null;
+    try {
+      process(command);
+    } catch (EncoderException e) {
+      failure = e;
+    }
+
+    // The segment muxer only reports the file name template, so look for the files it wrote
+    File[] files = template.getParentFile().listFiles((dir, name) -> name.startsWith(prefix));
+    List<File> segments = files == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(files));
+    if (failure != null) {
+      cleanup(segments);
+      throw failure;
+    } else if (segments.isEmpty()) {
+      throw new EncoderException("Splitting " + source + " did not create any segments");
+    }
+    Collections.sort(segments);
+    return segments;
+  }
+
+  /**
+   * Copies the audio streams of a media file into a file of its own without re-encoding them.
+   *
+   * @param source
+   *          the media file
+   * @return the audio file
+   * @throws EncoderException
+   *           if extracting the audio fails
+   */
+  File extractAudio(File source) throws EncoderException {
+    final File output = new File(source.getAbsoluteFile().getParentFile(), FilenameUtils.getBaseName(source.getName())
+        + "_" + UUID.randomUUID() + "_audio." + FilenameUtils.getExtension(source.getName()));
+    process(Arrays.asList(
+        "-nostdin", "-i", source.getAbsolutePath(),
+        "-map", "0:a", "-c", "copy", "-y", output.getAbsolutePath()));
+    if (!output.isFile()) {
+      throw new EncoderException("Extracting the audio of " + source + " did not create " + output);
+    }
+    return output;
+  }
+
+  /**
+   * Combines the video streams of one media file with the audio streams of another one without re-encoding them.
+   *
+   * @param video
+   *          the file to take the video streams from
+   * @param audio
+   *          the file to take the audio streams from
+   * @param output
+   *          the output file
+   * @return the combined file
+   * @throws EncoderException
+   *           if muxing fails
+   */
+  File mux(File video, File audio, File output) throws EncoderException {
+    process(Arrays.asList(
+        "-nostdin", "-i", video.getAbsolutePath(), "-i", audio.getAbsolutePath(),
+        "-map", "0:v", "-map", "1:a", "-c", "copy", "-y", output.getAbsolutePath()));
+    if (!output.isFile()) {
+      throw new EncoderException("Muxing " + video + " and " + audio + " did not create " + output);
+    }
+    return output;
+  }
+
+  /**
+   * Concatenates media files with the same codecs and parameters into a single file without re-encoding them.
+   *
+   * @param inputs
+   *          the files to concatenate, in presentation order
+   * @param output
+   *          the output file
+   * @return the concatenated file
+   * @throws EncoderException
+   *           if concatenation fails
+   */
+  File concat(List<File> inputs, File output) throws EncoderException {
+    // create file list to use Concat demuxer - lossless - pack contents into a single container
+    final File fileList = new File(output.getAbsoluteFile().getParentFile(),
+        FilenameUtils.getBaseName(output.getName()) + "_concat.txt");
+    try {
+      try (PrintWriter printer = new PrintWriter(fileList, "UTF-8")) {
+        for (File input : inputs) {
+          printer.append("file '").append(input.getAbsolutePath().replace("'", "'\\''")).append("'\n");
+        }
+      } catch (IOException e) {
+        throw new EncoderException("Cannot create file list for concat", e);
+      }
+      process(Arrays.asList(
+          "-nostdin", "-f", "concat", "-safe", "0", "-i", fileList.getAbsolutePath(),
+          "-map", "0", "-c", "copy", "-y", output.getAbsolutePath()));
+    } finally {
+      FileUtils.deleteQuietly(fileList);
+    }
+    if (!output.isFile()) {
+      throw new EncoderException("Concatenating " + inputs + " did not create " + output);
+    }
+    return output;
+  }
+
   /**
    * Deletes all valid files found in a list
    *
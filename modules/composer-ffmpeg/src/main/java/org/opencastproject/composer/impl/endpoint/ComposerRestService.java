@@ -270,6 +270,57 @@ public class ComposerRestService extends AbstractJobProducerEndpoint {
     return Response.ok().entity(new JaxbJob(job)).build();
   }
 
+  /**
+   * Encodes a track to multiple tracks in parallel, encoding segments of the track in separate jobs.
+   *
+   * @param sourceTrackAsXml
+   *          The source track
+   * @param profileId
+   *          The profile to use in encoding this track
+   * @param segmentDuration
+   *          The targeted duration of the segments in milliseconds
+   * @return A response containing the job for this encoding job in the response body.
+   * @throws Exception
+   */
+  @POST
+  @Path("segmentedencode")
+  @Produces(MediaType.TEXT_XML)
+  @RestQuery(name = "segmentedencode", description = "Starts an encoding process, based on the specified encoding "
+          + "profile ID and the track. The track is split into segments at key frames, which are encoded in separate "
+          + "jobs and concatenated again.",
+    restParameters = {
+      @RestParameter(description = "The track containing the stream", isRequired = true, name = "sourceTrack",
+          type = Type.TEXT, defaultValue = VIDEO_TRACK_DEFAULT),
+      @RestParameter(description = "The encoding profile to use", isRequired = true, name = "profileId",
+          type = Type.STRING, defaultValue = "mp4-medium.http"),
+      @RestParameter(description = "The targeted duration of the segments in milliseconds", isRequired = true,
+          name = "segmentDuration", type = Type.LONG, defaultValue = "600000")
+    }, responses = {
+      @RestResponse(description = "Results in an xml document containing the job for the encoding task",
+          responseCode = HttpServletResponse.SC_OK),
+      @RestResponse(description = "If required parameters aren't set or if sourceTrack isn't from the type Track",
+          responseCode = HttpServletResponse.SC_BAD_REQUEST)
+    }, returnDescription = "")
+  public Response segmentedencode(@FormParam("sourceTrack") String sourceTrackAsXml,
+          @FormParam("profileId") String profileId, @FormParam("segmentDuration") long segmentDuration)
+          throws Exception {
+    // Ensure that the POST parameters are present
+    if (sourceTrackAsXml == null || profileId == null || segmentDuration <= 0) {
+      return Response.status(Response.Status.BAD_REQUEST)
+          .entity("sourceTrack, profileId and a positive segmentDuration must be set").build();
+    }
+
+    // Deserialize the track
+    MediaPackageElement sourceTrack = MediaPackageElementParser.getFromXml(sourceTrackAsXml);
+    if (!Track.TYPE.equals(sourceTrack.getElementType())) {
+      return Response.status(Response.Status.BAD_REQUEST).entity("sourceTrack element must be of type track").build();
+    }
+
+    // Asynchronously encode the specified tracks
+    Job job = composerService.segmentedEncode((Track) sourceTrack, profileId, segmentDuration);
+    return Response.ok().entity(new JaxbJob(job)).build();
+  }
+
   /**
    * Trims a track to a new length.
    *
@@ -22,6 +22,7 @@ package org.opencastproject.composer.impl;
 
 import static org.easymock.EasyMock.anyBoolean;
 import static org.easymock.EasyMock.capture;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import org.opencastproject.composer.api.EncoderException;
@@ -754,6 +755,76 @@ public class ComplexCmdsEncoderEngineTest {
     }
   }
 
+  @Test
+  public void testSplitAndConcat() throws Exception {
+    if (!ffmpegInstalled)
+      return;
+    List<File> segments = engine.split(sourceAudioVideoLarger, 1000);
+    File audio = null;
+    File video = new File(workingDirectory, "concat_video_" + sourceAudioVideoLarger.getName());
+    File output = new File(workingDirectory, "concat_" + sourceAudioVideoLarger.getName());
+    try {
+      assertTrue(segments.size() > 1);
+      for (File segment : segments) {
+        assertTrue(segment.length() > 0);
+        // The segments only contain video
+        assertEquals(1, probeStreamDurations(segment).size());
+      }
+      audio = engine.extractAudio(sourceAudioVideoLarger);
+      engine.concat(segments, video);
+      engine.mux(video, audio, output);
+      assertTrue(output.length() > 0);
+
+      // Neither the video nor the audio may be shortened or prolonged by splitting and concatenating them
+      Map<String, Double> source = probeStreamDurations(sourceAudioVideoLarger);
+      Map<String, Double> result = probeStreamDurations(output);
+      double frame = probeFrameDuration(sourceAudioVideoLarger);
+      assertEquals(source.keySet(), result.keySet());
+      assertEquals(probeDuration(sourceAudioVideoLarger), probeDuration(output), frame);
+      assertEquals(source.get("video"), result.get("video"), frame);
+      assertEquals(source.get("audio"), result.get("audio"), frame);
+      assertEquals(result.get("video"), result.get("audio"), frame);
+    } finally {
+      FileUtils.deleteQuietly(output);
+      FileUtils.deleteQuietly(video);
+      FileUtils.deleteQuietly(audio);
+      segments.forEach(FileUtils::deleteQuietly);
+    }
+  }
+
+  /** Returns the durations in seconds of the first stream of each type of a media file */
+  private Map<String, Double> probeStreamDurations(File file) throws Exception {
+    Map<String, Double> durations = new HashMap<>();
+    for (String line : probe(file, "-show_entries", "stream=codec_type,duration")) {
+      String[] fields = line.split(",");
+      if (fields.length == 2) {
+        durations.putIfAbsent(fields[0], Double.parseDouble(fields[1]));
+      }
+    }
+    return durations;
+  }
+
+  /** Returns the duration in seconds of a media file */
+  private double probeDuration(File file) throws Exception {
+    return Double.parseDouble(probe(file, "-show_entries", "format=duration").get(0));
+  }
+
+  /** Returns the duration in seconds of a frame of the first video stream of a media file */
+  private double probeFrameDuration(File file) throws Exception {
+    String[] rate = probe(file, "-select_streams", "v:0", "-show_entries", "stream=avg_frame_rate").get(0).split("/");
+    return Double.parseDouble(rate[1]) / Double.parseDouble(rate[0]);
+  }
+
+  private List<String> probe(File file, String... entries) throws Exception {
+    List<String> command = new ArrayList<>(Arrays.asList("ffprobe", "-v", "error"));
+    command.addAll(Arrays.asList(entries));
+    command.addAll(Arrays.asList("-of", "csv=p=0", file.getAbsolutePath()));
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    List<String> lines = IOUtils.readLines(process.getInputStream(), Charset.defaultCharset());
+    assertEquals(0, process.waitFor());
+    return lines.stream().map(String::trim).filter(line -> !line.isEmpty()).collect(Collectors.toList());
+  }
+
   @Test
   public void testMultiEncodeJob() throws Exception {
     if (!ffmpegInstalled)
@@ -39,9 +39,12 @@ import org.opencastproject.composer.layout.Serializer;
 import org.opencastproject.job.api.Job;
 import org.opencastproject.job.api.JobImpl;
 import org.opencastproject.mediapackage.Attachment;
+import org.opencastproject.mediapackage.MediaPackageElement;
 import org.opencastproject.mediapackage.MediaPackageElementParser;
 import org.opencastproject.mediapackage.Track;
 import org.opencastproject.mediapackage.attachment.AttachmentImpl;
+import org.opencastproject.mediapackage.track.AudioStreamImpl;
+import org.opencastproject.mediapackage.track.TrackImpl;
 import org.opencastproject.security.api.DefaultOrganization;
 import org.opencastproject.security.api.JaxbOrganization;
 import org.opencastproject.security.api.JaxbRole;
@@ -77,11 +80,18 @@ import java.awt.image.BufferedImage;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.imageio.ImageIO;
@@ -600,4 +610,155 @@ public class ComposerServiceTest {
     inspectedTrack.setMimeType(MimeType.mimeType("video", "mp4"));
     Assert.assertEquals(inspectedTrack, imageToVideoTrack);
   }
+
+  /**
+   * Test method for {@link ComposerServiceImpl#segmentedEncode(Track, String, long)}. The segments are re-encoded with
+   * B-frames, so every segment starts with an edit list. Concatenating them must neither change the duration of the
+   * video or the audio nor shift them against each other compared to encoding the track in one piece.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testSegmentedEncode() throws Exception {
+    Assume.assumeTrue(isInstalled("ffprobe"));
+    final File collection = new File(testDir, "segmented_" + UUID.randomUUID());
+    final File source = new File(collection, "av1.mp4");
+    FileUtils.copyFile(getFile("/av1.mp4"), source);
+
+    Workspace workspace = EasyMock.createNiceMock(Workspace.class);
+    final Capture<String> safeName = EasyMock.newCapture();
+    EasyMock.expect(workspace.toSafeName(EasyMock.capture(safeName))).andAnswer(safeName::getValue).anyTimes();
+    EasyMock.expect(workspace.get(EasyMock.anyObject(), EasyMock.anyBoolean())).andAnswer(() -> {
+      File file = new File((URI) EasyMock.getCurrentArguments()[0]);
+      if (!(Boolean) EasyMock.getCurrentArguments()[1]) {
+        return file;
+      }
+      File copy = new File(collection, UUID.randomUUID() + "_" + file.getName());
+      FileUtils.copyFile(file, copy);
+      return copy;
+    }).anyTimes();
+    EasyMock.expect(workspace.putInCollection(EasyMock.anyString(), EasyMock.anyString(), EasyMock.anyObject()))
+            .andAnswer(() -> {
+              File file = new File(collection, (String) EasyMock.getCurrentArguments()[1]);
+              FileUtils.copyInputStreamToFile((InputStream) EasyMock.getCurrentArguments()[2], file);
+              return file.toURI();
+            }).anyTimes();
+    EasyMock.replay(workspace);
+
+    // Run all jobs right away and keep them, so the job barriers find them finished
+    final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+    final ComposerServiceImpl service = new ComposerServiceImpl() {
+      @Override
+      protected List<Track> inspect(Job job, List<URI> uris, List<List<String>> tags) throws EncoderException {
+        final var result = new ArrayList<Track>(uris.size());
+        for (URI uri : uris) {
+          Track track = (Track) inspectedTrack.clone();
+          track.setURI(uri);
+          result.add(track);
+        }
+        return result;
+      }
+    };
+    ServiceRegistry serviceRegistry = EasyMock.createNiceMock(ServiceRegistry.class);
+    EasyMock.expect(serviceRegistry.createJob(EasyMock.anyString(), EasyMock.anyString(), EasyMock.anyObject(),
+            EasyMock.anyFloat())).andAnswer(() -> {
+              Job job = new JobImpl(jobs.size() + 1);
+              job.setJobType((String) EasyMock.getCurrentArguments()[0]);
+              job.setOperation((String) EasyMock.getCurrentArguments()[1]);
+              job.setArguments((List<String>) EasyMock.getCurrentArguments()[2]);
+              job.setStatus(Job.Status.RUNNING);
+              jobs.put(job.getId(), job);
+              job.setPayload(service.process(job));
+              job.setStatus(Job.Status.FINISHED);
+              return job;
+            }).anyTimes();
+    EasyMock.expect(serviceRegistry.getJob(EasyMock.anyLong()))
+            .andAnswer(() -> jobs.get((Long) EasyMock.getCurrentArguments()[0])).anyTimes();
+    EasyMock.replay(serviceRegistry);
+    service.setServiceRegistry(serviceRegistry);
+    service.setProfileScanner(profileScanner);
+    service.setWorkspace(workspace);
+
+    final TrackImpl sourceTrack = (TrackImpl) sourceVideoTrack.clone();
+    sourceTrack.setURI(source.toURI());
+    sourceTrack.addStream(new AudioStreamImpl("audio-1"));
+
+    try {
+      Job singlePass = service.parallelEncode(sourceTrack, "segmented.http");
+      final File expected = new File(
+              ((Track) MediaPackageElementParser.getArrayFromXml(singlePass.getPayload()).get(0)).getURI());
+      jobs.clear();
+
+      Job segmented = service.segmentedEncode(sourceTrack, "segmented.http", 5000);
+      final List<? extends MediaPackageElement> outputs = MediaPackageElementParser.getArrayFromXml(
+              segmented.getPayload());
+      assertEquals(1, outputs.size());
+      final File actual = new File(outputs.get(0).getURI());
+
+      // The video segments only contain video and the audio only contains audio
+      int videoParts = 0;
+      int audioParts = 0;
+      for (Job job : jobs.values()) {
+        if ("ParallelEncode".equals(job.getOperation())) {
+          Track part = (Track) MediaPackageElementParser.getFromXml(job.getArguments().get(1));
+          assertTrue(part.hasVideo() ^ part.hasAudio());
+          videoParts += part.hasVideo() ? 1 : 0;
+          audioParts += part.hasAudio() ? 1 : 0;
+        }
+      }
+      assertTrue(videoParts > 1);
+      assertEquals(1, audioParts);
+
+      // Neither the video nor the audio may drift from the single pass encode
+      final double frame = probeFrameDuration(expected);
+      final Map<String, Double> expectedDurations = probeStreams(expected, "duration");
+      final Map<String, Double> actualDurations = probeStreams(actual, "duration");
+      assertEquals(expectedDurations.keySet(), actualDurations.keySet());
+      assertEquals(expectedDurations.get("video"), actualDurations.get("video"), frame);
+      assertEquals(expectedDurations.get("audio"), actualDurations.get("audio"), frame);
+
+      // and the video has to start at the same time relative to the audio
+      final Map<String, Double> expectedStarts = probeStreams(expected, "start_time");
+      final Map<String, Double> actualStarts = probeStreams(actual, "start_time");
+      assertEquals(expectedStarts.get("video") - expectedStarts.get("audio"),
+              actualStarts.get("video") - actualStarts.get("audio"), frame);
+    } finally {
+      FileUtils.deleteQuietly(collection);
+    }
+  }
+
+  private static boolean isInstalled(String binary) {
+    try {
+      return new ProcessBuilder(binary, "-version").start().waitFor() == 0;
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  /** Returns a property of the first stream of each type of a media file */
+  private static Map<String, Double> probeStreams(File file, String property) throws Exception {
+    Map<String, Double> values = new HashMap<>();
+    for (String line : probe(file, "-show_entries", "stream=codec_type," + property)) {
+      String[] fields = line.split(",");
+      if (fields.length == 2) {
+        values.putIfAbsent(fields[0], Double.parseDouble(fields[1]));
+      }
+    }
+    return values;
+  }
+
+  /** Returns the duration in seconds of a frame of the first video stream of a media file */
+  private static double probeFrameDuration(File file) throws Exception {
+    String[] rate = probe(file, "-select_streams", "v:0", "-show_entries", "stream=avg_frame_rate").get(0).split("/");
+    return Double.parseDouble(rate[1]) / Double.parseDouble(rate[0]);
+  }
+
+  private static List<String> probe(File file, String... entries) throws Exception {
+    List<String> command = new ArrayList<>(Arrays.asList("ffprobe", "-v", "error"));
+    command.addAll(Arrays.asList(entries));
+    command.addAll(Arrays.asList("-of", "csv=p=0", file.getAbsolutePath()));
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    List<String> lines = IOUtils.readLines(process.getInputStream(), Charset.defaultCharset());
+    assertEquals(0, process.waitFor());
+    return lines.stream().map(String::trim).filter(line -> !line.isEmpty()).collect(Collectors.toList());
+  }
 }
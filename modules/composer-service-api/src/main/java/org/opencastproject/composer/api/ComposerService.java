@@ -299,6 +299,25 @@ public interface ComposerService {
    */
   Job parallelEncode(Track sourceTrack, String profileId) throws EncoderException, MediaPackageException;
 
+  /**
+   * Encode one track like {@link #parallelEncode(Track, String)}, but split it into segments at key frames first. Each
+   * segment is encoded in its own job, so the segments of long recordings can be encoded on several workers at the
+   * same time. The encoded segments are concatenated without re-encoding them. Tracks without video and profiles
+   * creating adaptive streaming outputs are encoded in one piece.
+   *
+   * @param sourceTrack
+   *          The source track
+   * @param profileId
+   *          The profile to use for encoding
+   * @param segmentDuration
+   *          The targeted duration of the segments in milliseconds
+   * @return The receipt for this encoding job
+   * @throws EncoderException
+   * @throws MediaPackageException
+   */
+  Job segmentedEncode(Track sourceTrack, String profileId, long segmentDuration)
+          throws EncoderException, MediaPackageException;
+
   /**
    * Demux a multi-track source into 2 media as defined by the encoding profile, the results are flavored and tagged
    * positionally. eg: One ffmpeg operation to produce presenter/work and presentation/work
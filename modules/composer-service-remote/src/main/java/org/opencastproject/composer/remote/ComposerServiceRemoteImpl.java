@@ -172,6 +172,40 @@ public class ComposerServiceRemoteImpl extends RemoteBase implements ComposerSer
     throw new EncoderException("Unable to encode track " + sourceTrack + " using a remote composer service");
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.composer.api.ComposerService#segmentedEncode(Track, String, long)
+   */
+  @Override
+  public Job segmentedEncode(Track sourceTrack, String profileId, long segmentDuration) throws EncoderException {
+    HttpPost post = new HttpPost("/segmentedencode");
+    try {
+      List<BasicNameValuePair> params = new ArrayList<>();
+      params.add(new BasicNameValuePair("sourceTrack", MediaPackageElementParser.getAsXml(sourceTrack)));
+      params.add(new BasicNameValuePair("profileId", profileId));
+      params.add(new BasicNameValuePair("segmentDuration", Long.toString(segmentDuration)));
+      post.setEntity(new UrlEncodedFormEntity(params, "UTF-8"));
+    } catch (Exception e) {
+      throw new EncoderException("Unable to assemble a remote composer request for track " + sourceTrack, e);
+    }
+    HttpResponse response = null;
+    try {
+      response = getResponse(post);
+      if (response != null) {
+        String content = EntityUtils.toString(response.getEntity());
+        Job r = JobParser.parseJob(content);
+        logger.info("Segmented encoding job {} started on a remote composer", r.getId());
+        return r;
+      }
+    } catch (Exception e) {
+      throw new EncoderException("Unable to encode track " + sourceTrack + " using a remote composer service", e);
+    } finally {
+      closeConnection(response);
+    }
+    throw new EncoderException("Unable to encode track " + sourceTrack + " using a remote composer service");
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -191,6 +191,17 @@ public class EncodeWorkflowOperationHandler extends AbstractWorkflowOperationHan
     if (profiles.isEmpty())
       throw new WorkflowOperationException("No encoding profile was specified");
 
+    // Optionally encode long tracks in segments on several workers
+    String segmentDurationOption = StringUtils.trimToNull(operation.getConfiguration("segment-duration"));
+    long segmentDuration = 0;
+    if (segmentDurationOption != null) {
+      try {
+        segmentDuration = Math.round(Double.parseDouble(segmentDurationOption) * 1000);
+      } catch (NumberFormatException e) {
+        throw new WorkflowOperationException("Invalid segment duration '" + segmentDurationOption + "'", e);
+      }
+    }
+
     // Look for elements matching the tag
     Collection<Track> elements = elementSelector.select(mediaPackage, false);
 
@@ -215,7 +226,14 @@ public class EncodeWorkflowOperationHandler extends AbstractWorkflowOperationHan
         logger.info("Encoding track {} using encoding profile '{}'", track, profile);
 
         // Start encoding and wait for the result
-        encodingJobs.put(composerService.parallelEncode(track, profile.getIdentifier()), new JobInformation(track, profile));
+        Job job;
+        if (segmentDuration > 0 && track.hasVideo() && track.getDuration() != null
+                && track.getDuration() > segmentDuration) {
+          job = composerService.segmentedEncode(track, profile.getIdentifier(), segmentDuration);
+        } else {
+          job = composerService.parallelEncode(track, profile.getIdentifier());
+        }
+        encodingJobs.put(job, new JobInformation(track, profile));
       }
     }
 
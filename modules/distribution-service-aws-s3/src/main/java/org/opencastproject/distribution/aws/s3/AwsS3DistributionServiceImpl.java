@@ -68,6 +68,7 @@ import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.BucketWebsiteConfiguration;
 import com.amazonaws.services.s3.model.SetBucketWebsiteConfigurationRequest;
 import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
 import com.amazonaws.services.s3.transfer.Upload;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
@@ -104,6 +105,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -148,6 +150,8 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
   public static final String AWS_S3_MAX_CONNECTIONS = "org.opencastproject.distribution.aws.s3.max.connections";
   public static final String AWS_S3_CONNECTION_TIMEOUT = "org.opencastproject.distribution.aws.s3.connection.timeout";
   public static final String AWS_S3_MAX_RETRIES = "org.opencastproject.distribution.aws.s3.max.retries";
+  public static final String AWS_S3_UPLOAD_CONCURRENCY = "org.opencastproject.distribution.aws.s3.upload.concurrency";
+  public static final String AWS_S3_UPLOAD_PART_SIZE = "org.opencastproject.distribution.aws.s3.upload.part.size";
   // job loads
   public static final String DISTRIBUTE_JOB_LOAD_KEY = "job.load.aws.s3.distribute";
   public static final String RETRACT_JOB_LOAD_KEY = "job.load.aws.s3.retract";
@@ -162,6 +166,8 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
   public static final int DEFAULT_MAX_CONNECTIONS = 50;
   public static final int DEFAULT_CONNECTION_TIMEOUT = 10000;
   public static final int DEFAULT_MAX_RETRIES = 100;
+  public static final int DEFAULT_UPLOAD_CONCURRENCY = 10;
+  public static final int DEFAULT_UPLOAD_PART_SIZE = 8; // MiB
 
   /** The load on the system introduced by creating a distribute job */
   public static final float DEFAULT_DISTRIBUTE_JOB_LOAD = 0.1f;
@@ -339,7 +345,18 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
               .withClientConfiguration(clientConfiguration)
               .withPathStyleAccessEnabled(pathStyle).withCredentials(provider).build();
 
-      s3TransferManager = new TransferManager(s3);
+      // Files larger than one part are uploaded in parts, which are sent in parallel by the transfer manager's threads
+      int uploadConcurrency = OsgiUtil.getOptCfgAsInt(cc.getProperties(), AWS_S3_UPLOAD_CONCURRENCY)
+              .getOrElse(DEFAULT_UPLOAD_CONCURRENCY);
+      long uploadPartSize = OsgiUtil.getOptCfgAsInt(cc.getProperties(), AWS_S3_UPLOAD_PART_SIZE)
+              .getOrElse(DEFAULT_UPLOAD_PART_SIZE) * 1024L * 1024L;
+      logger.debug("Upload concurrency: {}, part size: {} bytes", uploadConcurrency, uploadPartSize);
+      s3TransferManager = TransferManagerBuilder.standard()
+              .withS3Client(s3)
+              .withExecutorFactory(() -> Executors.newFixedThreadPool(uploadConcurrency))
+              .withMinimumUploadPartSize(uploadPartSize)
+              .withMultipartUploadThreshold(uploadPartSize)
+              .build();
 
       // Create AWS S3 bucket if not there yet
       createAWSBucket();
@@ -447,10 +464,17 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
       return distributeHLSElements(channelId, mediapackage, elements, checkAvailability);
     }
 
-    for (MediaPackageElement element : elements) {
-      MediaPackageElement distributedElement = distributeElement(channelId, mediapackage, element, checkAvailability);
-      distributedElements.add(distributedElement);
+    // Start all uploads before waiting for any of them, so that the elements are transferred in parallel
+    List<PendingUpload> uploads = new ArrayList<>();
+    try {
+      for (MediaPackageElement element : elements) {
+        uploads.add(startUpload(channelId, mediapackage, element));
+      }
+    } catch (DistributionException | RuntimeException e) {
+      abortUploads(uploads);
+      throw e;
     }
+    distributedElements.addAll(completeUploads(mediapackage, uploads, checkAvailability));
     return distributedElements.toArray(new MediaPackageElement[distributedElements.size()]);
   }
 
@@ -487,8 +511,17 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
     notNull(mediaPackage, "mediapackage");
     notNull(element, "element");
 
+    return completeUploads(mediaPackage, List.of(startUpload(channelId, mediaPackage, element)), checkAvailability)
+            .get(0);
+  }
+
+  /**
+   * Starts uploading a media package element from the workspace to AWS S3 without waiting for the upload to finish.
+   */
+  private PendingUpload startUpload(String channelId, MediaPackage mediaPackage, MediaPackageElement element)
+          throws DistributionException {
     try {
-      return distributeElement(channelId, mediaPackage, element, checkAvailability, workspace.get(element.getURI()));
+      return startUpload(channelId, mediaPackage, element, workspace.get(element.getURI()));
     } catch (NotFoundException e) {
       throw new DistributionException("Unable to find " + element.getURI() + " in the workspace", e);
     } catch (IOException e) {
@@ -496,26 +529,83 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
     }
   }
 
-  private MediaPackageElement distributeElement(String channelId, final MediaPackage mediaPackage,
-          MediaPackageElement element, boolean checkAvailability, File source) throws DistributionException {
-
+  /**
+   * Starts uploading a file to AWS S3 without waiting for the upload to finish.
+   */
+  private PendingUpload startUpload(String channelId, MediaPackage mediaPackage, MediaPackageElement element,
+          File source) throws DistributionException {
+    String objectName = buildObjectName(channelId, mediaPackage.getIdentifier().toString(), element);
+    logger.info("Uploading {} to bucket {}...", objectName, bucketName);
     // Use TransferManager to take advantage of multipart upload.
     // TransferManager processes all transfers asynchronously, so this call will return immediately.
     try {
-      String objectName = buildObjectName(channelId, mediaPackage.getIdentifier().toString(), element);
-      logger.info("Uploading {} to bucket {}...", objectName, bucketName);
-      Upload upload = s3TransferManager.upload(bucketName, objectName, source);
-      long start = System.currentTimeMillis();
+      return new PendingUpload(element, objectName, source.length(),
+              s3TransferManager.upload(bucketName, objectName, source));
+    } catch (AmazonClientException e) {
+      throw new DistributionException("AWS error: " + e.getMessage(), e);
+    }
+  }
 
-      try {
+  /**
+   * Waits for the given uploads to finish and creates the distributed elements. All remaining uploads are aborted if
+   * one of them fails.
+   *
+   * @return the distributed elements, in the order of the uploads
+   */
+  private List<MediaPackageElement> completeUploads(MediaPackage mediaPackage, List<PendingUpload> uploads,
+          boolean checkAvailability) throws DistributionException {
+    long bytes = 0;
+    try {
+      for (PendingUpload upload : uploads) {
         // Block and wait for the upload to finish
-        upload.waitForCompletion();
-        logger.info("Upload of {} to bucket {} completed in {} seconds", objectName, bucketName,
-                (System.currentTimeMillis() - start) / 1000);
-      } catch (AmazonClientException e) {
-        throw new DistributionException("AWS error: " + e.getMessage(), e);
+        upload.upload.waitForCompletion();
+        logger.info("Upload of {} to bucket {} completed in {} seconds", upload.objectName, bucketName,
+                (System.currentTimeMillis() - upload.start) / 1000);
+        bytes += upload.size;
       }
+    } catch (AmazonClientException e) {
+      abortUploads(uploads);
+      throw new DistributionException("AWS error: " + e.getMessage(), e);
+    } catch (InterruptedException e) {
+      abortUploads(uploads);
+      throw new DistributionException(e);
+    }
+    if (!uploads.isEmpty()) {
+      long duration = Math.max(1, System.currentTimeMillis() - uploads.get(0).start);
+      logger.info("Uploaded {} elements of media package {} with {} bytes to bucket {} in {} ms ({} KiB/s)",
+              uploads.size(), mediaPackage.getIdentifier(), bytes, bucketName, duration,
+              bytes * 1000 / 1024 / duration);
+    }
+
+    List<MediaPackageElement> distributedElements = new ArrayList<>();
+    for (PendingUpload upload : uploads) {
+      distributedElements.add(createDistributedElement(mediaPackage, upload.element, upload.objectName,
+              checkAvailability));
+    }
+    return distributedElements;
+  }
+
+  /**
+   * Aborts those of the given uploads which are still in progress.
+   */
+  private void abortUploads(List<PendingUpload> uploads) {
+    for (PendingUpload upload : uploads) {
+      if (!upload.upload.isDone()) {
+        try {
+          upload.upload.abort();
+        } catch (AmazonClientException e) {
+          logger.warn("Unable to abort upload of {} to bucket {}", upload.objectName, bucketName, e);
+        }
+      }
+    }
+  }
 
+  /**
+   * Creates a representation of an uploaded element in the media package and optionally checks its availability.
+   */
+  private MediaPackageElement createDistributedElement(final MediaPackage mediaPackage, MediaPackageElement element,
+          String objectName, boolean checkAvailability) throws DistributionException {
+    try {
       // Create a representation of the distributed file in the media package
       MediaPackageElement distributedElement = (MediaPackageElement) element.clone();
       try {
@@ -784,10 +874,16 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
     List<MediaPackageElement> distributedElements = new ArrayList<MediaPackageElement>();
     List<MediaPackageElement> nontrackElements = elements.stream()
             .filter(e -> e.getElementType() != MediaPackageElement.Type.Track).collect(Collectors.toList());
+    // All uploads are started before waiting for any of them, so that the elements are transferred in parallel
+    List<PendingUpload> uploads = new ArrayList<>();
     // Distribute non track items
-    for (MediaPackageElement element : nontrackElements) {
-      MediaPackageElement distributedElement = distributeElement(channelId, mediapackage, element, checkAvailability);
-      distributedElements.add(distributedElement);
+    try {
+      for (MediaPackageElement element : nontrackElements) {
+        uploads.add(startUpload(channelId, mediapackage, element));
+      }
+    } catch (DistributionException | RuntimeException e) {
+      abortUploads(uploads);
+      throw e;
     }
     // Then get all tracks from mediapackage and sort them by flavor
     // Each flavor is one video with multiple renditions
@@ -844,14 +940,11 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
             transformedTracks.addAll(tracks); // not playlists, distribute anyway
           }
           for (Track track : transformedTracks) {
-            MediaPackageElement distributedElement;
             if (AdaptivePlaylist.isPlaylist(track)) {
-              distributedElement = distributeElement(channelId, mediapackage, track, checkAvailability,
-                      new File(track.getURI()));
+              uploads.add(startUpload(channelId, mediapackage, track, new File(track.getURI())));
             } else {
-              distributedElement = distributeElement(channelId, mediapackage, track, checkAvailability);
+              uploads.add(startUpload(channelId, mediapackage, track));
             }
-            distributedElements.add(distributedElement);
           }
         } catch (MediaPackageException | NotFoundException | IOException e1) {
           logger.error("HLS Prepare failed for mediapackage {} in {}", elementSet.getKey(), mediapackage, e1);
@@ -861,8 +954,14 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
           throw new DistributionException("Cannot distribute - BAD URI syntax " + mediapackage);
         }
       }
+      // The playlists have to be uploaded before the temporary directory is removed
+      distributedElements.addAll(completeUploads(mediapackage, uploads, checkAvailability));
     } catch (IOException e2) {
+      abortUploads(uploads);
       throw new DistributionException("Cannot create tmp dir to process HLS:" + mediapackage + e2.getMessage());
+    } catch (DistributionException | RuntimeException e) {
+      abortUploads(uploads);
+      throw e;
     } finally {
       // Clean up temp dir
       try (Stream<Path> walk = Files.walk(tmpDir)) {
@@ -966,6 +1065,22 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
     }
   }
 
+  /** An upload which has been started but not yet waited for */
+  private static final class PendingUpload {
+    private final MediaPackageElement element;
+    private final String objectName;
+    private final long size;
+    private final Upload upload;
+    private final long start = System.currentTimeMillis();
+
+    PendingUpload(MediaPackageElement element, String objectName, long size, Upload upload) {
+      this.element = element;
+      this.objectName = objectName;
+      this.size = size;
+      this.upload = upload;
+    }
+  }
+
   /** The methods below are used by the test class */
 
   protected void setS3(AmazonS3 s3) {
@@ -42,6 +42,7 @@ import com.google.gson.Gson;
 import org.apache.commons.io.FileUtils;
 import org.easymock.EasyMock;
 import org.easymock.IAnswer;
+import org.easymock.IMocksControl;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -253,6 +254,31 @@ public class AwsS3DistributionServiceImplTest {
         mpe.getURI());
   }
 
+  @Test
+  public void testDistributeElementsInParallel() throws Exception {
+    // All uploads have to be started before waiting for the first one
+    IMocksControl control = EasyMock.createStrictControl();
+    TransferManager orderedTm = control.createMock(TransferManager.class);
+    Upload first = control.createMock(Upload.class);
+    Upload second = control.createMock(Upload.class);
+    EasyMock.expect(orderedTm.upload(EasyMock.eq(BUCKET_NAME), EasyMock.anyObject(String.class),
+            EasyMock.anyObject(File.class))).andReturn(first);
+    EasyMock.expect(orderedTm.upload(EasyMock.eq(BUCKET_NAME), EasyMock.anyObject(String.class),
+            EasyMock.anyObject(File.class))).andReturn(second);
+    first.waitForCompletion();
+    second.waitForCompletion();
+    control.replay();
+    service.setS3TransferManager(orderedTm);
+
+    Set<String> mpeIds = new LinkedHashSet<String>();
+    mpeIds.add("presenter-delivery");
+    mpeIds.add("track-1");
+
+    MediaPackageElement[] mpes = service.distributeElements("channelId", mp, mpeIds, false);
+    Assert.assertEquals(2, mpes.length);
+    control.verify();
+  }
+
   @Test
   public void testRetractElements() throws Exception {
     s3.deleteObject(BUCKET_NAME,
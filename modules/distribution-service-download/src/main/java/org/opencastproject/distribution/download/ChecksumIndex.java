@@ -0,0 +1,187 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.distribution.download;
+
+import org.opencastproject.util.Checksum;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * A persistent index of the distributed files of each organization by their checksum, used to find an already
+ * distributed copy of a file to link to.
+ * <p>
+ * The index is stored outside of the distribution directory, since that is served publicly and the index reveals the
+ * paths of all distributed files. For each checksum, it contains a file listing the distributed files with that
+ * checksum, relative to the distribution directory of the organization. The index is only a hint:
+ * files listed may have been removed or replaced in the meantime, e.g. by another node updating the index at the same
+ * time, so callers need to check the files they get.
+ */
+final class ChecksumIndex {
+
+  /** Checksum types and values which can safely be used as file names */
+  private static final Pattern SAFE_NAME = Pattern.compile("[a-zA-Z0-9-]+");
+
+  /** The distribution directory */
+  private final Path distributionDirectory;
+
+  /** The directory containing the index */
+  private final Path indexDirectory;
+
+  /**
+   * @param indexDirectory
+   *          the directory to store the index in, which must not be within the distribution directory
+   * @param distributionDirectory
+   *          the distribution directory
+   */
+  ChecksumIndex(File indexDirectory, File distributionDirectory) {
+    this.distributionDirectory = distributionDirectory.toPath().toAbsolutePath().normalize();
+    this.indexDirectory = indexDirectory.toPath().toAbsolutePath().normalize();
+    if (this.indexDirectory.startsWith(this.distributionDirectory)) {
+      throw new IllegalArgumentException("The checksum index must not be stored within the distribution directory "
+          + this.distributionDirectory);
+    }
+  }
+
+  /**
+   * Returns the distributed files with the given checksum.
+   *
+   * @param orgId
+   *          the organization identifier
+   * @param checksum
+   *          the checksum
+   * @return the files, which may no longer exist
+   * @throws IOException
+   *           if the index cannot be read
+   */
+  List<Path> find(String orgId, Checksum checksum) throws IOException {
+    final Path entry = entry(orgId, checksum);
+    if (entry == null || !Files.isRegularFile(entry)) {
+      return Collections.emptyList();
+    }
+    final Path organizationDirectory = distributionDirectory.resolve(orgId);
+    return Files.readAllLines(entry, StandardCharsets.UTF_8).stream()
+        .filter(line -> !line.isEmpty())
+        .map(organizationDirectory::resolve)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Adds a distributed file to the index.
+   *
+   * @param orgId
+   *          the organization identifier
+   * @param checksum
+   *          the checksum of the file
+   * @param file
+   *          the distributed file
+   * @throws IOException
+   *           if the index cannot be updated
+   */
+  void add(String orgId, Checksum checksum, Path file) throws IOException {
+    final String path = relativize(orgId, file);
+    update(orgId, checksum, paths -> paths.add(path));
+  }
+
+  /**
+   * Removes a distributed file from the index.
+   *
+   * @param orgId
+   *          the organization identifier
+   * @param checksum
+   *          the checksum of the file
+   * @param file
+   *          the distributed file
+   * @throws IOException
+   *           if the index cannot be updated
+   */
+  void remove(String orgId, Checksum checksum, Path file) throws IOException {
+    final String path = relativize(orgId, file);
+    update(orgId, checksum, paths -> paths.remove(path));
+  }
+
+  /**
+   * Applies a change to the files listed for a checksum, dropping files which no longer exist.
+   */
+  private synchronized void update(String orgId, Checksum checksum, Consumer<Set<String>> change)
+          throws IOException {
+    final Path entry = entry(orgId, checksum);
+    if (entry == null) {
+      return;
+    }
+    final Path organizationDirectory = distributionDirectory.resolve(orgId);
+    final Set<String> paths = new LinkedHashSet<>();
+    if (Files.isRegularFile(entry)) {
+      for (String line : Files.readAllLines(entry, StandardCharsets.UTF_8)) {
+        if (!line.isEmpty() && Files.isRegularFile(organizationDirectory.resolve(line))) {
+          paths.add(line);
+        }
+      }
+    }
+    change.accept(paths);
+    if (paths.isEmpty()) {
+      Files.deleteIfExists(entry);
+      return;
+    }
+    Files.createDirectories(entry.getParent());
+    final Path tmp = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+    try {
+      Files.write(tmp, paths, StandardCharsets.UTF_8);
+      try {
+        Files.move(tmp, entry, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  /**
+   * Returns the index file for a checksum or <code>null</code> if the checksum cannot be indexed.
+   */
+  private Path entry(String orgId, Checksum checksum) {
+    final String type = checksum.getType().getName();
+    final String value = checksum.getValue();
+    if (value == null || value.length() < 3 || !SAFE_NAME.matcher(type).matches()
+        || !SAFE_NAME.matcher(value).matches()) {
+      return null;
+    }
+    return indexDirectory.resolve(orgId).resolve(type).resolve(value.substring(0, 2)).resolve(value);
+  }
+
+  private String relativize(String orgId, Path file) {
+    return distributionDirectory.resolve(orgId).relativize(file.toAbsolutePath().normalize()).toString();
+  }
+
+}
@@ -49,6 +49,7 @@ import org.opencastproject.security.api.UserDirectoryService;
 import org.opencastproject.security.util.SecurityUtil;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.serviceregistry.api.ServiceRegistryException;
+import org.opencastproject.util.Checksum;
 import org.opencastproject.util.FileSupport;
 import org.opencastproject.util.LoadUtil;
 import org.opencastproject.util.NotFoundException;
@@ -139,6 +140,9 @@ public class DownloadDistributionServiceImpl extends AbstractDistributionService
   /** The key to look for in the service configuration file to override the {@link #DEFAULT_RETRACT_JOB_LOAD} */
   public static final String RETRACT_JOB_LOAD_KEY = "job.load.download.retract";
 
+  /** The name of the directory within the storage directory containing the index of the distributed files */
+  static final String CHECKSUM_INDEX_DIRECTORY = "downloads-checksums";
+
   /** The load on the system introduced by creating a distribute job */
   private float distributeJobLoad = DEFAULT_DISTRIBUTE_JOB_LOAD;
 
@@ -152,6 +156,9 @@ public class DownloadDistributionServiceImpl extends AbstractDistributionService
 
   private String systemUserName = null;
 
+  /** The index of the distributed files by checksum */
+  private ChecksumIndex checksumIndex;
+
   /**
    * Creates a new instance of the download distribution service.
    */
@@ -181,6 +188,20 @@ public class DownloadDistributionServiceImpl extends AbstractDistributionService
     }
     this.distributionDirectory = new File(ccDistributionDirectory);
     logger.info("Download distribution directory is {}", distributionDirectory);
+    final String storageDirectory = cc.getBundleContext().getProperty("org.opencastproject.storage.dir");
+    if (storageDirectory == null) {
+      logger.warn("Storage directory is not set (org.opencastproject.storage.dir), duplicated files are only searched "
+          + "in the other channels of a media package");
+    } else {
+      final File indexDirectory = new File(storageDirectory, CHECKSUM_INDEX_DIRECTORY);
+      try {
+        this.checksumIndex = new ChecksumIndex(indexDirectory, distributionDirectory);
+        logger.info("Checksum index of the distributed files is stored in {}", indexDirectory);
+      } catch (IllegalArgumentException e) {
+        logger.warn("Unable to use {} for the checksum index, duplicated files are only searched in the other "
+            + "channels of a media package: {}", indexDirectory, e.getMessage());
+      }
+    }
     this.distributionChannel = OsgiUtil.getComponentContextProperty(cc, CONFIG_KEY_STORE_TYPE);
     systemUserName = cc.getBundleContext().getProperty(DIGEST_USER_PROPERTY);
   }
@@ -329,7 +350,7 @@ public class DownloadDistributionServiceImpl extends AbstractDistributionService
 
       // Try to find a duplicated element source
       try {
-        source = findDuplicatedElementSource(source, mediapackageId);
+        source = findDuplicatedElementSource(source, mediapackageId, element);
       } catch (IOException e) {
         logger.warn("Unable to find duplicated source {}: {}", source, ExceptionUtils.getMessage(e));
       }
@@ -351,6 +372,7 @@ public class DownloadDistributionServiceImpl extends AbstractDistributionService
           throw new DistributionException(format("Unable to copy %s to %s", source, destination), e);
         }
       }
+      addToChecksumIndex(element, destination);
       // Create a media package element representation of the distributed file
       MediaPackageElement distributedElement = (MediaPackageElement) element.clone();
       try {
@@ -451,9 +473,12 @@ public class DownloadDistributionServiceImpl extends AbstractDistributionService
       throw new DistributionException("Error loading " + element.getURI() + " from the workspace", e);
     }
 
-    // Try to find a duplicated element source
+    // Try to find a duplicated element source. Playlists are copied, not linked, so they are not indexed.
+    final boolean playlist = AdaptivePlaylist.isPlaylist(source);
     try {
-      source = findDuplicatedElementSource(source, mediapackageId);
+      source = playlist
+          ? findDuplicatedElementSource(source, mediapackageId)
+          : findDuplicatedElementSource(source, mediapackageId, element);
     } catch (IOException e) {
       logger.warn("Unable to find duplicated source {}: {}", source, ExceptionUtils.getMessage(e));
     }
@@ -470,7 +495,7 @@ public class DownloadDistributionServiceImpl extends AbstractDistributionService
               mediapackageId, channelId, destination);
 
       try {
-        if (AdaptivePlaylist.isPlaylist(source)) { // do not link text files
+        if (playlist) { // do not link text files
           FileSupport.copy(source, destination, true);
         } else {
           FileSupport.link(source, destination, true);
@@ -479,6 +504,9 @@ public class DownloadDistributionServiceImpl extends AbstractDistributionService
         throw new DistributionException(format("Unable to copy %s to %s", source, destination), e);
       }
     }
+    if (!playlist) {
+      addToChecksumIndex(element, destination);
+    }
 
     MediaPackageElement distributeElement = (MediaPackageElement) element.clone();
     // Create a media package element representation of the distributed file
@@ -670,6 +698,15 @@ public class DownloadDistributionServiceImpl extends AbstractDistributionService
 
       logger.debug("Retracting element {} ({})", element, elementFile);
 
+      if (checksumIndex != null && element.getChecksum() != null) {
+        try {
+          checksumIndex.remove(securityService.getOrganization().getId(), element.getChecksum(),
+              elementFile.toPath());
+        } catch (IOException e) {
+          logger.warn("Unable to remove {} from the checksum index", elementFile, e);
+        }
+      }
+
       // Try to remove the file and its parent folder representing the mediapackage element id
       if (!FileUtils.deleteQuietly(elementFile.getParentFile())) {
         // TODO Removing a folder containing deleted files may fail on NFS volumes. This needs a cleanup strategy.
@@ -756,6 +793,65 @@ public class DownloadDistributionServiceImpl extends AbstractDistributionService
     return elements;
   }
 
+  /**
+   * Try to find the same file being already distributed, using the checksum index if the element has a checksum.
+   * Otherwise, the other channels of the media package are searched for the file.
+   *
+   * @param source
+   *          the source file
+   * @param mpId
+   *          the element's mediapackage id
+   * @param element
+   *          the element to distribute
+   * @return the found duplicated file or the given source if nothing has been found
+   * @throws IOException
+   *           if an I/O error occurs
+   */
+  private File findDuplicatedElementSource(final File source, final String mpId, final MediaPackageElement element)
+          throws IOException {
+    final Checksum checksum = element.getChecksum();
+    if (checksumIndex == null || checksum == null) {
+      return findDuplicatedElementSource(source, mpId);
+    }
+
+    final long size = Files.size(source.toPath());
+    for (Path candidate : checksumIndex.find(securityService.getOrganization().getId(), checksum)) {
+      if (!Files.isRegularFile(candidate) || Files.size(candidate) != size) {
+        continue;
+      }
+      if (Files.isSameFile(candidate, source.toPath())) {
+        return candidate.toFile();
+      }
+      // The index may be outdated, so make sure the content is actually the same
+      try (InputStream is1 = Files.newInputStream(source.toPath());
+           InputStream is2 = Files.newInputStream(candidate)) {
+        if (IOUtils.contentEquals(is1, is2)) {
+          return candidate.toFile();
+        }
+      }
+    }
+    return source;
+  }
+
+  /**
+   * Adds a distributed file to the checksum index, if the element has a checksum.
+   *
+   * @param element
+   *          the distributed element
+   * @param file
+   *          the distributed file
+   */
+  private void addToChecksumIndex(final MediaPackageElement element, final File file) {
+    if (checksumIndex == null || element.getChecksum() == null) {
+      return;
+    }
+    try {
+      checksumIndex.add(securityService.getOrganization().getId(), element.getChecksum(), file.toPath());
+    } catch (IOException e) {
+      logger.warn("Unable to add {} to the checksum index", file, e);
+    }
+  }
+
   /**
    * Try to find the same file being already distributed in one of the other channels
    *
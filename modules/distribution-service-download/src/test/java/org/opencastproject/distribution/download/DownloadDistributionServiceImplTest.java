@@ -68,6 +68,7 @@ import java.io.InputStream;
 import java.net.URI;
 import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Hashtable;
 import java.util.Optional;
@@ -81,6 +82,7 @@ public class DownloadDistributionServiceImplTest {
   private DownloadDistributionServiceImpl service = null;
   private MediaPackage mp = null;
   private File distributionRoot = null;
+  private File storageRoot = null;
   private ServiceRegistry serviceRegistry = null;
   private DefaultOrganization defaultOrganization;
 
@@ -90,6 +92,7 @@ public class DownloadDistributionServiceImplTest {
     mp = MediaPackageParser.getFromXml(IOUtils.toString(getClass().getResourceAsStream("/mediapackage.xml"), "UTF-8"));
 
     distributionRoot = new File(mediaPackageRoot, "static");
+    storageRoot = new File(mediaPackageRoot, "storage");
     service = new DownloadDistributionServiceImpl();
 
     StatusLine statusLine = EasyMock.createNiceMock(StatusLine.class);
@@ -162,6 +165,8 @@ public class DownloadDistributionServiceImplTest {
     BundleContext bc = EasyMock.createNiceMock(BundleContext.class);
     EasyMock.expect(bc.getProperty("org.opencastproject.download.directory"))
         .andReturn(distributionRoot.toString()).anyTimes();
+    EasyMock.expect(bc.getProperty("org.opencastproject.storage.dir"))
+        .andReturn(storageRoot.toString()).anyTimes();
     EasyMock.expect(bc.getProperty("org.opencastproject.download.url"))
         .andReturn(UrlSupport.DEFAULT_BASE_URL).anyTimes();
     EasyMock.expect(bc.getProperty(DIGEST_USER_PROPERTY))
@@ -178,6 +183,7 @@ public class DownloadDistributionServiceImplTest {
   @After
   public void tearDown() throws Exception {
     FileUtils.deleteDirectory(distributionRoot);
+    FileUtils.deleteDirectory(storageRoot);
     ((ServiceRegistryInMemoryImpl) serviceRegistry).dispose();
   }
 
@@ -253,6 +259,41 @@ public class DownloadDistributionServiceImplTest {
     Assert.assertTrue(service.getDistributionFile("oai-pmh", mp, mp.getElementById("track-1")).isFile());
   }
 
+  @Test
+  public void testChecksumIndex() throws Exception {
+    // The index is not published along with the distributed files
+    final File indexFile = new File(storageRoot, PathSupport.path(
+        DownloadDistributionServiceImpl.CHECKSUM_INDEX_DIRECTORY, defaultOrganization.getId(), "md5", "43",
+        "43b7d843b02c4a429b2f547a4f230d31"));
+
+    // Distribute the same track to two channels, the second one should find the first one in the index
+    Job job1 = service.distribute("engage-player", mp, "track-1");
+    new JobBarrier(null, serviceRegistry, 500, job1).waitForJobs();
+    Job job2 = service.distribute("oai-pmh", mp, "track-1");
+    new JobBarrier(null, serviceRegistry, 500, job2).waitForJobs();
+
+    final File engage = service.getDistributionFile("engage-player", mp, mp.getElementById("track-1"));
+    final File oaiPmh = service.getDistributionFile("oai-pmh", mp, mp.getElementById("track-1"));
+    Assert.assertTrue(oaiPmh.isFile());
+    Assert.assertTrue(Files.isSameFile(engage.toPath(), oaiPmh.toPath()));
+    Assert.assertEquals(Collections.singletonList(defaultOrganization.getId()),
+        Arrays.asList(distributionRoot.list()));
+    Assert.assertEquals(Arrays.asList(
+        PathSupport.path("engage-player", mp.getIdentifier().toString(), "track-1", "media.mov"),
+        PathSupport.path("oai-pmh", mp.getIdentifier().toString(), "track-1", "media.mov")),
+        Files.readAllLines(indexFile.toPath()));
+
+    // Retracting removes the file from the index
+    Job job3 = service.retract("engage-player", mp, "track-1");
+    new JobBarrier(null, serviceRegistry, 500, job3).waitForJobs();
+    Assert.assertEquals(Arrays.asList(
+        PathSupport.path("oai-pmh", mp.getIdentifier().toString(), "track-1", "media.mov")),
+        Files.readAllLines(indexFile.toPath()));
+    Job job4 = service.retract("oai-pmh", mp, "track-1");
+    new JobBarrier(null, serviceRegistry, 500, job4).waitForJobs();
+    Assert.assertFalse(indexFile.exists());
+  }
+
   @Test
   public void testRetractByDistributed() throws Exception {
     int elementCount = mp.getElements().length;
@@ -315,6 +315,69 @@ public abstract class AbstractElasticsearchIndex implements SearchIndex {
           .source(document));
     }
 
+    return bulkUpdate(maxRetryAttempts, retryWaitingPeriod, bulkRequest);
+  }
+
+  /**
+   * Posts the input documents to the search index, splitting them into as few bulk requests as possible without
+   * exceeding the given request size. A single document larger than the limit is sent on its own.
+   *
+   * @param maxRetryAttempts
+   *          How often to retry update in case of ElasticsearchStatusException
+   * @param retryWaitingPeriod
+   *          How long to wait (in ms) between retries
+   * @param documents
+   *          The Elasticsearch documents
+   * @param maxRequestSize
+   *          The maximum estimated size of a bulk request in bytes
+   * @return the query responses
+   *
+   * @throws IOException
+   *         If updating the index fails
+   * @throws InterruptedException
+   *         If waiting during retry is interrupted
+   */
+  protected List<BulkResponse> bulkUpdate(int maxRetryAttempts, int retryWaitingPeriod,
+      List<ElasticsearchDocument> documents, long maxRequestSize)
+          throws IOException, InterruptedException {
+    List<BulkResponse> responses = new ArrayList<>();
+    BulkRequest bulkRequest = new BulkRequest().setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+
+    for (ElasticsearchDocument document: documents) {
+      IndexRequest indexRequest = new IndexRequest(getSubIndexIdentifier(document.getType())).id(document.getUID())
+          .source(document);
+      if (bulkRequest.numberOfActions() > 0
+          && bulkRequest.estimatedSizeInBytes() + indexRequest.source().length() > maxRequestSize) {
+        responses.add(bulkUpdate(maxRetryAttempts, retryWaitingPeriod, bulkRequest));
+        bulkRequest = new BulkRequest().setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+      }
+      bulkRequest.add(indexRequest);
+    }
+    if (bulkRequest.numberOfActions() > 0) {
+      responses.add(bulkUpdate(maxRetryAttempts, retryWaitingPeriod, bulkRequest));
+    }
+
+    return responses;
+  }
+
+  /**
+   * Sends a bulk request to the search index, retrying it if the index rejects it.
+   *
+   * @param maxRetryAttempts
+   *          How often to retry update in case of ElasticsearchStatusException
+   * @param retryWaitingPeriod
+   *          How long to wait (in ms) between retries
+   * @param bulkRequest
+   *          The bulk request
+   * @return the query response
+   *
+   * @throws IOException
+   *         If updating the index fails
+   * @throws InterruptedException
+   *         If waiting during retry is interrupted
+   */
+  BulkResponse bulkUpdate(int maxRetryAttempts, int retryWaitingPeriod, BulkRequest bulkRequest)
+          throws IOException, InterruptedException {
     BulkResponse bulkResponse = null;
     int retryAttempts = 0;
     do {
@@ -0,0 +1,136 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.elasticsearch.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Tests the splitting of index updates into size-bounded bulk requests.
+ */
+public class AbstractElasticsearchIndexTest {
+
+  private static final long MAX_REQUEST_SIZE = 1000;
+
+  /** An index recording the bulk requests instead of sending them */
+  private static final class TestIndex extends AbstractElasticsearchIndex {
+    private final List<BulkRequest> requests = new ArrayList<>();
+
+    @Override
+    public String[] getDocumentTypes() {
+      return new String[] { "event" };
+    }
+
+    @Override
+    BulkResponse bulkUpdate(int maxRetryAttempts, int retryWaitingPeriod, BulkRequest bulkRequest) {
+      requests.add(bulkRequest);
+      return new BulkResponse(new BulkItemResponse[0], 0);
+    }
+  }
+
+  private final TestIndex index = new TestIndex();
+
+  @Test
+  public void testDocumentsAreSplitBySize() throws Exception {
+    final List<ElasticsearchDocument> documents = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      documents.add(mkDocument("doc-" + i, 300));
+    }
+
+    final List<BulkResponse> responses = index.bulkUpdate(0, 0, documents, MAX_REQUEST_SIZE);
+
+    assertEquals(index.requests.size(), responses.size());
+    assertTrue(index.requests.size() > 1);
+    for (BulkRequest request : index.requests) {
+      assertTrue(request.numberOfActions() > 0);
+      assertTrue(request.estimatedSizeInBytes() <= MAX_REQUEST_SIZE);
+    }
+    // Requests are filled before a new one is started
+    for (int i = 0; i < index.requests.size() - 1; i++) {
+      assertTrue(index.requests.get(i).numberOfActions() > 1);
+    }
+    assertEquals(ids(documents), sentIds());
+  }
+
+  @Test
+  public void testOversizedDocumentIsSentAlone() throws Exception {
+    final List<ElasticsearchDocument> documents = List.of(
+        mkDocument("small-1", 100),
+        mkDocument("small-2", 100),
+        mkDocument("large", 5000),
+        mkDocument("small-3", 100));
+
+    index.bulkUpdate(0, 0, documents, MAX_REQUEST_SIZE);
+
+    assertEquals(3, index.requests.size());
+    assertEquals(List.of("small-1", "small-2"), ids(index.requests.get(0)));
+    assertEquals(List.of("large"), ids(index.requests.get(1)));
+    assertTrue(index.requests.get(1).estimatedSizeInBytes() > MAX_REQUEST_SIZE);
+    assertEquals(List.of("small-3"), ids(index.requests.get(2)));
+  }
+
+  @Test
+  public void testAllDocumentsFitIntoOneRequest() throws Exception {
+    final List<ElasticsearchDocument> documents = List.of(mkDocument("doc-1", 10), mkDocument("doc-2", 10));
+
+    index.bulkUpdate(0, 0, documents, MAX_REQUEST_SIZE);
+
+    assertEquals(1, index.requests.size());
+    assertEquals(ids(documents), sentIds());
+  }
+
+  @Test
+  public void testNoDocumentsSendNoRequest() throws Exception {
+    assertTrue(index.bulkUpdate(0, 0, Collections.emptyList(), MAX_REQUEST_SIZE).isEmpty());
+    assertTrue(index.requests.isEmpty());
+  }
+
+  private static ElasticsearchDocument mkDocument(String id, int size) {
+    final ElasticsearchDocument document = new ElasticsearchDocument(id, "event", Collections.emptyList());
+    document.put("text", StringUtils.repeat('x', size));
+    return document;
+  }
+
+  private static List<String> ids(List<ElasticsearchDocument> documents) {
+    return documents.stream().map(ElasticsearchDocument::getUID).collect(Collectors.toList());
+  }
+
+  private static List<String> ids(BulkRequest request) {
+    return request.requests().stream().map(DocWriteRequest::id).collect(Collectors.toList());
+  }
+
+  private List<String> sentIds() {
+    return index.requests.stream().flatMap(request -> ids(request).stream()).collect(Collectors.toList());
+  }
+
+}
@@ -26,6 +26,7 @@ import static org.opencastproject.util.data.functions.Misc.chuck;
 import org.opencastproject.elasticsearch.api.SearchIndexException;
 import org.opencastproject.elasticsearch.api.SearchMetadata;
 import org.opencastproject.elasticsearch.api.SearchResult;
+import org.opencastproject.elasticsearch.api.SearchResultItem;
 import org.opencastproject.elasticsearch.impl.AbstractElasticsearchIndex;
 import org.opencastproject.elasticsearch.impl.ElasticsearchDocument;
 import org.opencastproject.elasticsearch.impl.SearchMetadataCollection;
@@ -62,6 +63,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -264,6 +267,38 @@ public class ElasticsearchIndex extends AbstractElasticsearchIndex {
     }
   }
 
+  /**
+   * Loads multiple events from the search index with a single request.
+   *
+   * @param mediaPackageIds
+   *          The media package identifiers
+   * @param organization
+   *          The organization
+   * @param user
+   *          The user
+   * @return the events found in the index by their identifier
+   *
+   * @throws SearchIndexException
+   *          If querying the search index fails
+   */
+  public Map<String, Event> getEvents(Collection<String> mediaPackageIds, String organization, User user)
+          throws SearchIndexException {
+    final Map<String, Event> events = new HashMap<>();
+    if (mediaPackageIds.isEmpty()) {
+      return events;
+    }
+    EventSearchQuery query = new EventSearchQuery(organization, user).withoutActions();
+    for (String mediaPackageId : mediaPackageIds) {
+      query.withIdentifier(mediaPackageId);
+    }
+    query.withLimit(mediaPackageIds.size());
+    SearchResult<Event> searchResult = getByQuery(query, maxRetryAttemptsGet, retryWaitingPeriodGet);
+    for (SearchResultItem<Event> item : searchResult.getItems()) {
+      events.put(item.getSource().getIdentifier(), item.getSource());
+    }
+    return events;
+  }
+
   /**
    * Loads the series from the search index if it exists.
    *
@@ -448,6 +483,36 @@ public class ElasticsearchIndex extends AbstractElasticsearchIndex {
    *          If the events cannot be added or updated
    */
   public void bulkEventUpdate(List<Event> eventList) throws SearchIndexException {
+    List<ElasticsearchDocument> docs = toEventDocuments(eventList);
+    try {
+      bulkUpdate(maxRetryAttemptsUpdate, retryWaitingPeriodUpdate, docs);
+    } catch (Throwable t) {
+      throw new SearchIndexException("Cannot write events " + eventList + " to index", t);
+    }
+  }
+
+  /**
+   * Adds the recording events to the search index or updates them accordingly if they are there. The events are sent
+   * in as few bulk requests as possible, each not exceeding the given size.
+   *
+   * @param eventList
+   *          The events to update
+   * @param maxRequestSize
+   *          The maximum size of a bulk request in bytes
+   *
+   * @throws SearchIndexException
+   *          If the events cannot be added or updated
+   */
+  public void bulkEventUpdate(List<Event> eventList, long maxRequestSize) throws SearchIndexException {
+    List<ElasticsearchDocument> docs = toEventDocuments(eventList);
+    try {
+      bulkUpdate(maxRetryAttemptsUpdate, retryWaitingPeriodUpdate, docs, maxRequestSize);
+    } catch (Throwable t) {
+      throw new SearchIndexException("Cannot write " + eventList.size() + " events to index", t);
+    }
+  }
+
+  private List<ElasticsearchDocument> toEventDocuments(List<Event> eventList) {
     List<ElasticsearchDocument> docs = new ArrayList<>();
     for (Event event: eventList) {
       logger.debug("Adding event {} to search index", event.getIdentifier());
@@ -458,11 +523,7 @@ public class ElasticsearchIndex extends AbstractElasticsearchIndex {
       docs.add(new ElasticsearchDocument(inputDocument.getIdentifier(),
               inputDocument.getDocumentType(), resourceMetadata));
     }
-    try {
-      bulkUpdate(maxRetryAttemptsUpdate, retryWaitingPeriodUpdate, docs);
-    } catch (Throwable t) {
-      throw new SearchIndexException("Cannot write events " + eventList + " to index", t);
-    }
+    return docs;
   }
 
   /**
@@ -247,7 +247,8 @@ public class IndexEndpoint {
   @Path("resume/{service}")
   @RestQuery(name = "resumeIndexRebuild",
           description = "Starts repopulating the Index from an specific service and will then continue with the rest "
-                  + "of the services that come afterwards",
+                  + "of the services that come afterwards. The AssetManager continues after the last event it "
+                  + "indexed if it was interrupted.",
           returnDescription = "OK if repopulation has started", pathParameters = {
           @RestParameter(name = "service", isRequired = true, description = "The service to start recreating the index "
                   + "from. "
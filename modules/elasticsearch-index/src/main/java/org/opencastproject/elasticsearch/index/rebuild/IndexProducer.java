@@ -38,6 +38,17 @@ public interface IndexProducer {
    */
   void repopulate(DataType dataType) throws IndexRebuildException;
 
+  /**
+   * Re-add the data of this service to the index, continuing where an interrupted rebuild stopped if the service keeps
+   * track of its progress. Default: Start from the beginning.
+   *
+   * @param dataType
+   *          Limit the data added to the index. Use ALL to re-index all data.
+   */
+  default void resumeRepopulate(DataType dataType) throws IndexRebuildException {
+    repopulate(dataType);
+  }
+
   /**
    * Get the service that implements IndexProducer.
    *
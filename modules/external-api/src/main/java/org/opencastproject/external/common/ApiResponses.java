@@ -25,17 +25,27 @@ import static java.lang.String.format;
 import com.entwinemedia.fn.data.json.JValue;
 import com.entwinemedia.fn.data.json.SimpleSerializer;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 
 /**
  * A utility class for creating responses from the external api.
  */
 public final class ApiResponses {
 
+  private static final Logger logger = LoggerFactory.getLogger(ApiResponses.class);
+
   private static final String APPLICATION_PREFIX = "application/";
 
   private ApiResponses() {
@@ -102,6 +112,78 @@ public final class ApiResponses {
       return Response.ok(serializer.toJson(json), APPLICATION_PREFIX + version.toExternalForm() + JSON_SUFFIX).build();
     }
 
+    /**
+     * Create an ok json response for the external api whose body is a json array. The elements are rendered while
+     * the response is written, so only one element at a time has to be held in memory.
+     * <p>
+     * The ok status is sent before the elements are rendered. If rendering fails, the array is left unterminated and
+     * the response is aborted, so that clients do not mistake the truncated array for the complete one. Anything that
+     * is likely to fail should therefore be done before creating the response.
+     *
+     * @param version
+     *          The version that was requested for the api
+     * @param elements
+     *          Renders the elements of the array.
+     * @return The new {@link Response}
+     */
+    public static Response okArray(ApiVersion version, ArrayRenderer elements) {
+      final StreamingOutput body = out -> {
+        final ArrayWriter array = new ArrayWriter(new BufferedOutputStream(out));
+        try {
+          elements.render(array);
+        } catch (IOException e) {
+          throw e;
+        } catch (Exception e) {
+          logger.error("Aborting the response after failing to render an element of the json array", e);
+          throw new IOException("Unable to render the json array", e);
+        }
+        array.close();
+      };
+      return Response.ok(body, APPLICATION_PREFIX + version.toExternalForm() + JSON_SUFFIX).build();
+    }
+
+    /**
+     * Renders the elements of a json array written by {@link #okArray(ApiVersion, ArrayRenderer)}.
+     */
+    @FunctionalInterface
+    public interface ArrayRenderer {
+      void render(ArrayWriter array) throws Exception;
+    }
+
+    /**
+     * Writes the elements of a json array to the response one by one.
+     */
+    public static final class ArrayWriter {
+      private final OutputStream out;
+      private boolean empty = true;
+
+      private ArrayWriter(OutputStream out) {
+        this.out = out;
+      }
+
+      /**
+       * Append an element to the array.
+       *
+       * @param element
+       *          The element to append.
+       * @throws IOException
+       *           If writing the response fails.
+       */
+      public void add(JValue element) throws IOException {
+        out.write(empty ? '[' : ',');
+        empty = false;
+        out.write(serializer.toJson(element).getBytes(StandardCharsets.UTF_8));
+      }
+
+      private void close() throws IOException {
+        if (empty) {
+          out.write('[');
+        }
+        out.write(']');
+        out.flush();
+      }
+    }
+
     /**
      * Create an ok json response for the external api
      *
@@ -40,6 +40,8 @@ import static org.opencastproject.util.doc.rest.RestParameter.Type.STRING;
 
 import org.opencastproject.assetmanager.api.AssetManager;
 import org.opencastproject.assetmanager.api.AssetManagerException;
+import org.opencastproject.assetmanager.api.query.AQueryBuilder;
+import org.opencastproject.assetmanager.api.query.ARecord;
 import org.opencastproject.capture.CaptureParameters;
 import org.opencastproject.capture.admin.api.CaptureAgentStateService;
 import org.opencastproject.elasticsearch.api.SearchIndexException;
@@ -151,6 +153,7 @@ import java.text.SimpleDateFormat;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Dictionary;
 import java.util.HashMap;
@@ -206,6 +209,9 @@ public class EventsEndpoint implements ManagedService {
   /** The default time before a piece of signed content expires. 2 Hours. */
   protected static final Long DEFAULT_URL_SIGNING_EXPIRE_DURATION = 2 * 60 * 60L;
 
+  /** The number of events whose scheduling information and media packages are looked up together */
+  private static final int EVENT_BATCH_SIZE = 100;
+
   /** Subtype of previews required by the video editor */
   private static final String PREVIEW_SUBTYPE = "preview.subtype";
 
@@ -1024,18 +1030,84 @@ public class EventsEndpoint implements ManagedService {
    *          Whether to sign the included urls.
    * @return A {@link Response} with the accept header and body as the Json array of {@link Event}s.
    * @throws IndexServiceException
+   *           Thrown if unable to get the metadata of the first events.
    * @throws SchedulerException
+   *           Thrown if unable to get the scheduling information of the first events.
    * @throws UnauthorizedException
+   *           Thrown if not allowed to get the scheduling information of the first events.
    */
   protected Response getJsonEvents(String acceptHeader, List<IndexObject> events, Boolean withAcl, Boolean withMetadata,
           Boolean withScheduling, Boolean withPublications,Boolean includeInternalPublication, Boolean withSignedUrls, ApiVersion requestedVersion)
-      throws IndexServiceException, UnauthorizedException, SchedulerException {
-    List<JValue> eventsList = new ArrayList<>();
-    for (IndexObject item : events) {
-      eventsList.add(eventToJSON((Event) item, withAcl, withMetadata, withScheduling, withPublications, includeInternalPublication, withSignedUrls,
-              requestedVersion));
+          throws IndexServiceException, SchedulerException, UnauthorizedException {
+    // The first batch is rendered before the response is committed, so a failing lookup still results in an error
+    // status. The other batches are rendered while the response is written, so neither the number of requests to other
+    // services nor the memory grows with every event.
+    final List<JValue> firstBatch = eventsToJSON(events.subList(0, Math.min(EVENT_BATCH_SIZE, events.size())), withAcl,
+        withMetadata, withScheduling, withPublications, includeInternalPublication, withSignedUrls, requestedVersion);
+    return ApiResponses.Json.okArray(requestedVersion, array -> {
+      for (JValue event : firstBatch) {
+        array.add(event);
+      }
+      for (int i = EVENT_BATCH_SIZE; i < events.size(); i += EVENT_BATCH_SIZE) {
+        final List<IndexObject> batch = events.subList(i, Math.min(i + EVENT_BATCH_SIZE, events.size()));
+        for (JValue event : eventsToJSON(batch, withAcl, withMetadata, withScheduling, withPublications,
+            includeInternalPublication, withSignedUrls, requestedVersion)) {
+          array.add(event);
+        }
+      }
+    });
+  }
+
+  /**
+   * Transform a batch of {@link Event}s to Json, looking up their additional information for the whole batch at once.
+   *
+   * @return The events in json format.
+   */
+  private List<JValue> eventsToJSON(List<IndexObject> events, Boolean withAcl, Boolean withMetadata,
+          Boolean withScheduling, Boolean withPublications, Boolean includeInternalPublication, Boolean withSignedUrls,
+          ApiVersion requestedVersion) throws IndexServiceException, SchedulerException, UnauthorizedException {
+    final List<Event> batch = events.stream().map(Event.class::cast).collect(Collectors.toList());
+    final List<String> ids = batch.stream().map(Event::getIdentifier).collect(Collectors.toList());
+    final Map<String, SchedulingInfo> schedulingInfos = withScheduling != null && withScheduling
+        ? SchedulingInfo.of(ids, schedulerService)
+        : Collections.emptyMap();
+    final Map<String, MediaPackage> mediaPackages = withMetadata != null && withMetadata
+        ? getArchivedMediaPackages(batch)
+        : Collections.emptyMap();
+    final List<JValue> json = new ArrayList<>(batch.size());
+    for (Event event : batch) {
+      json.add(eventToJSON(event, withAcl, withMetadata, schedulingInfos.get(event.getIdentifier()),
+          mediaPackages.get(event.getIdentifier()), withPublications, includeInternalPublication, withSignedUrls,
+          requestedVersion));
+    }
+    return json;
+  }
+
+  /**
+   * Load the media packages of the archived events with a single query, if there are extended metadata catalogs to
+   * read from them. The media packages of events which are scheduled or processed are left out.
+   *
+   * @param events
+   *          The events to load the media packages of.
+   * @return The media packages by event identifier.
+   */
+  private Map<String, MediaPackage> getArchivedMediaPackages(List<Event> events) {
+    final List<EventCatalogUIAdapter> catalogUIAdapters = getEventCatalogUIAdapters();
+    catalogUIAdapters.remove(indexService.getCommonEventCatalogUIAdapter());
+    final String[] ids = events.stream()
+        .filter(event -> indexService.getEventSource(event) == IndexService.Source.ARCHIVE)
+        .map(Event::getIdentifier)
+        .toArray(String[]::new);
+    if (catalogUIAdapters.isEmpty() || ids.length == 0) {
+      return Collections.emptyMap();
     }
-    return ApiResponses.Json.ok(requestedVersion, arr(eventsList));
+    final AQueryBuilder q = assetManager.createQuery();
+    return q.select(q.snapshot()).where(q.mediaPackageIds(ids).and(q.version().isLatest())).run().getRecords()
+        .stream()
+        .map(ARecord::getSnapshot)
+        .filter(Optional::isPresent)
+        .map(snapshot -> snapshot.get().getMediaPackage())
+        .collect(Collectors.toMap(mp -> mp.getIdentifier().toString(), mp -> mp, (a, b) -> a));
   }
 
   /**
@@ -1061,6 +1133,26 @@ public class EventsEndpoint implements ManagedService {
    */
   protected JValue eventToJSON(Event event, Boolean withAcl, Boolean withMetadata, Boolean withScheduling,
           Boolean withPublications, Boolean includeInternalPublication, Boolean withSignedUrls, ApiVersion requestedVersion) throws IndexServiceException, SchedulerException, UnauthorizedException {
+    final SchedulingInfo schedulingInfo = withScheduling != null && withScheduling
+        ? SchedulingInfo.of(event.getIdentifier(), schedulerService)
+        : null;
+    return eventToJSON(event, withAcl, withMetadata, schedulingInfo, null, withPublications, includeInternalPublication,
+        withSignedUrls, requestedVersion);
+  }
+
+  /**
+   * Transform an {@link Event} to Json, using information which has already been looked up.
+   *
+   * @param schedulingInfo
+   *          The scheduling information to add or <code>null</code> to not add it
+   * @param mediaPackage
+   *          The media package of the event to read the extended metadata from or <code>null</code> to load it if
+   *          needed
+   * @see #eventToJSON(Event, Boolean, Boolean, Boolean, Boolean, Boolean, Boolean, ApiVersion)
+   */
+  private JValue eventToJSON(Event event, Boolean withAcl, Boolean withMetadata, SchedulingInfo schedulingInfo,
+          MediaPackage mediaPackage, Boolean withPublications, Boolean includeInternalPublication,
+          Boolean withSignedUrls, ApiVersion requestedVersion) throws IndexServiceException {
     List<Field> fields = new ArrayList<>();
     if (event.getArchiveVersion() != null)
       fields.add(f("archive_version", v(event.getArchiveVersion())));
@@ -1114,7 +1206,7 @@ public class EventsEndpoint implements ManagedService {
     }
     if (withMetadata != null && withMetadata) {
       try {
-        Opt<MetadataList> metadata = getEventMetadata(event);
+        Opt<MetadataList> metadata = getEventMetadata(event, mediaPackage);
         if (metadata.isSome()) {
           fields.add(f("metadata", MetadataJson.listToJson(metadata.get(), true)));
         }
@@ -1123,8 +1215,8 @@ public class EventsEndpoint implements ManagedService {
         throw new IndexServiceException("Unable to add metadata to event", e);
       }
     }
-    if (withScheduling != null && withScheduling) {
-      fields.add(f("scheduling", SchedulingInfo.of(event.getIdentifier(), schedulerService).toJson()));
+    if (schedulingInfo != null) {
+      fields.add(f("scheduling", schedulingInfo.toJson()));
     }
     if (withPublications != null && withPublications) {
       List<JValue> publications = getPublications(event, withSignedUrls, includeInternalPublication,requestedVersion);
@@ -1343,12 +1435,19 @@ public class EventsEndpoint implements ManagedService {
   }
 
   protected Opt<MetadataList> getEventMetadata(Event event) throws IndexServiceException, Exception {
+    return getEventMetadata(event, null);
+  }
+
+  private Opt<MetadataList> getEventMetadata(Event event, MediaPackage mediaPackage)
+          throws IndexServiceException, Exception {
     MetadataList metadataList = new MetadataList();
     List<EventCatalogUIAdapter> catalogUIAdapters = getEventCatalogUIAdapters();
     EventCatalogUIAdapter eventCatalogUIAdapter = indexService.getCommonEventCatalogUIAdapter();
     catalogUIAdapters.remove(eventCatalogUIAdapter);
-    MediaPackage mediaPackage = indexService.getEventMediapackage(event);
     if (catalogUIAdapters.size() > 0) {
+      if (mediaPackage == null) {
+        mediaPackage = indexService.getEventMediapackage(event);
+      }
       for (EventCatalogUIAdapter catalogUIAdapter : catalogUIAdapters) {
         // TODO: This is very slow:
         DublinCoreMetadataCollection fields = catalogUIAdapter.getFields(mediaPackage);
@@ -58,8 +58,11 @@ import org.slf4j.LoggerFactory;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.TimeZone;
@@ -320,20 +323,49 @@ public final class SchedulingUtils {
      */
     public static SchedulingInfo of(String eventId, SchedulerService schedulerService)
         throws UnauthorizedException, SchedulerException {
-      final SchedulingInfo result = new SchedulingInfo();
       try {
-        final TechnicalMetadata technicalMetadata = schedulerService.getTechnicalMetadata(eventId);
-        result.startDate = Opt.some(technicalMetadata.getStartDate());
-        result.endDate = Opt.some(technicalMetadata.getEndDate());
-        result.agentId = Opt.some(technicalMetadata.getAgentId());
-        String inputs = technicalMetadata.getCaptureAgentConfiguration().get(CaptureParameters.CAPTURE_DEVICE_NAMES);
-        if (isNotBlank(inputs)) {
-          result.inputs = Opt.some(inputs);
-        }
-        return result;
+        return of(schedulerService.getTechnicalMetadata(eventId));
       } catch (NotFoundException e) {
-        return result;
+        return new SchedulingInfo();
+      }
+    }
+
+    /**
+     * Get the SchedulingInfo for each of the given event ids with a single query to the {@link SchedulerService}.
+     *
+     * @param eventIds
+     *          The ids of the events to get the SchedulingInfo for.
+     * @param schedulerService
+     *          The {@link SchedulerService} to query for the event ids.
+     *
+     * @return The SchedulingInfo by event id. Events unknown to the scheduler get an empty SchedulingInfo.
+     *
+     * @throws UnauthorizedException
+     *          If the {@link SchedulerService} cannot be queried due to missing authorization.
+     * @throws SchedulerException
+     *          In case internal errors occur within the {@link SchedulerService}.
+     */
+    public static Map<String, SchedulingInfo> of(Collection<String> eventIds, SchedulerService schedulerService)
+        throws UnauthorizedException, SchedulerException {
+      final Map<String, TechnicalMetadata> technicalMetadata = schedulerService.getTechnicalMetadata(eventIds);
+      final Map<String, SchedulingInfo> result = new HashMap<>();
+      for (String eventId : eventIds) {
+        final TechnicalMetadata metadata = technicalMetadata.get(eventId);
+        result.put(eventId, metadata == null ? new SchedulingInfo() : of(metadata));
       }
+      return result;
+    }
+
+    private static SchedulingInfo of(TechnicalMetadata technicalMetadata) {
+      final SchedulingInfo result = new SchedulingInfo();
+      result.startDate = Opt.some(technicalMetadata.getStartDate());
+      result.endDate = Opt.some(technicalMetadata.getEndDate());
+      result.agentId = Opt.some(technicalMetadata.getAgentId());
+      String inputs = technicalMetadata.getCaptureAgentConfiguration().get(CaptureParameters.CAPTURE_DEVICE_NAMES);
+      if (isNotBlank(inputs)) {
+        result.inputs = Opt.some(inputs);
+      }
+      return result;
     }
   }
 
@@ -25,13 +25,20 @@ import static com.entwinemedia.fn.data.json.Jsons.f;
 import static com.entwinemedia.fn.data.json.Jsons.obj;
 import static com.entwinemedia.fn.data.json.Jsons.v;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
 
 import com.entwinemedia.fn.data.json.JValue;
 
 import org.apache.http.HttpStatus;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 public class ApiResponsesTest {
 
@@ -52,4 +59,49 @@ public class ApiResponsesTest {
     assertEquals("application/v1.0.0+json", response.getMetadata().get("Content-Type").get(0));
   }
 
+  @Test
+  public void testJsonEmptyArrayOk() throws Exception {
+    Response response = ApiResponses.Json.okArray(ApiVersion.VERSION_1_0_0, array -> { });
+
+    assertEquals(HttpStatus.SC_OK, response.getStatus());
+    assertEquals("application/v1.0.0+json", response.getMetadata().get("Content-Type").get(0));
+    assertEquals("[]", write(response));
+  }
+
+  @Test
+  public void testJsonArrayOk() throws Exception {
+    Response response = ApiResponses.Json.okArray(ApiVersion.VERSION_1_0_0, array -> {
+      array.add(obj(f("id", v("a"))));
+      array.add(v("b"));
+      array.add(arr(v("c"), v("d")));
+    });
+
+    assertEquals(HttpStatus.SC_OK, response.getStatus());
+    assertEquals("[{\"id\":\"a\"},\"b\",[\"c\",\"d\"]]", write(response));
+  }
+
+  @Test
+  public void testJsonArrayAbortedOnFailure() throws Exception {
+    Response response = ApiResponses.Json.okArray(ApiVersion.VERSION_1_0_0, array -> {
+      array.add(v("a"));
+      throw new IllegalStateException("Lookup failed");
+    });
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      ((StreamingOutput) response.getEntity()).write(out);
+      fail("The failure should abort the response");
+    } catch (IOException e) {
+      assertEquals(IllegalStateException.class, e.getCause().getClass());
+    }
+    // The array must not be terminated, so the truncated response is not mistaken for the complete one
+    assertFalse(out.toString(StandardCharsets.UTF_8).endsWith("]"));
+  }
+
+  private static String write(Response response) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ((StreamingOutput) response.getEntity()).write(out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
 }
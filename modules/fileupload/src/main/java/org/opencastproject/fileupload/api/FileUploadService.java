@@ -86,7 +86,8 @@ public interface FileUploadService {
   void deleteJob(String id) throws FileUploadException;
 
   /**
-   * Appends the next part to the payload and updates the upload job accordingly.
+   * Writes a part to its position in the payload and updates the upload job accordingly. Parts may be sent in any
+   * order and, up to a configured limit, concurrently. The job is finalized once all parts have been received.
    *
    * @param job
    *          the job object for the upload
@@ -24,6 +24,8 @@ package org.opencastproject.fileupload.api.job;
 import org.opencastproject.mediapackage.MediaPackage;
 import org.opencastproject.mediapackage.MediaPackageElementFlavor;
 
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.UUID;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -34,6 +36,8 @@ import javax.xml.bind.annotation.XmlEnum;
 import javax.xml.bind.annotation.XmlEnumValue;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 
 /**
  * A Class representing the information about an upload job.
@@ -65,6 +69,9 @@ public class FileUploadJob {
   private long chunksTotal = 1; // total number of chunks the upload consists of
   @XmlElement(name = "current-chunk")
   private Chunk currentChunk = new Chunk(); // information about the current chunk
+  @XmlElement(name = "chunks-received")
+  @XmlJavaTypeAdapter(BitSetAdapter.class)
+  private BitSet chunksReceived = new BitSet(); // the chunks which have been written to the payload
 
   public FileUploadJob() {
     this.id = UUID.randomUUID().toString();
@@ -135,6 +142,40 @@ public class FileUploadJob {
     this.currentChunk = currentChunk;
   }
 
+  /**
+   * Marks the chunk with the given number as written to the payload.
+   *
+   * @return true if the chunk had not been received before
+   */
+  public synchronized boolean setChunkReceived(long chunkNumber) {
+    setLastModified(System.currentTimeMillis());
+    boolean received = chunksReceived.get((int) chunkNumber);
+    chunksReceived.set((int) chunkNumber);
+    return !received;
+  }
+
+  /**
+   * @return the number of chunks which have been written to the payload
+   */
+  public synchronized long getChunksReceived() {
+    return chunksReceived.cardinality();
+  }
+
+  /**
+   * Stores the set of received chunks in a compact form, so the job file stays small even for many chunks.
+   */
+  public static class BitSetAdapter extends XmlAdapter<String, BitSet> {
+    @Override
+    public BitSet unmarshal(String bitmap) {
+      return BitSet.valueOf(Base64.getDecoder().decode(bitmap.trim()));
+    }
+
+    @Override
+    public String marshal(BitSet bitSet) {
+      return Base64.getEncoder().encodeToString(bitSet.toByteArray());
+    }
+  }
+
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder().append("FileUploadJob(id=").append(this.id).append(", filename=")
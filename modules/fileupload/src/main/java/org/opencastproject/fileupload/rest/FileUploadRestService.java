@@ -268,7 +268,8 @@ public class FileUploadRestService {
   @Path("job/{jobID}")
   @RestQuery(
       name = "newjob",
-      description = "Appends the next chunk of data to the file on the server.",
+      description = "Writes a chunk of data to its position in the file on the server. Chunks may be sent in any "
+          + "order and several chunks of a job may be sent at the same time.",
       pathParameters = {
           @RestParameter(
               name = "jobID",
@@ -279,7 +280,7 @@ public class FileUploadRestService {
       },
       restParameters = {
           @RestParameter(
-              description = "The number of the current chunk",
+              description = "The number of the chunk, starting with 0",
               isRequired = false,
               name = "chunknumber",
               type = RestParameter.Type.STRING
@@ -293,7 +294,7 @@ public class FileUploadRestService {
       },
       responses = {
           @RestResponse(
-              description = "the chunk data was successfully appended to file on server",
+              description = "the chunk data was successfully written to file on server",
               responseCode = HttpServletResponse.SC_OK
           ),
           @RestResponse(
@@ -328,7 +329,8 @@ public class FileUploadRestService {
             }
           } else if (REQUESTFIELD_DATA.equalsIgnoreCase(item.getFieldName())) {
             uploadService.acceptChunk(job, chunkNum, item.openStream());
-            return Response.ok(job).build();
+            // chunks received concurrently update the same job, return its latest state
+            return Response.ok(uploadService.getJob(jobId)).build();
           }
         }
         throw new FileUploadException("No payload!");
@@ -26,7 +26,6 @@ import static org.opencastproject.util.data.Prelude.unexhaustiveMatch;
 
 import org.opencastproject.fileupload.api.FileUploadService;
 import org.opencastproject.fileupload.api.exception.FileUploadException;
-import org.opencastproject.fileupload.api.job.Chunk;
 import org.opencastproject.fileupload.api.job.FileUploadJob;
 import org.opencastproject.fileupload.api.job.Payload;
 import org.opencastproject.ingest.api.IngestService;
@@ -55,19 +54,22 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.Marshaller;
@@ -90,19 +92,23 @@ public class FileUploadServiceImpl implements FileUploadService, ManagedService
   static final String DEFAULT_UPLOAD_WORKDIR = "tmp/fileupload"; /* The default location is the storage dir */
   static final String UPLOAD_COLLECTION = "uploaded";
   static final String FILEEXT_DATAFILE = ".payload";
-  static final String FILENAME_CHUNKFILE = "chunk.part";
+  static final String PROPKEY_MAX_CONCURRENT_CHUNKS = "org.opencastproject.upload.chunks.concurrent.max";
   static final String FILENAME_JOBFILE = "job.xml";
-  static final int READ_BUFFER_LENGTH = 512;
+  static final int READ_BUFFER_LENGTH = 64 * 1024;
   static final int DEFAULT_CLEANER_MAXTTL = 6;
+  static final int DEFAULT_MAX_CONCURRENT_CHUNKS = 4;
 
   private File workRoot = null;
   private IngestService ingestService;
   private Workspace workspace;
   private Marshaller jobMarshaller;
   private Unmarshaller jobUnmarshaller;
-  private HashMap<String, FileUploadJob> jobCache = new HashMap<String, FileUploadJob>();
+  private Map<String, FileUploadJob> jobCache = new ConcurrentHashMap<>();
+  /** The number of chunks currently being received, by job */
+  private Map<String, Integer> activeChunkUploads = new HashMap<>();
   private FileUploadServiceCleaner cleaner;
   private int jobMaxTTL = DEFAULT_CLEANER_MAXTTL;
+  private int maxConcurrentChunks = DEFAULT_MAX_CONCURRENT_CHUNKS;
 
   // <editor-fold defaultstate="collapsed" desc="OSGi Service Stuff" >
   @Activate
@@ -151,6 +157,19 @@ public class FileUploadServiceImpl implements FileUploadService, ManagedService
       logger.warn("Unable to update configuration. {}", e.getMessage());
     }
     logger.info("Configuration updated. Jobs older than {} hours are deleted.", jobMaxTTL);
+    String maxChunks = (String) properties.get(PROPKEY_MAX_CONCURRENT_CHUNKS);
+    try {
+      maxConcurrentChunks = maxChunks == null ? DEFAULT_MAX_CONCURRENT_CHUNKS : Integer.parseInt(maxChunks.trim());
+    } catch (NumberFormatException e) {
+      maxConcurrentChunks = DEFAULT_MAX_CONCURRENT_CHUNKS;
+      logger.warn("Unable to update configuration. {}", e.getMessage());
+    }
+    if (maxConcurrentChunks < 1) {
+      logger.warn("Unable to update configuration. {} must be at least 1 but is {}.", PROPKEY_MAX_CONCURRENT_CHUNKS,
+              maxConcurrentChunks);
+      maxConcurrentChunks = DEFAULT_MAX_CONCURRENT_CHUNKS;
+    }
+    logger.info("Configuration updated. Up to {} chunks of a job are received concurrently.", maxConcurrentChunks);
   }
 
   @Reference
@@ -312,107 +331,78 @@ public class FileUploadServiceImpl implements FileUploadService, ManagedService
       throw fileUploadException(Severity.warn, "Job is already complete.");
     }
 
-    // job ready to receive data?
-    if (isLocked(job.getId())) {
+    // valid chunk offered? Chunks may arrive in any order.
+    if (chunkNumber < 0 || chunkNumber >= job.getChunksTotal()) {
       throw fileUploadException(Severity.error,
-              "Job is locked. Seems like a concurrent upload to this job is in progress.");
-    } else {
-      lock(job);
+              format("Wrong chunk number. Awaiting #0 to #%d but #%d was offered.", job.getChunksTotal() - 1,
+                      chunkNumber));
     }
 
-    // right chunk offered?
-    int supposedChunk = job.getCurrentChunk().getNumber() + 1;
-    if (chunkNumber != supposedChunk) {
-      removeFromCache(job);
-      throw fileUploadException(Severity.error,
-              format("Wrong chunk number. Awaiting #%d but #%d was offered.", supposedChunk, chunkNumber));
-    }
+    // job ready to receive data?
+    job = lock(job);
     logger.debug("Receiving chunk #" + chunkNumber + " of job {}", job);
 
-    // write chunk to temp file
-    job.getCurrentChunk().incrementNumber();
-    File chunkFile = null;
-    try {
-      chunkFile = ensureExists(getChunkFile(job.getId()));
-    } catch (IOException e) {
-      throw fileUploadException(Severity.error, "Cannot create chunk file", e);
+    // write chunk directly to its position in the payload file
+    final boolean chunked = !(job.getChunksTotal() == 1 && job.getChunksize() == -1);
+    final long supposedSize;
+    if (!chunked) {
+      supposedSize = -1;
+    } else if (chunkNumber == job.getChunksTotal() - 1) {
+      long rest = job.getPayload().getTotalSize() % job.getChunksize();
+      supposedSize = rest == 0 ? job.getChunksize() : rest; // the file size may be a multiple of the chunk size
+    } else {
+      supposedSize = job.getChunksize();
     }
-    OutputStream out = null;
-    try {
-      byte[] readBuffer = new byte[READ_BUFFER_LENGTH];
-      out = new FileOutputStream(chunkFile, false);
-      int bytesRead = 0;
-      long bytesReadTotal = 0L;
-      Chunk currentChunk = job.getCurrentChunk(); // copy manually (instead of using IOUtils.copy()) so we can count the
-      // number of bytes
-      do {
-        bytesRead = content.read(readBuffer);
-        if (bytesRead > 0) {
-          out.write(readBuffer, 0, bytesRead);
-          bytesReadTotal += bytesRead;
-          currentChunk.setReceived(bytesReadTotal);
+    long actualSize = 0L;
+    try (FileChannel payload = FileChannel.open(getPayloadFile(job.getId()).toPath(), StandardOpenOption.WRITE)) {
+      final long offset = chunked ? chunkNumber * job.getChunksize() : 0L;
+      final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_LENGTH);
+      int bytesRead;
+      while ((bytesRead = content.read(buffer.array())) != -1) {
+        // never write into the area of the next chunk
+        if (chunked && actualSize + bytesRead > supposedSize) {
+          actualSize += bytesRead;
+          break;
+        }
+        buffer.limit(bytesRead);
+        buffer.rewind();
+        while (buffer.hasRemaining()) {
+          payload.write(buffer, offset + actualSize + buffer.position());
         }
-      } while (bytesRead != -1);
-      if (job.getPayload().getTotalSize() == -1 && job.getChunksTotal() == 1) { // set totalSize in case of ordinary
-        // from submit
-        job.getPayload().setTotalSize(bytesReadTotal);
+        buffer.clear();
+        actualSize += bytesRead;
+      }
+      if (!chunked) {
+        // an ordinary upload replaces the whole payload
+        payload.truncate(actualSize);
       }
     } catch (Exception e) {
-      removeFromCache(job);
+      release(job);
       throw fileUploadException(Severity.error, "Failed to store chunk data", e);
     } finally {
       IOUtils.closeQuietly(content);
-      IOUtils.closeQuietly(out);
     }
 
     // check if chunk has right size
-    long actualSize = chunkFile.length();
-    long supposedSize;
-    if (chunkNumber == job.getChunksTotal() - 1) {
-      supposedSize = job.getPayload().getTotalSize() % job.getChunksize();
-      supposedSize = supposedSize == 0 ? job.getChunksize() : supposedSize; // a not so nice workaround for the rare
-      // case that file size is a multiple of the
-      // chunk size
-    } else {
-      supposedSize = job.getChunksize();
-    }
-    if (actualSize == supposedSize || (job.getChunksTotal() == 1 && job.getChunksize() == -1)) {
-
-      // append chunk to payload file
-      FileInputStream in = null;
-      try {
-        File payloadFile = getPayloadFile(job.getId());
-        in = new FileInputStream(chunkFile);
-        out = new FileOutputStream(payloadFile, true);
-        IOUtils.copy(in, out);
-        Payload payload = job.getPayload();
-        payload.setCurrentSize(payload.getCurrentSize() + actualSize);
-
-      } catch (IOException e) {
-        removeFromCache(job);
-        throw fileUploadException(Severity.error, "Failed to append chunk data", e);
-
-      } finally {
-        IOUtils.closeQuietly(in);
-        IOUtils.closeQuietly(out);
-        deleteChunkFile(job.getId());
-      }
-
-    } else {
-      removeFromCache(job);
+    if (chunked && actualSize != supposedSize) {
+      release(job);
       throw fileUploadException(Severity.warn,
               format("Chunk has wrong size. Awaited: %d bytes, received: %d bytes.", supposedSize, actualSize));
     }
 
     // update job
-    if (chunkNumber == job.getChunksTotal() - 1) { // upload is complete
-      finalizeJob(job);
-      logger.info("Upload job completed: {}", job);
-    } else {
-      job.setState(FileUploadJob.JobState.READY); // upload still incomplete
+    synchronized (this) {
+      if (!chunked && job.getPayload().getTotalSize() == -1) { // set totalSize in case of ordinary form submit
+        job.getPayload().setTotalSize(actualSize);
+      }
+      if (job.setChunkReceived(chunkNumber)) {
+        Payload payload = job.getPayload();
+        payload.setCurrentSize(chunked ? payload.getCurrentSize() + actualSize : actualSize);
+      }
+      job.getCurrentChunk().setNumber((int) chunkNumber);
+      job.getCurrentChunk().setReceived(actualSize);
     }
-    storeJob(job);
-    removeFromCache(job);
+    release(job);
   }
 
   @Override
@@ -432,14 +422,83 @@ public class FileUploadServiceImpl implements FileUploadService, ManagedService
   }
 
   /**
-   * Locks an upload job and puts it in job cache.
+   * Locks an upload job for receiving one more chunk and puts it in job cache. Up to the configured number of chunks of
+   * a job can be received concurrently, all of them update the cached job.
    *
    * @param job
    *          job to lock
+   * @return the cached job to update
+   * @throws FileUploadException
+   *           if the job is being finalized or too many chunks are already being received
    */
-  private void lock(FileUploadJob job) {
+  private synchronized FileUploadJob lock(FileUploadJob job) throws FileUploadException {
+    final FileUploadJob cached = jobCache.get(job.getId());
+    if (cached != null) {
+      job = cached;
+    }
+    if (job.getState().equals(FileUploadJob.JobState.FINALIZING)
+            || job.getState().equals(FileUploadJob.JobState.COMPLETE)) {
+      throw fileUploadException(Severity.error, "Job is locked. All chunks have already been received.");
+    }
+    final int activeChunks = activeChunkUploads.getOrDefault(job.getId(), 0);
+    if (activeChunks >= maxConcurrentChunks) {
+      throw fileUploadException(Severity.error,
+              format("Job is locked. %d chunks of this job are already being uploaded.", activeChunks));
+    }
+    activeChunkUploads.put(job.getId(), activeChunks + 1);
     jobCache.put(job.getId(), job);
     job.setState(FileUploadJob.JobState.INPROGRESS);
+    return job;
+  }
+
+  /**
+   * Releases the lock of a chunk, whether it could be received or not, and finalizes the job if all chunks have been
+   * received once no other chunk is being received. A failing chunk may be the last one to release the job after a
+   * duplicate of it already completed the upload.
+   *
+   * @param job
+   *          job to release
+   * @throws FileUploadException
+   *           if the job could not be stored or finalized
+   */
+  private void release(FileUploadJob job) throws FileUploadException {
+    if (!unlock(job)) {
+      return;
+    }
+    try {
+      finalizeJob(job);
+      logger.info("Upload job completed: {}", job);
+      storeJob(job);
+    } finally {
+      synchronized (this) {
+        activeChunkUploads.remove(job.getId());
+        removeFromCache(job);
+      }
+    }
+  }
+
+  /**
+   * Releases the lock of a chunk. The job is unlocked when no other chunk is being received, unless all chunks have
+   * been received. In that case, it is marked for finalization instead.
+   *
+   * @param job
+   *          job to unlock
+   * @return true if the job has to be finalized
+   * @throws FileUploadException
+   *           if the job could not be stored
+   */
+  private synchronized boolean unlock(FileUploadJob job) throws FileUploadException {
+    final int activeChunks = activeChunkUploads.merge(job.getId(), -1, Integer::sum);
+    final boolean complete = activeChunks <= 0 && job.getChunksReceived() == job.getChunksTotal();
+    if (complete) {
+      job.setState(FileUploadJob.JobState.FINALIZING);
+    } else if (activeChunks <= 0) {
+      activeChunkUploads.remove(job.getId());
+      job.setState(FileUploadJob.JobState.READY); // upload still incomplete
+      removeFromCache(job);
+    }
+    storeJob(job);
+    return complete;
   }
 
   /**
@@ -562,20 +621,6 @@ public class FileUploadServiceImpl implements FileUploadService, ManagedService
     }
   }
 
-  /**
-   * Deletes the chunk file from working directory.
-   *
-   * @param id
-   *          ID of the job of which the chunk file should be deleted
-   */
-  private void deleteChunkFile(String id) {
-    final File chunkFile = getChunkFile(id);
-    logger.debug("Attempting to delete chunk file of job " + id);
-    if (!chunkFile.delete()) {
-      logger.warn("Could not delete chunk file " + chunkFile.getAbsolutePath());
-    }
-  }
-
   /**
    * Deletes the payload file from working directory.
    *
@@ -621,19 +666,6 @@ public class FileUploadServiceImpl implements FileUploadService, ManagedService
     return new File(sb.toString());
   }
 
-  /**
-   * Returns the chunk file for a given job ID.
-   *
-   * @param id
-   *          ID for which a chunk file name should be generated
-   * @return File chunk file
-   */
-  private File getChunkFile(String id) {
-    final StringBuilder sb = new StringBuilder().append(workRoot.getAbsolutePath()).append(File.separator).append(id)
-            .append(File.separator).append(FILENAME_CHUNKFILE);
-    return new File(sb.toString());
-  }
-
   /**
    * Returns the payload file for a given job ID.
    *
@@ -0,0 +1,317 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.fileupload.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.opencastproject.fileupload.api.exception.FileUploadException;
+import org.opencastproject.fileupload.api.job.FileUploadJob;
+import org.opencastproject.workspace.api.Workspace;
+
+import org.apache.commons.io.IOUtils;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.osgi.service.component.ComponentContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class FileUploadServiceImplTest {
+
+  /** The payload is uploaded in three chunks: "0123", "4567" and "89" */
+  private static final String CONTENT = "0123456789";
+  private static final int CHUNK_SIZE = 4;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private final List<byte[]> collected = Collections.synchronizedList(new ArrayList<>());
+  private ExecutorService executor;
+  private FileUploadServiceImpl service;
+
+  @Before
+  public void setUp() throws Exception {
+    Workspace workspace = EasyMock.createMock(Workspace.class);
+    EasyMock.expect(workspace.putInCollection(EasyMock.eq(FileUploadServiceImpl.UPLOAD_COLLECTION),
+            EasyMock.anyString(), EasyMock.anyObject(InputStream.class))).andAnswer(() -> {
+              collected.add(IOUtils.toByteArray((InputStream) EasyMock.getCurrentArguments()[2]));
+              return new URI("http://localhost/files/collection/uploaded/" + EasyMock.getCurrentArguments()[1]);
+            }).anyTimes();
+    EasyMock.replay(workspace);
+
+    executor = Executors.newSingleThreadExecutor();
+    service = new FileUploadServiceImpl();
+    service.setWorkspace(workspace);
+    configure(FileUploadServiceImpl.DEFAULT_MAX_CONCURRENT_CHUNKS);
+    service.activate(EasyMock.createNiceMock(ComponentContext.class));
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    service.deactivate(null);
+  }
+
+  private void configure(int maxConcurrentChunks) throws Exception {
+    Hashtable<String, String> properties = new Hashtable<>();
+    properties.put(FileUploadServiceImpl.PROPKEY_UPLOAD_WORKDIR, tempFolder.getRoot().getAbsolutePath());
+    properties.put(FileUploadServiceImpl.PROPKEY_MAX_CONCURRENT_CHUNKS, Integer.toString(maxConcurrentChunks));
+    service.updated(properties);
+  }
+
+  private FileUploadJob createJob() throws FileUploadException {
+    return service.createJob("video.mp4", CONTENT.length(), CHUNK_SIZE, null, null);
+  }
+
+  private static InputStream chunk(int chunkNumber) {
+    int start = chunkNumber * CHUNK_SIZE;
+    return new ByteArrayInputStream(CONTENT.substring(start, Math.min(start + CHUNK_SIZE, CONTENT.length()))
+            .getBytes(UTF_8));
+  }
+
+  private void sendChunk(FileUploadJob job, int chunkNumber) throws FileUploadException {
+    service.acceptChunk(job, chunkNumber, chunk(chunkNumber));
+  }
+
+  private void assertFinalizedOnce(FileUploadJob job) throws FileUploadException {
+    assertEquals(1, collected.size());
+    assertArrayEquals(CONTENT.getBytes(UTF_8), collected.get(0));
+    assertEquals(FileUploadJob.JobState.COMPLETE, service.getJob(job.getId()).getState());
+  }
+
+  @Test
+  public void testOutOfOrderChunks() throws Exception {
+    FileUploadJob job = createJob();
+    sendChunk(job, 2);
+    sendChunk(job, 0);
+    assertTrue(collected.isEmpty());
+    sendChunk(job, 1);
+    assertFinalizedOnce(job);
+  }
+
+  @Test
+  public void testDuplicateChunk() throws Exception {
+    FileUploadJob job = createJob();
+    sendChunk(job, 0);
+    sendChunk(job, 0);
+    FileUploadJob stored = service.getJob(job.getId());
+    assertEquals(1, stored.getChunksReceived());
+    assertEquals(CHUNK_SIZE, stored.getPayload().getCurrentSize());
+    assertEquals(FileUploadJob.JobState.READY, stored.getState());
+
+    sendChunk(job, 1);
+    sendChunk(job, 2);
+    assertFinalizedOnce(job);
+  }
+
+  @Test
+  public void testWrongSizeChunk() throws Exception {
+    FileUploadJob job = createJob();
+    try {
+      service.acceptChunk(job, 0, new ByteArrayInputStream("012".getBytes(UTF_8)));
+      fail("A chunk of the wrong size must be rejected");
+    } catch (FileUploadException e) {
+      // expected
+    }
+    try {
+      service.acceptChunk(job, 1, new ByteArrayInputStream("45678".getBytes(UTF_8)));
+      fail("A chunk of the wrong size must be rejected");
+    } catch (FileUploadException e) {
+      // expected
+    }
+    FileUploadJob stored = service.getJob(job.getId());
+    assertEquals(0, stored.getChunksReceived());
+    assertEquals(FileUploadJob.JobState.READY, stored.getState());
+
+    // the rejected chunks can be sent again
+    sendChunk(job, 0);
+    sendChunk(job, 1);
+    sendChunk(job, 2);
+    assertFinalizedOnce(job);
+  }
+
+  @Test
+  public void testConcurrencyLimit() throws Exception {
+    configure(1);
+    FileUploadJob job = createJob();
+    BlockingChunk blocked = new BlockingChunk(0);
+    Future<?> upload = executor.submit(() -> {
+      service.acceptChunk(job, 0, blocked);
+      return null;
+    });
+    blocked.awaitReading();
+    try {
+      sendChunk(job, 1);
+      fail("Only one chunk may be received at a time");
+    } catch (FileUploadException e) {
+      // expected
+    }
+    blocked.proceed();
+    upload.get(10, TimeUnit.SECONDS);
+
+    sendChunk(job, 1);
+    sendChunk(job, 2);
+    assertFinalizedOnce(job);
+  }
+
+  @Test
+  public void testInvalidConcurrencyLimit() throws Exception {
+    configure(0);
+    FileUploadJob job = createJob();
+    sendChunk(job, 0);
+    sendChunk(job, 1);
+    sendChunk(job, 2);
+    assertFinalizedOnce(job);
+  }
+
+  @Test
+  public void testResumeFromPersistedBitmap() throws Exception {
+    FileUploadJob job = createJob();
+    sendChunk(job, 0);
+    sendChunk(job, 2);
+
+    // the job is no longer cached, so it is loaded from its job file
+    FileUploadJob resumed = service.getJob(job.getId());
+    assertNotSame(job, resumed);
+    assertEquals(2, resumed.getChunksReceived());
+    assertEquals(CHUNK_SIZE + 2, resumed.getPayload().getCurrentSize());
+
+    sendChunk(resumed, 1);
+    assertFinalizedOnce(job);
+  }
+
+  @Test
+  public void testFinalizedOnceAfterConcurrentDuplicate() throws Exception {
+    FileUploadJob job = createJob();
+    BlockingChunk duplicate = new BlockingChunk(2);
+    Future<?> upload = executor.submit(() -> {
+      service.acceptChunk(job, 2, duplicate);
+      return null;
+    });
+    duplicate.awaitReading();
+
+    // all chunks are received while the duplicate is still running
+    sendChunk(job, 0);
+    sendChunk(job, 1);
+    sendChunk(job, 2);
+    assertTrue(collected.isEmpty());
+
+    duplicate.proceed();
+    upload.get(10, TimeUnit.SECONDS);
+    assertFinalizedOnce(job);
+
+    try {
+      sendChunk(service.getJob(job.getId()), 2);
+      fail("A completed job must not accept more chunks");
+    } catch (FileUploadException e) {
+      // expected
+    }
+    assertEquals(1, collected.size());
+  }
+
+  @Test
+  public void testFinalizedAfterConcurrentDuplicateFails() throws Exception {
+    FileUploadJob job = createJob();
+    BlockingChunk duplicate = new BlockingChunk(2);
+    duplicate.fail = true;
+    Future<?> upload = executor.submit(() -> {
+      service.acceptChunk(job, 2, duplicate);
+      return null;
+    });
+    duplicate.awaitReading();
+
+    sendChunk(job, 0);
+    sendChunk(job, 1);
+    sendChunk(job, 2);
+    assertTrue(collected.isEmpty());
+
+    duplicate.proceed();
+    try {
+      upload.get(10, TimeUnit.SECONDS);
+      fail("The failing duplicate must be rejected");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof FileUploadException);
+    }
+    assertFinalizedOnce(job);
+  }
+
+  /** Chunk content which is held back until the test lets it proceed, failing on demand. */
+  private static final class BlockingChunk extends InputStream {
+    private final CountDownLatch reading = new CountDownLatch(1);
+    private final CountDownLatch proceed = new CountDownLatch(1);
+    private final InputStream content;
+    private boolean fail = false;
+
+    BlockingChunk(int chunkNumber) {
+      this.content = chunk(chunkNumber);
+    }
+
+    void awaitReading() throws InterruptedException {
+      assertTrue(reading.await(10, TimeUnit.SECONDS));
+    }
+
+    void proceed() {
+      proceed.countDown();
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) == -1 ? -1 : b[0];
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      reading.countDown();
+      try {
+        proceed.await();
+      } catch (InterruptedException e) {
+        throw new IOException(e);
+      }
+      if (fail) {
+        throw new IOException("Connection reset");
+      }
+      return content.read(b, off, len);
+    }
+  }
+}
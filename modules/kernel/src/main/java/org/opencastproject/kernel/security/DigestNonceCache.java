@@ -0,0 +1,199 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.kernel.security;
+
+import org.apache.http.Header;
+import org.apache.http.HttpRequest;
+import org.apache.http.auth.AuthenticationException;
+import org.apache.http.auth.Credentials;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.auth.DigestScheme;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the digest authentication challenge of each remote host, so that consecutive requests to the same host
+ * can reuse a nonce instead of asking for a new one before every request.
+ * <p>
+ * Each host gets its own {@link DigestScheme}, which increments the nonce count every time the nonce is used again.
+ * Nonces are dropped once they reach the maximum age, which should stay below the nonce validity of the remote hosts,
+ * or as soon as a remote host rejects them.
+ */
+class DigestNonceCache {
+
+  /** The cached challenges by host */
+  private final Map<String, Challenge> challenges = new ConcurrentHashMap<>();
+
+  /** The time in milliseconds a nonce is reused, a value of 0 or less disables the cache */
+  private volatile long maxAge;
+
+  /** The number of requests authenticated with a cached nonce */
+  private final LongAdder hits = new LongAdder();
+
+  /** The number of requests which needed a new nonce */
+  private final LongAdder misses = new LongAdder();
+
+  /** The number of cached nonces rejected by the remote host */
+  private final LongAdder rejections = new LongAdder();
+
+  /**
+   * @param maxAge
+   *         the time in milliseconds a nonce is reused, a value of 0 or less disables the cache
+   */
+  DigestNonceCache(long maxAge) {
+    this.maxAge = maxAge;
+  }
+
+  /**
+   * Sets the time in milliseconds a nonce is reused. A value of 0 or less disables the cache.
+   */
+  void setMaxAge(long maxAge) {
+    this.maxAge = maxAge;
+    if (maxAge <= 0) {
+      challenges.clear();
+    }
+  }
+
+  /**
+   * Returns the key under which the challenge for the host of the given request is cached.
+   *
+   * @param request
+   *         the request
+   * @return the scheme, host and port of the request URI
+   */
+  static String getHost(HttpUriRequest request) {
+    final URI uri = request.getURI();
+    return uri.getScheme() + "://" + uri.getRawAuthority();
+  }
+
+  /**
+   * Creates the authorization header for a request using the cached nonce of its host.
+   *
+   * @param host
+   *         the host as returned by {@link #getHost(HttpUriRequest)}
+   * @param credentials
+   *         the credentials to authenticate with
+   * @param request
+   *         the request to authenticate
+   * @return the authorization header, or <code>null</code> if there is no valid cached nonce for the host
+   * @throws AuthenticationException
+   *         if the authorization header cannot be created
+   */
+  Header authenticate(String host, Credentials credentials, HttpRequest request) throws AuthenticationException {
+    final Challenge challenge = challenges.get(host);
+    if (challenge == null) {
+      return null;
+    }
+    if (System.currentTimeMillis() - challenge.created >= maxAge) {
+      challenges.remove(host, challenge);
+      return null;
+    }
+    hits.increment();
+    return challenge.authenticate(credentials, request);
+  }
+
+  /**
+   * Caches a new challenge received from a host and creates the authorization header for a request using it.
+   *
+   * @param host
+   *         the host as returned by {@link #getHost(HttpUriRequest)}
+   * @param realm
+   *         the realm of the challenge
+   * @param nonce
+   *         the nonce of the challenge
+   * @param qop
+   *         the quality of protection options of the challenge, may be <code>null</code>
+   * @param credentials
+   *         the credentials to authenticate with
+   * @param request
+   *         the request to authenticate
+   * @return the authorization header
+   * @throws AuthenticationException
+   *         if the authorization header cannot be created
+   */
+  Header put(String host, String realm, String nonce, String qop, Credentials credentials, HttpRequest request)
+          throws AuthenticationException {
+    misses.increment();
+    final Challenge challenge = new Challenge(realm, nonce, qop);
+    if (maxAge > 0) {
+      challenges.put(host, challenge);
+    }
+    return challenge.authenticate(credentials, request);
+  }
+
+  /**
+   * Drops the cached nonce of a host after it has been rejected by the host.
+   *
+   * @param host
+   *         the host as returned by {@link #getHost(HttpUriRequest)}
+   */
+  void reject(String host) {
+    rejections.increment();
+    challenges.remove(host);
+  }
+
+  /** Drops all cached nonces. */
+  void clear() {
+    challenges.clear();
+  }
+
+  long getHits() {
+    return hits.sum();
+  }
+
+  long getMisses() {
+    return misses.sum();
+  }
+
+  long getRejections() {
+    return rejections.sum();
+  }
+
+  /**
+   * A digest challenge of a remote host.
+   */
+  private static final class Challenge {
+
+    /** The time the challenge was received */
+    private final long created = System.currentTimeMillis();
+
+    /** The digest scheme keeping track of the nonce count */
+    private final DigestScheme scheme = new DigestScheme();
+
+    Challenge(String realm, String nonce, String qop) {
+      scheme.overrideParamter("realm", realm);
+      scheme.overrideParamter("nonce", nonce);
+      if (qop != null) {
+        scheme.overrideParamter("qop", qop);
+      }
+    }
+
+    /** The digest scheme is not thread safe, and the nonce count has to increase with every request */
+    synchronized Header authenticate(Credentials credentials, HttpRequest request) throws AuthenticationException {
+      return scheme.authenticate(credentials, request);
+    }
+  }
+
+}
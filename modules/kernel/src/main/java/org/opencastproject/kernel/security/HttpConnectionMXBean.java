@@ -27,4 +27,37 @@ package org.opencastproject.kernel.security;
 public interface HttpConnectionMXBean {
   /** Gets the number of open http connections */
   int getOpenConnections();
+
+  /** Gets the number of pooled connections currently leased */
+  int getLeasedConnections();
+
+  /** Gets the number of idle connections available in the pool */
+  int getAvailableConnections();
+
+  /** Gets the number of requests waiting for a pooled connection */
+  int getPendingConnectionRequests();
+
+  /** Gets the maximum number of pooled connections */
+  int getMaxConnections();
+
+  /** Gets the total number of connections leased from the pool */
+  long getConnectionLeases();
+
+  /** Gets the average time in milliseconds requests had to wait for a pooled connection */
+  double getAverageLeaseWaitTime();
+
+  /** Gets the longest time in milliseconds a request had to wait for a pooled connection */
+  double getMaxLeaseWaitTime();
+
+  /** Gets the number of requests authenticated with a cached digest nonce */
+  long getNonceCacheHits();
+
+  /** Gets the number of requests which needed to fetch a new digest nonce */
+  long getNonceCacheMisses();
+
+  /** Gets the number of cached digest nonces rejected by the remote host */
+  long getNonceCacheRejections();
+
+  /** Gets the share of digest authenticated requests which reused a cached nonce */
+  double getNonceReuseRate();
 }
@@ -52,8 +52,10 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Implements the organizational directory. As long as no organizations are published in the service registry, the
@@ -117,7 +119,7 @@ public class OrganizationDirectoryServiceImpl implements OrganizationDirectorySe
   @Reference
   public void setOrgPersistence(OrganizationDatabase setOrgPersistence) {
     this.persistence = setOrgPersistence;
-    this.cache = new OrgCache(60000, persistence);
+    this.cache = new OrgCache(60000, persistence, executor);
   }
 
   /**
@@ -321,64 +323,93 @@ public class OrganizationDirectoryServiceImpl implements OrganizationDirectorySe
   /**
    * Very simple cache that does a <em>complete</em> refresh after a given interval. This type of cache is only suitable
    * for small sets.
+   * <p>
+   * The organizations are kept in an immutable snapshot which is replaced as a whole, so readers never block each
+   * other. Once the refresh interval has passed, the snapshot is reloaded in the background while readers keep using
+   * the previous one. Local changes drop the snapshot, so that the next reader loads the new state.
    */
   private static final class OrgCache {
+    /** Serializes loading the snapshot with dropping it */
     private final Object lock = new Object();
 
-    // A simple hash map is sufficient here.
-    // No need to deal with soft references or an LRU map since the number of organizations
-    // will be quite low.
-    private final Map<Tuple<String, Integer>, Organization> byHost = map();
-    private final Map<String, Organization> byId = map();
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
     private final long refreshInterval;
-    private long lastRefresh;
+    private volatile Snapshot snapshot;
 
     private final OrganizationDatabase persistence;
+    private final Executor executor;
 
-    OrgCache(long refreshInterval, OrganizationDatabase persistence) {
+    OrgCache(long refreshInterval, OrganizationDatabase persistence, Executor executor) {
       this.refreshInterval = refreshInterval;
       this.persistence = persistence;
-      invalidate();
+      this.executor = executor;
     }
 
     public Organization get(URL url) {
-      synchronized (lock) {
-        refresh();
-        return byHost.get(hostAndPort(url));
-      }
+      return getSnapshot().byHost.get(hostAndPort(url));
     }
 
     public Organization get(String id) {
-      synchronized (lock) {
-        refresh();
-        return byId.get(id);
-      }
+      return getSnapshot().byId.get(id);
     }
 
     public List<Organization> getAll() {
+      return toList(getSnapshot().byId.values());
+    }
+
+    public void invalidate() {
       synchronized (lock) {
-        refresh();
-        return toList(byId.values());
+        snapshot = null;
       }
     }
 
-    public void invalidate() {
-      this.lastRefresh = System.currentTimeMillis() - 2 * refreshInterval;
+    private Snapshot getSnapshot() {
+      final Snapshot current = snapshot;
+      if (current == null) {
+        synchronized (lock) {
+          if (snapshot == null) {
+            snapshot = new Snapshot(persistence.getOrganizations());
+          }
+          return snapshot;
+        }
+      }
+      if (System.currentTimeMillis() - current.created > refreshInterval && refreshing.compareAndSet(false, true)) {
+        executor.execute(this::refresh);
+      }
+      return current;
     }
 
     private void refresh() {
-      final long now = System.currentTimeMillis();
-      if (now - lastRefresh > refreshInterval) {
-        byId.clear();
-        byHost.clear();
-        for (Organization org : persistence.getOrganizations()) {
-          byId.put(org.getId(), org);
-          // (host, port)
-          for (Map.Entry<String, Integer> server : org.getServers().entrySet()) {
-            byHost.put(tuple(server.getKey(), server.getValue()), org);
-          }
+      try {
+        synchronized (lock) {
+          snapshot = new Snapshot(persistence.getOrganizations());
+        }
+      } catch (Exception e) {
+        logger.warn("Unable to refresh the organization cache", e);
+      } finally {
+        refreshing.set(false);
+      }
+    }
+  }
+
+  /**
+   * Immutable view of all organizations at a given time.
+   */
+  private static final class Snapshot {
+    // A simple hash map is sufficient here.
+    // No need to deal with soft references or an LRU map since the number of organizations
+    // will be quite low.
+    private final Map<Tuple<String, Integer>, Organization> byHost = map();
+    private final Map<String, Organization> byId = map();
+    private final long created = System.currentTimeMillis();
+
+    Snapshot(List<Organization> organizations) {
+      for (Organization org : organizations) {
+        byId.put(org.getId(), org);
+        // (host, port)
+        for (Map.Entry<String, Integer> server : org.getServers().entrySet()) {
+          byHost.put(tuple(server.getKey(), server.getValue()), org);
         }
-        lastRefresh = now;
       }
     }
   }
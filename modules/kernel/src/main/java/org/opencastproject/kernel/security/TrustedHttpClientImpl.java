@@ -41,21 +41,34 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.http.Header;
 import org.apache.http.HeaderElement;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.AuthenticationException;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.config.AuthSchemes;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.impl.auth.DigestScheme;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.IdleConnectionEvictor;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -71,6 +84,10 @@ import java.lang.management.ManagementFactory;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
@@ -118,6 +135,27 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
   public static final String NONCE_TIMEOUT_RETRY_MAXIMUM_VARIABLE_TIME_KEY =
     "org.opencastproject.security.digest.nonce.variable.time";
 
+  /**
+   * The configuration property specifying the time in seconds a digest nonce received from a remote host is reused for
+   * further requests to that host.
+   */
+  public static final String NONCE_CACHE_TIME_KEY = "org.opencastproject.security.digest.nonce.cache.time";
+
+  /** The configuration property specifying the maximum number of pooled connections */
+  public static final String CONNECTION_POOL_MAX_TOTAL_KEY = "org.opencastproject.security.http.pool.max.total";
+
+  /** The configuration property specifying the maximum number of pooled connections per remote host */
+  public static final String CONNECTION_POOL_MAX_PER_ROUTE_KEY = "org.opencastproject.security.http.pool.max.per.route";
+
+  /** The configuration property specifying the time in seconds after which idle pooled connections are closed */
+  public static final String CONNECTION_POOL_IDLE_TIMEOUT_KEY = "org.opencastproject.security.http.pool.idle.timeout";
+
+  /**
+   * The configuration property specifying the time in seconds a connection is kept alive if the server does not say
+   * otherwise.
+   */
+  public static final String CONNECTION_KEEP_ALIVE_KEY = "org.opencastproject.security.http.keepalive";
+
   /** The default time until a connection attempt fails */
   public static final int DEFAULT_CONNECTION_TIMEOUT = 60 * 1000;
 
@@ -130,12 +168,33 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
   /** The number of milliseconds in a single second. */
   private static final int MILLISECONDS_IN_SECONDS = 1000;
 
+  /** The number of nanoseconds in a single millisecond. */
+  private static final long NANOSECONDS_IN_MILLISECOND = 1000000L;
+
   /** The default amount of time to wait after a nonce timeout. */
   public static final int DEFAULT_RETRY_BASE_TIME = 300;
 
   /** Default maximum amount of time in a random range between 0 and this value to add to the base time. */
   public static final int DEFAULT_RETRY_MAXIMUM_VARIABLE_TIME = 300;
 
+  /**
+   * The default time in seconds a digest nonce is reused. This needs to stay below the nonce validity configured in
+   * the security configuration of the remote hosts, which is 300 seconds by default.
+   */
+  public static final int DEFAULT_NONCE_CACHE_TIME = 240;
+
+  /** The default maximum number of pooled connections */
+  public static final int DEFAULT_CONNECTION_POOL_MAX_TOTAL = 200;
+
+  /** The default maximum number of pooled connections per remote host */
+  public static final int DEFAULT_CONNECTION_POOL_MAX_PER_ROUTE = 50;
+
+  /** The default time in seconds after which idle pooled connections are closed */
+  public static final int DEFAULT_CONNECTION_POOL_IDLE_TIMEOUT = 30;
+
+  /** The default time in seconds a connection is kept alive if the server does not say otherwise */
+  public static final int DEFAULT_CONNECTION_KEEP_ALIVE = 60;
+
   /**
    * The default time before a piece of signed content expires. 1 Minute. These are internal calls to another server, if
    * we can't make the request in under a minute something has gone horribly wrong.
@@ -151,8 +210,36 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
   /** The number of times to retry a request after a nonce timeout. */
   private int nonceTimeoutRetries = DEFAULT_NONCE_TIMEOUT_RETRIES;
 
-  /** The map of open responses to their http clients, which need to be closed after we are finished with the response */
-  protected Map<HttpResponse, CloseableHttpClient> responseMap = new ConcurrentHashMap<>();
+  /** The digest nonces of the remote hosts, reused for requests other than GET and HEAD */
+  private final DigestNonceCache nonceCache =
+      new DigestNonceCache(DEFAULT_NONCE_CACHE_TIME * (long) MILLISECONDS_IN_SECONDS);
+
+  /** The map of open responses to the underlying responses, which need to be closed to release their connection */
+  protected Map<HttpResponse, CloseableHttpResponse> responseMap = new ConcurrentHashMap<>();
+
+  /** The maximum number of pooled connections */
+  private int connectionPoolMaxTotal = DEFAULT_CONNECTION_POOL_MAX_TOTAL;
+
+  /** The maximum number of pooled connections per remote host */
+  private int connectionPoolMaxPerRoute = DEFAULT_CONNECTION_POOL_MAX_PER_ROUTE;
+
+  /** The time in seconds after which idle pooled connections are closed */
+  private int connectionPoolIdleTimeout = DEFAULT_CONNECTION_POOL_IDLE_TIMEOUT;
+
+  /** The time in seconds a connection is kept alive if the server does not say otherwise */
+  private int connectionKeepAlive = DEFAULT_CONNECTION_KEEP_ALIVE;
+
+  /** The connection pool shared by all requests */
+  private InstrumentedConnectionManager connectionManager = null;
+
+  /** Closes expired and idle connections of the pool in the background */
+  private IdleConnectionEvictor idleConnectionEvictor = null;
+
+  /** The pooled client used for GET and HEAD requests, which handles digest authentication by itself */
+  private CloseableHttpClient authenticatingHttpClient = null;
+
+  /** The pooled client used for all other requests, digest authentication is handled manually for those */
+  private CloseableHttpClient httpClient = null;
 
   /** Used to add a random amount of time up to retryMaximumVariableTime to retry a request after a nonce timeout. */
   private final Random generator = new Random();
@@ -186,6 +273,17 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
     getRetryNumber(cc);
     getRetryBaseTime(cc);
     getRetryMaximumVariableTime(cc);
+    nonceCache.setMaxAge(getIntFromComponentContext(cc, NONCE_CACHE_TIME_KEY, DEFAULT_NONCE_CACHE_TIME)
+                             * (long) MILLISECONDS_IN_SECONDS);
+
+    connectionPoolMaxTotal = getIntFromComponentContext(cc, CONNECTION_POOL_MAX_TOTAL_KEY,
+                                                        DEFAULT_CONNECTION_POOL_MAX_TOTAL);
+    connectionPoolMaxPerRoute = getIntFromComponentContext(cc, CONNECTION_POOL_MAX_PER_ROUTE_KEY,
+                                                           DEFAULT_CONNECTION_POOL_MAX_PER_ROUTE);
+    connectionPoolIdleTimeout = getIntFromComponentContext(cc, CONNECTION_POOL_IDLE_TIMEOUT_KEY,
+                                                           DEFAULT_CONNECTION_POOL_IDLE_TIMEOUT);
+    connectionKeepAlive = getIntFromComponentContext(cc, CONNECTION_KEEP_ALIVE_KEY, DEFAULT_CONNECTION_KEEP_ALIVE);
+    logger.debug("Pooling up to {} connections, {} per host", connectionPoolMaxTotal, connectionPoolMaxPerRoute);
 
     // register with jmx
     try {
@@ -320,6 +418,8 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
   @Deactivate
   public void deactivate() {
     logger.debug("deactivate");
+    shutdownConnectionPool();
+    nonceCache.clear();
   }
 
   public TrustedHttpClientImpl() {
@@ -330,12 +430,129 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
     this.pass = pass;
   }
 
-  /** Creates a new HttpClientBuilder to use for making requests. */
+  /**
+   * Creates a new HttpClientBuilder to use for making requests. The clients built share the pooled connection manager
+   * of this trusted http client.
+   */
   public HttpClientBuilder makeHttpClientBuilder(int connectionTimeout, int socketTimeout) {
     RequestConfig config = RequestConfig.custom()
         .setConnectionRequestTimeout(connectionTimeout)
         .setSocketTimeout(socketTimeout).build();
-    return HttpClientBuilder.create().setDefaultRequestConfig(config);
+    return HttpClientBuilder.create()
+        .setDefaultRequestConfig(config)
+        .setConnectionManager(getConnectionManager())
+        .setConnectionManagerShared(true)
+        .setKeepAliveStrategy(this::getKeepAliveDuration);
+  }
+
+  /**
+   * Returns the connection pool, creating it on first use.
+   *
+   * @return the shared connection manager
+   */
+  private synchronized InstrumentedConnectionManager getConnectionManager() {
+    if (connectionManager == null) {
+      connectionManager = new InstrumentedConnectionManager();
+      connectionManager.setMaxTotal(connectionPoolMaxTotal);
+      connectionManager.setDefaultMaxPerRoute(connectionPoolMaxPerRoute);
+      if (connectionPoolIdleTimeout > 0) {
+        idleConnectionEvictor = new IdleConnectionEvictor(connectionManager, connectionPoolIdleTimeout,
+            TimeUnit.SECONDS, connectionPoolIdleTimeout, TimeUnit.SECONDS);
+        idleConnectionEvictor.start();
+      }
+    }
+    return connectionManager;
+  }
+
+  /**
+   * Returns one of the two pooled clients, creating it on first use.
+   *
+   * @param withCredentials
+   *         whether the client should answer digest challenges on its own
+   * @return the pooled client
+   */
+  private synchronized CloseableHttpClient getHttpClient(boolean withCredentials) {
+    if (withCredentials) {
+      if (authenticatingHttpClient == null) {
+        // Set the user/pass
+        CredentialsProvider provider = new BasicCredentialsProvider();
+        provider.setCredentials(
+            new AuthScope(AuthScope.ANY_HOST, AuthScope.ANY_PORT, AuthScope.ANY_REALM, AuthSchemes.DIGEST),
+            new UsernamePasswordCredentials(user, pass));
+        HttpClientBuilder clientBuilder = makeHttpClientBuilder(DEFAULT_CONNECTION_TIMEOUT, DEFAULT_SOCKET_TIMEOUT);
+        clientBuilder.setDefaultCredentialsProvider(provider);
+        authenticatingHttpClient = clientBuilder.build();
+      }
+      return authenticatingHttpClient;
+    }
+    if (httpClient == null) {
+      httpClient = makeHttpClientBuilder(DEFAULT_CONNECTION_TIMEOUT, DEFAULT_SOCKET_TIMEOUT).build();
+    }
+    return httpClient;
+  }
+
+  /** Closes the pooled clients and all pooled connections. */
+  private synchronized void shutdownConnectionPool() {
+    for (CloseableHttpClient client : new CloseableHttpClient[] { authenticatingHttpClient, httpClient }) {
+      if (client != null) {
+        try {
+          client.close();
+        } catch (IOException e) {
+          logger.debug("Unable to close http client", e);
+        }
+      }
+    }
+    authenticatingHttpClient = null;
+    httpClient = null;
+    if (idleConnectionEvictor != null) {
+      idleConnectionEvictor.shutdown();
+      idleConnectionEvictor = null;
+    }
+    if (connectionManager != null) {
+      connectionManager.shutdown();
+      connectionManager = null;
+    }
+  }
+
+  /**
+   * Determines how long a connection may stay in the pool after a response. The keep-alive duration announced by the
+   * server is used if present, and the configured default otherwise.
+   */
+  private long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+    long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+    if (keepAlive > 0) {
+      return keepAlive;
+    }
+    return connectionKeepAlive * (long) MILLISECONDS_IN_SECONDS;
+  }
+
+  /**
+   * Sets the per-request timeouts on a request, so that requests with different timeouts can share pooled clients.
+   * Timeouts already configured on the request take precedence.
+   *
+   * @param httpUriRequest
+   *         the request
+   * @param connectionTimeout
+   *         the time until establishing or leasing a connection fails
+   * @param socketTimeout
+   *         the time between packets that causes a connection to fail
+   */
+  private void setTimeouts(HttpUriRequest httpUriRequest, int connectionTimeout, int socketTimeout) {
+    if (httpUriRequest instanceof HttpRequestBase) {
+      HttpRequestBase request = (HttpRequestBase) httpUriRequest;
+      RequestConfig existing = request.getConfig() == null ? RequestConfig.DEFAULT : request.getConfig();
+      RequestConfig.Builder config = RequestConfig.copy(existing);
+      if (existing.getConnectionRequestTimeout() < 0) {
+        config.setConnectionRequestTimeout(connectionTimeout);
+      }
+      if (existing.getConnectTimeout() < 0) {
+        config.setConnectTimeout(connectionTimeout);
+      }
+      if (existing.getSocketTimeout() < 0) {
+        config.setSocketTimeout(socketTimeout);
+      }
+      request.setConfig(config.build());
+    }
   }
 
   /**
@@ -369,52 +586,51 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
       }
     }
 
-    final HttpClientBuilder clientBuilder = makeHttpClientBuilder(connectionTimeout, socketTimeout);
     if ("GET".equalsIgnoreCase(httpUriRequest.getMethod()) || "HEAD".equalsIgnoreCase(httpUriRequest.getMethod())) {
-      // Set the user/pass
-      CredentialsProvider provider = new BasicCredentialsProvider();
-      provider.setCredentials(
-          new AuthScope(AuthScope.ANY_HOST, AuthScope.ANY_PORT, AuthScope.ANY_REALM, AuthSchemes.DIGEST),
-          new UsernamePasswordCredentials(user, pass));
-      final CloseableHttpClient httpClient = clientBuilder.setDefaultCredentialsProvider(provider).build();
+      final CloseableHttpClient httpClient = getHttpClient(true);
       // Run the request (the http client handles the multiple back-and-forth requests)
       try {
         httpUriRequest = getSignedUrl(httpUriRequest);
-        HttpResponse response = new HttpResponseWrapper(httpClient.execute(httpUriRequest));
-        responseMap.put(response, httpClient);
+        setTimeouts(httpUriRequest, connectionTimeout, socketTimeout);
+        final CloseableHttpResponse pooledResponse = httpClient.execute(httpUriRequest);
+        HttpResponse response = new HttpResponseWrapper(pooledResponse);
+        responseMap.put(response, pooledResponse);
         return response;
       } catch (IOException e) {
-        try {
-          httpClient.close();
-        } catch (IOException ioException) {
-          throw new TrustedHttpClientException(e);
-        }
         throw new TrustedHttpClientException(e);
       }
     } else {
-      final CloseableHttpClient httpClient = clientBuilder.build();
+      final CloseableHttpClient httpClient = getHttpClient(false);
+      setTimeouts(httpUriRequest, connectionTimeout, socketTimeout);
       // HttpClient doesn't handle the request dynamics for other verbs (especially when sending a streamed multipart
       // request), so we need to handle the details of the digest auth back-and-forth manually
-      manuallyHandleDigestAuthentication(httpUriRequest, httpClient);
-      HttpResponse response = null;
+      final boolean cachedNonce = manuallyHandleDigestAuthentication(httpUriRequest, true);
+      CloseableHttpResponse pooledResponse = null;
       try {
-        response = new HttpResponseWrapper(httpClient.execute(httpUriRequest));
-        if (nonceTimeoutRetries > 0 && hadNonceTimeoutResponse(response)) {
-          httpClient.close();
-          response = retryAuthAndRequestAfterNonceTimeout(httpUriRequest, response);
+        pooledResponse = httpClient.execute(httpUriRequest);
+        if (cachedNonce && pooledResponse.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
+          // The cached nonce has expired or is unknown to the remote host, so try again right away with a new one
+          logger.debug("Cached nonce rejected by {}, requesting a new one", httpUriRequest.getURI());
+          pooledResponse.close();
+          nonceCache.reject(DigestNonceCache.getHost(httpUriRequest));
+          manuallyHandleDigestAuthentication(httpUriRequest, false);
+          pooledResponse = httpClient.execute(httpUriRequest);
         }
-        responseMap.put(response, httpClient);
+        if (nonceTimeoutRetries > 0 && hadNonceTimeoutResponse(pooledResponse)) {
+          pooledResponse.close();
+          pooledResponse = retryAuthAndRequestAfterNonceTimeout(httpUriRequest, pooledResponse);
+        }
+        HttpResponse response = new HttpResponseWrapper(pooledResponse);
+        responseMap.put(response, pooledResponse);
         return response;
       } catch (Exception e) {
-        // if we have a response, remove it from the map
-        if (response != null) {
-          responseMap.remove(response);
-        }
-        // close the http connection(s)
-        try {
-          httpClient.close();
-        } catch (IOException ioException) {
-          throw new TrustedHttpClientException(e);
+        // release the connection
+        if (pooledResponse != null) {
+          try {
+            pooledResponse.close();
+          } catch (IOException ioException) {
+            throw new TrustedHttpClientException(e);
+          }
         }
         throw new TrustedHttpClientException(e);
       }
@@ -469,13 +685,13 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
    * @throws IOException
    * @throws ClientProtocolException
    */
-  private HttpResponse retryAuthAndRequestAfterNonceTimeout(HttpUriRequest httpUriRequest, HttpResponse response)
-          throws TrustedHttpClientException, IOException, ClientProtocolException {
+  private CloseableHttpResponse retryAuthAndRequestAfterNonceTimeout(HttpUriRequest httpUriRequest,
+          CloseableHttpResponse response) throws TrustedHttpClientException, IOException, ClientProtocolException {
     // Get rid of old security headers with the old nonce.
     httpUriRequest.removeHeaders(AUTHORIZATION_HEADER_NAME);
 
     for (int i = 0; i < nonceTimeoutRetries; i++) {
-      CloseableHttpClient httpClient = makeHttpClientBuilder(DEFAULT_CONNECTION_TIMEOUT, DEFAULT_SOCKET_TIMEOUT).build();
+      CloseableHttpClient httpClient = getHttpClient(false);
       int variableDelay = 0;
       // Make sure that we have a variable delay greater than 0.
       if (retryMaximumVariableTime > 0) {
@@ -492,13 +708,12 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
           logger.error("Suffered InteruptedException while trying to sleep until next retry.", e);
         }
       }
-      manuallyHandleDigestAuthentication(httpUriRequest, httpClient);
-      response = new HttpResponseWrapper(httpClient.execute(httpUriRequest));
-      if (!hadNonceTimeoutResponse(response)) {
-        responseMap.put(response, httpClient);
+      manuallyHandleDigestAuthentication(httpUriRequest, false);
+      response = httpClient.execute(httpUriRequest);
+      if (!hadNonceTimeoutResponse(response) || i == nonceTimeoutRetries - 1) {
         break;
       }
-      httpClient.close();
+      response.close();
     }
     return response;
   }
@@ -516,17 +731,36 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
   }
 
   /**
-   * Handles the necessary handshake for digest authenticaion in the case where it isn't a GET operation.
+   * Handles the necessary handshake for digest authenticaion in the case where it isn't a GET operation. A nonce
+   * received from the same host before is reused if possible, so that the handshake can be skipped.
    *
    * @param httpUriRequest
    *         The request location to get the digest authentication for.
-   * @param httpClient
-   *         The client to send the request through.
+   * @param reuseNonce
+   *         Whether a cached nonce may be used. A new nonce is requested otherwise.
+   * @return true if the request has been authenticated with a cached nonce
    * @throws TrustedHttpClientException
-   *         Thrown if the client cannot be shutdown.
+   *         Thrown if the authentication header cannot be created.
    */
-  private void manuallyHandleDigestAuthentication(HttpUriRequest httpUriRequest, CloseableHttpClient httpClient)
+  private boolean manuallyHandleDigestAuthentication(HttpUriRequest httpUriRequest, boolean reuseNonce)
           throws TrustedHttpClientException {
+    final String host = DigestNonceCache.getHost(httpUriRequest);
+    // Set the user/pass
+    final UsernamePasswordCredentials creds = new UsernamePasswordCredentials(user, pass);
+
+    // A request with a cached nonce may have to be sent twice, which is not possible for streamed entities
+    if (reuseNonce && isRepeatable(httpUriRequest)) {
+      try {
+        final Header authHeader = nonceCache.authenticate(host, creds, httpUriRequest);
+        if (authHeader != null) {
+          httpUriRequest.setHeader(authHeader);
+          return true;
+        }
+      } catch (AuthenticationException e) {
+        throw new TrustedHttpClientException(e);
+      }
+    }
+
     HttpRequestBase digestRequest;
     try {
       digestRequest = (HttpRequestBase) httpUriRequest.getClass().newInstance();
@@ -538,27 +772,30 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
     String[] realmAndNonce = getRealmAndNonce(digestRequest);
 
     if (realmAndNonce != null) {
-      // Set the user/pass
-      UsernamePasswordCredentials creds = new UsernamePasswordCredentials(user, pass);
-
-      // Set up the digest authentication with the required values
-      DigestScheme digestAuth = new DigestScheme();
-      digestAuth.overrideParamter("realm", realmAndNonce[0]);
-      digestAuth.overrideParamter("nonce", realmAndNonce[1]);
-
-      // Add the authentication header
+      // Set up the digest authentication with the required values and add the authentication header
+      final String qop = realmAndNonce.length > 2 ? realmAndNonce[2] : null;
       try {
-        httpUriRequest.setHeader(digestAuth.authenticate(creds, httpUriRequest));
+        httpUriRequest.setHeader(nonceCache.put(host, realmAndNonce[0], realmAndNonce[1], qop, creds, httpUriRequest));
       } catch (Exception e) {
-        // close the http connection(s)
-        try {
-          httpClient.close();
-        } catch (IOException ex) {
-          throw new TrustedHttpClientException(ex);
-        }
         throw new TrustedHttpClientException(e);
       }
     }
+    return false;
+  }
+
+  /**
+   * Determines if a request can be sent more than once.
+   *
+   * @param httpUriRequest
+   *         The request to check.
+   * @return true if the request has no entity or a repeatable one
+   */
+  private boolean isRepeatable(HttpUriRequest httpUriRequest) {
+    if (httpUriRequest instanceof HttpEntityEnclosingRequest) {
+      final HttpEntity entity = ((HttpEntityEnclosingRequest) httpUriRequest).getEntity();
+      return entity == null || entity.isRepeatable();
+    }
+    return true;
   }
 
   /**
@@ -569,9 +806,10 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
   @Override
   public void close(HttpResponse response) throws IOException {
     if (response != null) {
-      CloseableHttpClient httpClient = responseMap.remove(response);
-      if (httpClient != null) {
-        httpClient.close();
+      CloseableHttpResponse pooledResponse = responseMap.remove(response);
+      if (pooledResponse != null) {
+        // Releases the connection back to the pool if the entity has been consumed, closes it otherwise
+        pooledResponse.close();
       }
     } else {
       logger.debug("Can not close a null response");
@@ -583,33 +821,31 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
    *
    * @param request
    *         The request to execute in order to obtain the realm and nonce
-   * @return A String[] containing the {realm, nonce}
+   * @return A String[] containing the {realm, nonce, qop}, where qop is null if the server did not send it
    */
   protected String[] getRealmAndNonce(HttpRequestBase request) throws TrustedHttpClientException {
-    CloseableHttpClient httpClient = makeHttpClientBuilder(DEFAULT_CONNECTION_TIMEOUT, DEFAULT_SOCKET_TIMEOUT).build();
-    HttpResponse response;
-    try {
-      try {
-        response = new HttpResponseWrapper(httpClient.execute(request));
-        Header[] headers = response.getHeaders("WWW-Authenticate");
-        if (headers == null || headers.length == 0) {
-          logger.warn("URI {} does not support digest authentication", request.getURI());
-          return null;
-        }
-        Header authRequiredResponseHeader = headers[0];
-        String nonce = null;
-        String realm = null;
-        for (HeaderElement element : authRequiredResponseHeader.getElements()) {
-          if ("nonce".equals(element.getName())) {
-            nonce = element.getValue();
-          } else if ("Digest realm".equals(element.getName())) {
-            realm = element.getValue();
-          }
+    try (CloseableHttpResponse response = getHttpClient(false).execute(request)) {
+      // Consume the challenge so that the connection can be reused
+      EntityUtils.consume(response.getEntity());
+      Header[] headers = response.getHeaders("WWW-Authenticate");
+      if (headers == null || headers.length == 0) {
+        logger.warn("URI {} does not support digest authentication", request.getURI());
+        return null;
+      }
+      Header authRequiredResponseHeader = headers[0];
+      String nonce = null;
+      String realm = null;
+      String qop = null;
+      for (HeaderElement element : authRequiredResponseHeader.getElements()) {
+        if ("nonce".equals(element.getName())) {
+          nonce = element.getValue();
+        } else if ("Digest realm".equals(element.getName())) {
+          realm = element.getValue();
+        } else if ("qop".equals(element.getName())) {
+          qop = element.getValue();
         }
-        return new String[]{realm, nonce};
-      } finally {
-        httpClient.close();
       }
+      return new String[]{realm, nonce, qop};
     } catch (IOException e) {
       throw new TrustedHttpClientException(e);
     }
@@ -620,6 +856,70 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
     return responseMap.size();
   }
 
+  @Override
+  public int getLeasedConnections() {
+    return connectionManager == null ? 0 : connectionManager.getTotalStats().getLeased();
+  }
+
+  @Override
+  public int getAvailableConnections() {
+    return connectionManager == null ? 0 : connectionManager.getTotalStats().getAvailable();
+  }
+
+  @Override
+  public int getPendingConnectionRequests() {
+    return connectionManager == null ? 0 : connectionManager.getTotalStats().getPending();
+  }
+
+  @Override
+  public int getMaxConnections() {
+    return connectionPoolMaxTotal;
+  }
+
+  @Override
+  public long getConnectionLeases() {
+    return connectionManager == null ? 0 : connectionManager.leases.sum();
+  }
+
+  @Override
+  public double getAverageLeaseWaitTime() {
+    if (connectionManager == null) {
+      return 0;
+    }
+    long leases = connectionManager.leases.sum();
+    return leases == 0 ? 0 : connectionManager.leaseWaitNanos.sum() / (double) leases / NANOSECONDS_IN_MILLISECOND;
+  }
+
+  @Override
+  public double getMaxLeaseWaitTime() {
+    if (connectionManager == null) {
+      return 0;
+    }
+    return connectionManager.maxLeaseWaitNanos.get() / (double) NANOSECONDS_IN_MILLISECOND;
+  }
+
+  @Override
+  public long getNonceCacheHits() {
+    return nonceCache.getHits();
+  }
+
+  @Override
+  public long getNonceCacheMisses() {
+    return nonceCache.getMisses();
+  }
+
+  @Override
+  public long getNonceCacheRejections() {
+    return nonceCache.getRejections();
+  }
+
+  @Override
+  public double getNonceReuseRate() {
+    final long hits = nonceCache.getHits();
+    final long requests = hits + nonceCache.getMisses();
+    return requests == 0 ? 0 : hits / (double) requests;
+  }
+
   /**
    * @return Returns the number of times the TrustedHttpClient will retry a request if nonce timeouts are occuring.
    */
@@ -641,4 +941,44 @@ public class TrustedHttpClientImpl implements TrustedHttpClient, HttpConnectionM
     return retryMaximumVariableTime;
   }
 
+  /**
+   * A pooling connection manager which records how long requests have to wait for a connection to be leased.
+   */
+  private static final class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    /** The number of connections leased */
+    private final LongAdder leases = new LongAdder();
+
+    /** The accumulated time spent waiting for connections, in nanoseconds */
+    private final LongAdder leaseWaitNanos = new LongAdder();
+
+    /** The longest time spent waiting for a connection, in nanoseconds */
+    private final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+      final ConnectionRequest request = super.requestConnection(route, state);
+      return new ConnectionRequest() {
+        @Override
+        public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+          final long start = System.nanoTime();
+          try {
+            return request.get(timeout, timeUnit);
+          } finally {
+            final long waited = System.nanoTime() - start;
+            leases.increment();
+            leaseWaitNanos.add(waited);
+            maxLeaseWaitNanos.accumulateAndGet(waited, Math::max);
+          }
+        }
+
+        @Override
+        public boolean cancel() {
+          return request.cancel();
+        }
+      };
+    }
+  }
+
 }
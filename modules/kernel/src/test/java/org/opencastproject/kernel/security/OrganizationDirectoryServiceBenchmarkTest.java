@@ -0,0 +1,188 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.kernel.security;
+
+import org.opencastproject.kernel.security.persistence.OrganizationDatabase;
+import org.opencastproject.kernel.security.persistence.OrganizationDatabaseException;
+import org.opencastproject.security.api.Organization;
+import org.opencastproject.security.impl.jpa.JpaOrganization;
+import org.opencastproject.util.NotFoundException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the organization lookups of {@link OrganizationDirectoryServiceImpl} with many concurrent readers, like the
+ * lookups done by the organization filter for every request, while organizations are added from time to time.
+ * <p>
+ * The size of the benchmark can be changed with the system properties <code>organization.benchmark.readers</code>,
+ * <code>organization.benchmark.organizations</code> and <code>organization.benchmark.duration</code> (in
+ * milliseconds).
+ */
+public class OrganizationDirectoryServiceBenchmarkTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(OrganizationDirectoryServiceBenchmarkTest.class);
+
+  private static final int READERS = Integer.getInteger("organization.benchmark.readers", 64);
+  private static final int ORGANIZATIONS = Integer.getInteger("organization.benchmark.organizations", 20);
+  private static final long DURATION = Long.getLong("organization.benchmark.duration", 1000L);
+
+  /** Simulated latency of loading all organizations from the database */
+  private static final long LOAD_LATENCY = 5L;
+
+  private final List<Organization> organizations = new CopyOnWriteArrayList<>();
+  private final AtomicInteger loads = new AtomicInteger(0);
+  private OrganizationDirectoryServiceImpl orgDirectoryService;
+
+  @Before
+  public void setUp() {
+    for (int i = 0; i < ORGANIZATIONS; i++) {
+      organizations.add(newOrganization("org" + i));
+    }
+
+    OrganizationDatabase organizationDatabase = new OrganizationDatabase() {
+      @Override
+      public void storeOrganization(Organization organization) throws OrganizationDatabaseException {
+        organizations.add(organization);
+      }
+
+      @Override
+      public List<Organization> getOrganizations() throws OrganizationDatabaseException {
+        loads.incrementAndGet();
+        try {
+          Thread.sleep(LOAD_LATENCY);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return new ArrayList<>(organizations);
+      }
+
+      @Override
+      public Organization getOrganizationByHost(String host, int port) throws OrganizationDatabaseException,
+              NotFoundException {
+        throw new NotFoundException();
+      }
+
+      @Override
+      public Organization getOrganization(String orgId) throws OrganizationDatabaseException, NotFoundException {
+        throw new NotFoundException();
+      }
+
+      @Override
+      public void deleteOrganization(String orgId) throws OrganizationDatabaseException, NotFoundException {
+      }
+
+      @Override
+      public int countOrganizations() throws OrganizationDatabaseException {
+        return organizations.size();
+      }
+
+      @Override
+      public boolean containsOrganization(String orgId) throws OrganizationDatabaseException {
+        return false;
+      }
+    };
+
+    orgDirectoryService = new OrganizationDirectoryServiceImpl();
+    orgDirectoryService.setOrgPersistence(organizationDatabase);
+  }
+
+  @Test
+  public void testConcurrentLookups() throws Exception {
+    final AtomicLong reads = new AtomicLong(0);
+    final List<Throwable> errors = new CopyOnWriteArrayList<>();
+    final CountDownLatch start = new CountDownLatch(1);
+    final String[] ids = new String[ORGANIZATIONS];
+    final URL[] urls = new URL[ORGANIZATIONS];
+    for (int i = 0; i < ORGANIZATIONS; i++) {
+      ids[i] = "org" + i;
+      urls[i] = new URL("http://org" + i + ".example.org:8080/path");
+    }
+    final long end = System.currentTimeMillis() + DURATION;
+
+    List<Thread> readers = new ArrayList<>();
+    for (int r = 0; r < READERS; r++) {
+      final int reader = r;
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+          long count = 0;
+          for (int i = reader; System.currentTimeMillis() < end; i++) {
+            int org = i % ORGANIZATIONS;
+            Organization organization = i % 2 == 0
+                    ? orgDirectoryService.getOrganization(ids[org])
+                    : orgDirectoryService.getOrganization(urls[org]);
+            Assert.assertEquals(ids[org], organization.getId());
+            count++;
+          }
+          reads.addAndGet(count);
+        } catch (Throwable t) {
+          errors.add(t);
+        }
+      });
+      thread.start();
+      readers.add(thread);
+    }
+
+    // Add organizations while the readers are running
+    start.countDown();
+    int added = 0;
+    while (System.currentTimeMillis() < end - 100) {
+      Thread.sleep(50);
+      orgDirectoryService.addOrganization(newOrganization("added" + added));
+      Assert.assertEquals("added" + added, orgDirectoryService.getOrganization("added" + added).getId());
+      added++;
+    }
+
+    for (Thread thread : readers) {
+      thread.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    logger.info("{} readers did {} organization lookups in {} ms ({} lookups/s), {} organizations were added, "
+            + "the organizations were loaded {} times", READERS, reads.get(), DURATION,
+            reads.get() * 1000 / DURATION, added, loads.get());
+
+    Assert.assertEquals(Collections.emptyList(), errors);
+    Assert.assertTrue(reads.get() > 0);
+  }
+
+  private static Organization newOrganization(String id) {
+    Map<String, Integer> servers = new HashMap<>();
+    servers.put(id + ".example.org", 8080);
+    return new JpaOrganization(id, id, servers, "ROLE_ADMIN", "ROLE_ANONYMOUS", new HashMap<>());
+  }
+}
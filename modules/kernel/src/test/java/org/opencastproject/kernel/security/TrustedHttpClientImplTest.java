@@ -131,6 +131,12 @@ public class TrustedHttpClientImplTest {
         .andReturn(new BasicStatusLine(new ProtocolVersion("Http", 1, 1), 401, "Nonce has expired/timed out"))
         .anyTimes();
     expect(nonceResponse.getHeaders("WWW-Authenticate")).andReturn(new Header[] {}).anyTimes();
+    // Responses are closed to release their pooled connections
+    for (CloseableHttpResponse response : new CloseableHttpResponse[] { okResponse, digestResponse, nonceResponse }) {
+      expect(response.getEntity()).andReturn(null).anyTimes();
+      response.close();
+      EasyMock.expectLastCall().anyTimes();
+    }
     replay(okResponse, digestResponse, nonceResponse);
   }
 
@@ -534,6 +540,76 @@ public class TrustedHttpClientImplTest {
     Assert.assertEquals(200, response.getStatusLine().getStatusCode());
   }
 
+  @Test
+  public void cachedNonceIsReusedForSameHost() throws ClientProtocolException, IOException {
+    CloseableHttpClient httpClient = createMock(CloseableHttpClient.class);
+    // Digest handshake for the first request only
+    expect(httpClient.execute(isA(HttpUriRequest.class))).andReturn(digestResponse);
+    expect(httpClient.execute(isA(HttpUriRequest.class))).andReturn(okResponse).times(3);
+    httpClient.close();
+    EasyMock.expectLastCall().anyTimes();
+    HttpClientBuilder httpClientBuilder = createNiceMock(HttpClientBuilder.class);
+    expect(httpClientBuilder.build()).andReturn(httpClient).anyTimes();
+    replay(httpClientBuilder, httpClient);
+    client = new TrustedHttpClientImpl("u", "p") {
+      @Override
+      public HttpClientBuilder makeHttpClientBuilder(int connectionTimeout, int socketTimeout) {
+        return httpClientBuilder;
+      }
+    };
+    client.setServiceRegistry(serviceRegistry);
+    client.setSecurityService(securityService);
+
+    for (int i = 0; i < 3; i++) {
+      HttpPost httpPost = new HttpPost("http://localhost:8080/fake");
+      HttpResponse response = client.execute(httpPost);
+      Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+      assertTrue(httpPost.getFirstHeader(TrustedHttpClientImpl.AUTHORIZATION_HEADER_NAME).getValue()
+          .contains("nonce=\"dcd98b7102dd2f0e8b11d0f600bfb0c093\""));
+      client.close(response);
+    }
+
+    verify(httpClient);
+    assertEquals(2, client.getNonceCacheHits());
+    assertEquals(1, client.getNonceCacheMisses());
+    assertEquals(2.0 / 3.0, client.getNonceReuseRate(), 0.0001);
+  }
+
+  @Test
+  public void rejectedCachedNonceIsReplacedWithoutDelay() throws ClientProtocolException, IOException {
+    CloseableHttpClient httpClient = createMock(CloseableHttpClient.class);
+    // First request with a new nonce
+    expect(httpClient.execute(isA(HttpUriRequest.class))).andReturn(digestResponse);
+    expect(httpClient.execute(isA(HttpUriRequest.class))).andReturn(okResponse);
+    // Second request with the cached nonce, which has expired on the remote host
+    expect(httpClient.execute(isA(HttpUriRequest.class))).andReturn(nonceResponse);
+    // New digest handshake and successful request
+    expect(httpClient.execute(isA(HttpUriRequest.class))).andReturn(digestResponse);
+    expect(httpClient.execute(isA(HttpUriRequest.class))).andReturn(okResponse);
+    httpClient.close();
+    EasyMock.expectLastCall().anyTimes();
+    HttpClientBuilder httpClientBuilder = createNiceMock(HttpClientBuilder.class);
+    expect(httpClientBuilder.build()).andReturn(httpClient).anyTimes();
+    replay(httpClientBuilder, httpClient);
+    client = new TrustedHttpClientImpl("u", "p") {
+      @Override
+      public HttpClientBuilder makeHttpClientBuilder(int connectionTimeout, int socketTimeout) {
+        return httpClientBuilder;
+      }
+    };
+    client.setServiceRegistry(serviceRegistry);
+    client.setSecurityService(securityService);
+
+    client.close(client.execute(new HttpPost("http://localhost:8080/fake")));
+    HttpResponse response = client.execute(new HttpPost("http://localhost:8080/fake"));
+    Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+
+    verify(httpClient);
+    assertEquals(1, client.getNonceCacheHits());
+    assertEquals(2, client.getNonceCacheMisses());
+    assertEquals(1, client.getNonceCacheRejections());
+  }
+
   @Test
   public void testNotAcceptsUrlSigningService() throws IOException {
     bundleContextMock = createNiceMock(BundleContext.class);
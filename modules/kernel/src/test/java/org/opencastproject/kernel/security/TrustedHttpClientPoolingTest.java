@@ -0,0 +1,195 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.kernel.security;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.opencastproject.security.api.DefaultOrganization;
+import org.opencastproject.security.api.JaxbUser;
+import org.opencastproject.security.api.SecurityService;
+import org.opencastproject.security.urlsigning.service.UrlSigningService;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.osgi.service.component.ComponentContext;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the connection pooling of the trusted http client against a local http server.
+ */
+public class TrustedHttpClientPoolingTest {
+
+  private static final byte[] BODY = "pooled".getBytes(StandardCharsets.UTF_8);
+
+  private HttpServer server;
+  private String url;
+  /** The client side ports of all connections the server has seen */
+  private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+  private TrustedHttpClientImpl client;
+
+  @Before
+  public void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/", exchange -> {
+      clientPorts.add(exchange.getRemoteAddress().getPort());
+      exchange.sendResponseHeaders(200, BODY.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(BODY);
+      }
+    });
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort() + "/test";
+  }
+
+  @After
+  public void tearDown() {
+    if (client != null) {
+      client.deactivate();
+    }
+    server.stop(0);
+  }
+
+  private void activateClient(int maxPerRoute) {
+    BundleContext bundleContext = createNiceMock(BundleContext.class);
+    expect(bundleContext.getProperty(TrustedHttpClientImpl.DIGEST_AUTH_USER_KEY)).andReturn("u").anyTimes();
+    expect(bundleContext.getProperty(TrustedHttpClientImpl.DIGEST_AUTH_PASS_KEY)).andReturn("p").anyTimes();
+    expect(bundleContext.getProperty(TrustedHttpClientImpl.CONNECTION_POOL_MAX_PER_ROUTE_KEY))
+        .andReturn(Integer.toString(maxPerRoute)).anyTimes();
+    replay(bundleContext);
+    ComponentContext cc = createNiceMock(ComponentContext.class);
+    expect(cc.getBundleContext()).andReturn(bundleContext).anyTimes();
+    replay(cc);
+
+    SecurityService securityService = createNiceMock(SecurityService.class);
+    expect(securityService.getOrganization()).andReturn(new DefaultOrganization()).anyTimes();
+    expect(securityService.getUser()).andReturn(new JaxbUser()).anyTimes();
+    replay(securityService);
+    UrlSigningService urlSigningService = createNiceMock(UrlSigningService.class);
+    replay(urlSigningService);
+
+    client = new TrustedHttpClientImpl();
+    client.setSecurityService(securityService);
+    client.setUrlSigningService(urlSigningService);
+    client.activate(cc);
+  }
+
+  @Test
+  public void testConsumedResponsesReturnConnectionToPool() throws Exception {
+    activateClient(TrustedHttpClientImpl.DEFAULT_CONNECTION_POOL_MAX_PER_ROUTE);
+    for (int i = 0; i < 5; i++) {
+      HttpResponse response = client.execute(new HttpGet(url));
+      assertEquals(200, response.getStatusLine().getStatusCode());
+      assertEquals(1, client.getOpenConnections());
+      assertEquals(1, client.getLeasedConnections());
+      EntityUtils.consume(response.getEntity());
+      client.close(response);
+      assertEquals(0, client.getOpenConnections());
+      assertEquals(0, client.getLeasedConnections());
+      assertEquals(1, client.getAvailableConnections());
+    }
+    // all requests went over the same connection
+    assertEquals(1, clientPorts.size());
+    assertEquals(5, client.getConnectionLeases());
+    assertEquals(TrustedHttpClientImpl.DEFAULT_CONNECTION_POOL_MAX_TOTAL, client.getMaxConnections());
+  }
+
+  @Test
+  public void testUnconsumedResponsesAreNotReused() throws Exception {
+    activateClient(TrustedHttpClientImpl.DEFAULT_CONNECTION_POOL_MAX_PER_ROUTE);
+    for (int i = 0; i < 2; i++) {
+      client.close(client.execute(new HttpGet(url)));
+      assertEquals(0, client.getLeasedConnections());
+      assertEquals(0, client.getAvailableConnections());
+    }
+    assertEquals(2, clientPorts.size());
+  }
+
+  @Test
+  public void testRequestsWaitForPooledConnection() throws Exception {
+    activateClient(1);
+    HttpResponse first = client.execute(new HttpGet(url));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<HttpResponse> second = executor.submit(() -> client.execute(new HttpGet(url)));
+      long deadline = System.currentTimeMillis() + 5000;
+      while (client.getPendingConnectionRequests() == 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(1, client.getPendingConnectionRequests());
+      assertEquals(1, client.getLeasedConnections());
+
+      Thread.sleep(50);
+      EntityUtils.consume(first.getEntity());
+      client.close(first);
+      HttpResponse response = second.get(5, TimeUnit.SECONDS);
+      assertEquals(200, response.getStatusLine().getStatusCode());
+      EntityUtils.consume(response.getEntity());
+      client.close(response);
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(0, client.getPendingConnectionRequests());
+    assertEquals(2, client.getConnectionLeases());
+    assertTrue(client.getMaxLeaseWaitTime() >= 50);
+    assertTrue(client.getAverageLeaseWaitTime() > 0);
+    assertEquals(1, clientPorts.size());
+  }
+
+  @Test
+  public void testRequestConfigOfCallerTakesPrecedence() throws Exception {
+    activateClient(TrustedHttpClientImpl.DEFAULT_CONNECTION_POOL_MAX_PER_ROUTE);
+    HttpGet configured = new HttpGet(url);
+    configured.setConfig(RequestConfig.custom().setSocketTimeout(1234).build());
+    client.close(client.execute(configured, 1000, 2000));
+    assertEquals(1234, configured.getConfig().getSocketTimeout());
+    assertEquals(1000, configured.getConfig().getConnectTimeout());
+    assertEquals(1000, configured.getConfig().getConnectionRequestTimeout());
+
+    HttpGet unconfigured = new HttpGet(url);
+    client.close(client.execute(unconfigured, 1000, 2000));
+    assertEquals(2000, unconfigured.getConfig().getSocketTimeout());
+    assertEquals(1000, unconfigured.getConfig().getConnectTimeout());
+  }
+}
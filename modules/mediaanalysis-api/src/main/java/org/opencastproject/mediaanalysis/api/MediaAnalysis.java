@@ -0,0 +1,74 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.mediaanalysis.api;
+
+import org.opencastproject.mediapackage.MediaPackageElement;
+
+import java.io.File;
+
+/**
+ * The analysis of a single track, prepared by a {@link MediaAnalyzer}. The analysis contributes an FFmpeg filter chain
+ * applied to the decoded audio or video stream of the track and creates its media package element from the filter
+ * output or the FFmpeg log.
+ */
+public interface MediaAnalysis {
+
+  /** The decoded stream an analysis filters */
+  enum Stream {
+    Audio, Video
+  }
+
+  /**
+   * @return the stream the filter of this analysis is applied to
+   */
+  Stream getStream();
+
+  /**
+   * Returns the FFmpeg filter chain of this analysis. It must not contain labels.
+   *
+   * @return the filter chain
+   */
+  String getFilter();
+
+  /**
+   * Returns the file the filter output is written to as a single image. If this is <code>null</code>, the filter
+   * output is discarded and the analysis only reads the FFmpeg log.
+   *
+   * @return the output file or <code>null</code>
+   */
+  File getOutput();
+
+  /**
+   * Called for every line FFmpeg logs while the analysis is running.
+   *
+   * @param line the log line
+   * @throws MediaAnalysisException if the line can't be parsed
+   */
+  void log(String line) throws MediaAnalysisException;
+
+  /**
+   * Creates the media package element after FFmpeg has finished successfully.
+   *
+   * @return the media package element, stored in the workspace
+   * @throws MediaAnalysisException if the element can't be created
+   */
+  MediaPackageElement complete() throws MediaAnalysisException;
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.mediaanalysis.api;
+
+import org.opencastproject.job.api.Job;
+import org.opencastproject.mediapackage.MediaPackageException;
+import org.opencastproject.mediapackage.Track;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This is an api for a service that runs several analyses of a track, like the creation of a waveform image, timeline
+ * preview images and the video segmentation, while decoding the track only once.
+ */
+public interface MediaAnalysisService {
+
+  /** Job type */
+  String JOB_TYPE = "org.opencastproject.mediaanalysis";
+
+  /**
+   * Takes the given track and returns the job that will run the given analyses on it. The payload of the job is the
+   * list of the created media package elements, one per analysis and in the order of the given analyses.
+   *
+   * @param track the track to analyze
+   * @param analyses the types of the analyses to run, see {@link MediaAnalyzer#getAnalysisType()}
+   * @param options the options of the analyses, prefixed by the type of the analysis and a dash, like
+   *          <code>waveform-height</code>
+   * @return a job that will run the analyses
+   * @throws MediaPackageException if the serialization of the given track fails
+   * @throws MediaAnalysisException if the job can't be created for any reason
+   */
+  Job analyze(Track track, List<String> analyses, Map<String, String> options)
+          throws MediaPackageException, MediaAnalysisException;
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.mediaanalysis.api;
+
+import org.opencastproject.job.api.Job;
+import org.opencastproject.mediapackage.Track;
+
+import java.util.Map;
+
+/**
+ * An analysis of tracks which can be run together with other analyses on a single decoding of the track. The media
+ * analysis service combines the analyses of all registered analyzers requested for a track into one FFmpeg filter
+ * graph.
+ */
+public interface MediaAnalyzer {
+
+  /**
+   * Returns the type of the analysis, which is used to request the analysis and to prefix its options.
+   *
+   * @return the analysis type, like <code>waveform</code>
+   */
+  String getAnalysisType();
+
+  /**
+   * Prepares the analysis of the given track.
+   *
+   * @param job the media analysis job
+   * @param track the track to analyze
+   * @param options the options of the analysis, without the analysis type prefix
+   * @return the analysis of the track
+   * @throws MediaAnalysisException if the track can't be analyzed with the given options
+   */
+  MediaAnalysis prepare(Job job, Track track, Map<String, String> options) throws MediaAnalysisException;
+}
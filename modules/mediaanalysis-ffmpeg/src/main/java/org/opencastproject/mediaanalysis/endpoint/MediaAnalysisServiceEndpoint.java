@@ -0,0 +1,165 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.mediaanalysis.endpoint;
+
+import org.opencastproject.job.api.JaxbJob;
+import org.opencastproject.job.api.Job;
+import org.opencastproject.job.api.JobProducer;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisException;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisService;
+import org.opencastproject.mediapackage.MediaPackageElement;
+import org.opencastproject.mediapackage.MediaPackageElementParser;
+import org.opencastproject.mediapackage.MediaPackageException;
+import org.opencastproject.mediapackage.Track;
+import org.opencastproject.rest.AbstractJobProducerEndpoint;
+import org.opencastproject.serviceregistry.api.ServiceRegistry;
+import org.opencastproject.util.doc.rest.RestParameter;
+import org.opencastproject.util.doc.rest.RestQuery;
+import org.opencastproject.util.doc.rest.RestResponse;
+import org.opencastproject.util.doc.rest.RestService;
+
+import org.apache.commons.lang3.StringUtils;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+@Path("/")
+@RestService(
+    name = "MediaAnalysisServiceEndpoint",
+    title = "Media Analysis Service REST Endpoint",
+    abstractText = "The Media Analysis Service runs several analyses of a track, like the creation of a waveform "
+        + "image, timeline preview images and the video segmentation, while decoding the track only once.",
+    notes = {
+        "All paths above are relative to the REST endpoint base (something like http://your.server/mediaanalysis)"
+    }
+)
+@Component(
+    immediate = true,
+    service = MediaAnalysisServiceEndpoint.class,
+    property = {
+        "service.description=Media Analysis Service REST Endpoint",
+        "opencast.service.type=org.opencastproject.mediaanalysis",
+        "opencast.service.path=/mediaanalysis",
+        "opencast.service.jobproducer=true"
+    }
+)
+public class MediaAnalysisServiceEndpoint extends AbstractJobProducerEndpoint {
+  private static final Logger logger = LoggerFactory.getLogger(MediaAnalysisServiceEndpoint.class);
+
+  private ServiceRegistry serviceRegistry = null;
+  private MediaAnalysisService mediaAnalysisService = null;
+
+  @POST
+  @Path("/analyze")
+  @Produces({MediaType.APPLICATION_XML})
+  @RestQuery(name = "analyze", description = "Run the given analyses on the given track",
+          returnDescription = "The media package elements created by the analyses.",
+          restParameters = {
+            @RestParameter(name = "track", type = RestParameter.Type.TEXT,
+                    description = "The track to analyze.", isRequired = true),
+            @RestParameter(name = "analyses", type = RestParameter.Type.STRING,
+                    description = "Comma separated list of the analyses to run, like 'waveform,segments'.",
+                    isRequired = true),
+            @RestParameter(name = "options", type = RestParameter.Type.TEXT,
+                    description = "The options of the analyses in Java properties format, prefixed by the analysis "
+                        + "type, like 'waveform-height=500'.", isRequired = false)
+          },
+          responses = {
+            @RestResponse(description = "Media analysis job successfully created.",
+                    responseCode = HttpServletResponse.SC_OK),
+            @RestResponse(description = "The given track or options can't be parsed.",
+                    responseCode = HttpServletResponse.SC_BAD_REQUEST),
+            @RestResponse(description = "Internal server error.",
+                    responseCode = HttpServletResponse.SC_INTERNAL_SERVER_ERROR)
+  })
+  public Response analyze(@FormParam("track") String track, @FormParam("analyses") String analyses,
+      @FormParam("options") String options) {
+    try {
+      MediaPackageElement sourceTrack = MediaPackageElementParser.getFromXml(track);
+      if (!Track.TYPE.equals(sourceTrack.getElementType())) {
+        return Response.status(Response.Status.BAD_REQUEST).entity("Track element must be of type track").build();
+      }
+      if (StringUtils.isBlank(analyses)) {
+        return Response.status(Response.Status.BAD_REQUEST).entity("No analyses given").build();
+      }
+
+      Properties properties = new Properties();
+      if (options != null) {
+        properties.load(new StringReader(options));
+      }
+      Map<String, String> analysisOptions = new HashMap<>();
+      for (String key : properties.stringPropertyNames()) {
+        analysisOptions.put(key, properties.getProperty(key));
+      }
+
+      Job job = mediaAnalysisService.analyze((Track) sourceTrack,
+          Arrays.asList(StringUtils.split(analyses, ", ")), analysisOptions);
+      return Response.ok().entity(new JaxbJob(job)).build();
+    } catch (MediaAnalysisException e) {
+      logger.error("Creating media analysis job for track {} failed:", track, e);
+      return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+    } catch (MediaPackageException e) {
+      return Response.status(Response.Status.BAD_REQUEST).entity("Track element parsing failure").build();
+    } catch (IOException | IllegalArgumentException e) {
+      return Response.status(Response.Status.BAD_REQUEST).entity("Options parsing failure").build();
+    }
+  }
+
+  @Override
+  public JobProducer getService() {
+    if (mediaAnalysisService instanceof JobProducer) {
+      return (JobProducer) mediaAnalysisService;
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public ServiceRegistry getServiceRegistry() {
+    return serviceRegistry;
+  }
+
+  @Reference
+  public void setServiceRegistry(ServiceRegistry serviceRegistry) {
+    this.serviceRegistry = serviceRegistry;
+  }
+
+  @Reference
+  public void setMediaAnalysisService(MediaAnalysisService mediaAnalysisService) {
+    this.mediaAnalysisService = mediaAnalysisService;
+  }
+}
@@ -0,0 +1,457 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.mediaanalysis.ffmpeg;
+
+import org.opencastproject.job.api.AbstractJobProducer;
+import org.opencastproject.job.api.Job;
+import org.opencastproject.mediaanalysis.api.MediaAnalysis;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisException;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisService;
+import org.opencastproject.mediaanalysis.api.MediaAnalyzer;
+import org.opencastproject.mediapackage.MediaPackageElement;
+import org.opencastproject.mediapackage.MediaPackageElementParser;
+import org.opencastproject.mediapackage.MediaPackageException;
+import org.opencastproject.mediapackage.Track;
+import org.opencastproject.security.api.OrganizationDirectoryService;
+import org.opencastproject.security.api.SecurityService;
+import org.opencastproject.security.api.UserDirectoryService;
+import org.opencastproject.serviceregistry.api.ServiceRegistry;
+import org.opencastproject.serviceregistry.api.ServiceRegistryException;
+import org.opencastproject.util.IoSupport;
+import org.opencastproject.util.LoadUtil;
+import org.opencastproject.util.NotFoundException;
+import org.opencastproject.workspace.api.Workspace;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.osgi.service.cm.ConfigurationException;
+import org.osgi.service.cm.ManagedService;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Dictionary;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This service runs the analyses of all registered {@link MediaAnalyzer}s requested for a track in a single FFmpeg
+ * process. The decoded audio and video streams of the track are split and passed to the filter chains of the
+ * analyses, so the track is decoded only once no matter how many analyses are run.
+ */
+@Component(
+    immediate = true,
+    service = { MediaAnalysisService.class, ManagedService.class },
+    property = {
+        "service.description=Media Analysis Service"
+    }
+)
+public class MediaAnalysisServiceImpl extends AbstractJobProducer implements MediaAnalysisService, ManagedService {
+
+  /** The logging facility */
+  private static final Logger logger = LoggerFactory.getLogger(MediaAnalysisServiceImpl.class);
+
+  /** The key to look for in the service configuration file to override the DEFAULT_MEDIAANALYSIS_JOB_LOAD */
+  public static final String MEDIAANALYSIS_JOB_LOAD_CONFIG_KEY = "job.load.mediaanalysis";
+
+  /** The default job load of a media analysis job */
+  public static final float DEFAULT_MEDIAANALYSIS_JOB_LOAD = 0.7f;
+
+  /** The key to look for in the service configuration file to override the DEFAULT_FFMPEG_BINARY */
+  public static final String FFMPEG_BINARY_CONFIG_KEY = "org.opencastproject.composer.ffmpeg.path";
+
+  /** The default path to the ffmpeg binary */
+  public static final String DEFAULT_FFMPEG_BINARY = "ffmpeg";
+
+  /** List of available operations on jobs */
+  enum Operation {
+    Analyze
+  };
+
+  /** Path to the executable */
+  private String binary = DEFAULT_FFMPEG_BINARY;
+
+  /** The media analysis job load */
+  private float mediaAnalysisJobLoad = DEFAULT_MEDIAANALYSIS_JOB_LOAD;
+
+  /** The registered analyzers by analysis type */
+  private final Map<String, MediaAnalyzer> analyzers = new ConcurrentHashMap<>();
+
+  /** Reference to the service registry */
+  private ServiceRegistry serviceRegistry = null;
+
+  /** The workspace to use when retrieving remote media files */
+  private Workspace workspace = null;
+
+  /** The security service */
+  private SecurityService securityService = null;
+
+  /** The user directory service */
+  private UserDirectoryService userDirectoryService = null;
+
+  /** The organization directory service */
+  private OrganizationDirectoryService organizationDirectoryService = null;
+
+  public MediaAnalysisServiceImpl() {
+    super(JOB_TYPE);
+  }
+
+  @Override
+  @Activate
+  public void activate(ComponentContext cc) {
+    super.activate(cc);
+    logger.info("Activate ffmpeg media analysis service");
+    final String path = cc.getBundleContext().getProperty(FFMPEG_BINARY_CONFIG_KEY);
+    binary = (path == null ? DEFAULT_FFMPEG_BINARY : path);
+    logger.debug("ffmpeg binary set to {}", binary);
+  }
+
+  @Override
+  public void updated(Dictionary<String, ?> properties) throws ConfigurationException {
+    if (properties == null) {
+      return;
+    }
+    logger.debug("Configuring the media analysis service");
+    mediaAnalysisJobLoad = LoadUtil.getConfiguredLoadValue(properties, MEDIAANALYSIS_JOB_LOAD_CONFIG_KEY,
+            DEFAULT_MEDIAANALYSIS_JOB_LOAD, serviceRegistry);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.mediaanalysis.api.MediaAnalysisService#analyze(org.opencastproject.mediapackage.Track,
+   *         java.util.List, java.util.Map)
+   */
+  @Override
+  public Job analyze(Track track, List<String> analyses, Map<String, String> options)
+          throws MediaPackageException, MediaAnalysisException {
+    if (analyses.isEmpty()) {
+      throw new MediaAnalysisException("No analyses to run");
+    }
+    try {
+      return serviceRegistry.createJob(jobType, Operation.Analyze.toString(),
+          Arrays.asList(
+              MediaPackageElementParser.getAsXml(track),
+              StringUtils.join(analyses, ","),
+              getOptionsAsString(options)
+          ),
+          mediaAnalysisJobLoad
+      );
+    } catch (ServiceRegistryException e) {
+      throw new MediaAnalysisException("Unable to create media analysis job", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.job.api.AbstractJobProducer#process(org.opencastproject.job.api.Job)
+   */
+  @Override
+  protected String process(Job job) throws Exception {
+    Operation op = null;
+    String operation = job.getOperation();
+    List<String> arguments = job.getArguments();
+    try {
+      op = Operation.valueOf(operation);
+      switch (op) {
+        case Analyze:
+          Track track = (Track) MediaPackageElementParser.getFromXml(arguments.get(0));
+          List<String> analyses = Arrays.asList(StringUtils.split(arguments.get(1), ","));
+          Map<String, String> options = parseOptions(arguments.get(2));
+          List<MediaPackageElement> elements = analyze(job, track, analyses, options);
+          return MediaPackageElementParser.getArrayAsXml(elements);
+        default:
+          throw new ServiceRegistryException("This service can't handle operations of type '" + op + "'");
+      }
+    } catch (IndexOutOfBoundsException e) {
+      throw new ServiceRegistryException("This argument list for operation '" + op + "' does not meet expectations", e);
+    } catch (MediaPackageException | MediaAnalysisException e) {
+      throw new ServiceRegistryException("Error handling operation '" + op + "'", e);
+    }
+  }
+
+  /**
+   * Runs the given analyses on a track with a single FFmpeg process.
+   *
+   * @param job the media analysis job
+   * @param track the track to analyze
+   * @param types the types of the analyses to run
+   * @param options the options of all analyses, prefixed by the analysis type
+   * @return the created media package elements in the order of the analyses
+   * @throws MediaAnalysisException if an analysis fails
+   */
+  private List<MediaPackageElement> analyze(Job job, Track track, List<String> types, Map<String, String> options)
+          throws MediaAnalysisException {
+    File mediaFile;
+    try {
+      mediaFile = workspace.get(track.getURI());
+    } catch (NotFoundException e) {
+      throw new MediaAnalysisException("Error finding the media file in the workspace", e);
+    } catch (IOException e) {
+      throw new MediaAnalysisException("Error reading the media file in the workspace", e);
+    }
+
+    List<MediaAnalysis> analyses = new ArrayList<>(types.size());
+    for (String type : types) {
+      MediaAnalyzer analyzer = analyzers.get(type);
+      if (analyzer == null) {
+        throw new MediaAnalysisException("No media analyzer available for analysis type '" + type + "'");
+      }
+      analyses.add(analyzer.prepare(job, track, getAnalysisOptions(options, type)));
+    }
+
+    List<String> command = new ArrayList<>(Arrays.asList(
+        binary,
+        "-nostats", "-nostdin", "-hide_banner",
+        "-i", mediaFile.getAbsolutePath(),
+        "-filter_complex", createFilterGraph(analyses)
+    ));
+    // every image is written to its own file, the output of analyses reading the log is discarded
+    List<String> discarded = new ArrayList<>();
+    for (int i = 0; i < analyses.size(); i++) {
+      File output = analyses.get(i).getOutput();
+      if (output != null) {
+        command.addAll(Arrays.asList("-map", "[out" + i + "]", "-frames:v", "1", output.getAbsolutePath()));
+      } else {
+        discarded.addAll(Arrays.asList("-map", "[out" + i + "]"));
+      }
+    }
+    if (!discarded.isEmpty()) {
+      command.addAll(discarded);
+      command.addAll(Arrays.asList("-f", "null", "-"));
+    }
+    logger.debug("Start media analysis ffmpeg process: {}", StringUtils.join(command, " "));
+    logger.info("Running analyses {} of track '{}'", types, track.getIdentifier());
+
+    ProcessBuilder pb = new ProcessBuilder(command);
+    pb.redirectErrorStream(true);
+    Process ffmpegProcess = null;
+    int exitCode = 1;
+    BufferedReader errStream = null;
+    try {
+      ffmpegProcess = pb.start();
+
+      errStream = new BufferedReader(new InputStreamReader(ffmpegProcess.getInputStream()));
+      String line = errStream.readLine();
+      while (line != null) {
+        logger.trace(line);
+        for (MediaAnalysis analysis : analyses) {
+          analysis.log(line);
+        }
+        line = errStream.readLine();
+      }
+
+      exitCode = ffmpegProcess.waitFor();
+    } catch (IOException e) {
+      throw new MediaAnalysisException("Start ffmpeg process failed", e);
+    } catch (InterruptedException e) {
+      throw new MediaAnalysisException("Waiting for encoder process exited was interrupted unexpectedly", e);
+    } finally {
+      IoSupport.closeQuietly(ffmpegProcess);
+      IoSupport.closeQuietly(errStream);
+      if (exitCode != 0) {
+        deleteOutputs(analyses);
+      }
+    }
+
+    if (exitCode != 0) {
+      throw new MediaAnalysisException(String.format("The encoder process exited abnormally with exit code %s "
+              + "using command\n%s", exitCode, String.join(" ", command)));
+    }
+
+    try {
+      List<MediaPackageElement> elements = new ArrayList<>(analyses.size());
+      for (MediaAnalysis analysis : analyses) {
+        elements.add(analysis.complete());
+      }
+      logger.info("Finished analyses {} of track '{}'", types, track.getIdentifier());
+      return elements;
+    } finally {
+      deleteOutputs(analyses);
+    }
+  }
+
+  /**
+   * Creates the FFmpeg filter graph splitting the decoded streams into the filter chains of the analyses. The output
+   * of the filter chain of the n-th analysis is labeled <code>outn</code>.
+   *
+   * @param analyses the analyses to run
+   * @return the filter graph
+   */
+  static String createFilterGraph(List<MediaAnalysis> analyses) {
+    List<String> audioInputs = new ArrayList<>();
+    List<String> videoInputs = new ArrayList<>();
+    List<String> chains = new ArrayList<>();
+    for (int i = 0; i < analyses.size(); i++) {
+      MediaAnalysis analysis = analyses.get(i);
+      String input;
+      if (analysis.getStream() == MediaAnalysis.Stream.Audio) {
+        input = "[a" + audioInputs.size() + "]";
+        audioInputs.add(input);
+      } else {
+        input = "[v" + videoInputs.size() + "]";
+        videoInputs.add(input);
+      }
+      chains.add(input + analysis.getFilter() + "[out" + i + "]");
+    }
+
+    List<String> graph = new ArrayList<>();
+    addSplit(graph, "[0:a:0]", "asplit", "anull", audioInputs);
+    addSplit(graph, "[0:v:0]", "split", "null", videoInputs);
+    graph.addAll(chains);
+    return StringUtils.join(graph, ";");
+  }
+
+  private static void addSplit(List<String> graph, String stream, String split, String pass, List<String> inputs) {
+    if (inputs.size() == 1) {
+      graph.add(stream + pass + inputs.get(0));
+    } else if (inputs.size() > 1) {
+      graph.add(stream + split + "=" + inputs.size() + StringUtils.join(inputs, ""));
+    }
+  }
+
+  private static void deleteOutputs(List<MediaAnalysis> analyses) {
+    for (MediaAnalysis analysis : analyses) {
+      if (analysis.getOutput() != null) {
+        FileUtils.deleteQuietly(analysis.getOutput());
+      }
+    }
+  }
+
+  /**
+   * Returns the options of an analysis without the analysis type prefix.
+   *
+   * @param options the options of all analyses
+   * @param type the type of the analysis
+   * @return the options of the analysis
+   */
+  static Map<String, String> getAnalysisOptions(Map<String, String> options, String type) {
+    String prefix = type + "-";
+    Map<String, String> analysisOptions = new HashMap<>();
+    for (Map.Entry<String, String> option : options.entrySet()) {
+      if (option.getKey().startsWith(prefix)) {
+        analysisOptions.put(option.getKey().substring(prefix.length()), option.getValue());
+      }
+    }
+    return analysisOptions;
+  }
+
+  private static Map<String, String> parseOptions(String serializedOptions) throws MediaAnalysisException {
+    Properties properties = new Properties();
+    try {
+      properties.load(new StringReader(serializedOptions));
+    } catch (IOException e) {
+      throw new MediaAnalysisException("Unable to parse the media analysis options", e);
+    }
+    Map<String, String> options = new HashMap<>();
+    for (String key : properties.stringPropertyNames()) {
+      options.put(key, properties.getProperty(key));
+    }
+    return options;
+  }
+
+  private static String getOptionsAsString(Map<String, String> options) throws MediaAnalysisException {
+    Properties properties = new Properties();
+    properties.putAll(options);
+    StringWriter writer = new StringWriter();
+    try {
+      properties.store(writer, null);
+    } catch (IOException e) {
+      throw new MediaAnalysisException("Unable to serialize the media analysis options", e);
+    }
+    return writer.toString();
+  }
+
+  @Reference(
+      cardinality = ReferenceCardinality.MULTIPLE,
+      policy = ReferencePolicy.DYNAMIC,
+      unbind = "removeMediaAnalyzer"
+  )
+  public void addMediaAnalyzer(MediaAnalyzer analyzer) {
+    analyzers.put(analyzer.getAnalysisType(), analyzer);
+  }
+
+  public void removeMediaAnalyzer(MediaAnalyzer analyzer) {
+    analyzers.remove(analyzer.getAnalysisType(), analyzer);
+  }
+
+  @Override
+  protected ServiceRegistry getServiceRegistry() {
+    return serviceRegistry;
+  }
+
+  @Override
+  protected SecurityService getSecurityService() {
+    return securityService;
+  }
+
+  @Override
+  protected UserDirectoryService getUserDirectoryService() {
+    return userDirectoryService;
+  }
+
+  @Override
+  protected OrganizationDirectoryService getOrganizationDirectoryService() {
+    return organizationDirectoryService;
+  }
+
+  @Reference
+  public void setServiceRegistry(ServiceRegistry serviceRegistry) {
+    this.serviceRegistry = serviceRegistry;
+  }
+
+  @Reference
+  public void setSecurityService(SecurityService securityService) {
+    this.securityService = securityService;
+  }
+
+  @Reference
+  public void setUserDirectoryService(UserDirectoryService userDirectoryService) {
+    this.userDirectoryService = userDirectoryService;
+  }
+
+  @Reference
+  public void setOrganizationDirectoryService(OrganizationDirectoryService organizationDirectoryService) {
+    this.organizationDirectoryService = organizationDirectoryService;
+  }
+
+  @Reference
+  public void setWorkspace(Workspace workspace) {
+    this.workspace = workspace;
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.mediaanalysis.ffmpeg;
+
+import static org.junit.Assert.assertEquals;
+
+import org.opencastproject.mediaanalysis.api.MediaAnalysis;
+import org.opencastproject.mediapackage.MediaPackageElement;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class MediaAnalysisServiceImplTest {
+
+  private static MediaAnalysis analysis(MediaAnalysis.Stream stream, String filter) {
+    return new MediaAnalysis() {
+      @Override
+      public Stream getStream() {
+        return stream;
+      }
+
+      @Override
+      public String getFilter() {
+        return filter;
+      }
+
+      @Override
+      public File getOutput() {
+        return null;
+      }
+
+      @Override
+      public void log(String line) {
+      }
+
+      @Override
+      public MediaPackageElement complete() {
+        return null;
+      }
+    };
+  }
+
+  @Test
+  public void testSingleStreamFilterGraph() {
+    assertEquals("[0:a:0]anull[a0];[0:v:0]null[v0];[a0]showwavespic[out0];[v0]select[out1]",
+        MediaAnalysisServiceImpl.createFilterGraph(Arrays.asList(
+            analysis(MediaAnalysis.Stream.Audio, "showwavespic"),
+            analysis(MediaAnalysis.Stream.Video, "select"))));
+  }
+
+  @Test
+  public void testSplitFilterGraph() {
+    assertEquals("[0:a:0]asplit=2[a0][a1];[0:v:0]split=2[v0][v1];"
+            + "[v0]select[out0];[a0]showwavespic[out1];[v1]fps[out2];[a1]silencedetect[out3]",
+        MediaAnalysisServiceImpl.createFilterGraph(Arrays.asList(
+            analysis(MediaAnalysis.Stream.Video, "select"),
+            analysis(MediaAnalysis.Stream.Audio, "showwavespic"),
+            analysis(MediaAnalysis.Stream.Video, "fps"),
+            analysis(MediaAnalysis.Stream.Audio, "silencedetect"))));
+  }
+
+  @Test
+  public void testGetAnalysisOptions() {
+    Map<String, String> options = new HashMap<>();
+    options.put("waveform-height", "60");
+    options.put("waveform-color", "black");
+    options.put("timelinepreviews-image-count", "100");
+    Map<String, String> waveformOptions = MediaAnalysisServiceImpl.getAnalysisOptions(options, "waveform");
+    assertEquals(2, waveformOptions.size());
+    assertEquals("60", waveformOptions.get("height"));
+    assertEquals("black", waveformOptions.get("color"));
+    assertEquals(0, MediaAnalysisServiceImpl.getAnalysisOptions(options, "segments").size());
+  }
+
+}
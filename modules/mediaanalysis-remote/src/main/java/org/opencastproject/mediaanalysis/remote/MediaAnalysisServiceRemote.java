@@ -0,0 +1,122 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.mediaanalysis.remote;
+
+import org.opencastproject.job.api.Job;
+import org.opencastproject.job.api.JobParser;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisException;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisService;
+import org.opencastproject.mediapackage.MediaPackageElementParser;
+import org.opencastproject.mediapackage.MediaPackageException;
+import org.opencastproject.mediapackage.Track;
+import org.opencastproject.security.api.TrustedHttpClient;
+import org.opencastproject.serviceregistry.api.RemoteBase;
+import org.opencastproject.serviceregistry.api.ServiceRegistry;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.message.BasicNameValuePair;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * This is a remote media analysis service that will call the media analysis service implementation on a remote host.
+ */
+@Component(
+    immediate = true,
+    service = MediaAnalysisService.class,
+    property = {
+        "service.description=Media Analysis Remote Service Proxy"
+    }
+)
+public class MediaAnalysisServiceRemote extends RemoteBase implements MediaAnalysisService {
+  private static final Logger logger = LoggerFactory.getLogger(MediaAnalysisServiceRemote.class);
+
+  /** The default constructor. */
+  public MediaAnalysisServiceRemote() {
+    super(JOB_TYPE);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.mediaanalysis.api.MediaAnalysisService#analyze(org.opencastproject.mediapackage.Track,
+   *         java.util.List, java.util.Map)
+   */
+  @Override
+  public Job analyze(Track track, List<String> analyses, Map<String, String> options)
+          throws MediaPackageException, MediaAnalysisException {
+    HttpPost post = new HttpPost("/analyze");
+    try {
+      Properties properties = new Properties();
+      properties.putAll(options);
+      StringWriter serializedOptions = new StringWriter();
+      properties.store(serializedOptions, null);
+
+      List<BasicNameValuePair> params = new ArrayList<>();
+      params.add(new BasicNameValuePair("track", MediaPackageElementParser.getAsXml(track)));
+      params.add(new BasicNameValuePair("analyses", String.join(",", analyses)));
+      params.add(new BasicNameValuePair("options", serializedOptions.toString()));
+      post.setEntity(new UrlEncodedFormEntity(params, "UTF-8"));
+    } catch (Exception e) {
+      throw new MediaAnalysisException(e);
+    }
+    HttpResponse response = null;
+    try {
+      response = getResponse(post);
+      if (response != null) {
+        try {
+          Job receipt = JobParser.parseJob(response.getEntity().getContent());
+          logger.info("Running analyses {} of {}", analyses, track);
+          return receipt;
+        } catch (Exception e) {
+          throw new MediaAnalysisException(
+                  "Unable to run analyses of " + track + " using a remote service", e);
+        }
+      }
+    } finally {
+      closeConnection(response);
+    }
+    throw new MediaAnalysisException("Unable to run analyses of " + track + " using a remote service");
+  }
+
+  @Reference
+  @Override
+  public void setTrustedHttpClient(TrustedHttpClient trustedHttpClient) {
+    super.setTrustedHttpClient(trustedHttpClient);
+  }
+
+  @Reference
+  @Override
+  public void setRemoteServiceManager(ServiceRegistry serviceRegistry) {
+    super.setRemoteServiceManager(serviceRegistry);
+  }
+
+}
@@ -0,0 +1,345 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.workflow.handler.mediaanalysis;
+
+import org.opencastproject.job.api.Job;
+import org.opencastproject.job.api.JobContext;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisException;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisService;
+import org.opencastproject.mediapackage.MediaPackage;
+import org.opencastproject.mediapackage.MediaPackageElement;
+import org.opencastproject.mediapackage.MediaPackageElementFlavor;
+import org.opencastproject.mediapackage.MediaPackageElementParser;
+import org.opencastproject.mediapackage.MediaPackageException;
+import org.opencastproject.mediapackage.MediaPackageReferenceImpl;
+import org.opencastproject.mediapackage.Track;
+import org.opencastproject.mediapackage.selector.TrackSelector;
+import org.opencastproject.serviceregistry.api.ServiceRegistry;
+import org.opencastproject.smil.api.SmilException;
+import org.opencastproject.smil.api.SmilService;
+import org.opencastproject.util.NotFoundException;
+import org.opencastproject.workflow.api.AbstractWorkflowOperationHandler;
+import org.opencastproject.workflow.api.ConfiguredTagsAndFlavors;
+import org.opencastproject.workflow.api.WorkflowInstance;
+import org.opencastproject.workflow.api.WorkflowOperationException;
+import org.opencastproject.workflow.api.WorkflowOperationHandler;
+import org.opencastproject.workflow.api.WorkflowOperationInstance;
+import org.opencastproject.workflow.api.WorkflowOperationResult;
+import org.opencastproject.workspace.api.Workspace;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Workflow operation for the media analysis service. It creates waveform images, timeline preview images, video
+ * segments and silence detection smil catalogs of the source tracks, decoding every track only once.
+ */
+@Component(
+    immediate = true,
+    name = "org.opencastproject.workflow.handler.mediaanalysis.MediaAnalysisWorkflowOperationHandler",
+    service = WorkflowOperationHandler.class,
+    property = {
+        "service.description=Media Analysis Workflow Operation Handler",
+        "workflow.operation=analyze-media"
+    }
+)
+public class MediaAnalysisWorkflowOperationHandler extends AbstractWorkflowOperationHandler {
+  private static final Logger logger = LoggerFactory.getLogger(MediaAnalysisWorkflowOperationHandler.class);
+
+  /** Source flavor configuration property name. */
+  private static final String SOURCE_FLAVOR_PROPERTY = "source-flavor";
+
+  /** Source tags configuration property name. */
+  private static final String SOURCE_TAGS_PROPERTY = "source-tags";
+
+  /** Configuration property name of the comma separated list of analyses to run. */
+  private static final String ANALYSES_PROPERTY = "analyses";
+
+  /** Configuration property name suffix of the target flavor of an analysis. */
+  private static final String TARGET_FLAVOR_SUFFIX = "-target-flavor";
+
+  /** Configuration property name suffix of the target tags of an analysis. */
+  private static final String TARGET_TAGS_SUFFIX = "-target-tags";
+
+  /** The waveform analysis */
+  private static final String WAVEFORM = "waveform";
+
+  /** The timeline previews analysis */
+  private static final String TIMELINEPREVIEWS = "timelinepreviews";
+
+  /** The video segmentation analysis */
+  private static final String SEGMENTS = "segments";
+
+  /** The silence detection analysis */
+  private static final String SILENCE = "silence";
+
+  /** The file names of the created elements in the media package, by analysis */
+  private static final Map<String, String> FILE_NAMES = new HashMap<>();
+
+  static {
+    FILE_NAMES.put(WAVEFORM, "waveform.png");
+    FILE_NAMES.put(SEGMENTS, "segments.xml");
+    FILE_NAMES.put(SILENCE, "smil.smil");
+  }
+
+  /** Minimum video length in milliseconds for video segmentation to run */
+  private static final int MIN_VIDEO_LENGTH = 30000;
+
+  /** The media analysis service. */
+  private MediaAnalysisService mediaAnalysisService = null;
+
+  /** The smil service. */
+  private SmilService smilService = null;
+
+  /** The workspace service. */
+  private Workspace workspace = null;
+
+  @Override
+  public void activate(ComponentContext cc) {
+    super.activate(cc);
+    logger.info("Registering media analysis workflow operation handler");
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see
+   * org.opencastproject.workflow.api.WorkflowOperationHandler#start(org.opencastproject.workflow.api.WorkflowInstance,
+   * org.opencastproject.job.api.JobContext)
+   */
+  @Override
+  public WorkflowOperationResult start(
+      WorkflowInstance workflowInstance, JobContext context
+  ) throws WorkflowOperationException {
+
+    MediaPackage mediaPackage = workflowInstance.getMediaPackage();
+    WorkflowOperationInstance operation = workflowInstance.getCurrentOperation();
+    logger.info("Start media analysis workflow operation for mediapackage {}", mediaPackage);
+
+    ConfiguredTagsAndFlavors tagsAndFlavors = getTagsAndFlavors(workflowInstance,
+        Configuration.many, Configuration.many, Configuration.none, Configuration.none);
+    List<MediaPackageElementFlavor> sourceFlavorList = tagsAndFlavors.getSrcFlavors();
+    List<String> sourceTagList = tagsAndFlavors.getSrcTags();
+    if (sourceFlavorList.isEmpty() && sourceTagList.isEmpty()) {
+      throw new WorkflowOperationException(
+          String.format("Required property %s or %s not set", SOURCE_FLAVOR_PROPERTY, SOURCE_TAGS_PROPERTY));
+    }
+
+    List<String> analyses = asList(operation.getConfiguration(ANALYSES_PROPERTY));
+    if (analyses.isEmpty()) {
+      throw new WorkflowOperationException(String.format("Required property %s not set", ANALYSES_PROPERTY));
+    }
+    Map<String, MediaPackageElementFlavor> targetFlavors = new HashMap<>();
+    for (String analysis : analyses) {
+      if (!Arrays.asList(WAVEFORM, TIMELINEPREVIEWS, SEGMENTS, SILENCE).contains(analysis)) {
+        throw new WorkflowOperationException(String.format("Unknown analysis '%s'", analysis));
+      }
+      String targetFlavor = StringUtils.trimToNull(operation.getConfiguration(analysis + TARGET_FLAVOR_SUFFIX));
+      if (targetFlavor != null) {
+        targetFlavors.put(analysis, MediaPackageElementFlavor.parseFlavor(targetFlavor));
+      } else if (!SEGMENTS.equals(analysis)) {
+        // The segments catalog keeps its flavor unless configured otherwise
+        throw new WorkflowOperationException(
+            String.format("Required property %s%s not set", analysis, TARGET_FLAVOR_SUFFIX));
+      }
+    }
+
+    // pass the options of the analyses to the service
+    Map<String, String> options = new HashMap<>();
+    for (String key : operation.getConfigurationKeys()) {
+      for (String analysis : analyses) {
+        if (key.startsWith(analysis + "-")
+            && !key.endsWith(TARGET_FLAVOR_SUFFIX) && !key.endsWith(TARGET_TAGS_SUFFIX)) {
+          options.put(key, operation.getConfiguration(key));
+        }
+      }
+    }
+
+    TrackSelector trackSelector = new TrackSelector();
+    for (MediaPackageElementFlavor flavor : sourceFlavorList) {
+      trackSelector.addFlavor(flavor);
+    }
+    for (String tag : sourceTagList) {
+      trackSelector.addTag(tag);
+    }
+    Collection<Track> sourceTracks = trackSelector.select(mediaPackage, false);
+    if (sourceTracks.isEmpty()) {
+      logger.info("No tracks found in mediapackage {} with specified {} = {}", mediaPackage, SOURCE_FLAVOR_PROPERTY,
+              sourceFlavorList);
+      return createResult(mediaPackage, WorkflowOperationResult.Action.SKIP);
+    }
+
+    Map<Job, Track> jobTracks = new LinkedHashMap<>();
+    Map<Job, List<String>> jobAnalyses = new HashMap<>();
+    boolean segmented = false;
+    for (Track sourceTrack : sourceTracks) {
+      List<String> trackAnalyses = new ArrayList<>();
+      for (String analysis : analyses) {
+        if ((WAVEFORM.equals(analysis) || SILENCE.equals(analysis)) && !sourceTrack.hasAudio()) {
+          logger.info("Skipping {} analysis of track {} since it has no audio", analysis, sourceTrack.getIdentifier());
+          continue;
+        }
+        if ((TIMELINEPREVIEWS.equals(analysis) || SEGMENTS.equals(analysis)) && !sourceTrack.hasVideo()) {
+          logger.info("Skipping {} analysis of track {} since it has no video", analysis, sourceTrack.getIdentifier());
+          continue;
+        }
+        if (SEGMENTS.equals(analysis)) {
+          // Like the video segmentation operation, segment the first track only and skip short videos
+          if (segmented || sourceTrack.getDuration() != null && sourceTrack.getDuration() < MIN_VIDEO_LENGTH) {
+            continue;
+          }
+          segmented = true;
+        }
+        trackAnalyses.add(analysis);
+      }
+      if (trackAnalyses.isEmpty()) {
+        continue;
+      }
+
+      try {
+        logger.info("Creating media analysis job running {} for track '{}' in mediapackage '{}'", trackAnalyses,
+            sourceTrack.getIdentifier(), mediaPackage);
+        Job job = mediaAnalysisService.analyze(sourceTrack, trackAnalyses, options);
+        jobTracks.put(job, sourceTrack);
+        jobAnalyses.put(job, trackAnalyses);
+      } catch (MediaPackageException | MediaAnalysisException e) {
+        throw new WorkflowOperationException(String.format("Creating media analysis job for track '%s' failed",
+            sourceTrack.getIdentifier()), e);
+      }
+    }
+    if (jobTracks.isEmpty()) {
+      logger.info("No tracks of mediapackage {} to analyze", mediaPackage);
+      return createResult(mediaPackage, WorkflowOperationResult.Action.SKIP);
+    }
+
+    logger.debug("Waiting for media analysis jobs for media package {}", mediaPackage);
+    if (!waitForStatus(jobTracks.keySet().toArray(new Job[0])).isSuccess()) {
+      throw new WorkflowOperationException(
+          String.format("Media analysis jobs for media package '%s' have not completed successfully",
+              mediaPackage.getIdentifier()));
+    }
+
+    long queueTime = 0L;
+    for (Map.Entry<Job, Track> entry : jobTracks.entrySet()) {
+      Job job = entry.getKey();
+      List<? extends MediaPackageElement> elements;
+      try {
+        elements = MediaPackageElementParser.getArrayFromXml(job.getPayload());
+      } catch (MediaPackageException e) {
+        throw new WorkflowOperationException("Can't parse media analysis results from job " + job.getId(), e);
+      }
+      List<String> trackAnalyses = jobAnalyses.get(job);
+      for (int i = 0; i < elements.size(); i++) {
+        String analysis = trackAnalyses.get(i);
+        addElement(mediaPackage, entry.getValue(), analysis, elements.get(i), targetFlavors.get(analysis),
+            asList(operation.getConfiguration(analysis + TARGET_TAGS_SUFFIX)));
+      }
+      queueTime += job.getQueueTime();
+    }
+
+    logger.info("Media analysis workflow operation for mediapackage {} completed", mediaPackage);
+    return createResult(mediaPackage, WorkflowOperationResult.Action.CONTINUE, queueTime);
+  }
+
+  /**
+   * Moves an element created by an analysis into the media package.
+   *
+   * @param mediaPackage the media package
+   * @param track the analyzed track
+   * @param analysis the type of the analysis
+   * @param element the created element
+   * @param targetFlavor the target flavor of the element or <code>null</code> to keep the flavor
+   * @param targetTags the tags to add to the element
+   * @throws WorkflowOperationException if the element can't be moved into the media package
+   */
+  private void addElement(MediaPackage mediaPackage, Track track, String analysis, MediaPackageElement element,
+          MediaPackageElementFlavor targetFlavor, List<String> targetTags) throws WorkflowOperationException {
+    try {
+      if (SILENCE.equals(analysis)
+          && smilService.fromXml(workspace.get(element.getURI())).getSmil().getBody().getMediaElements().isEmpty()) {
+        logger.debug("No segments detected in track {}, skip attaching smil file.", track.getIdentifier());
+        workspace.delete(element.getURI());
+        return;
+      }
+
+      String fileName = FILE_NAMES.getOrDefault(analysis, FilenameUtils.getName(element.getURI().getPath()));
+      mediaPackage.add(element);
+      element.setURI(workspace.moveTo(element.getURI(), mediaPackage.getIdentifier().toString(),
+          element.getIdentifier(), fileName));
+    } catch (NotFoundException e) {
+      throw new WorkflowOperationException("Result file '" + element.getURI() + "' of " + analysis
+          + " analysis not found", e);
+    } catch (IOException e) {
+      throw new WorkflowOperationException("Can't get result file '" + element.getURI() + "' of " + analysis
+          + " analysis from workspace", e);
+    } catch (SmilException e) {
+      throw new WorkflowOperationException("Failed to get smil from silence analysis of track "
+          + track.getIdentifier(), e);
+    }
+
+    if (SEGMENTS.equals(analysis)) {
+      element.setReference(new MediaPackageReferenceImpl(track));
+    }
+    if (targetFlavor != null) {
+      element.setFlavor(new MediaPackageElementFlavor(
+          "*".equals(targetFlavor.getType()) ? element.getFlavor().getType() : targetFlavor.getType(),
+          "*".equals(targetFlavor.getSubtype()) ? element.getFlavor().getSubtype() : targetFlavor.getSubtype()));
+    }
+    for (String tag : targetTags) {
+      element.addTag(tag);
+    }
+  }
+
+  @Reference
+  public void setMediaAnalysisService(MediaAnalysisService mediaAnalysisService) {
+    this.mediaAnalysisService = mediaAnalysisService;
+  }
+
+  @Reference
+  public void setSmilService(SmilService smilService) {
+    this.smilService = smilService;
+  }
+
+  @Reference
+  public void setWorkspace(Workspace workspace) {
+    this.workspace = workspace;
+  }
+
+  @Reference
+  @Override
+  public void setServiceRegistry(ServiceRegistry serviceRegistry) {
+    super.setServiceRegistry(serviceRegistry);
+  }
+}
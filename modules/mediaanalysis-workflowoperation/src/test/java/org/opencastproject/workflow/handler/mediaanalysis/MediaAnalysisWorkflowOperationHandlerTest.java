@@ -0,0 +1,297 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.workflow.handler.mediaanalysis;
+
+import org.opencastproject.job.api.Job;
+import org.opencastproject.job.api.JobBarrier;
+import org.opencastproject.job.api.JobImpl;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisService;
+import org.opencastproject.mediapackage.Attachment;
+import org.opencastproject.mediapackage.Catalog;
+import org.opencastproject.mediapackage.CatalogImpl;
+import org.opencastproject.mediapackage.MediaPackage;
+import org.opencastproject.mediapackage.MediaPackageBuilderImpl;
+import org.opencastproject.mediapackage.MediaPackageElement;
+import org.opencastproject.mediapackage.MediaPackageElementFlavor;
+import org.opencastproject.mediapackage.MediaPackageElementParser;
+import org.opencastproject.mediapackage.Track;
+import org.opencastproject.mediapackage.attachment.AttachmentImpl;
+import org.opencastproject.mediapackage.identifier.IdImpl;
+import org.opencastproject.mediapackage.track.AudioStreamImpl;
+import org.opencastproject.mediapackage.track.TrackImpl;
+import org.opencastproject.mediapackage.track.VideoStreamImpl;
+import org.opencastproject.smil.api.SmilResponse;
+import org.opencastproject.smil.api.SmilService;
+import org.opencastproject.smil.entity.api.Smil;
+import org.opencastproject.smil.entity.api.SmilBody;
+import org.opencastproject.smil.entity.media.api.SmilMediaObject;
+import org.opencastproject.workflow.api.WorkflowInstance;
+import org.opencastproject.workflow.api.WorkflowOperationException;
+import org.opencastproject.workflow.api.WorkflowOperationInstance;
+import org.opencastproject.workflow.api.WorkflowOperationResult;
+import org.opencastproject.workspace.api.Workspace;
+
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MediaAnalysisWorkflowOperationHandlerTest {
+
+  private MediaAnalysisWorkflowOperationHandler handler;
+  private MediaPackage mediaPackage;
+  private TrackImpl audioVideo;
+  private TrackImpl audioOnly;
+  private TrackImpl videoOnly;
+  private Workspace workspace;
+  private SmilBody smilBody;
+
+  /** The analyses the service was called with, by identifier of the analyzed track */
+  private Map<String, List<String>> analyses;
+
+  /** The options the service was called with, by identifier of the analyzed track */
+  private Map<String, Map<String, String>> options;
+
+  @Before
+  public void setUp() throws Exception {
+    handler = new MediaAnalysisWorkflowOperationHandler() {
+      @Override
+      protected JobBarrier.Result waitForStatus(Job... jobs) throws IllegalStateException, IllegalArgumentException {
+        JobBarrier.Result result = EasyMock.createNiceMock(JobBarrier.Result.class);
+        EasyMock.expect(result.isSuccess()).andReturn(true).anyTimes();
+        EasyMock.replay(result);
+        return result;
+      }
+    };
+
+    audioVideo = createTrack("audio-video", true, true);
+    audioOnly = createTrack("audio-only", true, false);
+    videoOnly = createTrack("video-only", false, true);
+
+    mediaPackage = new MediaPackageBuilderImpl().createNew();
+    mediaPackage.setIdentifier(new IdImpl("123-456"));
+    mediaPackage.add(audioVideo);
+    mediaPackage.add(audioOnly);
+    mediaPackage.add(videoOnly);
+
+    analyses = new HashMap<>();
+    options = new HashMap<>();
+    MediaAnalysisService mediaAnalysisService = EasyMock.createNiceMock(MediaAnalysisService.class);
+    EasyMock.expect(mediaAnalysisService.analyze(EasyMock.anyObject(), EasyMock.anyObject(), EasyMock.anyObject()))
+        .andAnswer(() -> {
+          Track track = (Track) EasyMock.getCurrentArguments()[0];
+          @SuppressWarnings("unchecked")
+          List<String> trackAnalyses = (List<String>) EasyMock.getCurrentArguments()[1];
+          @SuppressWarnings("unchecked")
+          Map<String, String> trackOptions = (Map<String, String>) EasyMock.getCurrentArguments()[2];
+          analyses.put(track.getIdentifier(), trackAnalyses);
+          options.put(track.getIdentifier(), trackOptions);
+
+          List<MediaPackageElement> elements = new ArrayList<>();
+          for (String analysis : trackAnalyses) {
+            MediaPackageElement element = "segments".equals(analysis) || "silence".equals(analysis)
+                ? CatalogImpl.newInstance()
+                : new AttachmentImpl();
+            element.setIdentifier(analysis + "-" + track.getIdentifier());
+            element.setFlavor(new MediaPackageElementFlavor(track.getFlavor().getType(), analysis));
+            element.setURI(new URI("http://localhost/files/collection/media-analysis/" + analysis + ".out"));
+            elements.add(element);
+          }
+          Job job = new JobImpl(analyses.size());
+          job.setPayload(MediaPackageElementParser.getArrayAsXml(elements));
+          return job;
+        }).anyTimes();
+
+    workspace = EasyMock.createNiceMock(Workspace.class);
+    EasyMock.expect(workspace.moveTo(EasyMock.anyObject(), EasyMock.anyString(), EasyMock.anyString(),
+        EasyMock.anyString())).andAnswer(() -> new URI("http://localhost/files/mediapackage/"
+            + EasyMock.getCurrentArguments()[1] + "/" + EasyMock.getCurrentArguments()[2] + "/"
+            + EasyMock.getCurrentArguments()[3])).anyTimes();
+    EasyMock.expect(workspace.get(EasyMock.anyObject(URI.class))).andReturn(new File("smil.smil")).anyTimes();
+
+    smilBody = EasyMock.createNiceMock(SmilBody.class);
+    Smil smil = EasyMock.createNiceMock(Smil.class);
+    EasyMock.expect(smil.getBody()).andReturn(smilBody).anyTimes();
+    SmilResponse smilResponse = EasyMock.createNiceMock(SmilResponse.class);
+    EasyMock.expect(smilResponse.getSmil()).andReturn(smil).anyTimes();
+    SmilService smilService = EasyMock.createNiceMock(SmilService.class);
+    EasyMock.expect(smilService.fromXml(EasyMock.anyObject(File.class))).andReturn(smilResponse).anyTimes();
+
+    EasyMock.replay(mediaAnalysisService, workspace, smil, smilResponse, smilService);
+
+    handler.setMediaAnalysisService(mediaAnalysisService);
+    handler.setSmilService(smilService);
+    handler.setWorkspace(workspace);
+  }
+
+  private static TrackImpl createTrack(String identifier, boolean audio, boolean video) {
+    TrackImpl track = new TrackImpl();
+    track.setIdentifier(identifier);
+    track.setFlavor(new MediaPackageElementFlavor(identifier, "source"));
+    track.setDuration(60000L);
+    if (audio) {
+      track.setAudio(Collections.singletonList(new AudioStreamImpl("audio-1")));
+    }
+    if (video) {
+      track.setVideo(Collections.singletonList(new VideoStreamImpl("video-1")));
+    }
+    return track;
+  }
+
+  private WorkflowInstance getWorkflowInstance(Map<String, String> configuration) {
+    WorkflowOperationInstance operation = new WorkflowOperationInstance("analyze-media",
+        WorkflowOperationInstance.OperationState.RUNNING);
+    for (Map.Entry<String, String> entry : configuration.entrySet()) {
+      operation.setConfiguration(entry.getKey(), entry.getValue());
+    }
+    WorkflowInstance workflow = new WorkflowInstance();
+    workflow.setId(1);
+    workflow.setState(WorkflowInstance.WorkflowState.RUNNING);
+    workflow.setMediaPackage(mediaPackage);
+    workflow.setOperations(new ArrayList<>(Collections.singletonList(operation)));
+    return workflow;
+  }
+
+  private static Map<String, String> getConfiguration(String analyses) {
+    Map<String, String> configuration = new HashMap<>();
+    configuration.put("source-flavor", "*/source");
+    configuration.put("analyses", analyses);
+    configuration.put("waveform-target-flavor", "*/waveform+preview");
+    configuration.put("waveform-target-tags", "engage-download,waveform");
+    configuration.put("timelinepreviews-target-flavor", "timeline/*");
+    configuration.put("silence-target-flavor", "*/smil");
+    return configuration;
+  }
+
+  @Test
+  public void testSkipTracksWithoutAudioOrVideo() throws Exception {
+    WorkflowOperationResult result = handler.start(
+        getWorkflowInstance(getConfiguration("waveform,timelinepreviews,segments")), null);
+    Assert.assertEquals(WorkflowOperationResult.Action.CONTINUE, result.getAction());
+
+    Assert.assertEquals(Arrays.asList("waveform", "timelinepreviews", "segments"), analyses.get("audio-video"));
+    Assert.assertEquals(Collections.singletonList("waveform"), analyses.get("audio-only"));
+    // Only the first track gets segmented
+    Assert.assertEquals(Collections.singletonList("timelinepreviews"), analyses.get("video-only"));
+  }
+
+  @Test
+  public void testSkipTracksWithoutAnalyses() throws Exception {
+    mediaPackage.remove(audioVideo);
+    mediaPackage.remove(videoOnly);
+    WorkflowOperationResult result = handler.start(
+        getWorkflowInstance(getConfiguration("timelinepreviews,segments")), null);
+    Assert.assertEquals(WorkflowOperationResult.Action.SKIP, result.getAction());
+    Assert.assertTrue(analyses.isEmpty());
+  }
+
+  @Test
+  public void testSkipShortVideos() throws Exception {
+    audioVideo.setDuration(20000L);
+    handler.start(getWorkflowInstance(getConfiguration("segments")), null);
+    Assert.assertNull(analyses.get("audio-video"));
+    Assert.assertEquals(Collections.singletonList("segments"), analyses.get("video-only"));
+  }
+
+  @Test
+  public void testOptions() throws Exception {
+    Map<String, String> configuration = getConfiguration("waveform,timelinepreviews");
+    configuration.put("waveform-height", "200");
+    configuration.put("waveform-color", "black");
+    configuration.put("timelinepreviews-image-count", "100");
+    configuration.put("segments-stability-threshold", "60");
+    handler.start(getWorkflowInstance(configuration), null);
+
+    Map<String, String> expected = new HashMap<>();
+    expected.put("waveform-height", "200");
+    expected.put("waveform-color", "black");
+    expected.put("timelinepreviews-image-count", "100");
+    Assert.assertEquals(expected, options.get("audio-video"));
+    Assert.assertEquals(expected, options.get("audio-only"));
+  }
+
+  @Test
+  public void testAddElements() throws Exception {
+    MediaPackage result = handler.start(
+        getWorkflowInstance(getConfiguration("waveform,timelinepreviews,segments")), null).getMediaPackage();
+
+    Attachment[] waveforms = result.getAttachments(MediaPackageElementFlavor.parseFlavor("*/waveform+preview"));
+    Assert.assertEquals(2, waveforms.length);
+    Attachment waveform = result.getAttachment("waveform-audio-only");
+    Assert.assertEquals(MediaPackageElementFlavor.parseFlavor("audio-only/waveform+preview"), waveform.getFlavor());
+    Assert.assertArrayEquals(new String[] { "engage-download", "waveform" }, waveform.getTags());
+    Assert.assertEquals(new URI("http://localhost/files/mediapackage/123-456/waveform-audio-only/waveform.png"),
+        waveform.getURI());
+
+    Attachment timeline = result.getAttachment("timelinepreviews-video-only");
+    Assert.assertEquals(MediaPackageElementFlavor.parseFlavor("timeline/timelinepreviews"), timeline.getFlavor());
+    Assert.assertEquals(0, timeline.getTags().length);
+    Assert.assertEquals(
+        new URI("http://localhost/files/mediapackage/123-456/timelinepreviews-video-only/timelinepreviews.out"),
+        timeline.getURI());
+
+    // The segments catalog keeps its flavor and refers to the segmented track
+    Catalog segments = result.getCatalog("segments-audio-video");
+    Assert.assertEquals(MediaPackageElementFlavor.parseFlavor("audio-video/segments"), segments.getFlavor());
+    Assert.assertEquals("audio-video", segments.getReference().getIdentifier());
+    Assert.assertEquals(new URI("http://localhost/files/mediapackage/123-456/segments-audio-video/segments.xml"),
+        segments.getURI());
+  }
+
+  @Test
+  public void testEmptySilenceDetection() throws Exception {
+    EasyMock.expect(smilBody.getMediaElements()).andReturn(new ArrayList<>()).once();
+    EasyMock.expect(smilBody.getMediaElements())
+        .andReturn(Collections.singletonList(EasyMock.createNiceMock(SmilMediaObject.class))).anyTimes();
+    EasyMock.replay(smilBody);
+    mediaPackage.remove(videoOnly);
+
+    MediaPackage result = handler.start(getWorkflowInstance(getConfiguration("silence")), null).getMediaPackage();
+    Assert.assertNull(result.getCatalog("silence-audio-video"));
+    Catalog smil = result.getCatalog("silence-audio-only");
+    Assert.assertEquals(MediaPackageElementFlavor.parseFlavor("audio-only/smil"), smil.getFlavor());
+    Assert.assertEquals(new URI("http://localhost/files/mediapackage/123-456/silence-audio-only/smil.smil"),
+        smil.getURI());
+  }
+
+  @Test
+  public void testMissingTargetFlavor() throws Exception {
+    Map<String, String> configuration = getConfiguration("waveform");
+    configuration.remove("waveform-target-flavor");
+    try {
+      handler.start(getWorkflowInstance(configuration), null);
+      Assert.fail();
+    } catch (WorkflowOperationException e) {
+      Assert.assertEquals("Required property waveform-target-flavor not set", e.getMessage());
+    }
+  }
+
+}
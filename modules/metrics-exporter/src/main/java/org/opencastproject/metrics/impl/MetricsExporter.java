@@ -25,6 +25,7 @@ import org.opencastproject.assetmanager.api.AssetManager;
 import org.opencastproject.job.api.Job;
 import org.opencastproject.security.api.Organization;
 import org.opencastproject.security.api.OrganizationDirectoryService;
+import org.opencastproject.serviceregistry.api.JobCompletionNotifier;
 import org.opencastproject.serviceregistry.api.ServiceRegistration;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.serviceregistry.api.ServiceState;
@@ -32,11 +33,17 @@ import org.opencastproject.serviceregistry.api.SystemLoad;
 import org.opencastproject.util.doc.rest.RestQuery;
 import org.opencastproject.util.doc.rest.RestResponse;
 import org.opencastproject.util.doc.rest.RestService;
+import org.opencastproject.workflow.api.WorkflowInstance;
+import org.opencastproject.workflow.api.WorkflowOperationInstance;
+import org.opencastproject.workflow.api.WorkflowOperationInstance.OperationState;
+import org.opencastproject.workflow.api.WorkflowOperationListener;
 
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Version;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
@@ -47,6 +54,10 @@ import java.io.StringWriter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletResponse;
@@ -58,11 +69,17 @@ import javax.ws.rs.core.Response;
 import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Counter;
 import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
 import io.prometheus.client.exporter.common.TextFormat;
 import io.prometheus.client.hotspot.DefaultExports;
 
 /**
  * Opencast metrics endpoint
+ * <p>
+ * The gauges which need to query the database are refreshed at most once per configured cache time to live, so that
+ * frequent scrapes don't cause database load. Job queue and run times are recorded as jobs terminate, as far as the
+ * service registry reports terminated jobs. Workflow operation timings are recorded by the node running the workflow
+ * service.
  */
 @Component(
     property = {
@@ -72,7 +89,7 @@ import io.prometheus.client.hotspot.DefaultExports;
         "opencast.service.jobproducer=false"
     },
     immediate = true,
-    service = MetricsExporter.class
+    service = { MetricsExporter.class, WorkflowOperationListener.class }
 )
 @Path("")
 @RestService(
@@ -84,10 +101,23 @@ import io.prometheus.client.hotspot.DefaultExports;
         "This can be used by <a href=https://prometheus.io>Prometheus</a>"
     }
 )
-public class MetricsExporter {
+public class MetricsExporter implements WorkflowOperationListener {
   /** The logger */
   private static final Logger logger = LoggerFactory.getLogger(MetricsExporter.class);
 
+  /** Configuration key for the time in seconds the values collected from the database are reused */
+  static final String CACHE_TTL_KEY = "cache.ttl";
+
+  /** Default time in seconds the values collected from the database are reused */
+  static final long DEFAULT_CACHE_TTL = 60;
+
+  /** Job queue and run time histogram buckets in seconds */
+  private static final double[] JOB_TIME_BUCKETS = { 0.1, 0.5, 1, 5, 10, 30, 60, 300, 900, 1800, 3600, 7200 };
+
+  /** Workflow operation time histogram buckets in seconds */
+  private static final double[] OPERATION_TIME_BUCKETS = { 0.01, 0.1, 0.5, 1, 5, 10, 30, 60, 300, 900, 1800, 3600,
+      7200, 14400 };
+
   // Prometheus metrics registry for exposing metrics
   private final CollectorRegistry registry = CollectorRegistry.defaultRegistry;
 
@@ -125,19 +155,103 @@ public class MetricsExporter {
       .help("Version of Opencast (based on metrics module)")
       .labelNames("part")
       .register();
+  private final Histogram jobQueueTime = Histogram.build()
+      .name("opencast_job_queue_time_seconds")
+      .help("Time jobs have been waiting to be dispatched")
+      .labelNames("type", "operation")
+      .buckets(JOB_TIME_BUCKETS)
+      .register();
+  private final Histogram jobRunTime = Histogram.build()
+      .name("opencast_job_run_time_seconds")
+      .help("Time jobs have been running")
+      .labelNames("type", "operation")
+      .buckets(JOB_TIME_BUCKETS)
+      .register();
+  private final Histogram operationQueueTime = Histogram.build()
+      .name("opencast_workflow_operation_queue_time_seconds")
+      .help("Time workflow operations have been waiting to be dispatched")
+      .labelNames("operation", "workflow")
+      .buckets(OPERATION_TIME_BUCKETS)
+      .register();
+  private final Histogram operationExecutionTime = Histogram.build()
+      .name("opencast_workflow_operation_execution_time_seconds")
+      .help("Time workflow operations have been executing, including the time waiting for jobs")
+      .labelNames("operation", "workflow")
+      .buckets(OPERATION_TIME_BUCKETS)
+      .register();
+  private final Histogram operationJobWaitTime = Histogram.build()
+      .name("opencast_workflow_operation_job_wait_time_seconds")
+      .help("Time workflow operations have been waiting for their jobs to finish")
+      .labelNames("operation", "workflow")
+      .buckets(OPERATION_TIME_BUCKETS)
+      .register();
+  private final Counter operationRetries = Counter.build()
+      .name("opencast_workflow_operation_retries_total")
+      .help("Workflow operations which failed and are going to be retried")
+      .labelNames("operation", "workflow")
+      .register();
+  private final Counter operationFailures = Counter.build()
+      .name("opencast_workflow_operation_failures_total")
+      .help("Workflow operations which failed")
+      .labelNames("operation", "workflow")
+      .register();
+  private final Gauge operationsActive = Gauge.build()
+      .name("opencast_workflow_operation_active")
+      .help("Workflow operations currently executing")
+      .labelNames("operation", "workflow")
+      .register();
   private Gauge eventsInAssetManager;
 
+  /** Time in milliseconds the values collected from the database are reused */
+  private volatile long cacheTtl = TimeUnit.SECONDS.toMillis(DEFAULT_CACHE_TTL);
+
+  /** Time in milliseconds the values collected from the database have been refreshed, 0 if never */
+  private volatile long lastRefresh = 0;
+
+  /** Ensures that only one scrape refreshes the values collected from the database */
+  private final ReentrantLock refreshLock = new ReentrantLock();
+
+  /** Records queue and run time of terminated jobs */
+  private final Consumer<Job> jobCompletionListener = this::jobCompleted;
+
   /** OSGi services */
   private ServiceRegistry serviceRegistry;
   private OrganizationDirectoryService organizationDirectoryService;
   private AssetManager assetManager;
 
   @Activate
-  public void activate(BundleContext bundleContext) {
+  public void activate(BundleContext bundleContext, Map<String, Object> properties) {
     final Version version = bundleContext.getBundle().getVersion();
     this.version.labels("major").set(version.getMajor());
     this.version.labels("minor").set(version.getMinor());
     DefaultExports.initialize();
+    modified(properties);
+    if (serviceRegistry instanceof JobCompletionNotifier) {
+      ((JobCompletionNotifier) serviceRegistry).addJobCompletionListener(jobCompletionListener);
+    }
+  }
+
+  @Modified
+  public void modified(Map<String, Object> properties) {
+    final String ttl = Objects.toString(properties.get(CACHE_TTL_KEY), null);
+    long seconds = DEFAULT_CACHE_TTL;
+    if (ttl != null) {
+      try {
+        seconds = Math.max(0, Long.parseLong(ttl.trim()));
+      } catch (NumberFormatException e) {
+        logger.warn("Invalid metrics cache time to live '{}', using {} seconds", ttl, DEFAULT_CACHE_TTL);
+      }
+    }
+    cacheTtl = TimeUnit.SECONDS.toMillis(seconds);
+    lastRefresh = 0;
+    logger.debug("Caching metrics collected from the database for {} seconds", seconds);
+  }
+
+  @Deactivate
+  public void deactivate() {
+    if (serviceRegistry instanceof JobCompletionNotifier) {
+      ((JobCompletionNotifier) serviceRegistry).removeJobCompletionListener(jobCompletionListener);
+    }
   }
 
   @GET
@@ -151,6 +265,42 @@ public class MetricsExporter {
     // track requests
     requests.inc();
 
+    refreshIfExpired();
+
+    // collect metrics
+    final StringWriter writer = new StringWriter();
+    TextFormat.write004(writer, registry.metricFamilySamples());
+    return Response.ok().entity(writer.toString()).build();
+  }
+
+  /**
+   * Refreshes the values collected from the database if they are older than the cache time to live. While another
+   * request is refreshing them, the current values are served unless there are none yet.
+   */
+  private void refreshIfExpired() throws Exception {
+    if (lastRefresh != 0 && System.currentTimeMillis() - lastRefresh < cacheTtl) {
+      return;
+    }
+    if (lastRefresh == 0) {
+      refreshLock.lock();
+    } else if (!refreshLock.tryLock()) {
+      return;
+    }
+    try {
+      if (lastRefresh == 0 || System.currentTimeMillis() - lastRefresh >= cacheTtl) {
+        final long start = System.currentTimeMillis();
+        refresh();
+        lastRefresh = start;
+      }
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  /**
+   * Collects the values of the gauges which need to query the database.
+   */
+  private void refresh() throws Exception {
     // track service states
     final List<ServiceState> serviceStates = serviceRegistry.getServiceRegistrations().parallelStream()
         .map(ServiceRegistration::getServiceState)
@@ -204,18 +354,57 @@ public class MetricsExporter {
     }
 
     // Get numbers from asset manager
+    final AssetManager assetManager = this.assetManager;
+    final Gauge eventsInAssetManager = this.eventsInAssetManager;
     if (assetManager != null) {
-      for (Organization organization: organizationDirectoryService.getOrganizations()) {
+      for (String organization: workflows.keySet()) {
         eventsInAssetManager
-            .labels(organization.getId())
-            .set(assetManager.countEvents(organization.getId()));
+            .labels(organization)
+            .set(assetManager.countEvents(organization));
       }
     }
+  }
 
-    // collect metrics
-    final StringWriter writer = new StringWriter();
-    TextFormat.write004(writer, registry.metricFamilySamples());
-    return Response.ok().entity(writer.toString()).build();
+  /**
+   * Records queue and run time of a terminated job.
+   *
+   * @param job
+   *          the terminated job
+   */
+  void jobCompleted(Job job) {
+    final String type = Objects.toString(job.getJobType(), "");
+    final String operation = Objects.toString(job.getOperation(), "");
+    if (job.getDateStarted() != null && job.getQueueTime() != null) {
+      jobQueueTime.labels(type, operation).observe(job.getQueueTime() / 1000.0);
+    }
+    if (job.getDateStarted() != null && job.getDateCompleted() != null && job.getRunTime() != null) {
+      jobRunTime.labels(type, operation).observe(job.getRunTime() / 1000.0);
+    }
+  }
+
+  @Override
+  public void operationStarted(WorkflowInstance workflow, WorkflowOperationInstance operation, long queueTime) {
+    final String template = Objects.toString(operation.getTemplate(), "");
+    final String definition = Objects.toString(workflow.getTemplate(), "");
+    operationsActive.labels(template, definition).inc();
+    if (queueTime >= 0) {
+      operationQueueTime.labels(template, definition).observe(queueTime / 1000.0);
+    }
+  }
+
+  @Override
+  public void operationFinished(WorkflowInstance workflow, WorkflowOperationInstance operation, long executionTime,
+          long jobWaitTime) {
+    final String template = Objects.toString(operation.getTemplate(), "");
+    final String definition = Objects.toString(workflow.getTemplate(), "");
+    operationsActive.labels(template, definition).dec();
+    operationExecutionTime.labels(template, definition).observe(executionTime / 1000.0);
+    operationJobWaitTime.labels(template, definition).observe(jobWaitTime / 1000.0);
+    if (OperationState.RETRY.equals(operation.getState())) {
+      operationRetries.labels(template, definition).inc();
+    } else if (OperationState.FAILED.equals(operation.getState())) {
+      operationFailures.labels(template, definition).inc();
+    }
   }
 
   @Reference
@@ -235,6 +424,7 @@ public class MetricsExporter {
   )
   public void setAssetManager(AssetManager assetManager) {
     this.assetManager = assetManager;
+    lastRefresh = 0;
     eventsInAssetManager = Gauge.build()
         .name("opencast_asset_manager_events")
         .help("Events in Asset Manager")
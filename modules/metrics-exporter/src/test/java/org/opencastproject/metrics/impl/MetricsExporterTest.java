@@ -32,6 +32,9 @@ import org.opencastproject.serviceregistry.api.ServiceRegistrationInMemoryImpl;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.serviceregistry.api.ServiceState;
 import org.opencastproject.serviceregistry.api.SystemLoad;
+import org.opencastproject.workflow.api.WorkflowInstance;
+import org.opencastproject.workflow.api.WorkflowOperationInstance;
+import org.opencastproject.workflow.api.WorkflowOperationInstance.OperationState;
 
 import org.easymock.EasyMock;
 import org.junit.Assert;
@@ -42,6 +45,9 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
+
+import io.prometheus.client.CollectorRegistry;
 
 /**
  * Test the metrics endpoint
@@ -54,6 +60,7 @@ public class MetricsExporterTest {
 
   @Before
   public void setUp() {
+    CollectorRegistry.defaultRegistry.clear();
     exporter = new MetricsExporter();
   }
 
@@ -103,5 +110,89 @@ public class MetricsExporterTest {
     final String body = exporter.metrics().getEntity().toString();
     Assert.assertTrue(body.contains("opencast_job_load_max{host=\"opencast.org\",} 12.3"));
     Assert.assertTrue(body.contains("opencast_asset_manager_events{organization=\"mh_default_org\",} 5.0"));
+
+    // values collected from the database are reused for the next scrape
+    Assert.assertTrue(exporter.metrics().getEntity().toString().contains("requests_total 2.0"));
+    EasyMock.verify(assetManager);
+  }
+
+  @Test
+  public void testJobTimes() throws Exception {
+    ServiceRegistry serviceRegistry = EasyMock.createMock(ServiceRegistry.class);
+    EasyMock.expect(serviceRegistry.getCurrentHostLoads()).andReturn(new SystemLoad()).anyTimes();
+    EasyMock.expect(serviceRegistry.getActiveJobs()).andReturn(Collections.emptyList()).anyTimes();
+    EasyMock.expect(serviceRegistry.getServiceRegistrations()).andReturn(Collections.emptyList()).anyTimes();
+    OrganizationDirectoryService directoryService = EasyMock.createMock(OrganizationDirectoryService.class);
+    EasyMock.expect(directoryService.getOrganizations()).andReturn(Collections.emptyList()).anyTimes();
+    EasyMock.replay(serviceRegistry, directoryService);
+    exporter.setServiceRegistry(serviceRegistry);
+    exporter.setOrganizationDirectoryService(directoryService);
+
+    // finished job
+    Job job = new JobImpl();
+    job.setJobType("org.opencastproject.composer");
+    job.setOperation("Encode");
+    job.setDateCreated(new Date(0));
+    job.setDateStarted(new Date(2000));
+    job.setDateCompleted(new Date(62000));
+    job.setQueueTime(2000L);
+    job.setRunTime(60000L);
+    exporter.jobCompleted(job);
+
+    // job canceled before it has been started
+    job = new JobImpl();
+    job.setJobType("org.opencastproject.composer");
+    job.setOperation("Encode");
+    exporter.jobCompleted(job);
+
+    final String body = exporter.metrics().getEntity().toString();
+    Assert.assertTrue(body.contains("opencast_job_queue_time_seconds_count{type=\"org.opencastproject.composer\","
+        + "operation=\"Encode\",} 1.0"));
+    Assert.assertTrue(body.contains("opencast_job_queue_time_seconds_sum{type=\"org.opencastproject.composer\","
+        + "operation=\"Encode\",} 2.0"));
+    Assert.assertTrue(body.contains("opencast_job_run_time_seconds_bucket{type=\"org.opencastproject.composer\","
+        + "operation=\"Encode\",le=\"30.0\",} 0.0"));
+    Assert.assertTrue(body.contains("opencast_job_run_time_seconds_bucket{type=\"org.opencastproject.composer\","
+        + "operation=\"Encode\",le=\"60.0\",} 1.0"));
+  }
+
+  @Test
+  public void testWorkflowOperations() throws Exception {
+    ServiceRegistry serviceRegistry = EasyMock.createMock(ServiceRegistry.class);
+    EasyMock.expect(serviceRegistry.getCurrentHostLoads()).andReturn(new SystemLoad()).anyTimes();
+    EasyMock.expect(serviceRegistry.getActiveJobs()).andReturn(Collections.emptyList()).anyTimes();
+    EasyMock.expect(serviceRegistry.getServiceRegistrations()).andReturn(Collections.emptyList()).anyTimes();
+    OrganizationDirectoryService directoryService = EasyMock.createMock(OrganizationDirectoryService.class);
+    EasyMock.expect(directoryService.getOrganizations()).andReturn(Collections.emptyList()).anyTimes();
+    EasyMock.replay(serviceRegistry, directoryService);
+    exporter.setServiceRegistry(serviceRegistry);
+    exporter.setOrganizationDirectoryService(directoryService);
+
+    final WorkflowInstance workflow = new WorkflowInstance();
+    workflow.setTemplate("fast");
+    final WorkflowOperationInstance encode = new WorkflowOperationInstance("encode", OperationState.RUNNING);
+    final WorkflowOperationInstance publish = new WorkflowOperationInstance("publish-engage", OperationState.RUNNING);
+
+    // encoding succeeds after a retry, publishing is still running
+    exporter.operationStarted(workflow, encode, 1500);
+    encode.setState(OperationState.RETRY);
+    exporter.operationFinished(workflow, encode, 10000, 9000);
+    exporter.operationStarted(workflow, encode, -1);
+    encode.setState(OperationState.SUCCEEDED);
+    exporter.operationFinished(workflow, encode, 20000, 19000);
+    exporter.operationStarted(workflow, publish, 500);
+
+    final String body = exporter.metrics().getEntity().toString();
+    final String encodeLabels = "{operation=\"encode\",workflow=\"fast\",}";
+    final String publishLabels = "{operation=\"publish-engage\",workflow=\"fast\",}";
+    Assert.assertTrue(body.contains("opencast_workflow_operation_queue_time_seconds_count" + encodeLabels + " 1.0"));
+    Assert.assertTrue(body.contains("opencast_workflow_operation_execution_time_seconds_sum" + encodeLabels
+        + " 30.0"));
+    Assert.assertTrue(body.contains("opencast_workflow_operation_job_wait_time_seconds_sum" + encodeLabels
+        + " 28.0"));
+    Assert.assertTrue(body.contains("opencast_workflow_operation_retries_total" + encodeLabels + " 1.0"));
+    Assert.assertFalse(body.contains("opencast_workflow_operation_failures_total" + encodeLabels));
+    Assert.assertTrue(body.contains("opencast_workflow_operation_active" + encodeLabels + " 0.0"));
+    Assert.assertTrue(body.contains("opencast_workflow_operation_active" + publishLabels + " 1.0"));
   }
 }
@@ -31,6 +31,7 @@ import com.entwinemedia.fn.data.Opt;
 import net.fortuna.ical4j.model.Period;
 import net.fortuna.ical4j.model.property.RRule;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -276,6 +277,18 @@ public interface SchedulerService {
   TechnicalMetadata getTechnicalMetadata(String mediaPackageId)
           throws NotFoundException, UnauthorizedException, SchedulerException;
 
+  /**
+   * Retrieves the technical metadata associated with the specified event IDs with as few lookups as possible.
+   *
+   * @param mediaPackageIds
+   *          IDs of the events for which technical metadata will be retrieved
+   * @return {@link TechnicalMetadata} by event ID; events which cannot be found are left out
+   * @throws SchedulerException
+   *           if exception occurred
+   */
+  Map<String, TechnicalMetadata> getTechnicalMetadata(Collection<String> mediaPackageIds)
+          throws UnauthorizedException, SchedulerException;
+
   /**
    * Retrieves workflow configuration associated with specified event ID.
    *
@@ -0,0 +1,122 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.scheduler.impl;
+
+import net.fortuna.ical4j.model.Period;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The periods of a recurring schedule sorted by start date, used to check whether existing events conflict with any
+ * of the periods without querying each period on its own.
+ * <p>
+ * Lookups use a binary search over the period end dates, which requires the periods not to overlap each other. Check
+ * {@link #hasOverlap()} before looking up conflicts.
+ */
+final class PeriodIndex {
+
+  /** The start dates of the periods in milliseconds, ascending */
+  private final long[] starts;
+
+  /** The end dates of the periods in milliseconds, in the same order as the start dates */
+  private final long[] ends;
+
+  /**
+   * @param periods
+   *          the periods to index, must not be empty
+   */
+  PeriodIndex(List<Period> periods) {
+    if (periods.isEmpty()) {
+      throw new IllegalArgumentException("periods must not be empty");
+    }
+    final long[][] sorted = new long[periods.size()][];
+    for (int i = 0; i < sorted.length; i++) {
+      final Period period = periods.get(i);
+      sorted[i] = new long[] { period.getStart().getTime(), period.getEnd().getTime() };
+    }
+    Arrays.sort(sorted, (a, b) -> Long.compare(a[0], b[0]));
+    starts = new long[sorted.length];
+    ends = new long[sorted.length];
+    for (int i = 0; i < sorted.length; i++) {
+      starts[i] = sorted[i][0];
+      ends[i] = sorted[i][1];
+    }
+  }
+
+  /**
+   * @return whether any two of the periods overlap
+   */
+  boolean hasOverlap() {
+    for (int i = 1; i < starts.length; i++) {
+      if (starts[i] < ends[i - 1]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the start of the earliest period
+   */
+  Date getStart() {
+    return new Date(starts[0]);
+  }
+
+  /**
+   * @return the end of the latest period
+   */
+  Date getEnd() {
+    return new Date(ends[ends.length - 1]);
+  }
+
+  /**
+   * Checks whether an event conflicts with any of the periods. An event conflicts with a period if it starts less than
+   * the given separation after the end of the period and ends less than the separation before its start.
+   *
+   * @param start
+   *          the start of the event
+   * @param end
+   *          the end of the event
+   * @param separationMillis
+   *          the minimum number of milliseconds between the event and a period
+   * @return whether the event conflicts with one of the periods
+   */
+  boolean conflicts(Date start, Date end, long separationMillis) {
+    // Find the first period which does not end before the event starts. As the periods don't overlap, this is the
+    // only candidate for a conflict, all later periods start after it ends.
+    final long eventStart = start.getTime() - separationMillis;
+    int low = 0;
+    int high = ends.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (ends[mid] > eventStart) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low < starts.length && starts[low] < end.getTime() + separationMillis;
+  }
+
+}
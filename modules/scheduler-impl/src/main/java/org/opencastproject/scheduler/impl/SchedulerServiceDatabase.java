@@ -26,6 +26,7 @@ import org.opencastproject.util.NotFoundException;
 
 import com.entwinemedia.fn.data.Opt;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -215,6 +216,19 @@ public interface SchedulerServiceDatabase {
    */
   List<ExtendedEventDto> getEvents() throws SchedulerServiceDatabaseException;
 
+  /**
+   * Get the events with the given mediapackage ids for the current organization.
+   *
+   * @param mediapackageIds
+   *          The mediapackage ids to look for
+   *
+   * @return The events found. Ids without an event are left out.
+   *
+   * @throws SchedulerServiceDatabaseException
+   *           If the database cannot be queried.
+   */
+  List<ExtendedEventDto> getEvents(Collection<String> mediapackageIds) throws SchedulerServiceDatabaseException;
+
   /**
    * Nulls recording state and recording last heard of of the given media package.
    * @param mediapackageId
@@ -114,6 +114,7 @@ import com.google.gson.reflect.TypeToken;
 import net.fortuna.ical4j.model.Period;
 import net.fortuna.ical4j.model.TimeZoneRegistry;
 import net.fortuna.ical4j.model.TimeZoneRegistryFactory;
+import net.fortuna.ical4j.model.component.VEvent;
 import net.fortuna.ical4j.model.property.RRule;
 
 import org.apache.commons.io.IOUtils;
@@ -138,8 +139,8 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.Dictionary;
 import java.util.HashMap;
@@ -182,6 +183,12 @@ public class SchedulerServiceImpl extends AbstractIndexProducer implements Sched
   /** The default cache expire time in seconds */
   private static final int DEFAULT_CACHE_EXPIRE = 60;
 
+  /** The time in minutes calendars and calendar entries are kept in memory at most */
+  private static final int CALENDAR_CACHE_EXPIRE = 60;
+
+  /** The maximum number of calendar entries kept in memory */
+  private static final int CALENDAR_EVENT_CACHE_SIZE = 10000;
+
   /** The Etag for an empty calendar */
   private static final String EMPTY_CALENDAR_ETAG = "mod0";
 
@@ -205,6 +212,14 @@ public class SchedulerServiceImpl extends AbstractIndexProducer implements Sched
   protected Cache<String, String> lastModifiedCache = CacheBuilder.newBuilder()
           .expireAfterWrite(DEFAULT_CACHE_EXPIRE, TimeUnit.SECONDS).build();
 
+  /** The calendar entries of the upcoming events of each capture agent */
+  protected Cache<List<String>, CachedCalendar> calendarCache = CacheBuilder.newBuilder()
+          .expireAfterWrite(CALENDAR_CACHE_EXPIRE, TimeUnit.MINUTES).build();
+
+  /** The calendar entries of the scheduled events by media package identifier */
+  protected Cache<String, CachedCalendarEvent> calendarEventCache = CacheBuilder.newBuilder()
+          .maximumSize(CALENDAR_EVENT_CACHE_SIZE).expireAfterWrite(CALENDAR_CACHE_EXPIRE, TimeUnit.MINUTES).build();
+
   /** Persistent storage for events */
   private SchedulerServiceDatabase persistence;
 
@@ -976,6 +991,21 @@ public class SchedulerServiceImpl extends AbstractIndexProducer implements Sched
     }
   }
 
+  @Override
+  public Map<String, TechnicalMetadata> getTechnicalMetadata(Collection<String> mediaPackageIds)
+          throws SchedulerException {
+    try {
+      final Map<String, TechnicalMetadata> result = new HashMap<>();
+      for (ExtendedEventDto extEvt : persistence.getEvents(mediaPackageIds)) {
+        result.put(extEvt.getMediaPackageId(), getTechnicalMetadata(extEvt));
+      }
+      return result;
+    } catch (Exception e) {
+      logger.error("Failed to get technical metadata of events {}:", mediaPackageIds, e);
+      throw new SchedulerException(e);
+    }
+  }
+
   @Override
   public Map<String, String> getWorkflowConfig(String mediaPackageId) throws NotFoundException, SchedulerException {
     notEmpty(mediaPackageId, "mediaPackageId");
@@ -1105,46 +1135,49 @@ public class SchedulerServiceImpl extends AbstractIndexProducer implements Sched
     return findConflictingEvents(periods, captureAgentId, tz);
   }
 
-  private boolean checkPeriodOverlap(final List<Period> periods) {
-    final List<Period> sortedPeriods = new ArrayList<>(periods);
-    sortedPeriods.sort(Comparator.comparing(Period::getStart));
-    Period prior = periods.get(0);
-    for (Period current : periods.subList(1, periods.size())) {
-      if (current.getStart().compareTo(prior.getEnd()) < 0) {
-        return true;
-      }
-      prior = current;
-    }
-    return false;
-  }
-
   private List<MediaPackage> findConflictingEvents(List<Period> periods, String captureAgentId, TimeZone tz)
           throws SchedulerException {
     notEmpty(captureAgentId, "captureAgentId");
     notNull(periods, "periods");
     requireTrue(periods.size() > 0, "periods");
 
+    TimeZoneRegistry registry = TimeZoneRegistryFactory.getInstance().createRegistry();
+    for (Period period : periods) {
+      period.setTimeZone(registry.getTimeZone(tz.getID()));
+    }
+
     // First, check if there are overlaps inside the periods to be added (this is possible if you specify an RRULE via
     // the external API, for example; the admin ui should prevent this from happening). Then check for conflicts with
     // existing events.
-    if (checkPeriodOverlap(periods)) {
+    final PeriodIndex index = new PeriodIndex(periods);
+    if (index.hasOverlap()) {
       throw new IllegalArgumentException("RRULE periods overlap");
     }
 
     try {
-      TimeZoneRegistry registry = TimeZoneRegistryFactory.getInstance().createRegistry();
-
-      Set<MediaPackage> events = new HashSet<>();
-
-      for (Period event : periods) {
-        event.setTimeZone(registry.getTimeZone(tz.getID()));
-        final Date startDate = event.getStart();
-        final Date endDate = event.getEnd();
+      final Organization organization = securityService.getOrganization();
+      final User user = SecurityUtil.createSystemUser(systemUserName, organization);
+      final int separation = Util.EVENT_MINIMUM_SEPARATION_MILLISECONDS;
+      final Date windowStart = new Date(index.getStart().getTime() - separation);
+      final Date windowEnd = new Date(index.getEnd().getTime() + separation);
+      List<MediaPackage> conflictingEvents = new ArrayList<>();
 
-        events.addAll(findConflictingEvents(captureAgentId, startDate, endDate));
-      }
+      // Load all events of the capture agent within the time span of the periods at once and check them against the
+      // periods in memory instead of querying each period on its own
+      SecurityUtil.runAs(securityService, organization, user, () -> {
+        try {
+          persistence.search(Opt.some(captureAgentId), Opt.none(), Opt.some(windowEnd), Opt.some(windowStart),
+                  Opt.none(), Opt.none())
+                  .stream()
+                  .filter(event -> index.conflicts(event.getStartDate(), event.getEndDate(), separation))
+                  .map(event -> getEventMediaPackage(event.getMediaPackageId(), false))
+                  .forEach(conflictingEvents::add);
+        } catch (SchedulerServiceDatabaseException e) {
+          logger.error("Failed to get conflicting events", e);
+        }
+      });
 
-      return new ArrayList<>(events);
+      return conflictingEvents;
     } catch (Exception e) {
       throw new SchedulerException(e);
     }
@@ -1153,58 +1186,23 @@ public class SchedulerServiceImpl extends AbstractIndexProducer implements Sched
   @Override
   public String getCalendar(Opt<String> captureAgentId, Opt<String> seriesId, Opt<Date> cutoff)
           throws SchedulerException {
-
     try {
-      final Map<String, ExtendedEventDto> searchResult = persistence.search(captureAgentId, Opt.none(), cutoff,
-          Opt.some(DateTime.now().minusHours(1).toDate()), Opt.none(), Opt.none()).stream()
-          .collect(Collectors.toMap(ExtendedEventDto::getMediaPackageId, Function.identity()));
-      final AQueryBuilder query = assetManager.createQuery();
-      final AResult result = query.select(query.snapshot())
-          .where(withOrganization(query).and(query.mediaPackageIds(searchResult.keySet().toArray(new String[0])))
-              .and(withOwner(query)).and(query.version().isLatest()))
-          .run();
+      // The entries of a capture agent are kept in memory as long as its schedule has not been modified. Since these
+      // are not limited by any of the parameters, the filters are applied when serving the calendar.
+      final List<CalendarEntry> entries = captureAgentId.isSome()
+          ? getCalendarEntries(captureAgentId.get())
+          : createCalendarEntries(captureAgentId, cutoff);
 
       final CalendarGenerator cal = new CalendarGenerator(seriesService);
-      for (final ARecord record : result.getRecords()) {
-        final Optional<MediaPackage> optMp = record.getSnapshot().isPresent()
-            ? Optional.of(record.getSnapshot().get().getMediaPackage())
-            : Optional.empty();
-
-        // If the event media package is empty, skip the event
-        if (optMp.isEmpty()) {
-          logger.warn("Mediapackage for event '{}' can't be found, event is not recorded", record.getMediaPackageId());
-          continue;
-        }
-
-        if (seriesId.isSome() && !seriesId.get().equals(optMp.get().getSeries())) {
+      // Entries drop out of the calendar an hour after the end of the event
+      final long endFrom = DateTime.now().minusHours(1).getMillis();
+      for (final CalendarEntry entry : entries) {
+        if (entry.end < endFrom || cutoff.isSome() && entry.start >= cutoff.get().getTime()
+            || seriesId.isSome() && !seriesId.get().equals(entry.seriesId)) {
           continue;
         }
-
-        Opt<DublinCoreCatalog> catalogOpt = loadEpisodeDublinCoreFromAsset(record.getSnapshot().get());
-        if (catalogOpt.isNone()) {
-          logger.warn("No episode catalog available, skipping!");
-          continue;
-        }
-
-        final Map<String, String> caMetadata = deserializeExtendedEventProperties(searchResult.get(record.getMediaPackageId()).getCaptureAgentProperties());
-
-        // If the even properties are empty, skip the event
-        if (caMetadata.isEmpty()) {
-          logger.warn("Properties for event '{}' can't be found, event is not recorded", record.getMediaPackageId());
-          continue;
-        }
-
-        final String agentId = searchResult.get(record.getMediaPackageId()).getCaptureAgentId();
-        final Date start = searchResult.get(record.getMediaPackageId()).getStartDate();
-        final Date end = searchResult.get(record.getMediaPackageId()).getEndDate();
-        final Date lastModified = record.getSnapshot().get().getArchivalDate();
-
-        // Add the entry to the calendar, skip it with a warning if adding fails
-        try {
-          cal.addEvent(optMp.get(), catalogOpt.get(), agentId, start, end, lastModified, toPropertyString(caMetadata));
-        } catch (Exception e) {
-          logger.warn("Error adding event '{}' to calendar, event is not recorded", record.getMediaPackageId(), e);
-        }
+        // Cached entries are never added to a calendar themselves
+        cal.addEvent((VEvent) entry.event.copy());
       }
 
       // Only validate calendars with events. Without any events, the iCalendar won't validate
@@ -1219,6 +1217,104 @@ public class SchedulerServiceImpl extends AbstractIndexProducer implements Sched
     }
   }
 
+  /**
+   * Returns the calendar entries of all upcoming events of a capture agent. The entries are served from memory as long
+   * as the schedule of the agent has not been modified.
+   *
+   * @param captureAgentId
+   *          the capture agent identifier
+   * @return the calendar entries
+   */
+  private List<CalendarEntry> getCalendarEntries(String captureAgentId) throws Exception {
+    final String lastModifiedHash = getScheduleLastModified(captureAgentId);
+    final CachedCalendar cached = calendarCache.getIfPresent(getCalendarCacheKey(captureAgentId));
+    if (cached != null && cached.lastModifiedHash.equals(lastModifiedHash)) {
+      logger.debug("Serving unmodified calendar of capture agent '{}' from cache", captureAgentId);
+      return cached.entries;
+    }
+    final List<CalendarEntry> entries = createCalendarEntries(Opt.some(captureAgentId), Opt.none());
+    calendarCache.put(getCalendarCacheKey(captureAgentId), new CachedCalendar(lastModifiedHash, entries));
+    return entries;
+  }
+
+  /**
+   * Creates the calendar entries of the events which have not ended more than an hour ago.
+   *
+   * @param captureAgentId
+   *          the capture agent to create the entries for, or none for all events
+   * @param cutoff
+   *          the time the events have to start before
+   * @return the calendar entries
+   */
+  private List<CalendarEntry> createCalendarEntries(Opt<String> captureAgentId, Opt<Date> cutoff) throws Exception {
+    final Map<String, ExtendedEventDto> searchResult = persistence.search(captureAgentId, Opt.none(), cutoff,
+        Opt.some(DateTime.now().minusHours(1).toDate()), Opt.none(), Opt.none()).stream()
+        .collect(Collectors.toMap(ExtendedEventDto::getMediaPackageId, Function.identity()));
+    final AQueryBuilder query = assetManager.createQuery();
+    final AResult result = query.select(query.snapshot())
+        .where(withOrganization(query).and(query.mediaPackageIds(searchResult.keySet().toArray(new String[0])))
+            .and(withOwner(query)).and(query.version().isLatest()))
+        .run();
+
+    final CalendarGenerator cal = new CalendarGenerator(seriesService);
+    final List<CalendarEntry> entries = new ArrayList<>();
+    for (final ARecord record : result.getRecords()) {
+      final Optional<MediaPackage> optMp = record.getSnapshot().isPresent()
+          ? Optional.of(record.getSnapshot().get().getMediaPackage())
+          : Optional.empty();
+
+      // If the event media package is empty, skip the event
+      if (optMp.isEmpty()) {
+        logger.warn("Mediapackage for event '{}' can't be found, event is not recorded", record.getMediaPackageId());
+        continue;
+      }
+
+      final ExtendedEventDto extendedEvent = searchResult.get(record.getMediaPackageId());
+      final Map<String, String> caMetadata = deserializeExtendedEventProperties(
+          extendedEvent.getCaptureAgentProperties());
+
+      // If the even properties are empty, skip the event
+      if (caMetadata.isEmpty()) {
+        logger.warn("Properties for event '{}' can't be found, event is not recorded", record.getMediaPackageId());
+        continue;
+      }
+
+      final String agentId = extendedEvent.getCaptureAgentId();
+      final Date start = extendedEvent.getStartDate();
+      final Date end = extendedEvent.getEndDate();
+      final Date lastModified = record.getSnapshot().get().getArchivalDate();
+
+      // Only entries of events which have been modified since they were last created are generated
+      final String signature = String.join("|", record.getSnapshot().get().getVersion().toString(),
+          Long.toString(lastModified.getTime()), agentId, Long.toString(start.getTime()),
+          Long.toString(end.getTime()), extendedEvent.getCaptureAgentProperties());
+      final CachedCalendarEvent cachedEvent = calendarEventCache.getIfPresent(record.getMediaPackageId());
+      if (cachedEvent != null && cachedEvent.signature.equals(signature)) {
+        entries.add(new CalendarEntry(start, end, optMp.get().getSeries(), cachedEvent.event));
+        continue;
+      }
+
+      Opt<DublinCoreCatalog> catalogOpt = loadEpisodeDublinCoreFromAsset(record.getSnapshot().get());
+      if (catalogOpt.isNone()) {
+        logger.warn("No episode catalog available, skipping!");
+        continue;
+      }
+
+      // Create the entry, skip it with a warning if that fails
+      try {
+        final VEvent event = cal.createEvent(optMp.get(), catalogOpt.get(), agentId, start, end, lastModified,
+            toPropertyString(caMetadata));
+        if (event != null) {
+          entries.add(new CalendarEntry(start, end, optMp.get().getSeries(), event));
+          calendarEventCache.put(record.getMediaPackageId(), new CachedCalendarEvent(signature, event));
+        }
+      } catch (Exception e) {
+        logger.warn("Error adding event '{}' to calendar, event is not recorded", record.getMediaPackageId(), e);
+      }
+    }
+    return entries;
+  }
+
   @Override
   public String getScheduleLastModified(String captureAgentId) throws SchedulerException {
     notEmpty(captureAgentId, "captureAgentId");
@@ -1591,6 +1687,7 @@ public class SchedulerServiceImpl extends AbstractIndexProducer implements Sched
     try {
       logger.debug("Marking calendar feed for {} as modified", captureAgentId);
       persistence.touchLastEntry(captureAgentId);
+      calendarCache.invalidate(getCalendarCacheKey(captureAgentId));
       populateLastModifiedCache();
     } catch (SchedulerServiceDatabaseException e) {
       logger.error("Failed to update last modified entry of agent '{}':", captureAgentId, e);
@@ -1609,6 +1706,13 @@ public class SchedulerServiceImpl extends AbstractIndexProducer implements Sched
     }
   }
 
+  /**
+   * Capture agent identifiers are only unique within an organization, so the calendar cache is keyed on both.
+   */
+  private List<String> getCalendarCacheKey(String captureAgentId) {
+    return Arrays.asList(securityService.getOrganization().getId(), captureAgentId);
+  }
+
   private String generateLastModifiedHash(Date lastModifiedDate) {
     return "mod" + Long.toString(lastModifiedDate.getTime());
   }
@@ -1842,4 +1946,47 @@ public class SchedulerServiceImpl extends AbstractIndexProducer implements Sched
       return Optional.of(event);
     };
   }
+
+  /**
+   * The calendar entries of a capture agent along with the schedule modification they have been created for.
+   */
+  private static final class CachedCalendar {
+    private final String lastModifiedHash;
+    private final List<CalendarEntry> entries;
+
+    CachedCalendar(String lastModifiedHash, List<CalendarEntry> entries) {
+      this.lastModifiedHash = lastModifiedHash;
+      this.entries = entries;
+    }
+  }
+
+  /**
+   * A calendar entry along with the properties calendars are filtered by.
+   */
+  private static final class CalendarEntry {
+    private final long start;
+    private final long end;
+    private final String seriesId;
+    private final VEvent event;
+
+    CalendarEntry(Date start, Date end, String seriesId, VEvent event) {
+      this.start = start.getTime();
+      this.end = end.getTime();
+      this.seriesId = seriesId;
+      this.event = event;
+    }
+  }
+
+  /**
+   * A calendar entry along with the state of the event it has been generated from.
+   */
+  private static final class CachedCalendarEvent {
+    private final String signature;
+    private final VEvent event;
+
+    CachedCalendarEvent(String signature, VEvent event) {
+      this.signature = signature;
+      this.event = event;
+    }
+  }
 }
@@ -42,6 +42,9 @@ import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -322,6 +325,25 @@ public class SchedulerServiceDatabaseImpl implements SchedulerServiceDatabase {
     }
   }
 
+  @Override
+  public List<ExtendedEventDto> getEvents(Collection<String> mediapackageIds)
+      throws SchedulerServiceDatabaseException {
+    if (mediapackageIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final String organization = securityService.getOrganization().getId();
+    try {
+      return db.exec(namedQuery.findAll(
+          "ExtendedEvent.findByIds",
+          ExtendedEventDto.class,
+          Pair.of("org", organization),
+          Pair.of("ids", new ArrayList<>(mediapackageIds))
+      ));
+    } catch (Exception e) {
+      throw new SchedulerServiceDatabaseException(e);
+    }
+  }
+
   @Override
   public Opt<ExtendedEventDto> getEvent(String mediapackageId, String orgId)
       throws SchedulerServiceDatabaseException {
@@ -0,0 +1,140 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.scheduler.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.opencastproject.scheduler.api.Util;
+
+import net.fortuna.ical4j.model.DateTime;
+import net.fortuna.ical4j.model.Period;
+import net.fortuna.ical4j.model.property.RRule;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+public class PeriodIndexTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(PeriodIndexTest.class);
+
+  private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+  private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+  private static Period period(long start, long end) {
+    return new Period(new DateTime(start), new DateTime(end));
+  }
+
+  @Test
+  public void testOverlap() {
+    // Unsorted input must be sorted before looking for overlaps
+    assertFalse(new PeriodIndex(Arrays.asList(period(4 * HOUR, 5 * HOUR), period(HOUR, 2 * HOUR),
+            period(2 * HOUR, 3 * HOUR))).hasOverlap());
+    assertTrue(new PeriodIndex(Arrays.asList(period(4 * HOUR, 5 * HOUR), period(HOUR, 2 * HOUR),
+            period(3 * HOUR, 4 * HOUR + MINUTE))).hasOverlap());
+  }
+
+  @Test
+  public void testConflicts() {
+    final PeriodIndex index = new PeriodIndex(Arrays.asList(period(5 * HOUR, 6 * HOUR), period(HOUR, 2 * HOUR),
+            period(3 * HOUR, 4 * HOUR)));
+    assertEquals(HOUR, index.getStart().getTime());
+    assertEquals(6 * HOUR, index.getEnd().getTime());
+
+    assertFalse(index.conflicts(new Date(0), new Date(HOUR), 0));
+    assertTrue(index.conflicts(new Date(0), new Date(HOUR + 1), 0));
+    assertFalse(index.conflicts(new Date(2 * HOUR), new Date(3 * HOUR), 0));
+    assertTrue(index.conflicts(new Date(2 * HOUR), new Date(3 * HOUR), 1));
+    assertTrue(index.conflicts(new Date(3 * HOUR + 1), new Date(3 * HOUR + 2), 0));
+    assertTrue(index.conflicts(new Date(0), new Date(7 * HOUR), 0));
+    assertFalse(index.conflicts(new Date(6 * HOUR), new Date(7 * HOUR), 0));
+    assertTrue(index.conflicts(new Date(6 * HOUR), new Date(7 * HOUR), 1));
+  }
+
+  /**
+   * Checks a year of daily recurrences against a room which is booked every hour of the day and compares the result
+   * and the time needed with checking every period against every event.
+   */
+  @Test
+  public void testYearOfDailyRecurrencesInBusyRoom() throws Exception {
+    final TimeZone tz = TimeZone.getTimeZone("UTC");
+    final long yearStart = 1704067200000L; // 2024-01-01T00:00:00Z
+    final long yearEnd = yearStart + TimeUnit.DAYS.toMillis(365);
+
+    final RRule rrule = new RRule("FREQ=DAILY;BYHOUR=10;BYMINUTE=0");
+    final List<Period> periods = Util.calculatePeriods(new Date(yearStart), new Date(yearEnd), 50 * MINUTE, rrule,
+            tz);
+
+    // The room is booked every hour from 7:00 to 22:00 for 45 minutes, leaving the 10:00 slot free every other day
+    final List<Date[]> events = new ArrayList<>();
+    for (long day = yearStart; day < yearEnd; day += TimeUnit.DAYS.toMillis(1)) {
+      final boolean free = (day - yearStart) / TimeUnit.DAYS.toMillis(1) % 2 == 1;
+      for (int hour = 7; hour < 22; hour++) {
+        if (hour == 10 && free) {
+          continue;
+        }
+        events.add(new Date[] { new Date(day + hour * HOUR), new Date(day + hour * HOUR + 45 * MINUTE) });
+      }
+    }
+
+    long time = System.nanoTime();
+    final PeriodIndex index = new PeriodIndex(periods);
+    assertFalse(index.hasOverlap());
+    int indexed = 0;
+    for (Date[] event : events) {
+      if (index.conflicts(event[0], event[1], 0)) {
+        indexed++;
+      }
+    }
+    final long indexedTime = System.nanoTime() - time;
+
+    time = System.nanoTime();
+    int naive = 0;
+    for (Date[] event : events) {
+      for (Period period : periods) {
+        if (event[0].before(period.getEnd()) && event[1].after(period.getStart())) {
+          naive++;
+          break;
+        }
+      }
+    }
+    final long naiveTime = System.nanoTime() - time;
+
+    assertEquals(365, periods.size());
+    assertEquals(183, indexed);
+    assertEquals(naive, indexed);
+    logger.info("Checked {} periods against {} events: {} conflicts, indexed {} ms, pairwise {} ms", periods.size(),
+            events.size(), indexed, TimeUnit.NANOSECONDS.toMillis(indexedTime),
+            TimeUnit.NANOSECONDS.toMillis(naiveTime));
+  }
+
+}
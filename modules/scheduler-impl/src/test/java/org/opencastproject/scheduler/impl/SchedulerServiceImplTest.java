@@ -328,6 +328,8 @@ public class SchedulerServiceImplTest {
     schedSvc.addSchedulerUpdateHandler(handler);
 
     schedSvc.lastModifiedCache.invalidateAll();
+    schedSvc.calendarCache.invalidateAll();
+    schedSvc.calendarEventCache.invalidateAll();
   }
 
   @After
@@ -457,6 +459,12 @@ public class SchedulerServiceImplTest {
     assertTrue(technicalMetadata.getRecording().isNone());
     assertTrue(technicalMetadata.getCaptureAgentConfiguration().size() >= caProperties.size());
 
+    Map<String, TechnicalMetadata> technicalMetadataById = schedSvc.getTechnicalMetadata(
+            Arrays.asList(mp.getIdentifier().toString(), "unknown"));
+    assertEquals(1, technicalMetadataById.size());
+    assertEquals(captureDeviceID, technicalMetadataById.get(mp.getIdentifier().toString()).getAgentId());
+    assertEquals(userIds, technicalMetadataById.get(mp.getIdentifier().toString()).getPresenters());
+
     assertEquals(wfProperties, new HashMap<>(schedSvc.getWorkflowConfig(mp.getIdentifier().toString())));
     String lastModified = schedSvc.getScheduleLastModified(captureDeviceID);
     assertNotEquals("mod0", lastModified);
@@ -640,6 +648,62 @@ public class SchedulerServiceImplTest {
     Assert.assertNotNull(response.getEntity());
   }
 
+  @Test
+  public void testCalendarCache() throws Exception {
+    String device = "Test Device";
+    long currentTime = System.currentTimeMillis();
+    Date start = new Date(currentTime + 60000);
+    Date end = new Date(currentTime + 60 * 60 * 1000);
+
+    MediaPackage mediaPackageA = generateEvent(Opt.<String> none());
+    addDublinCore(Opt.<String> none(), mediaPackageA, generateEvent(device, start, end));
+    schedSvc.addEvent(start, end, device, Collections.<String> emptySet(), mediaPackageA, wfProperties,
+            Collections.<String, String> emptyMap(), Opt.<String> none());
+    String idA = mediaPackageA.getIdentifier().toString();
+
+    // An unmodified schedule is served from memory
+    String calendar = schedSvc.getCalendar(Opt.some(device), Opt.<String> none(), Opt.<Date> none());
+    assertTrue(calendar.contains(idA));
+    Object cached = schedSvc.calendarCache.asMap().values().iterator().next();
+    assertEquals(calendar, schedSvc.getCalendar(Opt.some(device), Opt.<String> none(), Opt.<Date> none()));
+    Assert.assertSame(cached, schedSvc.calendarCache.asMap().values().iterator().next());
+    Object entryA = schedSvc.calendarEventCache.getIfPresent(idA);
+    assertNotNull(entryA);
+
+    // Adding an event regenerates the calendar, but not the entries of the other events
+    MediaPackage mediaPackageB = generateEvent(Opt.<String> none());
+    addDublinCore(Opt.<String> none(), mediaPackageB, generateEvent(device, start, end));
+    schedSvc.addEvent(new Date(currentTime + 2 * 60 * 60 * 1000), new Date(currentTime + 3 * 60 * 60 * 1000), device,
+            Collections.<String> emptySet(), mediaPackageB, wfProperties, Collections.<String, String> emptyMap(),
+            Opt.<String> none());
+    String idB = mediaPackageB.getIdentifier().toString();
+    String updatedCalendar = schedSvc.getCalendar(Opt.some(device), Opt.<String> none(), Opt.<Date> none());
+    Assert.assertNotSame(cached, schedSvc.calendarCache.asMap().values().iterator().next());
+    assertTrue(updatedCalendar.contains(idA));
+    assertTrue(updatedCalendar.contains(idB));
+    Assert.assertSame(entryA, schedSvc.calendarEventCache.getIfPresent(idA));
+
+    // Calendars requested with other parameters are filtered from the same entries, even for rolling cutoffs
+    cached = schedSvc.calendarCache.asMap().values().iterator().next();
+    for (int i = 0; i < 3; i++) {
+      String cutoffCalendar = schedSvc.getCalendar(Opt.some(device), Opt.<String> none(),
+              Opt.some(new Date(currentTime + 60 * 60 * 1000 + i)));
+      assertTrue(cutoffCalendar.contains(idA));
+      assertFalse(cutoffCalendar.contains(idB));
+    }
+    Assert.assertSame(cached, schedSvc.calendarCache.asMap().values().iterator().next());
+    assertFalse(schedSvc.getCalendar(Opt.some(device), Opt.some("unknown"), Opt.<Date> none()).contains(idA));
+    assertEquals(updatedCalendar, schedSvc.getCalendar(Opt.some(device), Opt.<String> none(), Opt.<Date> none()));
+
+    // Modifying an event regenerates its entry
+    schedSvc.updateEvent(idA, Opt.<Date> none(), Opt.some(new Date(currentTime + 90 * 60 * 1000)), Opt.<String> none(),
+            Opt.<Set<String>> none(), Opt.<MediaPackage> none(), Opt.some(wfPropertiesUpdated),
+            Opt.<Map<String, String>> none());
+    calendar = schedSvc.getCalendar(Opt.some(device), Opt.<String> none(), Opt.<Date> none());
+    assertNotEquals(updatedCalendar, calendar);
+    Assert.assertNotSame(entryA, schedSvc.calendarEventCache.getIfPresent(idA));
+  }
+
   @Test
   public void testCalendarCutoff() throws Exception {
     long currentTime = System.currentTimeMillis();
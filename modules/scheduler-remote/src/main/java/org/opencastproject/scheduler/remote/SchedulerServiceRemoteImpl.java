@@ -76,6 +76,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -441,6 +442,21 @@ public class SchedulerServiceRemoteImpl extends RemoteBase implements SchedulerS
     throw new SchedulerException("Unable to get the technical metadata from remote scheduler service");
   }
 
+  @Override
+  public Map<String, TechnicalMetadata> getTechnicalMetadata(Collection<String> eventIds)
+          throws UnauthorizedException, SchedulerException {
+    // The scheduler REST endpoint serves single events only
+    final Map<String, TechnicalMetadata> result = new HashMap<>();
+    for (String eventId : eventIds) {
+      try {
+        result.put(eventId, getTechnicalMetadata(eventId));
+      } catch (NotFoundException e) {
+        logger.debug("Event {} not found on remote scheduler service", eventId);
+      }
+    }
+    return result;
+  }
+
   @Override
   public Map<String, String> getWorkflowConfig(String eventId)
           throws NotFoundException, UnauthorizedException, SchedulerException {
@@ -34,6 +34,8 @@ import org.opencastproject.list.api.ListProvidersService;
 import org.opencastproject.list.api.ResourceListQuery;
 import org.opencastproject.list.impl.ResourceListQueryImpl;
 import org.opencastproject.mediapackage.MediaPackage;
+import org.opencastproject.mediapackage.MediaPackageException;
+import org.opencastproject.mediapackage.MediaPackageParser;
 import org.opencastproject.metadata.dublincore.DublinCore;
 import org.opencastproject.metadata.dublincore.DublinCoreCatalog;
 import org.opencastproject.metadata.dublincore.DublinCoreUtil;
@@ -42,22 +44,26 @@ import org.opencastproject.metadata.dublincore.DublinCores;
 import org.opencastproject.search.api.SearchException;
 import org.opencastproject.search.api.SearchResult;
 import org.opencastproject.search.api.SearchService;
+import org.opencastproject.search.impl.persistence.SearchEntity;
 import org.opencastproject.search.impl.persistence.SearchServiceDatabase;
 import org.opencastproject.search.impl.persistence.SearchServiceDatabaseException;
 import org.opencastproject.security.api.AccessControlEntry;
 import org.opencastproject.security.api.AccessControlList;
+import org.opencastproject.security.api.AccessControlParser;
+import org.opencastproject.security.api.AccessControlParsingException;
 import org.opencastproject.security.api.AuthorizationService;
+import org.opencastproject.security.api.Organization;
 import org.opencastproject.security.api.OrganizationDirectoryService;
 import org.opencastproject.security.api.Permissions;
 import org.opencastproject.security.api.Role;
 import org.opencastproject.security.api.SecurityConstants;
 import org.opencastproject.security.api.SecurityService;
 import org.opencastproject.security.api.UnauthorizedException;
+import org.opencastproject.security.api.User;
 import org.opencastproject.security.util.SecurityUtil;
 import org.opencastproject.series.api.SeriesException;
 import org.opencastproject.series.api.SeriesService;
 import org.opencastproject.util.NotFoundException;
-import org.opencastproject.util.data.Tuple;
 import org.opencastproject.workspace.api.Workspace;
 
 import com.google.gson.Gson;
@@ -67,6 +73,12 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.BooleanUtils;
 import org.elasticsearch.ElasticsearchStatusException;
 import org.elasticsearch.action.DocWriteResponse;
+import org.elasticsearch.action.admin.indices.refresh.RefreshRequest;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsRequest;
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
@@ -74,6 +86,7 @@ import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.action.update.UpdateResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.indices.CreateIndexRequest;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
@@ -98,7 +111,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -153,6 +171,22 @@ public final class SearchServiceIndex extends AbstractIndexProducer implements I
 
   private String systemUserName = null;
 
+  /** The number of media packages fetched from the database at once during an index rebuild */
+  private static final int REBUILD_PAGE_SIZE = 250;
+
+  /** The maximum number of documents sent to Elasticsearch in one bulk request during an index rebuild */
+  private static final int REBUILD_BULK_MAX_ACTIONS = 1000;
+
+  /** The maximum estimated size in bytes of a bulk request sent to Elasticsearch during an index rebuild */
+  private static final long REBUILD_BULK_MAX_BYTES = 5 * 1024 * 1024;
+
+  /** The number of threads creating documents during an index rebuild, loading catalogs is mostly I/O bound */
+  private static final int REBUILD_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+  private static final String REFRESH_INTERVAL = "index.refresh_interval";
+
+  private static final String REFRESH_DISABLED = "-1";
+
 
   /**
    * Creates a new instance of the search service index.
@@ -266,11 +300,34 @@ public final class SearchServiceIndex extends AbstractIndexProducer implements I
 
   private void indexMediaPackage(MediaPackage mediaPackage, AccessControlList acl)
           throws SearchException, UnauthorizedException, SearchServiceDatabaseException {
-    indexMediaPackage(mediaPackage, acl, null, null);
+    for (IndexRequest request : createIndexRequests(mediaPackage, acl, null, null, null)) {
+      try {
+        esIndex.getClient().index(request, RequestOptions.DEFAULT);
+        logger.debug("Indexed {}", request.id());
+      } catch (IOException e) {
+        throw new SearchException(e);
+      }
+    }
   }
 
-  private void indexMediaPackage(MediaPackage mediaPackage, AccessControlList acl, Date modDate, Date delDate)
-          throws SearchException, UnauthorizedException, SearchServiceDatabaseException {
+  /**
+   * Creates the requests to index a media package and the series it belongs to.
+   *
+   * @param mediaPackage
+   *          the media package
+   * @param acl
+   *          the access control list of the media package
+   * @param modDate
+   *          the modification date, or <code>null</code> for now
+   * @param delDate
+   *          the deletion date, or <code>null</code> if the media package has not been deleted
+   * @param indexedSeries
+   *          the identifiers of the series which are already being indexed, series in this set are skipped and all
+   *          others are added to it; <code>null</code> to always index the series
+   * @return the index requests for the episode and its series
+   */
+  private List<IndexRequest> createIndexRequests(MediaPackage mediaPackage, AccessControlList acl, Date modDate,
+          Date delDate, Set<String> indexedSeries) throws SearchException, SearchServiceDatabaseException {
     String mediaPackageId = mediaPackage.getIdentifier().toString();
     //If the entry has been deleted then there's *probably* no dc file to load.
     DublinCoreCatalog dc = null == delDate
@@ -281,6 +338,9 @@ public final class SearchServiceIndex extends AbstractIndexProducer implements I
     if (dc.hasValue(DublinCore.PROPERTY_IS_PART_OF)) {
       //Find the series (if any), filter for those which exist to prevent linking non-existent series
       seriesList = dc.get(DublinCore.PROPERTY_IS_PART_OF).stream().map(DublinCoreValue::getValue).map(s -> {
+        if (indexedSeries != null && !indexedSeries.add(s)) {
+          return null;
+        }
         try {
           return seriesService.getSeries(s);
         } catch (NotFoundException e) {
@@ -325,16 +385,8 @@ public final class SearchServiceIndex extends AbstractIndexProducer implements I
     SearchResult item = new SearchResult(SearchService.IndexEntryType.Episode, dc, acl, orgId, mediaPackage,
         null != modDate ? modDate.toInstant() : Instant.now(),
         null != delDate ? delDate.toInstant() : null);
-    Map<String, Object> metadata = item.dehydrateForIndex();
-    try {
-      var request = new IndexRequest(INDEX_NAME);
-      request.id(mediaPackageId);
-      request.source(metadata);
-      esIndex.getClient().index(request, RequestOptions.DEFAULT);
-      logger.debug("Indexed episode {}", mediaPackageId);
-    } catch (IOException e) {
-      throw new SearchException(e);
-    }
+    List<IndexRequest> requests = new ArrayList<>(1 + seriesList.size());
+    requests.add(new IndexRequest(INDEX_NAME).id(mediaPackageId).source(item.dehydrateForIndex()));
 
     // Elasticsearch series
     for (DublinCoreCatalog seriesDc : seriesList) {
@@ -344,17 +396,9 @@ public final class SearchServiceIndex extends AbstractIndexProducer implements I
       item = new SearchResult(SearchService.IndexEntryType.Series, seriesDc, seriesAcl, orgId,
           null, Instant.now(), null);
 
-      Map<String, Object> seriesData = item.dehydrateForIndex();
-      try {
-        var request = new IndexRequest(INDEX_NAME);
-        request.id(seriesId);
-        request.source(seriesData);
-        esIndex.getClient().index(request, RequestOptions.DEFAULT);
-        logger.debug("Indexed series {} related to episode {}", seriesId, mediaPackageId);
-      } catch (IOException e) {
-        throw new SearchException(e);
-      }
+      requests.add(new IndexRequest(INDEX_NAME).id(seriesId).source(item.dehydrateForIndex()));
     }
+    return requests;
   }
 
   private void checkMPWritePermission(final String mediaPackageId) throws SearchException {
@@ -496,48 +540,186 @@ public final class SearchServiceIndex extends AbstractIndexProducer implements I
 
   @Override
   public void repopulate(IndexRebuildService.DataType type) throws IndexRebuildException {
+    final int total;
     try {
-      int total = persistence.countMediaPackages();
-      int pageSize = 50;
-      int pageOffset = 0;
-      AtomicInteger current = new AtomicInteger(1);
-      logIndexRebuildBegin(logger, total, "search");
-      List<Tuple<MediaPackage, String>> page = null;
-
-      do {
-        page = persistence.getAllMediaPackages(pageSize, pageOffset).collect(Collectors.toList());
-        page.forEach(tuple -> {
-          try {
-            MediaPackage mediaPackage = tuple.getA();
-            String mediaPackageId = mediaPackage.getIdentifier().toString();
-
-            AccessControlList acl = persistence.getAccessControlList(mediaPackageId);
-            Date modificationDate = persistence.getModificationDate(mediaPackageId);
-            Date deletionDate = persistence.getDeletionDate(mediaPackageId);
-
-            AccessControlList seriesAcl = persistence.getAccessControlLists(mediaPackage.getSeries(), mediaPackageId)
-                .stream().reduce(new AccessControlList(acl.getEntries()), AccessControlList::mergeActions);
-            logger.debug("Updating series ACL with merged access control list: {}", seriesAcl);
-
-            current.getAndIncrement();
-            indexMediaPackage(mediaPackage, acl, modificationDate, deletionDate);
-          } catch (SearchServiceDatabaseException | UnauthorizedException e) {
-            logIndexRebuildError(logger, total, current.get(), e);
-            //NB: Runtime exception thrown to escape the functional interfacing
-            throw new RuntimeException("Internal Index Rebuild Failure", e);
-          } catch (RuntimeException | NotFoundException e) {
-            logSkippingElement(logger, "event", tuple.getA().getIdentifier().toString(), e);
-          }
-        });
-        //Current is the *page* index, so we remove one since each page only has pageSize entries
-        logIndexRebuildProgress(logger, total, current.get() - 1, pageSize);
-        pageOffset += 1;
-      } while (pageOffset * pageSize <= total);
-      //NB: Catching RuntimeException since it can be thrown inside the functional forEach here
-    } catch (SearchServiceDatabaseException | RuntimeException e) {
+      total = persistence.countMediaPackages();
+    } catch (SearchServiceDatabaseException e) {
       logIndexRebuildError(logger, e);
       throw new IndexRebuildException("Index Rebuild Failure", e);
     }
+    logIndexRebuildBegin(logger, total, "search");
+
+    final Organization organization = securityService.getOrganization();
+    final User user = securityService.getUser();
+    final Set<String> indexedSeries = ConcurrentHashMap.newKeySet();
+    final ExecutorService executor = Executors.newFixedThreadPool(REBUILD_THREADS);
+    final RebuildStatistics statistics = new RebuildStatistics();
+    int current = 0;
+    String refreshInterval = null;
+    boolean refreshDisabled = false;
+    try {
+      // Refreshing the index after every bulk request is not necessary, nobody should rely on a partially rebuilt index
+      refreshInterval = getRefreshInterval();
+      setRefreshInterval(REFRESH_DISABLED);
+      refreshDisabled = true;
+
+      BulkRequest bulk = new BulkRequest();
+      List<SearchEntity> page = persistence.getAllEntities("", REBUILD_PAGE_SIZE);
+      while (!page.isEmpty()) {
+        // Create the documents of this page in parallel while fetching the next page
+        List<Future<List<IndexRequest>>> documents = new ArrayList<>(page.size());
+        for (SearchEntity entity : page) {
+          documents.add(executor.submit(() -> {
+            final List<List<IndexRequest>> requests = new ArrayList<>(1);
+            SecurityUtil.runAs(securityService, organization, user, () -> {
+              requests.add(createRebuildRequests(entity, indexedSeries));
+            });
+            return requests.get(0);
+          }));
+        }
+        String lastMediaPackageId = page.get(page.size() - 1).getMediaPackageId();
+        List<SearchEntity> nextPage = persistence.getAllEntities(lastMediaPackageId, REBUILD_PAGE_SIZE);
+
+        for (Future<List<IndexRequest>> document : documents) {
+          for (IndexRequest request : document.get()) {
+            bulk.add(request);
+          }
+          current++;
+          if (bulk.numberOfActions() >= REBUILD_BULK_MAX_ACTIONS
+                  || bulk.estimatedSizeInBytes() >= REBUILD_BULK_MAX_BYTES) {
+            sendBulkRequest(bulk, statistics);
+            bulk = new BulkRequest();
+          }
+        }
+        logIndexRebuildProgress(logger, total, current, page.size());
+        logger.debug("Search index rebuild: {}", statistics);
+        page = nextPage;
+      }
+      if (bulk.numberOfActions() > 0) {
+        sendBulkRequest(bulk, statistics);
+      }
+      logger.info("Search index rebuild finished: {}", statistics);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logIndexRebuildError(logger, total, current, e);
+      throw new IndexRebuildException("Index Rebuild Interrupted", e);
+    } catch (SearchServiceDatabaseException | IOException | ExecutionException | RuntimeException e) {
+      logIndexRebuildError(logger, total, current, e);
+      throw new IndexRebuildException("Index Rebuild Failure", e);
+    } finally {
+      executor.shutdownNow();
+      if (refreshDisabled) {
+        try {
+          setRefreshInterval(refreshInterval);
+          esIndex.getClient().indices().refresh(new RefreshRequest(INDEX_NAME), RequestOptions.DEFAULT);
+        } catch (IOException | RuntimeException e) {
+          logger.error("Unable to re-enable refreshing the search index, refresh_interval needs to be reset", e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates the index requests for a stored media package during an index rebuild.
+   *
+   * @param entity
+   *          the stored media package
+   * @param indexedSeries
+   *          the identifiers of the series which have already been indexed during the rebuild
+   * @return the index requests, or an empty list if the media package has been skipped
+   */
+  private List<IndexRequest> createRebuildRequests(SearchEntity entity, Set<String> indexedSeries) {
+    final String mediaPackageId = entity.getMediaPackageId();
+    try {
+      MediaPackage mediaPackage = MediaPackageParser.getFromXml(entity.getMediaPackageXML());
+      AccessControlList acl = entity.getAccessControl() == null
+          ? new AccessControlList()
+          : AccessControlParser.parseAcl(entity.getAccessControl());
+      return createIndexRequests(mediaPackage, acl, entity.getModificationDate(), entity.getDeletionDate(),
+          indexedSeries);
+    } catch (SearchServiceDatabaseException e) {
+      //NB: Runtime exception thrown to escape the functional interfacing
+      throw new RuntimeException("Internal Index Rebuild Failure", e);
+    } catch (MediaPackageException | IOException | AccessControlParsingException | RuntimeException e) {
+      logSkippingElement(logger, "event", mediaPackageId, e);
+      return Collections.emptyList();
+    }
+  }
+
+  /**
+   * Sends a bulk request created during an index rebuild. Documents which could not be indexed are logged and skipped.
+   */
+  private void sendBulkRequest(BulkRequest bulk, RebuildStatistics statistics) throws IOException {
+    final long size = bulk.estimatedSizeInBytes();
+    final BulkResponse response = esIndex.getClient().bulk(bulk, RequestOptions.DEFAULT);
+    int failed = 0;
+    if (response.hasFailures()) {
+      for (BulkItemResponse item : response.getItems()) {
+        if (item.isFailed()) {
+          failed++;
+          logger.warn("Unable to index {} during search index rebuild: {}", item.getId(), item.getFailureMessage());
+        }
+      }
+    }
+    statistics.add(bulk.numberOfActions() - failed, failed, size);
+  }
+
+  /**
+   * @return the refresh interval of the search index, or <code>null</code> if it has not been set explicitly
+   */
+  private String getRefreshInterval() throws IOException {
+    GetSettingsRequest request = new GetSettingsRequest().indices(INDEX_NAME).names(REFRESH_INTERVAL);
+    return esIndex.getClient().indices().getSettings(request, RequestOptions.DEFAULT)
+        .getSetting(INDEX_NAME, REFRESH_INTERVAL);
+  }
+
+  /**
+   * Sets the refresh interval of the search index.
+   *
+   * @param refreshInterval
+   *          the refresh interval, or <code>null</code> to reset it to the default
+   */
+  private void setRefreshInterval(String refreshInterval) throws IOException {
+    Settings.Builder settings = refreshInterval == null
+        ? Settings.builder().putNull(REFRESH_INTERVAL)
+        : Settings.builder().put(REFRESH_INTERVAL, refreshInterval);
+    esIndex.getClient().indices().putSettings(new UpdateSettingsRequest(INDEX_NAME).settings(settings),
+        RequestOptions.DEFAULT);
+  }
+
+  /**
+   * Throughput metrics of an index rebuild.
+   */
+  private static final class RebuildStatistics {
+
+    /** The time the rebuild started */
+    private final long started = System.nanoTime();
+
+    /** The number of indexed documents */
+    private long documents = 0;
+
+    /** The number of documents which could not be indexed */
+    private long failures = 0;
+
+    /** The number of sent bulk requests */
+    private long requests = 0;
+
+    /** The estimated size of all sent bulk requests in bytes */
+    private long bytes = 0;
+
+    void add(int indexed, int failed, long size) {
+      documents += indexed;
+      failures += failed;
+      requests++;
+      bytes += size;
+    }
+
+    @Override
+    public String toString() {
+      final long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+      return String.format("%d documents indexed, %d failed, %d bulk requests, %d KiB in %d s, %d documents/s",
+          documents, failures, requests, bytes / 1024, millis / 1000, documents * 1000 / millis);
+    }
   }
 
   @Reference
@@ -51,6 +51,10 @@ import javax.persistence.TemporalType;
 )
 @NamedQueries({
     @NamedQuery(name = "Search.findAll", query = "SELECT s FROM SearchEntity s"),
+    @NamedQuery(
+        name = "Search.findAllAfter",
+        query = "SELECT s FROM SearchEntity s WHERE s.mediaPackageId > :mediaPackageId ORDER BY s.mediaPackageId"
+    ),
     @NamedQuery(name = "Search.getCount", query = "SELECT COUNT(s) FROM SearchEntity s"),
     @NamedQuery(
         name = "Search.findById",
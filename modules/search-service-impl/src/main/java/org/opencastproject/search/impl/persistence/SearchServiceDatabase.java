@@ -32,6 +32,7 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -54,6 +55,21 @@ public interface SearchServiceDatabase {
   Stream<Tuple<MediaPackage, String>> getAllMediaPackages(int pagesize, int offset)
           throws SearchServiceDatabaseException;
 
+  /**
+   * Returns a page of all search entries in persistent storage, ordered by media package identifier. Pages are
+   * selected by the last media package identifier of the previous page instead of an offset, so fetching a page does
+   * not get slower the further the pages are into the result list.
+   *
+   * @param lastMediaPackageId
+   *          the last media package identifier of the previous page, or an empty string for the first page
+   * @param pagesize
+   *          the maximum number of entries to return
+   * @return the entries, including their access control lists and dates
+   * @throws SearchServiceDatabaseException
+   *           if exception occurs
+   */
+  List<SearchEntity> getAllEntities(String lastMediaPackageId, int pagesize) throws SearchServiceDatabaseException;
+
   /**
    * Returns the organization id of the selected media package
    *
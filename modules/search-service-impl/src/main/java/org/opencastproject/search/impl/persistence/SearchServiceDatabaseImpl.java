@@ -253,6 +253,23 @@ public class SearchServiceDatabaseImpl implements SearchServiceDatabase {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.search.impl.persistence.SearchServiceDatabase#getAllEntities(String, int)
+   */
+  @Override
+  public List<SearchEntity> getAllEntities(String lastMediaPackageId, int pagesize)
+          throws SearchServiceDatabaseException {
+    try {
+      return db.exec(namedQuery.findSome("Search.findAllAfter", 0, pagesize, SearchEntity.class,
+          Pair.of("mediaPackageId", lastMediaPackageId)));
+    } catch (Exception e) {
+      logger.error("Could not retrieve episodes after {}: {}", lastMediaPackageId, e.getMessage());
+      throw new SearchServiceDatabaseException(e);
+    }
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -47,8 +47,12 @@ import org.junit.Test;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.component.ComponentContext;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
@@ -133,6 +137,37 @@ public class SearchServicePersistenceTest {
     });
   }
 
+  @Test
+  public void testGetAllEntities() throws Exception {
+    Date modificationDate = new Date();
+    Set<String> stored = new HashSet<>();
+    for (int i = 0; i < 5; i++) {
+      MediaPackage mp = MediaPackageBuilderFactory.newInstance().newMediaPackageBuilder().createNew();
+      searchDatabase.storeMediaPackage(mp, accessControlList, modificationDate);
+      stored.add(mp.getIdentifier().toString());
+    }
+    searchDatabase.deleteMediaPackage(stored.iterator().next(), new Date());
+
+    List<String> fetched = new ArrayList<>();
+    List<SearchEntity> page = searchDatabase.getAllEntities("", 2);
+    while (!page.isEmpty()) {
+      Assert.assertTrue(page.size() <= 2);
+      for (SearchEntity entity : page) {
+        fetched.add(entity.getMediaPackageId());
+        Assert.assertEquals(modificationDate, entity.getModificationDate());
+        Assert.assertNotNull(entity.getAccessControl());
+      }
+      page = searchDatabase.getAllEntities(fetched.get(fetched.size() - 1), 2);
+    }
+
+    // All entries, including deleted ones, are returned exactly once and in order
+    Assert.assertEquals(stored, new HashSet<>(fetched));
+    Assert.assertEquals(stored.size(), fetched.size());
+    List<String> sorted = new ArrayList<>(fetched);
+    Collections.sort(sorted);
+    Assert.assertEquals(sorted, fetched);
+  }
+
   @Test
   public void testUpdateMediaPackage() throws Exception {
     Date now = new Date();
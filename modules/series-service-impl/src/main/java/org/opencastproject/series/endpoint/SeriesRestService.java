@@ -26,6 +26,7 @@ import static javax.servlet.http.HttpServletResponse.SC_CREATED;
 import static javax.servlet.http.HttpServletResponse.SC_FORBIDDEN;
 import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
 import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
+import static javax.servlet.http.HttpServletResponse.SC_NOT_MODIFIED;
 import static javax.servlet.http.HttpServletResponse.SC_NO_CONTENT;
 import static javax.servlet.http.HttpServletResponse.SC_OK;
 import static javax.servlet.http.HttpServletResponse.SC_UNAUTHORIZED;
@@ -52,6 +53,8 @@ import org.opencastproject.series.api.Series;
 import org.opencastproject.series.api.SeriesException;
 import org.opencastproject.series.api.SeriesService;
 import org.opencastproject.systems.OpencastConstants;
+import org.opencastproject.util.Checksum;
+import org.opencastproject.util.ChecksumType;
 import org.opencastproject.util.NotFoundException;
 import org.opencastproject.util.RestUtil.R;
 import org.opencastproject.util.UrlSupport;
@@ -95,6 +98,7 @@ import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.FormParam;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
@@ -102,6 +106,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -273,6 +278,10 @@ public class SeriesRestService {
       },
       responses = {
           @RestResponse(responseCode = SC_OK, description = "The series dublin core."),
+          @RestResponse(
+              responseCode = SC_NOT_MODIFIED,
+              description = "The series dublin core matches the entity tag given in the If-None-Match header."
+          ),
           @RestResponse(responseCode = SC_NOT_FOUND, description = "No series with this identifier was found."),
           @RestResponse(responseCode = SC_FORBIDDEN, description = "You do not have permission to view this series."),
           @RestResponse(
@@ -281,11 +290,12 @@ public class SeriesRestService {
           )
       }
   )
-  public Response getSeriesXml(@PathParam("seriesID") String seriesID) {
+  public Response getSeriesXml(@PathParam("seriesID") String seriesID,
+          @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
     logger.debug("Series Lookup: {}", seriesID);
     try {
       DublinCoreCatalog dc = this.seriesService.getSeries(seriesID);
-      return Response.ok(dc.toXmlString()).build();
+      return versionedResponse(dc.toXmlString(), ifNoneMatch);
     } catch (NotFoundException e) {
       return Response.status(Response.Status.NOT_FOUND).build();
     } catch (UnauthorizedException e) {
@@ -346,11 +356,69 @@ public class SeriesRestService {
       },
       responses = {
           @RestResponse(responseCode = SC_OK, description = "The access control list."),
+          @RestResponse(
+              responseCode = SC_NOT_MODIFIED,
+              description = "The access control list matches the entity tag given in the If-None-Match header."
+          ),
           @RestResponse(responseCode = SC_NOT_FOUND, description = "No series with this identifier was found.")
       }
   )
-  public Response getSeriesAccessControlListXml(@PathParam("seriesID") String seriesID) {
-    return getSeriesAccessControlList(seriesID);
+  public Response getSeriesAccessControlListXml(@PathParam("seriesID") String seriesID,
+          @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+    logger.debug("Series ACL lookup: {}", seriesID);
+    try {
+      AccessControlList acl = seriesService.getSeriesAccessControl(seriesID);
+      if (acl == null) {
+        return Response.ok(acl).build();
+      }
+      return versionedResponse(AccessControlParser.toXml(acl), ifNoneMatch);
+    } catch (NotFoundException e) {
+      return Response.status(NOT_FOUND).build();
+    } catch (SeriesException | IOException e) {
+      logger.error("Could not retrieve series ACL: {}", e.getMessage());
+    }
+    throw new WebApplicationException(INTERNAL_SERVER_ERROR);
+  }
+
+  /**
+   * Builds a response for an XML document tagged with its checksum, so clients can validate their cached copy with an
+   * If-None-Match header instead of downloading and parsing the document again.
+   *
+   * @param xml
+   *          the XML document
+   * @param ifNoneMatch
+   *          the entity tag of the copy cached by the client, may be <code>null</code>
+   * @return the response containing the document or a not modified response if the client's copy is up to date
+   */
+  private static Response versionedResponse(String xml, String ifNoneMatch) throws IOException {
+    final String etag = "\"" + Checksum.create(ChecksumType.DEFAULT_TYPE,
+        IOUtils.toInputStream(xml, StandardCharsets.UTF_8)).getValue() + "\"";
+    if (matchesEntityTag(ifNoneMatch, etag)) {
+      return Response.notModified().header(HttpHeaders.ETAG, etag).build();
+    }
+    return Response.ok(xml).header(HttpHeaders.ETAG, etag).build();
+  }
+
+  /**
+   * Checks an If-None-Match header against an entity tag using the weak comparison of RFC 7232.
+   *
+   * @param ifNoneMatch
+   *          the header value, may be <code>null</code>
+   * @param etag
+   *          the quoted entity tag of the current representation
+   * @return whether the header lists the entity tag or is a wildcard
+   */
+  private static boolean matchesEntityTag(String ifNoneMatch, String etag) {
+    if (StringUtils.isBlank(ifNoneMatch)) {
+      return false;
+    }
+    for (String tag : ifNoneMatch.split(",")) {
+      String candidate = StringUtils.removeStart(tag.trim(), "W/");
+      if ("*".equals(candidate) || etag.equals(candidate)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @GET
@@ -0,0 +1,162 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.series.impl;
+
+import org.opencastproject.metadata.dublincore.DublinCoreCatalog;
+import org.opencastproject.security.api.AccessControlList;
+import org.opencastproject.util.NotFoundException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of parsed series Dublin Core catalogs and access control lists. Entries are invalidated whenever a
+ * series is modified. The cached objects are shared and must not be modified.
+ */
+class SeriesCache implements SeriesCacheMXBean {
+
+  /** Loads a series object from the database */
+  @FunctionalInterface
+  interface Loader<T> {
+    T load() throws NotFoundException, SeriesServiceDatabaseException;
+  }
+
+  /** Separates the organization from the series identifier in the cache keys */
+  private static final String SEPARATOR = "\n";
+
+  private final Cache<String, DublinCoreCatalog> catalogs;
+
+  /** The access control lists, empty if the series has no access control list */
+  private final Cache<String, Optional<AccessControlList>> acls;
+
+  /** Incremented on every invalidation, so objects loaded concurrently to a modification are not cached */
+  private final AtomicLong generation = new AtomicLong();
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Creates a cache holding at most the given number of catalogs and access control lists each.
+   *
+   * @param size
+   *          the maximum number of cached objects of each type, zero to disable caching
+   */
+  SeriesCache(long size) {
+    catalogs = CacheBuilder.newBuilder().maximumSize(size).build();
+    acls = CacheBuilder.newBuilder().maximumSize(size).build();
+  }
+
+  /**
+   * Gets the Dublin Core catalog of a series from the cache or loads it.
+   *
+   * @param organization
+   *          the organization of the series
+   * @param seriesId
+   *          the series identifier
+   * @param loader
+   *          loads the catalog if it is not cached
+   * @return the shared catalog
+   */
+  DublinCoreCatalog getCatalog(String organization, String seriesId, Loader<DublinCoreCatalog> loader)
+          throws NotFoundException, SeriesServiceDatabaseException {
+    return get(catalogs, organization + SEPARATOR + seriesId, loader);
+  }
+
+  /**
+   * Gets the access control list of a series from the cache or loads it.
+   *
+   * @param organization
+   *          the organization of the series
+   * @param seriesId
+   *          the series identifier
+   * @param loader
+   *          loads the access control list if it is not cached
+   * @return the shared access control list or <code>null</code> if the series has no access control list
+   */
+  AccessControlList getAccessControl(String organization, String seriesId, Loader<AccessControlList> loader)
+          throws NotFoundException, SeriesServiceDatabaseException {
+    return get(acls, organization + SEPARATOR + seriesId, () -> Optional.ofNullable(loader.load())).orElse(null);
+  }
+
+  private <T> T get(Cache<String, T> cache, String key, Loader<T> loader)
+          throws NotFoundException, SeriesServiceDatabaseException {
+    T value = cache.getIfPresent(key);
+    if (value != null) {
+      hits.incrementAndGet();
+      return value;
+    }
+    misses.incrementAndGet();
+    final long loadGeneration = generation.get();
+    value = loader.load();
+    cache.put(key, value);
+    // Drop the value again if the series was modified while loading it
+    if (generation.get() != loadGeneration) {
+      cache.invalidate(key);
+    }
+    return value;
+  }
+
+  /**
+   * Removes the catalog and the access control list of a series from the cache.
+   *
+   * @param organization
+   *          the organization of the series
+   * @param seriesId
+   *          the series identifier
+   */
+  void invalidate(String organization, String seriesId) {
+    generation.incrementAndGet();
+    final String key = organization + SEPARATOR + seriesId;
+    catalogs.invalidate(key);
+    acls.invalidate(key);
+  }
+
+  @Override
+  public long getCacheHits() {
+    return hits.get();
+  }
+
+  @Override
+  public long getCacheMisses() {
+    return misses.get();
+  }
+
+  @Override
+  public float getCacheHitRatio() {
+    final long hitCount = hits.get();
+    final long requests = hitCount + misses.get();
+    if (requests == 0) {
+      return 0;
+    }
+    return (float) hitCount / requests;
+  }
+
+  @Override
+  public long getCacheSize() {
+    return catalogs.size() + acls.size();
+  }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.series.impl;
+
+/**
+ * Statistics of the cache of parsed series Dublin Core catalogs and access control lists.
+ */
+public interface SeriesCacheMXBean {
+
+  /**
+   * Gets the number of requests served from the cache
+   *
+   * @return the number of cache hits
+   */
+  long getCacheHits();
+
+  /**
+   * Gets the number of requests which had to load and parse the series from the database
+   *
+   * @return the number of cache misses
+   */
+  long getCacheMisses();
+
+  /**
+   * Gets the ratio of requests served from the cache
+   *
+   * @return the cache hit ratio
+   */
+  float getCacheHitRatio();
+
+  /**
+   * Gets the number of cached catalogs and access control lists
+   *
+   * @return the number of cache entries
+   */
+  long getCacheSize();
+
+}
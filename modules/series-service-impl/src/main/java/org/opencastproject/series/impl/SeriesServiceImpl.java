@@ -60,6 +60,7 @@ import org.opencastproject.series.api.SeriesService;
 import org.opencastproject.series.impl.persistence.SeriesEntity;
 import org.opencastproject.util.NotFoundException;
 import org.opencastproject.util.data.Option;
+import org.opencastproject.util.jmx.JmxUtil;
 
 import com.entwinemedia.fn.data.Opt;
 
@@ -68,6 +69,7 @@ import org.json.simple.parser.ParseException;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
@@ -83,11 +85,13 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
 
+import javax.management.ObjectInstance;
 import javax.xml.parsers.ParserConfigurationException;
 
 /**
@@ -108,6 +112,15 @@ public class SeriesServiceImpl extends AbstractIndexProducer implements SeriesSe
 
   private static final String THEME_PROPERTY_NAME = "theme";
 
+  /** Configuration key for the maximum number of cached series catalogs and access control lists */
+  private static final String CACHE_SIZE_KEY = "cache.size";
+
+  /** The default maximum number of cached series catalogs and access control lists */
+  private static final long DEFAULT_CACHE_SIZE = 1000;
+
+  /** The JMX type of the cache statistics */
+  private static final String JMX_CACHE_TYPE = "SeriesCache";
+
   /** Persistent storage */
   protected SeriesServiceDatabase persistence;
 
@@ -127,6 +140,12 @@ public class SeriesServiceImpl extends AbstractIndexProducer implements SeriesSe
 
   private ArrayList<SeriesUpdateHandler> updateHandlers = new ArrayList<>();
 
+  /** The cache of parsed series catalogs and access control lists */
+  private SeriesCache cache = new SeriesCache(DEFAULT_CACHE_SIZE);
+
+  /** The registered cache statistics */
+  private ObjectInstance cacheMXBean = null;
+
   /** OSGi callback for setting persistance. */
   @Reference
   public void setPersistence(SeriesServiceDatabase persistence) {
@@ -179,6 +198,28 @@ public class SeriesServiceImpl extends AbstractIndexProducer implements SeriesSe
   public void activate(ComponentContext cc) throws Exception {
     logger.info("Activating Series Service");
     systemUserName = cc.getBundleContext().getProperty(SecurityUtil.PROPERTY_KEY_SYS_USER);
+
+    long cacheSize = DEFAULT_CACHE_SIZE;
+    final String cacheSizeOption = cc.getProperties() == null ? null
+        : StringUtils.trimToNull(Objects.toString(cc.getProperties().get(CACHE_SIZE_KEY), null));
+    if (cacheSizeOption != null) {
+      try {
+        cacheSize = Math.max(0, Long.parseLong(cacheSizeOption));
+      } catch (NumberFormatException e) {
+        logger.warn("Invalid value set for series cache size, defaulting to {}", DEFAULT_CACHE_SIZE);
+      }
+    }
+    cache = new SeriesCache(cacheSize);
+    cacheMXBean = JmxUtil.registerMXBean(cache, JMX_CACHE_TYPE);
+    logger.debug("Series cache size set to {}", cacheSize);
+  }
+
+  @Deactivate
+  public void deactivate() {
+    if (cacheMXBean != null) {
+      JmxUtil.unregisterMXBean(cacheMXBean);
+      cacheMXBean = null;
+    }
   }
 
   @Override
@@ -304,7 +345,10 @@ public class SeriesServiceImpl extends AbstractIndexProducer implements SeriesSe
   @Override
   public DublinCoreCatalog getSeries(String seriesID) throws SeriesException, NotFoundException {
     try {
-      return persistence.getSeries(seriesID);
+      final String organization = securityService.getOrganization().getId();
+      // Cached catalogs are shared, so hand out a copy the caller may modify
+      return (DublinCoreCatalog) cache.getCatalog(organization, seriesID, () -> persistence.getSeries(seriesID))
+          .clone();
     } catch (SeriesServiceDatabaseException e) {
       logger.error("Failed to execute search query: {}", e.getMessage());
       throw new SeriesException(e);
@@ -331,7 +375,11 @@ public class SeriesServiceImpl extends AbstractIndexProducer implements SeriesSe
 
   public AccessControlList getSeriesAccessControl(String seriesID) throws NotFoundException, SeriesException {
     try {
-      return persistence.getAccessControlList(seriesID);
+      final String organization = securityService.getOrganization().getId();
+      final AccessControlList acl = cache.getAccessControl(organization, seriesID,
+          () -> persistence.getAccessControlList(seriesID));
+      // Cached access control lists are shared, so hand out a copy the caller may modify
+      return acl == null ? null : new AccessControlList(acl.getEntries());
     } catch (SeriesServiceDatabaseException e) {
       throw new SeriesException("Failed to execute search query", e);
     }
@@ -590,6 +638,8 @@ public class SeriesServiceImpl extends AbstractIndexProducer implements SeriesSe
   }
 
   private void triggerEventHandlers(SeriesItem item) {
+    // Every modification of a series is announced here, so this is where cached copies become stale
+    cache.invalidate(securityService.getOrganization().getId(), item.getSeriesId());
     while (updateHandlers.size() != 1) {
       logger.warn("Expecting 1 handler, but {} are registered.  Waiting 10s then retrying...", updateHandlers.size());
       try {
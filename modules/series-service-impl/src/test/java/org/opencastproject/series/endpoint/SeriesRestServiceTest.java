@@ -0,0 +1,132 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.series.endpoint;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.opencastproject.metadata.dublincore.DublinCoreCatalog;
+import org.opencastproject.metadata.dublincore.DublinCores;
+import org.opencastproject.security.api.AccessControlEntry;
+import org.opencastproject.security.api.AccessControlList;
+import org.opencastproject.series.api.SeriesService;
+
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStream;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+/**
+ * Tests the conditional requests of the series REST endpoint.
+ */
+public class SeriesRestServiceTest {
+
+  private static final String SERIES_ID = "10.0000/1";
+
+  private SeriesRestService restService;
+
+  @Before
+  public void setUp() throws Exception {
+    DublinCoreCatalog catalog;
+    try (InputStream in = getClass().getResourceAsStream("/dublincore.xml")) {
+      catalog = DublinCores.read(in);
+    }
+    AccessControlList acl = new AccessControlList(new AccessControlEntry("ROLE_ADMIN", "read", true));
+
+    SeriesService seriesService = EasyMock.createNiceMock(SeriesService.class);
+    EasyMock.expect(seriesService.getSeries(SERIES_ID)).andReturn(catalog).anyTimes();
+    EasyMock.expect(seriesService.getSeriesAccessControl(SERIES_ID)).andReturn(acl).anyTimes();
+    EasyMock.replay(seriesService);
+
+    restService = new SeriesRestService();
+    restService.setService(seriesService);
+  }
+
+  @Test
+  public void testEntityTagIsQuoted() {
+    Response response = restService.getSeriesXml(SERIES_ID, null);
+    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+    String etag = getEntityTag(response);
+    assertTrue(etag.matches("\"[0-9a-f]+\""));
+    assertNotNull(response.getEntity());
+  }
+
+  @Test
+  public void testMatchingEntityTagIsNotModified() {
+    String etag = getEntityTag(restService.getSeriesXml(SERIES_ID, null));
+
+    Response response = restService.getSeriesXml(SERIES_ID, etag);
+    assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+    assertEquals(etag, getEntityTag(response));
+    assertNull(response.getEntity());
+  }
+
+  @Test
+  public void testEntityTagListAndWeakTagsAreMatched() {
+    String etag = getEntityTag(restService.getSeriesXml(SERIES_ID, null));
+
+    assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(),
+        restService.getSeriesXml(SERIES_ID, "\"other\", " + etag).getStatus());
+    assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(),
+        restService.getSeriesXml(SERIES_ID, "W/" + etag).getStatus());
+    assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(),
+        restService.getSeriesXml(SERIES_ID, "*").getStatus());
+  }
+
+  @Test
+  public void testStaleEntityTagReturnsDocument() {
+    String etag = getEntityTag(restService.getSeriesXml(SERIES_ID, null));
+
+    Response response = restService.getSeriesXml(SERIES_ID, "\"stale\"");
+    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+    assertEquals(etag, getEntityTag(response));
+    assertNotNull(response.getEntity());
+
+    // The bare checksum is not a valid entity tag and must not match
+    String unquoted = etag.substring(1, etag.length() - 1);
+    assertEquals(Response.Status.OK.getStatusCode(), restService.getSeriesXml(SERIES_ID, unquoted).getStatus());
+  }
+
+  @Test
+  public void testAccessControlListIsVersioned() {
+    Response response = restService.getSeriesAccessControlListXml(SERIES_ID, null);
+    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+    String etag = getEntityTag(response);
+    assertTrue(etag.matches("\"[0-9a-f]+\""));
+
+    response = restService.getSeriesAccessControlListXml(SERIES_ID, etag);
+    assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+    assertEquals(etag, getEntityTag(response));
+  }
+
+  private static String getEntityTag(Response response) {
+    Object etag = response.getMetadata().getFirst(HttpHeaders.ETAG);
+    assertNotNull(etag);
+    return etag.toString();
+  }
+
+}
@@ -224,6 +224,24 @@ public class SeriesServiceImplTest {
     Assert.assertEquals("student", acl.get(0).getRole());
   }
 
+  @Test
+  public void testCachedSeries() throws Exception {
+    final String seriesId = testCatalog.getFirst(DublinCore.PROPERTY_IDENTIFIER);
+    testCatalog.set(DublinCore.PROPERTY_TITLE, "Cached title");
+    seriesService.updateSeries(testCatalog);
+    seriesService.updateAccessControl(seriesId, new AccessControlList(new AccessControlEntry("admin", "read", true)));
+
+    // Modifying returned objects must not affect the cached series
+    seriesService.getSeries(seriesId).set(DublinCore.PROPERTY_TITLE, "Modified title");
+    seriesService.getSeriesAccessControl(seriesId).getEntries().clear();
+    Assert.assertEquals("Cached title", seriesService.getSeries(seriesId).getFirst(DublinCore.PROPERTY_TITLE));
+    Assert.assertEquals(1, seriesService.getSeriesAccessControl(seriesId).getEntries().size());
+
+    // Updates invalidate the cached series
+    seriesService.updateAccessControl(seriesId, new AccessControlList(new AccessControlEntry("student", "read", true)));
+    Assert.assertEquals("student", seriesService.getSeriesAccessControl(seriesId).getEntries().get(0).getRole());
+  }
+
   @Test
   public void testDublinCoreCatalogEquality1() {
     DublinCoreCatalog a = DublinCores.mkOpencast().getCatalog();
@@ -0,0 +1,184 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.series.remote;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of series objects fetched from the remote series service. Every object is stored with the entity tag
+ * the remote service sent along, so an outdated copy can be detected with a conditional request. Copies validated
+ * within the validation interval are used without asking the remote service at all. The cached objects are shared and
+ * must not be modified.
+ *
+ * @param <T>
+ *          the type of the cached objects
+ */
+class SeriesRemoteCache<T> implements SeriesRemoteCacheMXBean {
+
+  /** A cached object with its entity tag */
+  static final class Entry<T> {
+    private final T value;
+    private final String etag;
+    private volatile long validated;
+
+    private Entry(T value, String etag, long validated) {
+      this.value = value;
+      this.etag = etag;
+      this.validated = validated;
+    }
+
+    T getValue() {
+      return value;
+    }
+
+    String getEtag() {
+      return etag;
+    }
+  }
+
+  private final Cache<String, Entry<T>> cache;
+
+  /** The time in milliseconds a validated copy is used without asking the remote service */
+  private final long validationInterval;
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong notModified = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Creates a cache holding at most the given number of objects.
+   *
+   * @param size
+   *          the maximum number of cached objects, zero to disable caching
+   * @param validationInterval
+   *          the time in milliseconds a validated copy is used without asking the remote service
+   */
+  SeriesRemoteCache(long size, long validationInterval) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(size).build();
+    this.validationInterval = validationInterval;
+  }
+
+  /**
+   * Gets a cached copy.
+   *
+   * @param key
+   *          the cache key
+   * @return the cached copy or <code>null</code> if the object is not cached
+   */
+  Entry<T> get(String key) {
+    return cache.getIfPresent(key);
+  }
+
+  /**
+   * Returns the value of a cached copy if it has been validated recently enough to use it without asking the remote
+   * service, and counts a saved remote call in that case.
+   *
+   * @param entry
+   *          the cached copy, may be <code>null</code>
+   * @return the cached value or <code>null</code> if the copy needs to be validated
+   */
+  T getIfFresh(Entry<T> entry) {
+    if (entry == null || System.currentTimeMillis() - entry.validated >= validationInterval) {
+      return null;
+    }
+    hits.incrementAndGet();
+    return entry.value;
+  }
+
+  /**
+   * Marks a cached copy as confirmed to be up to date by the remote service.
+   *
+   * @param entry
+   *          the cached copy
+   * @return the cached value
+   */
+  T validated(Entry<T> entry) {
+    notModified.incrementAndGet();
+    entry.validated = System.currentTimeMillis();
+    return entry.value;
+  }
+
+  /**
+   * Adds an object downloaded from the remote service.
+   *
+   * @param key
+   *          the cache key
+   * @param value
+   *          the parsed object
+   * @param etag
+   *          the entity tag sent by the remote service, may be <code>null</code> if it did not send one
+   */
+  void put(String key, T value, String etag) {
+    misses.incrementAndGet();
+    if (etag == null) {
+      cache.invalidate(key);
+    } else {
+      cache.put(key, new Entry<>(value, etag, System.currentTimeMillis()));
+    }
+  }
+
+  /**
+   * Removes an object, e.g. because it was modified through this node.
+   *
+   * @param key
+   *          the cache key
+   */
+  void invalidate(String key) {
+    cache.invalidate(key);
+  }
+
+  @Override
+  public long getRemoteCallsSaved() {
+    return hits.get();
+  }
+
+  @Override
+  public long getNotModifiedResponses() {
+    return notModified.get();
+  }
+
+  @Override
+  public long getCacheMisses() {
+    return misses.get();
+  }
+
+  @Override
+  public float getCacheHitRatio() {
+    final long hitCount = hits.get() + notModified.get();
+    final long requests = hitCount + misses.get();
+    if (requests == 0) {
+      return 0;
+    }
+    return (float) hitCount / requests;
+  }
+
+  @Override
+  public long getCacheSize() {
+    return cache.size();
+  }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.series.remote;
+
+/**
+ * Statistics of a cache of series objects fetched from the remote series service.
+ */
+public interface SeriesRemoteCacheMXBean {
+
+  /**
+   * Gets the number of requests served from the cache without asking the remote series service
+   *
+   * @return the number of saved remote calls
+   */
+  long getRemoteCallsSaved();
+
+  /**
+   * Gets the number of requests for which the remote series service confirmed that the cached copy is up to date
+   *
+   * @return the number of not modified responses
+   */
+  long getNotModifiedResponses();
+
+  /**
+   * Gets the number of requests which had to download and parse the object from the remote series service
+   *
+   * @return the number of cache misses
+   */
+  long getCacheMisses();
+
+  /**
+   * Gets the ratio of requests served from the cache, with or without validating the cached copy
+   *
+   * @return the cache hit ratio
+   */
+  float getCacheHitRatio();
+
+  /**
+   * Gets the number of cached objects
+   *
+   * @return the number of cache entries
+   */
+  long getCacheSize();
+
+}
@@ -30,6 +30,7 @@ import static org.apache.http.HttpStatus.SC_BAD_REQUEST;
 import static org.apache.http.HttpStatus.SC_CREATED;
 import static org.apache.http.HttpStatus.SC_INTERNAL_SERVER_ERROR;
 import static org.apache.http.HttpStatus.SC_NOT_FOUND;
+import static org.apache.http.HttpStatus.SC_NOT_MODIFIED;
 import static org.apache.http.HttpStatus.SC_NO_CONTENT;
 import static org.apache.http.HttpStatus.SC_UNAUTHORIZED;
 
@@ -38,6 +39,7 @@ import org.opencastproject.metadata.dublincore.DublinCoreCatalog;
 import org.opencastproject.metadata.dublincore.DublinCores;
 import org.opencastproject.security.api.AccessControlList;
 import org.opencastproject.security.api.AccessControlParser;
+import org.opencastproject.security.api.SecurityService;
 import org.opencastproject.security.api.TrustedHttpClient;
 import org.opencastproject.security.api.UnauthorizedException;
 import org.opencastproject.series.api.Series;
@@ -47,12 +49,15 @@ import org.opencastproject.serviceregistry.api.RemoteBase;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.util.NotFoundException;
 import org.opencastproject.util.doc.rest.RestService;
+import org.opencastproject.util.jmx.JmxUtil;
 
 import com.entwinemedia.fn.data.Opt;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
@@ -67,7 +72,10 @@ import org.apache.http.message.BasicNameValuePair;
 import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONObject;
 import org.json.simple.parser.JSONParser;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,9 +91,11 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeMap;
 
+import javax.management.ObjectInstance;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
@@ -130,10 +140,86 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
   private static final Gson gson = new Gson();
   private static final Type seriesListType = new TypeToken<ArrayList<Series>>() { }.getType();
 
+  /** Configuration key for the maximum number of cached series catalogs and access control lists each */
+  private static final String CACHE_SIZE_KEY = "cache.size";
+
+  /** Configuration key for the time in seconds a validated series object is used without asking the series service */
+  private static final String CACHE_VALIDATION_INTERVAL_KEY = "cache.validation.interval";
+
+  private static final long DEFAULT_CACHE_SIZE = 1000;
+
+  private static final long DEFAULT_CACHE_VALIDATION_INTERVAL = 5;
+
+  /** Separates the organization from the series identifier in the cache keys */
+  private static final String CACHE_KEY_SEPARATOR = "\n";
+
+  /** The security service */
+  private SecurityService securityService;
+
+  /** The cached series catalogs */
+  private SeriesRemoteCache<DublinCoreCatalog> catalogCache = new SeriesRemoteCache<>(DEFAULT_CACHE_SIZE,
+      DEFAULT_CACHE_VALIDATION_INTERVAL * 1000);
+
+  /** The cached series access control lists */
+  private SeriesRemoteCache<AccessControlList> aclCache = new SeriesRemoteCache<>(DEFAULT_CACHE_SIZE,
+      DEFAULT_CACHE_VALIDATION_INTERVAL * 1000);
+
+  /** The registered cache statistics */
+  private final List<ObjectInstance> cacheMXBeans = new ArrayList<>();
+
+  /** Parses a series object from a response of the remote series service */
+  @FunctionalInterface
+  private interface ResponseParser<T> {
+    T parse(HttpResponse response) throws Exception;
+  }
+
   public SeriesServiceRemoteImpl() {
     super(JOB_TYPE);
   }
 
+  @Activate
+  public void activate(ComponentContext cc) {
+    long size = DEFAULT_CACHE_SIZE;
+    long validationInterval = DEFAULT_CACHE_VALIDATION_INTERVAL;
+    if (cc != null && cc.getProperties() != null) {
+      try {
+        size = Long.parseLong(Objects.toString(cc.getProperties().get(CACHE_SIZE_KEY), Long.toString(size)).trim());
+        validationInterval = Long.parseLong(Objects.toString(cc.getProperties().get(CACHE_VALIDATION_INTERVAL_KEY),
+            Long.toString(validationInterval)).trim());
+      } catch (NumberFormatException e) {
+        logger.warn("Invalid series cache configuration, using a size of {} and a validation interval of {}s",
+            DEFAULT_CACHE_SIZE, DEFAULT_CACHE_VALIDATION_INTERVAL);
+        size = DEFAULT_CACHE_SIZE;
+        validationInterval = DEFAULT_CACHE_VALIDATION_INTERVAL;
+      }
+    }
+    catalogCache = new SeriesRemoteCache<>(Math.max(0, size), validationInterval * 1000);
+    aclCache = new SeriesRemoteCache<>(Math.max(0, size), validationInterval * 1000);
+    cacheMXBeans.add(JmxUtil.registerMXBean(catalogCache, "SeriesRemoteCatalogCache"));
+    cacheMXBeans.add(JmxUtil.registerMXBean(aclCache, "SeriesRemoteAclCache"));
+    logger.debug("Caching up to {} series objects, validating them after {}s", size, validationInterval);
+  }
+
+  @Deactivate
+  public void deactivate() {
+    for (ObjectInstance mxbean : cacheMXBeans) {
+      if (mxbean != null) {
+        JmxUtil.unregisterMXBean(mxbean);
+      }
+    }
+    cacheMXBeans.clear();
+  }
+
+  /**
+   * Sets the security service
+   *
+   * @param securityService
+   */
+  @Reference
+  public void setSecurityService(SecurityService securityService) {
+    this.securityService = securityService;
+  }
+
   /**
    * Sets the trusted http client
    *
@@ -159,6 +245,9 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
   @Override
   public DublinCoreCatalog updateSeries(DublinCoreCatalog dc) throws SeriesException, UnauthorizedException {
     String seriesId = dc.getFirst(DublinCore.PROPERTY_IDENTIFIER);
+    if (seriesId != null) {
+      catalogCache.invalidate(cacheKey(seriesId));
+    }
 
     HttpPost post = new HttpPost("/");
     try {
@@ -203,6 +292,7 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
   @Override
   public boolean updateAccessControl(String seriesID, AccessControlList accessControl, boolean overrideEpisodeAcl)
           throws NotFoundException, SeriesException, UnauthorizedException {
+    aclCache.invalidate(cacheKey(seriesID));
     HttpPost post = new HttpPost(seriesID + "/accesscontrol");
     try {
       List<BasicNameValuePair> params = new ArrayList<>();
@@ -238,6 +328,8 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
 
   @Override
   public void deleteSeries(String seriesID) throws SeriesException, NotFoundException, UnauthorizedException {
+    catalogCache.invalidate(cacheKey(seriesID));
+    aclCache.invalidate(cacheKey(seriesID));
     HttpDelete del = new HttpDelete(seriesID);
     HttpResponse response = getResponse(del, SC_OK, SC_NOT_FOUND, SC_UNAUTHORIZED);
     try {
@@ -294,18 +386,27 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
 
   @Override
   public DublinCoreCatalog getSeries(String seriesID) throws SeriesException, NotFoundException, UnauthorizedException {
+    final String key = cacheKey(seriesID);
+    final SeriesRemoteCache.Entry<DublinCoreCatalog> cached = catalogCache.get(key);
+    DublinCoreCatalog dublinCoreCatalog = catalogCache.getIfFresh(cached);
+    if (dublinCoreCatalog != null) {
+      // Cached catalogs are shared, so hand out a copy the caller may modify
+      return (DublinCoreCatalog) dublinCoreCatalog.clone();
+    }
     HttpGet get = new HttpGet(seriesID + ".xml");
-    HttpResponse response = getResponse(get, SC_OK, SC_NOT_FOUND, SC_UNAUTHORIZED);
+    HttpResponse response = getConditionalResponse(get, cached, SC_UNAUTHORIZED);
     try {
       if (response != null) {
         if (SC_NOT_FOUND == response.getStatusLine().getStatusCode()) {
+          catalogCache.invalidate(key);
           throw new NotFoundException("Series " + seriesID + " not found in remote series index!");
         } else if (SC_UNAUTHORIZED == response.getStatusLine().getStatusCode()) {
           throw new UnauthorizedException("Not authorized to get series " + seriesID);
         } else {
-          DublinCoreCatalog dublinCoreCatalog = DublinCores.read(response.getEntity().getContent());
+          dublinCoreCatalog = readCached(catalogCache, key, cached, response,
+              r -> DublinCores.read(r.getEntity().getContent()));
           logger.debug("Successfully received series {} from the remote series index", seriesID);
-          return dublinCoreCatalog;
+          return (DublinCoreCatalog) dublinCoreCatalog.clone();
         }
       }
     } catch (UnauthorizedException e) {
@@ -361,16 +462,25 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
 
   @Override
   public AccessControlList getSeriesAccessControl(String seriesID) throws NotFoundException, SeriesException {
+    final String key = cacheKey(seriesID);
+    final SeriesRemoteCache.Entry<AccessControlList> cached = aclCache.get(key);
+    AccessControlList acl = aclCache.getIfFresh(cached);
+    if (acl != null) {
+      // Cached access control lists are shared, so hand out a copy the caller may modify
+      return new AccessControlList(acl.getEntries());
+    }
     HttpGet get = new HttpGet(seriesID + "/acl.xml");
-    HttpResponse response = getResponse(get, SC_OK, SC_NOT_FOUND);
+    HttpResponse response = getConditionalResponse(get, cached);
     try {
       if (response != null) {
         if (SC_NOT_FOUND == response.getStatusLine().getStatusCode()) {
+          aclCache.invalidate(key);
           throw new NotFoundException("Series ACL " + seriesID + " not found on remote series index!");
         } else {
-          AccessControlList acl = AccessControlParser.parseAcl(response.getEntity().getContent());
+          acl = readCached(aclCache, key, cached, response,
+              r -> AccessControlParser.parseAcl(r.getEntity().getContent()));
           logger.info("Successfully get series ACL {} from the remote series index", seriesID);
-          return acl;
+          return new AccessControlList(acl.getEntries());
         }
       }
     } catch (NotFoundException e) {
@@ -383,6 +493,59 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
     throw new SeriesException("Unable to get series ACL from remote series index");
   }
 
+  /**
+   * Sends a request for a series object, asking the remote service to omit the object if the cached copy is up to date.
+   *
+   * @param get
+   *          the request
+   * @param cached
+   *          the cached copy, may be <code>null</code>
+   * @param expectedHttpStatus
+   *          further expected status codes besides ok, not modified and not found
+   * @return the response
+   */
+  private HttpResponse getConditionalResponse(HttpGet get, SeriesRemoteCache.Entry<?> cached,
+          Integer... expectedHttpStatus) {
+    if (cached != null) {
+      get.setHeader(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+    }
+    List<Integer> statuses = new ArrayList<>(List.of(SC_OK, SC_NOT_MODIFIED, SC_NOT_FOUND));
+    statuses.addAll(List.of(expectedHttpStatus));
+    return getResponse(get, statuses.toArray(new Integer[0]));
+  }
+
+  /**
+   * Gets a series object from a successful response, using the cached copy if the remote service confirmed it is up
+   * to date.
+   *
+   * @param cache
+   *          the cache to update
+   * @param key
+   *          the cache key
+   * @param cached
+   *          the cached copy sent for validation, may be <code>null</code>
+   * @param response
+   *          the response of the remote service
+   * @param parser
+   *          parses the object from the response
+   * @return the shared series object
+   */
+  private <T> T readCached(SeriesRemoteCache<T> cache, String key, SeriesRemoteCache.Entry<T> cached,
+          HttpResponse response, ResponseParser<T> parser) throws Exception {
+    if (cached != null && SC_NOT_MODIFIED == response.getStatusLine().getStatusCode()) {
+      return cache.validated(cached);
+    }
+    T value = parser.parse(response);
+    Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+    cache.put(key, value, etag == null ? null : etag.getValue());
+    return value;
+  }
+
+  /** Gets the cache key of a series of the current organization. */
+  private String cacheKey(String seriesID) {
+    return securityService.getOrganization().getId() + CACHE_KEY_SEPARATOR + seriesID;
+  }
+
   @Override
   public int getSeriesCount() throws SeriesException {
     HttpGet get = new HttpGet("/count");
@@ -0,0 +1,281 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.series.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import org.opencastproject.metadata.dublincore.DublinCore;
+import org.opencastproject.metadata.dublincore.DublinCoreCatalog;
+import org.opencastproject.metadata.dublincore.DublinCores;
+import org.opencastproject.security.api.AccessControlEntry;
+import org.opencastproject.security.api.AccessControlList;
+import org.opencastproject.security.api.AccessControlParser;
+import org.opencastproject.security.api.DefaultOrganization;
+import org.opencastproject.security.api.SecurityService;
+import org.opencastproject.security.api.TrustedHttpClient;
+import org.opencastproject.serviceregistry.api.ServiceRegistration;
+import org.opencastproject.serviceregistry.api.ServiceRegistry;
+import org.opencastproject.util.NotFoundException;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.service.component.ComponentContext;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.List;
+
+/**
+ * Tests the revalidation of the series objects cached by the remote series service.
+ */
+public class SeriesServiceRemoteImplTest {
+
+  private static final String SERIES_ID = "10.0000/5819";
+
+  private static final String ETAG = "\"d41d8cd98f00b204e9800998ecf8427e\"";
+
+  private static final String OTHER_ETAG = "\"9e107d9d372bb6826bd81d3542a419d6\"";
+
+  /** The responses the remote series service sends, in order */
+  private final Deque<HttpResponse> responses = new ArrayDeque<>();
+
+  /** The requests sent to the remote series service */
+  private final List<HttpUriRequest> requests = new ArrayList<>();
+
+  private SeriesServiceRemoteImpl service;
+
+  private String catalogXml;
+
+  private String otherCatalogXml;
+
+  @Before
+  public void setUp() throws Exception {
+    catalogXml = readResource("/dublincore.xml");
+    otherCatalogXml = readResource("/dublincore2.xml");
+
+    ServiceRegistration registration = EasyMock.createNiceMock(ServiceRegistration.class);
+    EasyMock.expect(registration.getHost()).andReturn("http://localhost").anyTimes();
+    EasyMock.expect(registration.getPath()).andReturn("/series").anyTimes();
+    ServiceRegistry registry = EasyMock.createNiceMock(ServiceRegistry.class);
+    EasyMock.expect(registry.getServiceRegistrationsByLoad(EasyMock.anyString()))
+        .andReturn(List.of(registration)).anyTimes();
+
+    TrustedHttpClient client = EasyMock.createNiceMock(TrustedHttpClient.class);
+    EasyMock.expect(client.execute(EasyMock.anyObject(HttpUriRequest.class))).andAnswer(() -> {
+      requests.add((HttpUriRequest) EasyMock.getCurrentArguments()[0]);
+      if (responses.isEmpty()) {
+        fail("Unexpected request to the remote series service");
+      }
+      return responses.poll();
+    }).anyTimes();
+
+    SecurityService securityService = EasyMock.createNiceMock(SecurityService.class);
+    EasyMock.expect(securityService.getOrganization()).andReturn(new DefaultOrganization()).anyTimes();
+    EasyMock.replay(registration, registry, client, securityService);
+
+    service = new SeriesServiceRemoteImpl();
+    service.setRemoteServiceManager(registry);
+    service.setTrustedHttpClient(client);
+    service.setSecurityService(securityService);
+  }
+
+  @After
+  public void tearDown() {
+    service.deactivate();
+  }
+
+  @Test
+  public void testCatalogIsUsedWithinValidationInterval() throws Exception {
+    activate(3600);
+    responses.add(response(200, catalogXml, ETAG));
+
+    DublinCoreCatalog first = service.getSeries(SERIES_ID);
+    DublinCoreCatalog second = service.getSeries(SERIES_ID);
+
+    assertEquals(1, requests.size());
+    assertNull(requests.get(0).getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+    assertEquals(first.getFirst(DublinCore.PROPERTY_TITLE), second.getFirst(DublinCore.PROPERTY_TITLE));
+    // Callers get copies they may modify without affecting the cache
+    assertNotSame(first, second);
+  }
+
+  @Test
+  public void testNotModifiedReusesCachedCatalog() throws Exception {
+    activate(0);
+    responses.add(response(200, catalogXml, ETAG));
+    responses.add(response(304, null, ETAG));
+
+    DublinCoreCatalog first = service.getSeries(SERIES_ID);
+    DublinCoreCatalog second = service.getSeries(SERIES_ID);
+
+    assertEquals(2, requests.size());
+    // The entity tag is sent back exactly as received, quotes included
+    assertEquals(ETAG, requests.get(1).getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+    assertEquals(first.getFirst(DublinCore.PROPERTY_TITLE), second.getFirst(DublinCore.PROPERTY_TITLE));
+  }
+
+  @Test
+  public void testModifiedCatalogReplacesCachedCopy() throws Exception {
+    activate(0);
+    responses.add(response(200, catalogXml, ETAG));
+    responses.add(response(200, otherCatalogXml, OTHER_ETAG));
+    responses.add(response(304, null, OTHER_ETAG));
+
+    service.getSeries(SERIES_ID);
+    DublinCoreCatalog modified = service.getSeries(SERIES_ID);
+    DublinCoreCatalog revalidated = service.getSeries(SERIES_ID);
+
+    DublinCoreCatalog expected = DublinCores.read(IOUtils.toInputStream(otherCatalogXml, StandardCharsets.UTF_8));
+    assertEquals(expected.getFirst(DublinCore.PROPERTY_TITLE), modified.getFirst(DublinCore.PROPERTY_TITLE));
+    assertEquals(expected.getFirst(DublinCore.PROPERTY_TITLE), revalidated.getFirst(DublinCore.PROPERTY_TITLE));
+    assertEquals(ETAG, requests.get(1).getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+    assertEquals(OTHER_ETAG, requests.get(2).getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+  }
+
+  @Test
+  public void testResponseWithoutEntityTagIsNotCached() throws Exception {
+    activate(3600);
+    responses.add(response(200, catalogXml, null));
+    responses.add(response(200, catalogXml, null));
+
+    service.getSeries(SERIES_ID);
+    service.getSeries(SERIES_ID);
+
+    assertEquals(2, requests.size());
+    assertNull(requests.get(1).getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+  }
+
+  @Test
+  public void testDeletedSeriesIsEvicted() throws Exception {
+    activate(0);
+    responses.add(response(200, catalogXml, ETAG));
+    responses.add(response(404, null, null));
+    responses.add(response(200, catalogXml, ETAG));
+
+    service.getSeries(SERIES_ID);
+    try {
+      service.getSeries(SERIES_ID);
+      fail("The series should not be found");
+    } catch (NotFoundException e) {
+      // expected
+    }
+    service.getSeries(SERIES_ID);
+
+    assertNull(requests.get(2).getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+  }
+
+  @Test
+  public void testAccessControlListIsRevalidated() throws Exception {
+    activate(0);
+    AccessControlList acl = new AccessControlList(new AccessControlEntry("ROLE_ADMIN", "read", true));
+    responses.add(response(200, AccessControlParser.toXml(acl), ETAG));
+    responses.add(response(304, null, ETAG));
+
+    service.getSeriesAccessControl(SERIES_ID);
+    AccessControlList revalidated = service.getSeriesAccessControl(SERIES_ID);
+
+    assertEquals(ETAG, requests.get(1).getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+    assertEquals(acl.getEntries(), revalidated.getEntries());
+  }
+
+  @Test
+  public void testLocalUpdatesInvalidateCache() throws Exception {
+    activate(3600);
+    AccessControlList acl = new AccessControlList(new AccessControlEntry("ROLE_ADMIN", "read", true));
+    DublinCoreCatalog catalog = DublinCores.read(IOUtils.toInputStream(catalogXml, StandardCharsets.UTF_8));
+
+    // Updating the catalog
+    responses.add(response(200, catalogXml, ETAG));
+    responses.add(response(204, null, null));
+    responses.add(response(200, catalogXml, ETAG));
+    service.getSeries(SERIES_ID);
+    service.updateSeries(catalog);
+    service.getSeries(SERIES_ID);
+    assertEquals(3, requests.size());
+    assertNull(requests.get(2).getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+
+    // Updating the access control list
+    requests.clear();
+    responses.add(response(200, AccessControlParser.toXml(acl), ETAG));
+    responses.add(response(204, null, null));
+    responses.add(response(200, AccessControlParser.toXml(acl), ETAG));
+    service.getSeriesAccessControl(SERIES_ID);
+    service.updateAccessControl(SERIES_ID, acl);
+    service.getSeriesAccessControl(SERIES_ID);
+    assertEquals(3, requests.size());
+    assertNull(requests.get(2).getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+
+    // Deleting the series evicts both
+    requests.clear();
+    responses.add(response(200, "", null));
+    responses.add(response(200, catalogXml, ETAG));
+    responses.add(response(200, AccessControlParser.toXml(acl), ETAG));
+    service.deleteSeries(SERIES_ID);
+    service.getSeries(SERIES_ID);
+    service.getSeriesAccessControl(SERIES_ID);
+    assertEquals(3, requests.size());
+  }
+
+  private void activate(long validationInterval) {
+    Dictionary<String, Object> properties = new Hashtable<>();
+    properties.put("cache.validation.interval", Long.toString(validationInterval));
+    ComponentContext cc = EasyMock.createNiceMock(ComponentContext.class);
+    EasyMock.expect(cc.getProperties()).andReturn(properties).anyTimes();
+    EasyMock.replay(cc);
+    service.activate(cc);
+  }
+
+  private static HttpResponse response(int status, String body, String etag) {
+    HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, status, null);
+    if (body != null) {
+      response.setEntity(new StringEntity(body, ContentType.APPLICATION_XML));
+    }
+    if (etag != null) {
+      response.setHeader(HttpHeaders.ETAG, etag);
+    }
+    return response;
+  }
+
+  private String readResource(String path) throws Exception {
+    try (InputStream in = getClass().getResourceAsStream(path)) {
+      return IOUtils.toString(in, StandardCharsets.UTF_8);
+    }
+  }
+
+}
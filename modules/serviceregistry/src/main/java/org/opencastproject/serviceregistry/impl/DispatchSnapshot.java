@@ -0,0 +1,180 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.serviceregistry.impl;
+
+import org.opencastproject.db.DBSession;
+import org.opencastproject.job.api.Job;
+import org.opencastproject.job.jpa.JpaJob;
+import org.opencastproject.serviceregistry.api.HostRegistration;
+import org.opencastproject.serviceregistry.api.ServiceRegistration;
+import org.opencastproject.serviceregistry.api.ServiceRegistryException;
+import org.opencastproject.serviceregistry.api.SystemLoad;
+import org.opencastproject.util.NotFoundException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import javax.persistence.EntityManager;
+
+/**
+ * The registry state used by the {@link JobDispatcher} during a single dispatch round.
+ * <p>
+ * Service registrations, host registrations and host loads are read once when the round starts. Parent jobs and
+ * the running state of their children are looked up lazily, at most once per parent, and remembered for the rest of
+ * the round. Dispatching a job updates the snapshot in place, so that the following jobs of the same round see the
+ * additional load and the running child without going back to the database.
+ * <p>
+ * Instances are not thread safe and are meant to be confined to the dispatcher thread.
+ */
+class DispatchSnapshot {
+
+  private static final Logger logger = LoggerFactory.getLogger(DispatchSnapshot.class);
+
+  private final ServiceRegistryJpaImpl serviceRegistry;
+
+  /** All service registrations at the start of the round */
+  private final List<ServiceRegistration> services;
+
+  /** All host registrations at the start of the round */
+  private final List<HostRegistration> hosts;
+
+  /** The host loads, updated as jobs are dispatched */
+  private final SystemLoad systemLoad;
+
+  /** Parent jobs by identifier, an empty value means that the parent does not exist (anymore) */
+  private final Map<Long, Optional<Job>> parentJobs = new HashMap<>();
+
+  /** Whether a parent job has at least one running child, by parent job identifier */
+  private final Map<Long, Boolean> parentsWithRunningChildren = new HashMap<>();
+
+  DispatchSnapshot(ServiceRegistryJpaImpl serviceRegistry, List<ServiceRegistration> services,
+          List<HostRegistration> hosts, SystemLoad systemLoad) {
+    this.serviceRegistry = serviceRegistry;
+    this.services = Collections.unmodifiableList(services);
+    this.hosts = Collections.unmodifiableList(hosts);
+    this.systemLoad = systemLoad;
+  }
+
+  /**
+   * Reads services, hosts and host loads from the database.
+   *
+   * @param serviceRegistry
+   *          the service registry providing the queries
+   * @param db
+   *          the database session to use
+   * @return a new snapshot
+   */
+  static DispatchSnapshot create(ServiceRegistryJpaImpl serviceRegistry, DBSession db) {
+    final Function<EntityManager, DispatchSnapshot> query = em -> new DispatchSnapshot(
+        serviceRegistry,
+        serviceRegistry.getServiceRegistrationsQuery().apply(em),
+        serviceRegistry.getHostRegistrationsQuery().apply(em),
+        serviceRegistry.getHostLoadsQuery().apply(em));
+    return db.exec(query);
+  }
+
+  List<ServiceRegistration> getServices() {
+    return services;
+  }
+
+  List<HostRegistration> getHosts() {
+    return hosts;
+  }
+
+  SystemLoad getSystemLoad() {
+    return systemLoad;
+  }
+
+  /**
+   * Returns the parent job with the given identifier. The parent is loaded from the service registry the first time
+   * it is requested during this round.
+   *
+   * @param parentJobId
+   *          the parent job identifier
+   * @return the parent job, or an empty optional if it does not exist
+   * @throws ServiceRegistryException
+   *           if loading the parent job failed
+   */
+  Optional<Job> getParentJob(long parentJobId) throws ServiceRegistryException {
+    Optional<Job> parentJob = parentJobs.get(parentJobId);
+    if (parentJob == null) {
+      try {
+        parentJob = Optional.of(serviceRegistry.getJob(parentJobId));
+      } catch (NotFoundException e) {
+        parentJob = Optional.empty();
+      }
+      parentJobs.put(parentJobId, parentJob);
+    }
+    return parentJob;
+  }
+
+  /**
+   * Returns whether the given parent job has at least one running child job. The children are loaded from the
+   * service registry the first time a parent is requested during this round.
+   *
+   * @param parentJobId
+   *          the parent job identifier
+   * @return <code>true</code> if one of the children is running or has been dispatched during this round
+   * @throws ServiceRegistryException
+   *           if loading the child jobs failed
+   */
+  boolean hasRunningChildren(long parentJobId) throws ServiceRegistryException {
+    Boolean running = parentsWithRunningChildren.get(parentJobId);
+    if (running == null) {
+      running = serviceRegistry.getChildJobs(parentJobId).stream()
+          .anyMatch(child -> Job.Status.RUNNING.equals(child.getStatus()));
+      parentsWithRunningChildren.put(parentJobId, running);
+    }
+    return running;
+  }
+
+  /**
+   * Records that a job has been accepted by a host, adding its load to the host and marking its parent and root job
+   * as having a running child.
+   *
+   * @param job
+   *          the dispatched job
+   * @param host
+   *          the base URL of the host that accepted the job
+   */
+  void jobDispatched(JpaJob job, String host) {
+    try {
+      systemLoad.updateNodeLoad(host, job.getJobLoad());
+    } catch (NotFoundException e) {
+      logger.info("Host {} not found in load list, cannot dispatch {} to it", host, job);
+    }
+    if (job.getParentJob() != null) {
+      parentsWithRunningChildren.put(job.getParentJob().getId(), true);
+    }
+    if (job.getRootJob() != null) {
+      parentsWithRunningChildren.put(job.getRootJob().getId(), true);
+    }
+  }
+
+}
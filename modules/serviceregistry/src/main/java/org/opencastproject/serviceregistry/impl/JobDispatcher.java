@@ -57,6 +57,7 @@ import org.osgi.service.cm.ConfigurationException;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
@@ -73,9 +74,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -110,6 +113,18 @@ public class JobDispatcher {
   /** Multiplicative factor to transform dispatch interval captured in seconds to milliseconds */
   static final long DISPATCH_INTERVAL_MS_FACTOR = 1000;
 
+  /** Configuration key for enabling immediate dispatching when jobs are queued or restarted */
+  protected static final String OPT_DISPATCHTRIGGER = "dispatch.trigger";
+
+  /** Configuration key for the minimum delay between two triggered dispatch rounds, in milliseconds */
+  protected static final String OPT_DISPATCHTRIGGERDELAY = "dispatch.trigger.delay";
+
+  /** Default setting for immediate dispatching */
+  static final boolean DEFAULT_DISPATCH_TRIGGER = true;
+
+  /** Default minimum delay between two triggered dispatch rounds, in milliseconds */
+  static final long DEFAULT_DISPATCH_TRIGGER_DELAY = 100L;
+
   private static final Logger logger = LoggerFactory.getLogger(JobDispatcher.class);
 
   private ServiceRegistryJpaImpl serviceRegistry;
@@ -139,6 +154,24 @@ public class JobDispatcher {
   /** The dispatcher priority list */
   protected final Map<Long, String> dispatchPriorityList = new HashMap<>();
 
+  /** Whether dispatch rounds are triggered when jobs are queued or restarted */
+  private volatile boolean dispatchTrigger = false;
+
+  /** The minimum delay between two triggered dispatch rounds, in milliseconds */
+  private volatile long dispatchTriggerDelayMs = DEFAULT_DISPATCH_TRIGGER_DELAY;
+
+  /** Whether a triggered dispatch round is already waiting to be executed */
+  private final AtomicBoolean dispatchRequested = new AtomicBoolean(false);
+
+  /** Start time of the last dispatch round, in milliseconds */
+  private volatile long lastDispatchStart = 0L;
+
+  /** The thread currently executing a dispatch round, if any */
+  private volatile Thread dispatchThread = null;
+
+  /** The listener registered with the service registry to trigger dispatching */
+  private final Runnable dispatchListener = this::requestDispatch;
+
   /** OSGi DI */
   @Reference(target = "(osgi.unit.name=org.opencastproject.common)")
   void setEntityManagerFactory(EntityManagerFactory emf) {
@@ -185,6 +218,17 @@ public class JobDispatcher {
     scheduledExecutor.setRemoveOnCancelPolicy(true);
     logger.info("Activated");
     updated(cc.getProperties());
+    serviceRegistry.addDispatchListener(dispatchListener);
+  }
+
+  @Deactivate
+  public void deactivate() {
+    logger.info("Deactivate job dispatcher");
+    serviceRegistry.removeDispatchListener(dispatchListener);
+    dispatchTrigger = false;
+    if (scheduledExecutor != null) {
+      scheduledExecutor.shutdownNow();
+    }
   }
 
 
@@ -223,6 +267,24 @@ public class JobDispatcher {
       }
     }
 
+    boolean trigger = DEFAULT_DISPATCH_TRIGGER;
+    String triggerString = StringUtils.trimToNull((String) properties.get(OPT_DISPATCHTRIGGER));
+    if (triggerString != null) {
+      trigger = Boolean.parseBoolean(triggerString);
+    }
+
+    long triggerDelay = DEFAULT_DISPATCH_TRIGGER_DELAY;
+    String triggerDelayString = StringUtils.trimToNull((String) properties.get(OPT_DISPATCHTRIGGERDELAY));
+    if (triggerDelayString != null) {
+      try {
+        triggerDelay = Math.max(0L, Long.parseLong(triggerDelayString));
+      } catch (NumberFormatException e) {
+        logger.warn("Dispatch trigger delay '{}' is malformed, setting to {}", triggerDelayString,
+            DEFAULT_DISPATCH_TRIGGER_DELAY);
+      }
+    }
+    dispatchTriggerDelayMs = triggerDelay;
+
     // Stop the current dispatch thread so we can configure a new one
     if (jdfuture != null) {
       jdfuture.cancel(true);
@@ -235,11 +297,51 @@ public class JobDispatcher {
       logger.debug("Starting job dispatching at a custom interval of {}s", dispatchInterval);
       jdfuture = scheduledExecutor.scheduleWithFixedDelay(getJobDispatcherRunnable(), dispatchIntervalMs, dispatchIntervalMs,
           TimeUnit.MILLISECONDS);
+      dispatchTrigger = trigger;
+      if (trigger) {
+        logger.info("Jobs are dispatched as soon as they are queued, with at least {}ms between dispatch rounds",
+            triggerDelay);
+      }
     } else {
       logger.info("Job dispatching is disabled");
+      dispatchTrigger = false;
+    }
+  }
+
+  /**
+   * Requests a dispatch round because a job has been queued or restarted. Requests are coalesced: if a round is
+   * already waiting to be executed, nothing happens. The round is delayed so that triggered rounds start at least
+   * {@link #dispatchTriggerDelayMs} milliseconds apart. Requests caused by the dispatcher itself, e.g. when putting a
+   * job back into the queue, are ignored and left to the periodic dispatching.
+   */
+  void requestDispatch() {
+    if (!dispatchTrigger || Thread.currentThread() == dispatchThread) {
+      return;
+    }
+    if (!dispatchRequested.compareAndSet(false, true)) {
+      logger.trace("Dispatch round already requested");
+      return;
+    }
+    long delay = Math.max(0L, lastDispatchStart + dispatchTriggerDelayMs - System.currentTimeMillis());
+    try {
+      logger.debug("Triggering job dispatch in {}ms", delay);
+      scheduledExecutor.schedule(getJobDispatcherRunnable(), delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      logger.debug("Unable to trigger job dispatch, dispatcher is shutting down");
+      dispatchRequested.set(false);
     }
   }
 
+  /**
+   * Marks the start of a dispatch round executed by the current thread. Dispatch requests arriving from now on
+   * schedule a new round.
+   */
+  void startDispatchRound() {
+    dispatchRequested.set(false);
+    lastDispatchStart = System.currentTimeMillis();
+    dispatchThread = Thread.currentThread();
+  }
+
   Runnable getJobDispatcherRunnable() {
     return new JobDispatcherRunner();
   }
@@ -254,6 +356,7 @@ public class JobDispatcher {
     @Override
     public void run() {
       logger.debug("Starting job dispatch");
+      startDispatchRound();
 
       undispatchableJobTypes = new ArrayList<>();
       try {
@@ -275,6 +378,9 @@ public class JobDispatcher {
           }
         }
 
+        // Read the registry state once, it is kept up to date in memory while jobs are being dispatched
+        DispatchSnapshot snapshot = DispatchSnapshot.create(serviceRegistry, db);
+
         int jobsOffset = 0;
         List<JpaJob> dispatchableJobs;
         List<JpaJob> workflowJobs = new ArrayList<>();
@@ -297,7 +403,7 @@ public class JobDispatcher {
             continue;
           }
 
-          dispatchDispatchableJobs(dispatchableJobs);
+          dispatchDispatchableJobs(dispatchableJobs, snapshot);
         } while (jobsFound);
 
         jobsOffset = 0;
@@ -319,16 +425,17 @@ public class JobDispatcher {
             continue;
           }
 
-          dispatchDispatchableJobs(dispatchableJobs);
+          dispatchDispatchableJobs(dispatchableJobs, snapshot);
         } while (jobsFound);
 
         if (!workflowJobs.isEmpty()) {
-          dispatchDispatchableJobs(workflowJobs);
+          dispatchDispatchableJobs(workflowJobs, snapshot);
         }
       } catch (Throwable t) {
         logger.warn("Error dispatching jobs", t);
       } finally {
         undispatchableJobTypes = null;
+        dispatchThread = null;
       }
 
       logger.debug("Finished job dispatch");
@@ -338,11 +445,9 @@ public class JobDispatcher {
      * Dispatch the given jobs.
      *
      * @param jobsToDispatch list with dispatchable jobs to dispatch
+     * @param snapshot the registry state of the current dispatch round
      */
-    private void dispatchDispatchableJobs(List<JpaJob> jobsToDispatch) {
-      // Get the current system load
-      SystemLoad systemLoad = db.exec(serviceRegistry.getHostLoadsQuery());
-
+    private void dispatchDispatchableJobs(List<JpaJob> jobsToDispatch, DispatchSnapshot snapshot) {
       for (JpaJob job : jobsToDispatch) {
         // Remember the job type
         String jobType = job.getJobType();
@@ -378,8 +483,9 @@ public class JobDispatcher {
 
         // Start dispatching
         try {
-          List<ServiceRegistration> services = db.exec(serviceRegistry.getServiceRegistrationsQuery());
-          List<HostRegistration> hosts = db.exec(serviceRegistry.getHostRegistrationsQuery()).stream()
+          SystemLoad systemLoad = snapshot.getSystemLoad();
+          List<ServiceRegistration> services = snapshot.getServices();
+          List<HostRegistration> hosts = snapshot.getHosts().stream()
                                            .filter(host -> !dispatchPriorityList.containsValue(host.getBaseUrl())
                                                || host.getBaseUrl().equals(dispatchPriorityList.get(job.getId())))
                                            .collect(Collectors.toList());
@@ -389,25 +495,13 @@ public class JobDispatcher {
           // attempt to execute the next operation in a workflow, choose either from a limited or from the full list
           // of services
           Job parentJob = null;
-          try {
-            if (job.getParentJob() != null) {
-              parentJob = serviceRegistry.getJob(job.getParentJob().getId());
-            }
-          } catch (NotFoundException e) {
-            // That's ok
+          if (job.getParentJob() != null) {
+            parentJob = snapshot.getParentJob(job.getParentJob().getId()).orElse(null);
           }
 
           // When a job A starts a series of child jobs, then those child jobs should only be dispatched at the
           // same time if there is processing capacity available.
-          boolean parentHasRunningChildren = false;
-          if (parentJob != null) {
-            for (Job child : serviceRegistry.getChildJobs(parentJob.getId())) {
-              if (Job.Status.RUNNING.equals(child.getStatus())) {
-                parentHasRunningChildren = true;
-                break;
-              }
-            }
-          }
+          boolean parentHasRunningChildren = parentJob != null && snapshot.hasRunningChildren(parentJob.getId());
 
           // If this is a root job (a new workflow or a new workflow operation), then only dispatch if there is
           // capacity, i. e. the workflow service is ok dispatching the next workflow or the next workflow operation.
@@ -423,11 +517,7 @@ public class JobDispatcher {
           String hostAcceptingJob;
           try {
             hostAcceptingJob = dispatchJob(job, candidateServices);
-            try {
-              systemLoad.updateNodeLoad(hostAcceptingJob, job.getJobLoad());
-            } catch (NotFoundException e) {
-              logger.info("Host {} not found in load list, cannot dispatch {} to it", hostAcceptingJob, job);
-            }
+            snapshot.jobDispatched(job, hostAcceptingJob);
 
             dispatchPriorityList.remove(job.getId());
           } catch (ServiceUnavailableException e) {
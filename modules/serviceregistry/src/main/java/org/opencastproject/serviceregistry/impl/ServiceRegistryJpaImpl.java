@@ -35,8 +35,10 @@ import static org.opencastproject.util.OsgiUtil.getOptContextProperty;
 
 import org.opencastproject.db.DBSession;
 import org.opencastproject.db.DBSessionFactory;
+import org.opencastproject.job.api.JaxbJob;
 import org.opencastproject.job.api.Job;
 import org.opencastproject.job.api.Job.Status;
+import org.opencastproject.job.api.JobParser;
 import org.opencastproject.job.jpa.JpaJob;
 import org.opencastproject.rest.RestConstants;
 import org.opencastproject.security.api.Organization;
@@ -44,11 +46,13 @@ import org.opencastproject.security.api.SecurityService;
 import org.opencastproject.security.api.TrustedHttpClient;
 import org.opencastproject.security.api.TrustedHttpClientException;
 import org.opencastproject.security.api.User;
+import org.opencastproject.security.util.SecurityUtil;
 import org.opencastproject.serviceregistry.api.HostRegistration;
 import org.opencastproject.serviceregistry.api.HostStatistics;
 import org.opencastproject.serviceregistry.api.IncidentService;
 import org.opencastproject.serviceregistry.api.Incidents;
 import org.opencastproject.serviceregistry.api.JaxbServiceStatistics;
+import org.opencastproject.serviceregistry.api.JobCompletionNotifier;
 import org.opencastproject.serviceregistry.api.ServiceRegistration;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.serviceregistry.api.ServiceRegistryException;
@@ -72,7 +76,11 @@ import org.apache.commons.lang3.time.DateUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.message.BasicNameValuePair;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
@@ -90,22 +98,36 @@ import org.osgi.util.tracker.ServiceTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.Dictionary;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -127,7 +149,7 @@ import javax.persistence.TypedQuery;
   immediate = true,
   service = { ManagedService.class, ServiceRegistry.class, ServiceRegistryJpaImpl.class }
 )
-public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
+public class ServiceRegistryJpaImpl implements ServiceRegistry, JobCompletionNotifier, ManagedService {
 
   /** JPA persistence unit name */
   public static final String PERSISTENCE_UNIT = "org.opencastproject.common";
@@ -191,6 +213,18 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
   /** The http client to use when connecting to remote servers */
   protected TrustedHttpClient client = null;
 
+  /** The path of the endpoint waiting for jobs to terminate on another host */
+  static final String WAIT_FOR_JOBS_PATH = "/services/jobs/wait.xml";
+
+  /** The time in milliseconds to connect to another host when waiting for jobs processed there */
+  private static final int WAIT_FOR_JOBS_CONNECTION_TIMEOUT = 10000;
+
+  /**
+   * The maximum number of requests waiting for jobs on other hosts at the same time. They share the connection pool of
+   * the trusted http client with all other requests to those hosts, so they must not use it up.
+   */
+  static final int MAX_REMOTE_WAITS = 10;
+
   /** Default jobs limit during dispatching
    * (larger value will fetch more entries from the database at the same time and increase RAM usage) */
   static final int DEFAULT_DISPATCH_JOBS_LIMIT = 100;
@@ -258,6 +292,9 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
   /** The thread pool to use for dispatching queued jobs and checking on phantom services. */
   protected ScheduledExecutorService scheduledExecutor = null;
 
+  /** The thread pool waiting for jobs processed on other hosts */
+  private ExecutorService remoteWaitExecutor = null;
+
   /** The security service */
   protected SecurityService securityService = null;
 
@@ -282,6 +319,12 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
     JOB_STATUSES_INFLUENCING_LOAD_BALANCING.add(Status.RUNNING);
   }
 
+  /** Listeners notified whenever a job is queued or restarted and is waiting to be dispatched */
+  private final List<Runnable> dispatchListeners = new CopyOnWriteArrayList<>();
+
+  /** Listeners notified whenever a job has terminated or has been removed */
+  private final List<Consumer<Job>> jobCompletionListeners = new CopyOnWriteArrayList<>();
+
   /** Whether to accept a job whose load exceeds the host’s max load */
   protected Boolean acceptJobLoadsExeedingMaxLoad = true;
 
@@ -304,6 +347,10 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
     logger.info("Activate service registry");
 
     db = dbSessionFactory.createSession(emf);
+    if (remoteWaitExecutor == null || remoteWaitExecutor.isShutdown()) {
+      // Without a queue, waits beyond the limit are rejected and the jobs are polled from the database instead
+      remoteWaitExecutor = new ThreadPoolExecutor(0, MAX_REMOTE_WAITS, 60L, TimeUnit.SECONDS, new SynchronousQueue<>());
+    }
 
     // Find this host's url
     if (cc == null || StringUtils.isBlank(cc.getBundleContext().getProperty(OpencastConstants.SERVER_URL_PROPERTY))) {
@@ -420,6 +467,10 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
       }
     }
 
+    if (remoteWaitExecutor != null) {
+      remoteWaitExecutor.shutdownNow();
+    }
+
     for (ObjectInstance mbean : jmxBeans) {
       JmxUtil.unregisterMXBean(mbean);
     }
@@ -587,9 +638,228 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
     });
 
     setJobUri(jpaJob);
+    notifyDispatchListeners(jpaJob);
     return jpaJob.toJob();
   }
 
+  /**
+   * Registers a listener which is called whenever a dispatchable job is queued or restarted.
+   *
+   * @param listener
+   *          the listener
+   */
+  void addDispatchListener(Runnable listener) {
+    dispatchListeners.add(listener);
+  }
+
+  /**
+   * Removes a listener registered with {@link #addDispatchListener(Runnable)}.
+   *
+   * @param listener
+   *          the listener
+   */
+  void removeDispatchListener(Runnable listener) {
+    dispatchListeners.remove(listener);
+  }
+
+  /**
+   * Notifies the dispatch listeners if the given job is waiting to be dispatched.
+   *
+   * @param job
+   *          the job that has been created or updated
+   */
+  private void notifyDispatchListeners(JpaJob job) {
+    if (!job.isDispatchable() || (job.getStatus() != Status.QUEUED && job.getStatus() != Status.RESTART)) {
+      return;
+    }
+    for (Runnable listener : dispatchListeners) {
+      try {
+        listener.run();
+      } catch (Exception e) {
+        logger.warn("Unable to notify dispatch listener about {}", job, e);
+      }
+    }
+  }
+
+  @Override
+  public void addJobCompletionListener(Consumer<Job> listener) {
+    jobCompletionListeners.add(listener);
+  }
+
+  @Override
+  public void removeJobCompletionListener(Consumer<Job> listener) {
+    jobCompletionListeners.remove(listener);
+  }
+
+  /**
+   * Notifies the job completion listeners if the given job has terminated.
+   *
+   * @param job
+   *          the job that has been updated
+   */
+  private void notifyJobCompletionListeners(JpaJob job) {
+    if (job.getStatus().isTerminated()) {
+      notifyJobCompletionListeners(Collections.singletonList(job.toJob()));
+    }
+  }
+
+  /**
+   * Notifies the job completion listeners about jobs which have terminated or have been removed.
+   *
+   * @param jobs
+   *          the jobs
+   */
+  private void notifyJobCompletionListeners(Collection<Job> jobs) {
+    if (jobCompletionListeners.isEmpty()) {
+      return;
+    }
+    for (Job job : jobs) {
+      for (Consumer<Job> listener : jobCompletionListeners) {
+        try {
+          listener.accept(job);
+        } catch (Exception e) {
+          logger.warn("Unable to notify job completion listener about {}", job, e);
+        }
+      }
+    }
+  }
+
+  @Override
+  public List<Job> waitForJobs(Collection<Long> jobIds, long timeout)
+          throws ServiceRegistryException, InterruptedException {
+    final Set<Long> ids = new HashSet<>(jobIds);
+    final CountDownLatch terminated = new CountDownLatch(1);
+    final Consumer<Job> listener = job -> {
+      if (ids.contains(job.getId())) {
+        terminated.countDown();
+      }
+    };
+
+    // Register before looking at the jobs, so that no job can terminate unnoticed in between
+    addJobCompletionListener(listener);
+    final List<Future<?>> remoteWaits = new ArrayList<>();
+    final Queue<HttpGet> remoteRequests = new ConcurrentLinkedQueue<>();
+    try {
+      final List<Job> jobs = getJobs(ids);
+      if (timeout <= 0 || jobs.size() < ids.size() || jobs.stream().anyMatch(job -> job.getStatus().isTerminated())) {
+        return jobs;
+      }
+
+      // Jobs processed on other hosts are updated there, so ask those hosts to tell us when they terminate
+      final Organization organization = securityService.getOrganization();
+      final User user = organization == null ? null : securityService.getUser();
+      jobs.stream()
+          .filter(job -> job.getProcessingHost() != null && !job.getProcessingHost().equals(hostName))
+          .collect(Collectors.groupingBy(Job::getProcessingHost, Collectors.mapping(Job::getId, Collectors.toList())))
+          .forEach((host, hostJobIds) -> {
+            try {
+              remoteWaits.add(remoteWaitExecutor.submit(() -> {
+                if (organization == null) {
+                  waitForRemoteJobs(host, hostJobIds, timeout, terminated, remoteRequests);
+                } else {
+                  SecurityUtil.runAs(securityService, organization, user,
+                      () -> waitForRemoteJobs(host, hostJobIds, timeout, terminated, remoteRequests));
+                }
+              }));
+            } catch (RejectedExecutionException e) {
+              logger.debug("Too many jobs are waited for on other hosts, not waiting for jobs {} on {}", hostJobIds,
+                  host);
+            }
+          });
+
+      if (!terminated.await(timeout, TimeUnit.MILLISECONDS)) {
+        logger.trace("None of the jobs {} terminated within {} ms", ids, timeout);
+      }
+      return getJobs(ids);
+    } finally {
+      removeJobCompletionListener(listener);
+      for (Future<?> remoteWait : remoteWaits) {
+        remoteWait.cancel(true);
+      }
+      // Interrupting a blocking socket read does not end it, so abort the requests to release their connections
+      for (HttpGet remoteRequest : remoteRequests) {
+        remoteRequest.abort();
+      }
+    }
+  }
+
+  /**
+   * Waits for jobs processed on another host, using the long-polling endpoint of the service registry on that host.
+   * Failures are only logged, the status of the jobs is read from the database in any case.
+   *
+   * @param host
+   *          the host processing the jobs
+   * @param jobIds
+   *          the identifiers of the jobs
+   * @param timeout
+   *          the maximum time to wait in milliseconds
+   * @param terminated
+   *          the latch to count down once one of the jobs has terminated or has been removed
+   * @param requests
+   *          the requests of the waiter to abort once it stops waiting
+   */
+  private void waitForRemoteJobs(String host, List<Long> jobIds, long timeout, CountDownLatch terminated,
+      Queue<HttpGet> requests) {
+    final List<NameValuePair> params = new ArrayList<>();
+    for (long id : jobIds) {
+      params.add(new BasicNameValuePair("id", Long.toString(id)));
+    }
+    params.add(new BasicNameValuePair("timeout", Long.toString(timeout)));
+    final HttpGet get = new HttpGet(UrlSupport.concat(host, WAIT_FOR_JOBS_PATH) + "?"
+        + URLEncodedUtils.format(params, StandardCharsets.UTF_8));
+    requests.add(get);
+    HttpResponse response = null;
+    try {
+      // The waiter may have stopped waiting before the request could be added
+      if (Thread.currentThread().isInterrupted()) {
+        return;
+      }
+      response = client.execute(get, WAIT_FOR_JOBS_CONNECTION_TIMEOUT,
+          (int) Math.min(Integer.MAX_VALUE, timeout + WAIT_FOR_JOBS_CONNECTION_TIMEOUT));
+      if (response == null || response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+        logger.debug("Unable to wait for jobs {} on {}: {}", jobIds, host,
+            response == null ? "no response" : response.getStatusLine());
+        return;
+      }
+      final List<JaxbJob> remoteJobs = JobParser.parseJobList(response.getEntity().getContent()).getJobs();
+      if (remoteJobs.size() < jobIds.size()
+          || remoteJobs.stream().anyMatch(job -> job.toJob().getStatus().isTerminated())) {
+        terminated.countDown();
+      }
+    } catch (Exception e) {
+      logger.debug("Unable to wait for jobs {} on {}: {}", jobIds, host, e.getMessage());
+    } finally {
+      get.abort();
+      try {
+        client.close(response);
+      } catch (IOException e) {
+        logger.debug("Unable to close the connection to {}", host, e);
+      }
+    }
+  }
+
+  /**
+   * Gets the jobs with the given identifiers, skipping jobs that do not exist.
+   *
+   * @param ids
+   *          the job identifiers
+   * @return the jobs
+   * @throws ServiceRegistryException
+   *           if reading the jobs fails
+   */
+  private List<Job> getJobs(Collection<Long> ids) throws ServiceRegistryException {
+    try {
+      final Function<EntityManager, List<Job>> query = em -> ids.stream()
+          .map(id -> getJpaJobQuery(id).apply(em))
+          .flatMap(Optional::stream)
+          .map(JpaJob::toJob)
+          .collect(Collectors.toList());
+      return db.exec(query);
+    } catch (Exception e) {
+      throw new ServiceRegistryException(e);
+    }
+  }
+
   @Override
   public void removeJobs(List<Long> jobIds) throws NotFoundException, ServiceRegistryException {
     for (long jobId: jobIds) {
@@ -599,8 +869,10 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
     }
 
     logger.debug("Start deleting jobs with IDs '{}'", jobIds);
+    final List<Job> removed = new ArrayList<>();
     try {
       db.execTxChecked(em -> {
+        removed.clear();
         for (long jobId : jobIds) {
           JpaJob job = em.find(JpaJob.class, jobId);
           if (job == null) {
@@ -608,11 +880,13 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
             removeFromLoadCache(jobId);
             throw new NotFoundException("Job with ID '" + jobId + "' not found");
           }
-          deleteChildJobsQuery(jobId).accept(em);
+          deleteChildJobsQuery(jobId, removed).accept(em);
+          removed.add(job.toJob());
           em.remove(job);
           removeFromLoadCache(jobId);
         }
       });
+      notifyJobCompletionListeners(removed);
     } catch (NotFoundException | ServiceRegistryException e) {
       throw e;
     } catch (Exception e) {
@@ -622,7 +896,7 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
     logger.info("Jobs with IDs '{}' deleted", jobIds);
   }
 
-  private ThrowingConsumer<EntityManager, Exception> deleteChildJobsQuery(long jobId) {
+  private ThrowingConsumer<EntityManager, Exception> deleteChildJobsQuery(long jobId, List<Job> removed) {
     return em -> {
       List<Job> childJobs = getChildJobs(jobId);
       if (childJobs.isEmpty()) {
@@ -637,6 +911,7 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
           Job job = childJobs.get(i);
           JpaJob jobToDelete = em.find(JpaJob.class, job.getId());
           em.remove(jobToDelete);
+          removed.add(job);
           removeFromLoadCache(job.getId());
           logger.debug("{} deleted", job);
         }
@@ -858,7 +1133,7 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
       // tx context is opened in
       //   updateInternal
       //   updateServiceForFailover
-      return db.execChecked(em -> {
+      JpaJob updated = db.execChecked(em -> {
         Job oldJob = getJob(job.getId());
         JpaJob jpaJob = updateInternal(job);
         if (!TYPE_WORKFLOW.equals(job.getJobType()) && job.getJobLoad() > 0.0f
@@ -874,6 +1149,9 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
 
         return jpaJob;
       });
+      notifyDispatchListeners(updated);
+      notifyJobCompletionListeners(updated);
+      return updated;
     } catch (ServiceRegistryException e) {
       throw e;
     } catch (NotFoundException e) {
@@ -1337,8 +1615,10 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
   private void cleanUndispatchableJobs(String hostName) {
     logger.debug("Starting check for undispatchable jobs for host {}", hostName);
 
+    final List<Job> cancelled = new ArrayList<>();
     try {
       db.execTxChecked(em -> {
+        cancelled.clear();
         List<JpaJob> undispatchableJobs = namedQuery.findAll(
             "Job.undispatchable.status",
             JpaJob.class,
@@ -1368,8 +1648,10 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
           logger.info("Cancelling the running undispatchable job {}, it was orphaned on this host ({})", job, hostName);
           job.setStatus(Status.CANCELLED);
           em.merge(job);
+          cancelled.add(job.toJob());
         }
       });
+      notifyJobCompletionListeners(cancelled);
     } catch (Exception e) {
       logger.error("Unable to clean undispatchable jobs for host {}! {}", hostName, e.getMessage());
     }
@@ -1386,8 +1668,10 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
    *           if there is a problem communicating with the jobs database
    */
   private void cleanRunningJobs(String serviceType, String baseUrl) throws ServiceRegistryException {
+    final List<Job> terminated = new ArrayList<>();
     try {
       db.execTxChecked(em -> {
+        terminated.clear();
         TypedQuery<JpaJob> query = em.createNamedQuery("Job.processinghost.status", JpaJob.class)
             .setLockMode(LockModeType.PESSIMISTIC_WRITE)
             .setParameter("statuses", List.of(
@@ -1413,7 +1697,7 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
 
             if (job.getRootJob() != null && Status.PAUSED.equals(job.getRootJob().getStatus())) {
               JpaJob rootJob = job.getRootJob();
-              cancelAllChildrenQuery(rootJob).accept(em);
+              cancelAllChildrenQuery(rootJob, terminated).accept(em);
               rootJob.setStatus(Status.RESTART);
               rootJob.setOperation(START_OPERATION);
               em.merge(rootJob);
@@ -1421,7 +1705,7 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
             }
 
             logger.info("Marking child jobs from {} as canceled", job);
-            cancelAllChildrenQuery(job).accept(em);
+            cancelAllChildrenQuery(job, terminated).accept(em);
 
             logger.info("Rescheduling lost {}", job);
             job.setStatus(Status.RESTART);
@@ -1429,11 +1713,13 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
           } else {
             logger.info("Marking lost {} as failed", job);
             job.setStatus(Status.FAILED);
+            terminated.add(job.toJob());
           }
 
           em.merge(job);
         }
       });
+      notifyJobCompletionListeners(terminated);
     } catch (Exception e) {
       throw new ServiceRegistryException(e);
     }
@@ -1444,15 +1730,18 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
    *
    * @param job
    *          the parent job
+   * @param cancelled
+   *          the list to add the cancelled jobs to
    */
-  private Consumer<EntityManager> cancelAllChildrenQuery(JpaJob job) {
+  private Consumer<EntityManager> cancelAllChildrenQuery(JpaJob job, List<Job> cancelled) {
     return em -> job.getChildJobs().stream()
         .peek(em::refresh)
         .filter(child -> Status.CANCELLED.equals(child.getStatus()))
         .forEach(child -> {
-          cancelAllChildrenQuery(child).accept(em);
+          cancelAllChildrenQuery(child, cancelled).accept(em);
           child.setStatus(Status.CANCELLED);
           em.merge(child);
+          cancelled.add(child.toJob());
         });
   }
 
@@ -43,6 +43,7 @@ import org.opencastproject.serviceregistry.api.JaxbServiceHealth;
 import org.opencastproject.serviceregistry.api.JaxbServiceRegistration;
 import org.opencastproject.serviceregistry.api.JaxbServiceRegistrationList;
 import org.opencastproject.serviceregistry.api.JaxbServiceStatisticsList;
+import org.opencastproject.serviceregistry.api.JobCompletionNotifier;
 import org.opencastproject.serviceregistry.api.ServiceRegistration;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.serviceregistry.api.ServiceRegistryException;
@@ -107,6 +108,9 @@ import javax.ws.rs.core.Response.Status;
 )
 public class ServiceRegistryEndpoint {
 
+  /** The maximum time in milliseconds a request may wait for jobs to terminate */
+  public static final long MAX_WAIT_FOR_JOBS_TIMEOUT = 60000L;
+
   /** The remote service maanger */
   protected ServiceRegistry serviceRegistry = null;
 
@@ -593,6 +597,68 @@ public class ServiceRegistryEndpoint {
 
   }
 
+  @GET
+  @Path("jobs/wait.xml")
+  @Produces(MediaType.TEXT_XML)
+  @RestQuery(name = "waitforjobsasxml",
+          description = "Waits until at least one of the given jobs has terminated or the timeout has passed, and "
+                  + "returns the jobs as XML. Returns immediately if one of the jobs has already terminated.",
+          returnDescription = "The jobs as XML, without the ones that do not exist",
+          restParameters = {
+                  @RestParameter(name = "id", isRequired = true, type = Type.STRING,
+                          description = "The job identifier, may be given multiple times"),
+                  @RestParameter(name = "timeout", isRequired = false, type = Type.INTEGER, defaultValue = "0",
+                          description = "The maximum time to wait in milliseconds, at most "
+                                  + MAX_WAIT_FOR_JOBS_TIMEOUT) },
+          responses = {
+                  @RestResponse(responseCode = SC_OK, description = "Jobs returned."),
+                  @RestResponse(responseCode = SC_BAD_REQUEST, description = "No job identifier given.") })
+  public JaxbJobList waitForJobsAsXml(@QueryParam("id") List<Long> ids, @QueryParam("timeout") long timeout) {
+    return waitForJobsAsJson(ids, timeout);
+  }
+
+  @GET
+  @Path("jobs/wait.json")
+  @Produces(MediaType.APPLICATION_JSON)
+  @RestQuery(name = "waitforjobsasjson",
+          description = "Waits until at least one of the given jobs has terminated or the timeout has passed, and "
+                  + "returns the jobs as JSON. Returns immediately if one of the jobs has already terminated.",
+          returnDescription = "The jobs as JSON, without the ones that do not exist",
+          restParameters = {
+                  @RestParameter(name = "id", isRequired = true, type = Type.STRING,
+                          description = "The job identifier, may be given multiple times"),
+                  @RestParameter(name = "timeout", isRequired = false, type = Type.INTEGER, defaultValue = "0",
+                          description = "The maximum time to wait in milliseconds, at most "
+                                  + MAX_WAIT_FOR_JOBS_TIMEOUT) },
+          responses = {
+                  @RestResponse(responseCode = SC_OK, description = "Jobs returned."),
+                  @RestResponse(responseCode = SC_BAD_REQUEST, description = "No job identifier given.") })
+  public JaxbJobList waitForJobsAsJson(@QueryParam("id") List<Long> ids, @QueryParam("timeout") long timeout) {
+    if (ids == null || ids.isEmpty()) {
+      throw new WebApplicationException(Status.BAD_REQUEST);
+    }
+    final long waitTime = Math.max(0, Math.min(timeout, MAX_WAIT_FOR_JOBS_TIMEOUT));
+    try {
+      if (serviceRegistry instanceof JobCompletionNotifier) {
+        return new JaxbJobList(((JobCompletionNotifier) serviceRegistry).waitForJobs(ids, waitTime));
+      }
+      final List<Job> jobs = new LinkedList<>();
+      for (long id : ids) {
+        try {
+          jobs.add(serviceRegistry.getJob(id));
+        } catch (NotFoundException e) {
+          // Jobs that do not exist are left out
+        }
+      }
+      return new JaxbJobList(jobs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new WebApplicationException(e, Status.SERVICE_UNAVAILABLE);
+    } catch (ServiceRegistryException e) {
+      throw new WebApplicationException(e);
+    }
+  }
+
   @GET
   @Path("activeJobs.xml")
   @Produces(MediaType.TEXT_XML)
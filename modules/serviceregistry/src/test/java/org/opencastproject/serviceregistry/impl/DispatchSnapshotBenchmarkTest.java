@@ -0,0 +1,220 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.serviceregistry.impl;
+
+import static org.opencastproject.db.DBTestEnv.getDbSessionFactory;
+import static org.opencastproject.db.DBTestEnv.newDBSession;
+import static org.opencastproject.db.DBTestEnv.newEntityManagerFactory;
+
+import org.opencastproject.db.DBSession;
+import org.opencastproject.job.api.Job;
+import org.opencastproject.job.api.Job.Status;
+import org.opencastproject.job.jpa.JpaJob;
+import org.opencastproject.security.api.DefaultOrganization;
+import org.opencastproject.security.api.JaxbOrganization;
+import org.opencastproject.security.api.JaxbRole;
+import org.opencastproject.security.api.JaxbUser;
+import org.opencastproject.security.api.Organization;
+import org.opencastproject.security.api.SecurityService;
+import org.opencastproject.security.api.TrustedHttpClient;
+import org.opencastproject.security.api.User;
+import org.opencastproject.serviceregistry.api.HostRegistration;
+import org.opencastproject.serviceregistry.api.ServiceRegistration;
+import org.opencastproject.util.NotFoundException;
+import org.opencastproject.util.jmx.JmxUtil;
+
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.ObjectInstance;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Compares the registry lookups the job dispatcher used to run for every single job with the lookups served by a
+ * {@link DispatchSnapshot}, using synthetic hosts, services and jobs in an embedded H2 database.
+ * <p>
+ * The size of the benchmark can be raised with the system properties <code>dispatch.benchmark.hosts</code>,
+ * <code>dispatch.benchmark.parents</code> and <code>dispatch.benchmark.jobs</code>.
+ */
+public class DispatchSnapshotBenchmarkTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(DispatchSnapshotBenchmarkTest.class);
+
+  private static final int HOSTS = Integer.getInteger("dispatch.benchmark.hosts", 20);
+  private static final int PARENTS = Integer.getInteger("dispatch.benchmark.parents", 25);
+  private static final int JOBS = Integer.getInteger("dispatch.benchmark.jobs", 500);
+
+  private static final String[] SERVICE_TYPES = {
+      "org.opencastproject.composer",
+      "org.opencastproject.inspection",
+      "org.opencastproject.distribution.download",
+      "org.opencastproject.search",
+      "org.opencastproject.caption" };
+
+  private static final String OPERATION = "benchmark";
+
+  private EntityManagerFactory emf;
+  private DBSession db;
+  private ServiceRegistryJpaImpl serviceRegistry;
+
+  @Before
+  public void setUp() throws Exception {
+    emf = newEntityManagerFactory(ServiceRegistryJpaImpl.PERSISTENCE_UNIT);
+    db = newDBSession(emf);
+
+    Organization organization = new DefaultOrganization();
+    JaxbOrganization jaxbOrganization = JaxbOrganization.fromOrganization(organization);
+    User anonymous = new JaxbUser("anonymous", "test", jaxbOrganization,
+            new JaxbRole(jaxbOrganization.getAnonymousRole(), jaxbOrganization));
+    SecurityService securityService = EasyMock.createNiceMock(SecurityService.class);
+    EasyMock.expect(securityService.getUser()).andReturn(anonymous).anyTimes();
+    EasyMock.expect(securityService.getOrganization()).andReturn(organization).anyTimes();
+    EasyMock.replay(securityService);
+
+    TrustedHttpClient trustedHttpClient = EasyMock.createNiceMock(TrustedHttpClient.class);
+    EasyMock.replay(trustedHttpClient);
+
+    serviceRegistry = new ServiceRegistryJpaImpl();
+    serviceRegistry.setEntityManagerFactory(emf);
+    serviceRegistry.setDBSessionFactory(getDbSessionFactory());
+    serviceRegistry.setSecurityService(securityService);
+    serviceRegistry.setTrustedHttpClient(trustedHttpClient);
+    serviceRegistry.activate(null);
+    if (serviceRegistry.scheduledExecutor != null) {
+      serviceRegistry.scheduledExecutor.shutdown();
+    }
+
+    for (int h = 0; h < HOSTS; h++) {
+      String host = "http://worker" + h + ":8080";
+      serviceRegistry.registerHost(host, "127.0.0.1", "worker" + h, 1024, 8, 8.0f);
+      for (String serviceType : SERVICE_TYPES) {
+        serviceRegistry.registerService(serviceType, host, "/" + serviceType);
+      }
+    }
+
+    // Parents are running workflow operations, every other one has a running child
+    List<Job> parents = new ArrayList<>();
+    for (int p = 0; p < PARENTS; p++) {
+      Job parent = serviceRegistry.createJob("http://worker0:8080", SERVICE_TYPES[0], OPERATION, null, null, false,
+              null, 1.0f);
+      parent.setStatus(Status.RUNNING);
+      parents.add(serviceRegistry.updateJob(parent));
+      if (p % 2 == 0) {
+        Job child = serviceRegistry.createJob("http://worker0:8080", SERVICE_TYPES[1], OPERATION, null, null, false,
+                parent, 1.0f);
+        child.setStatus(Status.RUNNING);
+        serviceRegistry.updateJob(child);
+      }
+    }
+
+    for (int j = 0; j < JOBS; j++) {
+      serviceRegistry.createJob("http://worker0:8080", SERVICE_TYPES[j % SERVICE_TYPES.length], OPERATION, null, null,
+              true, parents.get(j % PARENTS), 1.0f);
+    }
+  }
+
+  @After
+  public void tearDown() {
+    for (ObjectInstance mbean : serviceRegistry.jmxBeans) {
+      JmxUtil.unregisterMXBean(mbean);
+    }
+    serviceRegistry.deactivate();
+    emf.close();
+  }
+
+  @Test
+  public void testSnapshotMatchesPerJobQueries() throws Exception {
+    List<JpaJob> queuedJobs = db.exec(serviceRegistry.getDispatchableJobsWithStatusQuery(0, 0, Status.QUEUED));
+    Assert.assertEquals(JOBS, queuedJobs.size());
+
+    // Warm up both code paths before measuring
+    perJobLookups(queuedJobs.subList(0, Math.min(10, queuedJobs.size())));
+    snapshotLookups(queuedJobs.subList(0, Math.min(10, queuedJobs.size())));
+
+    long start = System.nanoTime();
+    List<String> perJob = perJobLookups(queuedJobs);
+    long perJobNanos = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    List<String> snapshot = snapshotLookups(queuedJobs);
+    long snapshotNanos = System.nanoTime() - start;
+
+    logger.info("Dispatch lookups for {} jobs on {} hosts: per job queries took {} ms, dispatch snapshot took {} ms",
+            JOBS, HOSTS, perJobNanos / 1000000, snapshotNanos / 1000000);
+
+    Assert.assertEquals(perJob, snapshot);
+  }
+
+  /**
+   * The lookups done by the dispatcher for each job before the introduction of the dispatch snapshot.
+   */
+  private List<String> perJobLookups(List<JpaJob> jobs) throws Exception {
+    List<String> result = new ArrayList<>();
+    for (JpaJob job : jobs) {
+      List<ServiceRegistration> services = db.exec(serviceRegistry.getServiceRegistrationsQuery());
+      List<HostRegistration> hosts = db.exec(serviceRegistry.getHostRegistrationsQuery());
+      Job parentJob = null;
+      try {
+        parentJob = serviceRegistry.getJob(job.getParentJob().getId());
+      } catch (NotFoundException e) {
+        // That's ok
+      }
+      boolean running = false;
+      if (parentJob != null) {
+        for (Job child : serviceRegistry.getChildJobs(parentJob.getId())) {
+          if (Status.RUNNING.equals(child.getStatus())) {
+            running = true;
+            break;
+          }
+        }
+      }
+      result.add(describe(job, services, hosts, parentJob, running));
+    }
+    return result;
+  }
+
+  private List<String> snapshotLookups(List<JpaJob> jobs) throws Exception {
+    List<String> result = new ArrayList<>();
+    DispatchSnapshot snapshot = DispatchSnapshot.create(serviceRegistry, db);
+    for (JpaJob job : jobs) {
+      Job parentJob = snapshot.getParentJob(job.getParentJob().getId()).orElse(null);
+      boolean running = parentJob != null && snapshot.hasRunningChildren(parentJob.getId());
+      result.add(describe(job, snapshot.getServices(), snapshot.getHosts(), parentJob, running));
+    }
+    return result;
+  }
+
+  private static String describe(JpaJob job, List<ServiceRegistration> services, List<HostRegistration> hosts,
+          Job parentJob, boolean running) {
+    return job.getId() + ":" + services.size() + ":" + hosts.size() + ":"
+            + (parentJob == null ? "-" : parentJob.getId()) + ":" + running;
+  }
+
+}
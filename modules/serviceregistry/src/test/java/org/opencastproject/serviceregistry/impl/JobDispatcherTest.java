@@ -0,0 +1,138 @@
+/*
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.serviceregistry.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the dispatch rounds triggered by queued or restarted jobs. The dispatch rounds themselves are replaced by a
+ * runnable which only records when it was started.
+ */
+public class JobDispatcherTest {
+
+  private static final long TRIGGER_DELAY = 300L; // in ms
+
+  private TestJobDispatcher dispatcher;
+
+  @Before
+  public void setUp() {
+    dispatcher = new TestJobDispatcher();
+    dispatcher.scheduledExecutor = (ScheduledThreadPoolExecutor) Executors.newScheduledThreadPool(1);
+    dispatcher.updated(properties(true));
+  }
+
+  @After
+  public void tearDown() {
+    dispatcher.scheduledExecutor.shutdownNow();
+  }
+
+  @Test
+  public void testTriggeredDispatchRunsAfterDelay() throws Exception {
+    // the first round starts right away
+    dispatcher.requestDispatch();
+    assertTrue(dispatcher.awaitRounds(1));
+
+    // the next round keeps the minimum distance to the previous one
+    dispatcher.requestDispatch();
+    assertTrue(dispatcher.awaitRounds(2));
+    long distance = dispatcher.rounds.get(1) - dispatcher.rounds.get(0);
+    assertTrue("Rounds started " + distance + "ms apart", distance >= TRIGGER_DELAY);
+  }
+
+  @Test
+  public void testBurstOfTriggersIsCoalesced() throws Exception {
+    dispatcher.requestDispatch();
+    assertTrue(dispatcher.awaitRounds(1));
+
+    // a burst of jobs queued from several threads while the next round is pending
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread(() -> {
+        for (int j = 0; j < 50; j++) {
+          dispatcher.requestDispatch();
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(dispatcher.awaitRounds(2));
+
+    // no further rounds follow
+    Thread.sleep(TRIGGER_DELAY * 2);
+    assertEquals(2, dispatcher.rounds.size());
+  }
+
+  @Test
+  public void testTriggerCanBeDisabled() throws Exception {
+    dispatcher.updated(properties(false));
+    dispatcher.requestDispatch();
+    Thread.sleep(TRIGGER_DELAY);
+    assertEquals(0, dispatcher.rounds.size());
+  }
+
+  private static Dictionary<String, Object> properties(boolean trigger) {
+    Dictionary<String, Object> properties = new Hashtable<>();
+    // periodic rounds must not interfere with the test
+    properties.put(JobDispatcher.OPT_DISPATCHINTERVAL, "3600");
+    properties.put(JobDispatcher.OPT_DISPATCHTRIGGER, Boolean.toString(trigger));
+    properties.put(JobDispatcher.OPT_DISPATCHTRIGGERDELAY, Long.toString(TRIGGER_DELAY));
+    return properties;
+  }
+
+  /** Job dispatcher recording the start of its dispatch rounds */
+  private static class TestJobDispatcher extends JobDispatcher {
+
+    private final List<Long> rounds = new CopyOnWriteArrayList<>();
+    private final CountDownLatch[] latches = { new CountDownLatch(1), new CountDownLatch(2) };
+
+    @Override
+    Runnable getJobDispatcherRunnable() {
+      return () -> {
+        startDispatchRound();
+        rounds.add(System.currentTimeMillis());
+        for (CountDownLatch latch : latches) {
+          latch.countDown();
+        }
+      };
+    }
+
+    boolean awaitRounds(int rounds) throws InterruptedException {
+      return latches[rounds - 1].await(TRIGGER_DELAY * 10, TimeUnit.MILLISECONDS);
+    }
+  }
+}
@@ -26,6 +26,7 @@ import static org.junit.Assert.assertThrows;
 import static org.opencastproject.db.DBTestEnv.getDbSessionFactory;
 import static org.opencastproject.db.DBTestEnv.newEntityManagerFactory;
 
+import org.opencastproject.job.api.JaxbJobList;
 import org.opencastproject.job.api.Job;
 import org.opencastproject.job.api.Job.Status;
 import org.opencastproject.job.api.JobBarrier;
@@ -54,6 +55,7 @@ import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.HttpVersion;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.message.BasicHttpResponse;
 import org.apache.http.message.BasicStatusLine;
 import org.easymock.Capture;
@@ -76,6 +78,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -83,11 +88,17 @@ import java.util.Date;
 import java.util.Dictionary;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.management.ObjectInstance;
 import javax.persistence.EntityManagerFactory;
+import javax.xml.bind.JAXBContext;
 
 public class ServiceRegistryJpaImplTest {
   private static final Logger logger = LoggerFactory.getLogger(ServiceRegistryJpaImplTest.class);
@@ -502,6 +513,203 @@ public class ServiceRegistryJpaImplTest {
     Assert.assertNotNull(updatedJob.getRunTime());
   }
 
+  @Test
+  public void testWaitForJobsWakesUpOnJobCompletion() throws Exception {
+    Job job = serviceRegistryJpaImpl.createJob(TEST_HOST, TEST_SERVICE, TEST_PATH, null, null, true, null, 1.0f);
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    try {
+      executor.schedule(() -> {
+        job.setStatus(Job.Status.FINISHED);
+        return serviceRegistryJpaImpl.updateJob(job);
+      }, 200, TimeUnit.MILLISECONDS);
+
+      long start = System.currentTimeMillis();
+      List<Job> jobs = serviceRegistryJpaImpl.waitForJobs(Collections.singletonList(job.getId()), 60000L);
+      Assert.assertTrue(System.currentTimeMillis() - start < 30000L);
+      assertEquals(1, jobs.size());
+      assertEquals(Job.Status.FINISHED, jobs.get(0).getStatus());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testWaitForJobsWakesUpOnJobRemoval() throws Exception {
+    Job job = serviceRegistryJpaImpl.createJob(TEST_HOST, TEST_SERVICE, TEST_PATH, null, null, true, null, 1.0f);
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    try {
+      executor.schedule(() -> {
+        serviceRegistryJpaImpl.removeJobs(Collections.singletonList(job.getId()));
+        return null;
+      }, 200, TimeUnit.MILLISECONDS);
+
+      long start = System.currentTimeMillis();
+      List<Job> jobs = serviceRegistryJpaImpl.waitForJobs(Collections.singletonList(job.getId()), 60000L);
+      Assert.assertTrue(System.currentTimeMillis() - start < 30000L);
+      assertEquals(0, jobs.size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testWaitForJobsWakesUpWhenServiceIsUnregistered() throws Exception {
+    Job job = serviceRegistryJpaImpl.createJob(TEST_HOST, TEST_SERVICE, TEST_OPERATION, null, null, false, null);
+    job.setStatus(Status.RUNNING);
+    Job running = serviceRegistryJpaImpl.updateJob(job);
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    try {
+      // The lost job is marked as failed without passing through updateJob
+      executor.schedule(() -> {
+        serviceRegistryJpaImpl.unRegisterService(TEST_SERVICE, TEST_HOST);
+        return null;
+      }, 200, TimeUnit.MILLISECONDS);
+
+      long start = System.currentTimeMillis();
+      List<Job> jobs = serviceRegistryJpaImpl.waitForJobs(Collections.singletonList(running.getId()), 60000L);
+      Assert.assertTrue(System.currentTimeMillis() - start < 30000L);
+      assertEquals(1, jobs.size());
+      assertEquals(Status.FAILED, jobs.get(0).getStatus());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testWaitForJobsOnOtherHost() throws Exception {
+    Job job = serviceRegistryJpaImpl.createJob(TEST_HOST_OTHER, TEST_SERVICE, TEST_OPERATION, null, null, false, null);
+    job.setStatus(Status.RUNNING);
+    Job running = serviceRegistryJpaImpl.updateJob(job);
+    assertEquals(TEST_HOST_OTHER, running.getProcessingHost());
+
+    // The other host reports the job as finished after a while
+    running.setStatus(Status.FINISHED);
+    StringWriter finished = new StringWriter();
+    JAXBContext.newInstance(JaxbJobList.class).createMarshaller()
+        .marshal(new JaxbJobList(Collections.singletonList(running)), finished);
+    Capture<HttpUriRequest> request = EasyMock.newCapture();
+    TrustedHttpClient remoteClient = EasyMock.createNiceMock(TrustedHttpClient.class);
+    EasyMock.expect(remoteClient.execute(EasyMock.capture(request), EasyMock.anyInt(), EasyMock.anyInt()))
+        .andAnswer(() -> {
+          Thread.sleep(200);
+          BasicHttpResponse response = new BasicHttpResponse(
+              new BasicStatusLine(new HttpVersion(1, 1), HttpStatus.SC_OK, "OK"));
+          response.setEntity(new StringEntity(finished.toString(), StandardCharsets.UTF_8));
+          return response;
+        });
+    EasyMock.replay(remoteClient);
+
+    TrustedHttpClient localClient = serviceRegistryJpaImpl.client;
+    serviceRegistryJpaImpl.setTrustedHttpClient(remoteClient);
+    try {
+      long start = System.currentTimeMillis();
+      List<Job> jobs = serviceRegistryJpaImpl.waitForJobs(Collections.singletonList(running.getId()), 60000L);
+      Assert.assertTrue(System.currentTimeMillis() - start < 30000L);
+      assertEquals(1, jobs.size());
+      String uri = request.getValue().getURI().toString();
+      Assert.assertTrue(uri, uri.startsWith(TEST_HOST_OTHER + ServiceRegistryJpaImpl.WAIT_FOR_JOBS_PATH));
+      Assert.assertTrue(uri, uri.contains("id=" + running.getId()));
+    } finally {
+      serviceRegistryJpaImpl.setTrustedHttpClient(localClient);
+    }
+  }
+
+  @Test
+  public void testWaitForJobsOnOtherHostAbortsRequest() throws Exception {
+    Job job = serviceRegistryJpaImpl.createJob(TEST_HOST_OTHER, TEST_SERVICE, TEST_OPERATION, null, null, false, null);
+    job.setStatus(Status.RUNNING);
+    Job running = serviceRegistryJpaImpl.updateJob(job);
+
+    // The other host does not answer until the request is aborted
+    Capture<HttpUriRequest> request = EasyMock.newCapture();
+    TrustedHttpClient remoteClient = EasyMock.createNiceMock(TrustedHttpClient.class);
+    EasyMock.expect(remoteClient.execute(EasyMock.capture(request), EasyMock.anyInt(), EasyMock.anyInt()))
+        .andAnswer(() -> {
+          while (!request.getValue().isAborted()) {
+            Thread.sleep(10);
+          }
+          throw new TrustedHttpClientException(new IOException("Request aborted"));
+        });
+    EasyMock.replay(remoteClient);
+
+    TrustedHttpClient localClient = serviceRegistryJpaImpl.client;
+    serviceRegistryJpaImpl.setTrustedHttpClient(remoteClient);
+    try {
+      List<Job> jobs = serviceRegistryJpaImpl.waitForJobs(Collections.singletonList(running.getId()), 500L);
+      assertEquals(Status.RUNNING, jobs.get(0).getStatus());
+      Assert.assertTrue(request.hasCaptured());
+      Assert.assertTrue(request.getValue().isAborted());
+    } finally {
+      serviceRegistryJpaImpl.setTrustedHttpClient(localClient);
+    }
+  }
+
+  @Test
+  public void testWaitForJobsOnOtherHostIsBounded() throws Exception {
+    Job job = serviceRegistryJpaImpl.createJob(TEST_HOST_OTHER, TEST_SERVICE, TEST_OPERATION, null, null, false, null);
+    job.setStatus(Status.RUNNING);
+    Job running = serviceRegistryJpaImpl.updateJob(job);
+
+    // Count the requests waiting on the other host at the same time
+    AtomicInteger active = new AtomicInteger();
+    AtomicInteger maxActive = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    TrustedHttpClient remoteClient = EasyMock.createNiceMock(TrustedHttpClient.class);
+    EasyMock.expect(remoteClient.execute(EasyMock.anyObject(), EasyMock.anyInt(), EasyMock.anyInt()))
+        .andAnswer(() -> {
+          maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+          try {
+            release.await(10, TimeUnit.SECONDS);
+          } finally {
+            active.decrementAndGet();
+          }
+          throw new TrustedHttpClientException(new IOException("Request aborted"));
+        }).anyTimes();
+    EasyMock.replay(remoteClient);
+
+    TrustedHttpClient localClient = serviceRegistryJpaImpl.client;
+    serviceRegistryJpaImpl.setTrustedHttpClient(remoteClient);
+    ExecutorService waiters = Executors.newFixedThreadPool(ServiceRegistryJpaImpl.MAX_REMOTE_WAITS * 2);
+    try {
+      List<Future<List<Job>>> results = new ArrayList<>();
+      for (int i = 0; i < ServiceRegistryJpaImpl.MAX_REMOTE_WAITS * 2; i++) {
+        results.add(waiters.submit(
+            () -> serviceRegistryJpaImpl.waitForJobs(Collections.singletonList(running.getId()), 1000L)));
+      }
+      // Waiters beyond the limit still return once their timeout is up
+      for (Future<List<Job>> result : results) {
+        assertEquals(1, result.get(30, TimeUnit.SECONDS).size());
+      }
+      Assert.assertTrue(maxActive.get() > 0);
+      Assert.assertTrue(maxActive.get() <= ServiceRegistryJpaImpl.MAX_REMOTE_WAITS);
+    } finally {
+      release.countDown();
+      waiters.shutdownNow();
+      serviceRegistryJpaImpl.setTrustedHttpClient(localClient);
+    }
+  }
+
+  @Test
+  public void testWaitForJobsReturnsImmediately() throws Exception {
+    Job job = serviceRegistryJpaImpl.createJob(TEST_HOST, TEST_SERVICE, TEST_PATH, null, null, true, null, 1.0f);
+    job.setStatus(Job.Status.FAILED);
+    serviceRegistryJpaImpl.updateJob(job);
+    Job running = serviceRegistryJpaImpl.createJob(TEST_HOST, TEST_SERVICE, TEST_PATH, null, null, true, null, 1.0f);
+
+    // One of the jobs has already terminated
+    long start = System.currentTimeMillis();
+    List<Job> jobs = serviceRegistryJpaImpl.waitForJobs(Arrays.asList(job.getId(), running.getId()), 60000L);
+    Assert.assertTrue(System.currentTimeMillis() - start < 30000L);
+    assertEquals(2, jobs.size());
+
+    // One of the jobs does not exist
+    start = System.currentTimeMillis();
+    jobs = serviceRegistryJpaImpl.waitForJobs(Arrays.asList(running.getId(), Long.MAX_VALUE), 60000L);
+    Assert.assertTrue(System.currentTimeMillis() - start < 30000L);
+    assertEquals(1, jobs.size());
+    assertEquals(running.getId(), jobs.get(0).getId());
+  }
+
   @Test
   public void testErrorState() throws Exception {
     // set max attempts to 1
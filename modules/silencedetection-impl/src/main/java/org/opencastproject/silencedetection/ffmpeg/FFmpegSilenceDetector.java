@@ -66,6 +66,12 @@ public class FFmpegSilenceDetector {
   private static String binary = FFMPEG_BINARY_DEFAULT;
   private String filePath;
   private String trackId;
+  private long trackDuration;
+  private String filter;
+  private long minSilenceLength;
+  private long minVoiceLength;
+  private long preSilenceLength;
+  private List<String> segmentsStrings = new LinkedList<>();
 
   private List<MediaSegment> segments = null;
 
@@ -100,11 +106,40 @@ public class FFmpegSilenceDetector {
    */
   public FFmpegSilenceDetector(Properties properties, Track track, Workspace workspace)
           throws SilenceDetectionFailedException, MediaPackageException, IOException {
+    this(properties, track, getMediaFile(track, workspace));
 
-    long minSilenceLength;
-    long minVoiceLength;
-    long preSilenceLength;
-    String thresholdDB;
+    String[] command = new String[] {
+        binary, "-nostats", "-nostdin", "-i", filePath, "-vn", "-filter:a", filter, "-f", "null", "-"};
+
+    logger.info("Running {}", (Object) command);
+
+    ProcessBuilder pbuilder = new ProcessBuilder(command);
+    Process process = pbuilder.start();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
+      String line = reader.readLine();
+      while (null != line) {
+        logger.debug("FFmpeg output: {}", line);
+        parse(line);
+        line = reader.readLine();
+      }
+    } catch (IOException e) {
+      logger.error("Error executing ffmpeg", e);
+    }
+
+    complete();
+  }
+
+  /**
+   * Create a nonsilent sequences detection which is run by another FFmpeg process applying {@link #getFilter()} to the
+   * audio stream of the track. The output of the process has to be passed to {@link #parse(String)} before calling
+   * {@link #complete()}.
+   *
+   * @param properties
+   * @param track source track
+   * @param mediaFile the media file of the source track
+   */
+  public FFmpegSilenceDetector(Properties properties, Track track, File mediaFile)
+          throws SilenceDetectionFailedException, MediaPackageException {
 
     //Ensure properties is not null, avoids null checks later
     if (null == properties) {
@@ -114,16 +149,10 @@ public class FFmpegSilenceDetector {
     minSilenceLength = parseLong(properties, SilenceDetectionProperties.SILENCE_MIN_LENGTH, DEFAULT_SILENCE_MIN_LENGTH);
     minVoiceLength = parseLong(properties, SilenceDetectionProperties.VOICE_MIN_LENGTH, DEFAULT_VOICE_MIN_LENGTH);
     preSilenceLength = parseLong(properties, SilenceDetectionProperties.SILENCE_PRE_LENGTH, DEFAULT_SILENCE_PRE_LENGTH);
-    thresholdDB = properties.getProperty(SilenceDetectionProperties.SILENCE_THRESHOLD_DB, DEFAULT_THRESHOLD_DB);
+    String thresholdDB = properties.getProperty(SilenceDetectionProperties.SILENCE_THRESHOLD_DB, DEFAULT_THRESHOLD_DB);
 
     trackId = track.getIdentifier();
 
-    /* Make sure the element can be analyzed using this analysis implementation */
-    if (!track.hasAudio()) {
-      logger.warn("Track {} has no audio stream to run a silece detection on", trackId);
-      throw new SilenceDetectionFailedException("Element has no audio stream");
-    }
-
     /* Make sure we are not allowed to move the beginning of a segment into the last segment */
     if (preSilenceLength > minSilenceLength) {
       logger.error("Pre silence length ({}) is configured to be greater than minimun silence length ({})",
@@ -131,45 +160,65 @@ public class FFmpegSilenceDetector {
       throw new SilenceDetectionFailedException("preSilenceLength > minSilenceLength");
     }
 
-    try {
-      File mediaFile = workspace.get(track.getURI());
-      filePath = mediaFile.getAbsolutePath();
-    } catch (NotFoundException e) {
-      throw new SilenceDetectionFailedException("Error finding the media file in workspace", e);
-    } catch (IOException e) {
-      throw new SilenceDetectionFailedException("Error reading media file in workspace", e);
-    }
+    filePath = mediaFile.getAbsolutePath();
 
     if (track.getDuration() == null) {
       throw new MediaPackageException("Track " + trackId + " does not have a duration");
     }
+    trackDuration = track.getDuration();
     logger.debug("Track {} loaded, duration is {} s", filePath, track.getDuration() / 1000);
     logger.info("Starting silence detection of {}", filePath);
     DecimalFormat decimalFmt = new DecimalFormat("0.000", new DecimalFormatSymbols(Locale.US));
     String minSilenceLengthInSeconds = decimalFmt.format((double) minSilenceLength / 1000.0);
-    String filter = "silencedetect=noise=" + thresholdDB + ":duration=" + minSilenceLengthInSeconds;
-    String[] command = new String[] {
-        binary, "-nostats", "-nostdin", "-i", filePath, "-vn", "-filter:a", filter, "-f", "null", "-"};
+    filter = "silencedetect=noise=" + thresholdDB + ":duration=" + minSilenceLengthInSeconds;
+  }
 
-    logger.info("Running {}", (Object) command);
+  /**
+   * Returns the local media file of a track with an audio stream.
+   *
+   * @param track source track
+   * @param workspace the workspace to get the file from
+   * @return the media file
+   */
+  private static File getMediaFile(Track track, Workspace workspace) throws SilenceDetectionFailedException {
+    /* Make sure the element can be analyzed using this analysis implementation */
+    if (!track.hasAudio()) {
+      logger.warn("Track {} has no audio stream to run a silece detection on", track.getIdentifier());
+      throw new SilenceDetectionFailedException("Element has no audio stream");
+    }
 
-    ProcessBuilder pbuilder = new ProcessBuilder(command);
-    List<String> segmentsStrings = new LinkedList<String>();
-    Process process = pbuilder.start();
-    try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
-      String line = reader.readLine();
-      while (null != line) {
-        /* We want only lines from the silence detection filter */
-        logger.debug("FFmpeg output: {}", line);
-        if (line.startsWith("[silencedetect ")) {
-          segmentsStrings.add(line);
-        }
-        line = reader.readLine();
-      }
+    try {
+      return workspace.get(track.getURI());
+    } catch (NotFoundException e) {
+      throw new SilenceDetectionFailedException("Error finding the media file in workspace", e);
     } catch (IOException e) {
-      logger.error("Error executing ffmpeg", e);
+      throw new SilenceDetectionFailedException("Error reading media file in workspace", e);
+    }
+  }
+
+  /**
+   * Returns the FFmpeg audio filter detecting the silent sequences.
+   * @return the silencedetect filter
+   */
+  public String getFilter() {
+    return filter;
+  }
+
+  /**
+   * Parse a line of the FFmpeg output. Lines not printed by the silence detection filter are ignored.
+   * @param line a line of the FFmpeg output
+   */
+  public void parse(String line) {
+    /* We want only lines from the silence detection filter */
+    if (line.startsWith("[silencedetect ")) {
+      segmentsStrings.add(line);
     }
+  }
 
+  /**
+   * Create the nonsilent media segments from the parsed FFmpeg output.
+   */
+  public void complete() {
     /*
      * Example output:
      * [silencedetect @ 0x2968e40] silence_start: 466.486
@@ -216,10 +265,10 @@ public class FFmpegSilenceDetector {
         }
       }
       /* Add last segment if it is no silence and the segment is long enough */
-      if (lastSilenceStart < lastSilenceEnd && track.getDuration() - lastSilenceEnd > minVoiceLength) {
+      if (lastSilenceStart < lastSilenceEnd && trackDuration - lastSilenceEnd > minVoiceLength) {
         long segmentStart = java.lang.Math.max(0, lastSilenceEnd - preSilenceLength);
-        logger.info("Adding final segment from {} to {}", segmentStart, track.getDuration());
-        segmentsTmp.add(new MediaSegment(segmentStart, track.getDuration()));
+        logger.info("Adding final segment from {} to {}", segmentStart, trackDuration);
+        segmentsTmp.add(new MediaSegment(segmentStart, trackDuration));
       }
     }
 
@@ -23,6 +23,12 @@ package org.opencastproject.silencedetection.impl;
 
 import org.opencastproject.job.api.AbstractJobProducer;
 import org.opencastproject.job.api.Job;
+import org.opencastproject.mediaanalysis.api.MediaAnalysis;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisException;
+import org.opencastproject.mediaanalysis.api.MediaAnalyzer;
+import org.opencastproject.mediapackage.Catalog;
+import org.opencastproject.mediapackage.MediaPackageElement;
+import org.opencastproject.mediapackage.MediaPackageElementBuilderFactory;
 import org.opencastproject.mediapackage.MediaPackageElementParser;
 import org.opencastproject.mediapackage.MediaPackageException;
 import org.opencastproject.mediapackage.Track;
@@ -41,6 +47,7 @@ import org.opencastproject.smil.api.SmilResponse;
 import org.opencastproject.smil.api.SmilService;
 import org.opencastproject.smil.entity.api.Smil;
 import org.opencastproject.util.LoadUtil;
+import org.opencastproject.util.NotFoundException;
 import org.opencastproject.workspace.api.Workspace;
 
 import org.apache.commons.lang3.StringUtils;
@@ -54,11 +61,17 @@ import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -69,9 +82,10 @@ import java.util.Properties;
         "service.description=Silence Detection Service"
     },
     immediate = true,
-    service = SilenceDetectionService.class
+    service = { SilenceDetectionService.class, MediaAnalyzer.class }
 )
-public class SilenceDetectionServiceImpl extends AbstractJobProducer implements SilenceDetectionService {
+public class SilenceDetectionServiceImpl extends AbstractJobProducer implements SilenceDetectionService,
+        MediaAnalyzer {
 
   /**
    * The logging instance
@@ -82,6 +96,12 @@ public class SilenceDetectionServiceImpl extends AbstractJobProducer implements
 
   private static final float DEFAULT_JOB_LOAD = 0.2f;
 
+  /** The type of the silence detection analysis of the media analysis service */
+  public static final String ANALYSIS_TYPE = "silence";
+
+  /** Resulting collection of the silence detection analysis in the working file repository */
+  public static final String COLLECTION_ID = "silencedetection";
+
   private float jobload = DEFAULT_JOB_LOAD;
 
   private enum Operation {
@@ -216,6 +236,82 @@ public class SilenceDetectionServiceImpl extends AbstractJobProducer implements
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.mediaanalysis.api.MediaAnalyzer#getAnalysisType()
+   */
+  @Override
+  public String getAnalysisType() {
+    return ANALYSIS_TYPE;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * The analysis creates a smil catalog with the non silent segments of the track, referring to the analyzed track
+   * only.
+   *
+   * @see org.opencastproject.mediaanalysis.api.MediaAnalyzer#prepare(org.opencastproject.job.api.Job,
+   *         org.opencastproject.mediapackage.Track, java.util.Map)
+   */
+  @Override
+  public MediaAnalysis prepare(Job job, Track track, Map<String, String> options) throws MediaAnalysisException {
+    if (!track.hasAudio()) {
+      throw new MediaAnalysisException("Element has no audio stream");
+    }
+    final FFmpegSilenceDetector silenceDetector;
+    try {
+      File mediaFile = workspace.get(track.getURI());
+      silenceDetector = new FFmpegSilenceDetector(properties, track, mediaFile);
+    } catch (NotFoundException e) {
+      throw new MediaAnalysisException("Error finding the media file in workspace", e);
+    } catch (IOException e) {
+      throw new MediaAnalysisException("Error reading media file in workspace", e);
+    } catch (SilenceDetectionFailedException | MediaPackageException e) {
+      throw new MediaAnalysisException(e);
+    }
+
+    return new MediaAnalysis() {
+      @Override
+      public Stream getStream() {
+        return Stream.Audio;
+      }
+
+      @Override
+      public String getFilter() {
+        return silenceDetector.getFilter();
+      }
+
+      @Override
+      public File getOutput() {
+        return null;
+      }
+
+      @Override
+      public void log(String line) {
+        silenceDetector.parse(line);
+      }
+
+      @Override
+      public MediaPackageElement complete() throws MediaAnalysisException {
+        silenceDetector.complete();
+        try {
+          Smil smil = generateSmil(silenceDetector.getMediaSegments(), Arrays.asList(track));
+          URI uri = workspace.putInCollection(COLLECTION_ID, smil.getId() + ".smil",
+              new ByteArrayInputStream(smil.toXML().getBytes(StandardCharsets.UTF_8)));
+          // it is up to the workflow operation handler to set the catalog flavor
+          Catalog catalog = (Catalog) MediaPackageElementBuilderFactory.newInstance().newElementBuilder()
+              .elementFromURI(uri, MediaPackageElement.Type.Catalog, track.getFlavor());
+          catalog.setIdentifier(smil.getId());
+          return catalog;
+        } catch (Exception e) {
+          throw new MediaAnalysisException("Failed to create smil document", e);
+        }
+      }
+    };
+  }
+
   /**
    * Create a smil from given parameters.
    *